@@ -0,0 +1,25 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Titik masuk benchmarks.jar. Sama dengan org.openjdk.jmh.Main, tetapi hasil selalu
+ * ditulis dalam format JSON (default: jmh-result.json) agar dapat dibandingkan antar-build.
+ * Opsi -rf / -rff dari baris perintah tetap diutamakan.
+ */
+public class LibraryBenchmarks {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
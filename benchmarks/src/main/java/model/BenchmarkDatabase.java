@@ -0,0 +1,124 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BenchmarkDatabase menyiapkan database H2 in-memory (mode MySQL) untuk benchmark.
+ * Konfigurasi JDBC diarahkan ke H2 lewat system property sebelum DatabaseConnection
+ * pertama kali dipakai, sehingga BookDAOImpl dan ConnectionPool yang diukur adalah
+ * kode aplikasi yang sama persis, hanya databasenya yang berbeda.
+ * Nilai yang sudah diberikan lewat -D (misalnya URL MySQL sungguhan) tidak ditimpa.
+ */
+final class BenchmarkDatabase {
+    static final String H2_URL = "jdbc:h2:mem:library_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static {
+        setDefault("library.jdbc.url", H2_URL);
+        setDefault("library.jdbc.driver", "org.h2.Driver");
+        setDefault("library.jdbc.username", "sa");
+        setDefault("library.jdbc.password", "");
+    }
+
+    private static final String[] AUTHORS = {
+            "Andrea Hirata", "Pramoedya Ananta Toer", "Tere Liye", "Dee Lestari", "Ahmad Tohari",
+            "Eka Kurniawan", "Leila S. Chudori", "Ayu Utami", "Habiburrahman El Shirazy", "Seno Gumira Ajidarma"
+    };
+
+    private BenchmarkDatabase() {
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    // Membuat ulang tabel books beserta tabel pelacakan perubahan (skema sama dengan
+    // sql/library_db.sql) dan mengisi books dengan rows buku
+    static void recreate(int rows) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS books");
+            stmt.execute("DROP TABLE IF EXISTS book_change_seq");
+            stmt.execute("DROP TABLE IF EXISTS book_tombstones");
+            stmt.execute("DROP TABLE IF EXISTS library_settings");
+            stmt.execute("CREATE TABLE books ("
+                    + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "title VARCHAR(255) NOT NULL, "
+                    + "author VARCHAR(255) NOT NULL, "
+                    + "publication_year INT NOT NULL, "
+                    + "storyline_score DOUBLE NOT NULL, "
+                    + "language_style_score DOUBLE NOT NULL, "
+                    + "originality_score DOUBLE NOT NULL, "
+                    + "rating DOUBLE NOT NULL, "
+                    + "version BIGINT NOT NULL DEFAULT 0, "
+                    + "created_version BIGINT NOT NULL DEFAULT 0)");
+            stmt.execute("CREATE INDEX idx_books_title_id ON books (title, id)");
+            stmt.execute("CREATE INDEX idx_books_author_id ON books (author, id)");
+            stmt.execute("CREATE INDEX idx_books_year_id ON books (publication_year, id)");
+            stmt.execute("CREATE INDEX idx_books_rating_id ON books (rating, id)");
+            stmt.execute("CREATE INDEX idx_books_rating_desc ON books (rating DESC, id)");
+            stmt.execute("CREATE INDEX idx_books_author_rating ON books (author, rating DESC, id)");
+            stmt.execute("CREATE INDEX idx_books_version ON books (version)");
+            stmt.execute("CREATE TABLE book_change_seq (id TINYINT PRIMARY KEY, seq BIGINT NOT NULL, "
+                    + "pruned_version BIGINT NOT NULL DEFAULT 0)");
+            stmt.execute("INSERT INTO book_change_seq (id, seq, pruned_version) VALUES (1, 1, 0)");
+            stmt.execute("CREATE TABLE book_tombstones (book_id INT NOT NULL, version BIGINT NOT NULL, created_version BIGINT NOT NULL DEFAULT 0, "
+                    + "deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (book_id, version))");
+            stmt.execute("CREATE INDEX idx_book_tombstones_version ON book_tombstones (version)");
+            stmt.execute("CREATE INDEX idx_book_tombstones_deleted_at ON book_tombstones (deleted_at)");
+            stmt.execute("CREATE TABLE library_settings (name VARCHAR(64) PRIMARY KEY, setting_value VARCHAR(255) NOT NULL)");
+        }
+        BookDAOImpl dao = new BookDAOImpl();
+        dao.setBatchSize(1_000);
+        for (int from = 0; from < rows; from += 10_000) {
+            dao.addBooks(sampleBooks(from, Math.min(10_000, rows - from)));
+        }
+    }
+
+    // Menyalin isi database primary (seluruh skema dan data) ke database H2 lain, sebagai
+    // replika yang posisinya sama dengan primary saat ini (dipakai ReplicaRouterBenchmark)
+    static void replicate(String replicaUrl) throws SQLException, IOException {
+        Path script = Files.createTempFile("library-replica", ".sql");
+        try {
+            // Perintah SCRIPT/RUNSCRIPT tanpa PreparedStatement: statement yang di-cache pool
+            // tidak menulis ulang berkas pada eksekusi berikutnya
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("SCRIPT TO '" + script + "'");
+            }
+            try (Connection conn = DriverManager.getConnection(replicaUrl,
+                    System.getProperty("library.jdbc.username"), System.getProperty("library.jdbc.password"));
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+                stmt.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    // Buku contoh yang deterministik: buku ke-i selalu sama, sehingga hasil antar-build sebanding
+    static List<Book> sampleBooks(int from, int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            Random random = new Random(i);
+            books.add(new Book("Buku ke-" + i + " " + Long.toString(random.nextLong() & 0xFFFFFFL, 36),
+                    AUTHORS[i % AUTHORS.length],
+                    1950 + random.nextInt(75),
+                    random.nextInt(51) / 10.0,
+                    random.nextInt(51) / 10.0,
+                    random.nextInt(51) / 10.0));
+        }
+        return books;
+    }
+}
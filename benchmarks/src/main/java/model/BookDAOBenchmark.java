@@ -0,0 +1,91 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark operasi CRUD BookDAOImpl dan getAllBooks pada beberapa ukuran tabel.
+ * Setiap operasi melewati ConnectionPool dan JDBC sungguhan (H2 in-memory), sehingga
+ * regresi pada SQL, pemetaan ResultSet, atau pool ikut terukur.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookDAOBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private BookDAOImpl dao;
+    private Book template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.recreate(rows);
+        dao = new BookDAOImpl();
+        template = BenchmarkDatabase.sampleBooks(rows, 1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.closeConnection();
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    @Benchmark
+    public Book getBookById() {
+        return dao.getBookById(randomId());
+    }
+
+    @Benchmark
+    public Book updateBook() {
+        Book book = new Book(template);
+        book.setId(randomId());
+        book.setStorylineScore(ThreadLocalRandom.current().nextInt(51) / 10.0);
+        return dao.updateBook(book);
+    }
+
+    // Tambah lalu hapus, agar ukuran tabel tetap sama selama pengukuran
+    @Benchmark
+    public boolean addAndDeleteBook() {
+        Book saved = dao.addBook(new Book(template));
+        return dao.deleteBook(saved.getId());
+    }
+
+    @Benchmark
+    public int getBooksAfterPage() {
+        Book after = new Book();
+        after.setId(randomId());
+        return dao.getBooksAfter(BookSortKey.ID, after, 50).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public List<Book> getAllBooks() {
+        return dao.getAllBooks();
+    }
+}
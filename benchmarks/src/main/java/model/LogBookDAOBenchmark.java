@@ -0,0 +1,105 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark LogBookDAO dengan operasi yang sama seperti BookDAOBenchmark, agar latensi
+ * penyimpanan berkas lokal dapat dibandingkan langsung dengan jalur JDBC.
+ * Parameter fsync=false mengukur biaya tanpa menunggu disk (hanya page cache OS).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogBookDAOBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path directory;
+    private LogBookDAO dao;
+    private Book template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("library-log-bench");
+        dao = new LogBookDAO(directory.resolve("books.log"), fsync, 0, Long.MAX_VALUE);
+        for (int from = 0; from < rows; from += 10_000) {
+            dao.addBooks(BenchmarkDatabase.sampleBooks(from, Math.min(10_000, rows - from)));
+        }
+        template = BenchmarkDatabase.sampleBooks(rows, 1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dao.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    @Benchmark
+    public Book getBookById() {
+        return dao.getBookById(randomId());
+    }
+
+    @Benchmark
+    public Book updateBook() {
+        Book book = new Book(template);
+        book.setId(randomId());
+        book.setStorylineScore(ThreadLocalRandom.current().nextInt(51) / 10.0);
+        return dao.updateBook(book);
+    }
+
+    @Benchmark
+    public boolean addAndDeleteBook() {
+        Book saved = dao.addBook(new Book(template));
+        return dao.deleteBook(saved.getId());
+    }
+
+    @Benchmark
+    public int getBooksAfterPage() {
+        Book after = new Book();
+        after.setId(randomId());
+        return dao.getBooksAfter(BookSortKey.ID, after, 50).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public List<Book> getAllBooks() {
+        return dao.getAllBooks();
+    }
+}
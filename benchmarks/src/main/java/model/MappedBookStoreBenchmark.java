@@ -0,0 +1,99 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark MappedBookStore / MappedBookDAO: akses acak per id, pemindaian kolom rating
+ * langsung dari buffer (tanpa objek Book) dibandingkan getAllBooks, dan leaderboard.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedBookStoreBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private Path directory;
+    private MappedBookDAO dao;
+    private MappedBookStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("library-mapped-bench");
+        dao = new MappedBookDAO(directory.resolve("books"), false);
+        store = dao.getStore();
+        for (int from = 0; from < rows; from += 10_000) {
+            dao.addBooks(BenchmarkDatabase.sampleBooks(from, Math.min(10_000, rows - from)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dao.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Book getBookById() {
+        return dao.getBookById(1 + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double scanAverageRating() {
+        double[] sum = {0};
+        store.scan(c -> {
+            sum[0] += c.rating();
+            return true;
+        });
+        return sum[0] / rows;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int[] idsPublishedInNineties() {
+        return store.idsPublishedBetween(1990, 1999);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Book> topRated() {
+        return dao.topRated(10, BookFilter.all());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public List<Book> getAllBooks() {
+        return dao.getAllBooks();
+    }
+}
@@ -0,0 +1,123 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pembacaan BookDAOImpl lewat ReplicaRouter: satu primary dan dua replika, semuanya
+ * database H2 in-memory dalam JVM yang sama. Replika diisi dengan salinan primary
+ * (BenchmarkDatabase.replicate), sehingga pembagian baca, health check, dan fallback ke
+ * primary dapat dicoba tanpa server MySQL.
+ *
+ * replicas=0 adalah pembanding tanpa router. Sebelum pengukuran, setUp memastikan pembacaan
+ * benar-benar dibagi ke kedua replika dan pembacaan setelah penulisan sendiri dilayani primary;
+ * jika tidak, benchmark gagal. Pembagian baca akhir dicetak saat tearDown.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ReplicaRouterBenchmark {
+    private static final int ROWS = 10_000;
+    private static final String[] REPLICA_URLS = {
+            "jdbc:h2:mem:library_replica1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:library_replica2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+    };
+    private static final long CHECK_INTERVAL_MS = 100;
+
+    @Param({"0", "2"})
+    public int replicas;
+
+    private BookDAOImpl dao;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException, InterruptedException {
+        // Konfigurasi dibaca DatabaseConnection sekali; setiap nilai replicas berjalan di JVM sendiri
+        System.setProperty("library.jdbc.replicaUrls", String.join(",", Arrays.copyOf(REPLICA_URLS, replicas)));
+        System.setProperty("library.replica.checkMs", Long.toString(CHECK_INTERVAL_MS));
+        BenchmarkDatabase.recreate(ROWS);
+        dao = new BookDAOImpl();
+        if (replicas == 0) {
+            return;
+        }
+        for (int i = 0; i < replicas; i++) {
+            BenchmarkDatabase.replicate(REPLICA_URLS[i]);
+        }
+        ReplicaRouter router = DatabaseConnection.getRouter();
+        awaitReplicaReads(router);
+
+        // Pembacaan setelah penulisan sendiri: replika belum memuat versi baru, jadi primary
+        Book book = dao.getBookById(1);
+        book.setTitle(book.getTitle() + " (diubah)");
+        dao.updateBook(book);
+        long primaryReads = router.getPrimaryReadCount();
+        if (!book.getTitle().equals(dao.getBookById(1).getTitle()) || router.getPrimaryReadCount() != primaryReads + 1) {
+            throw new IllegalStateException("Pembacaan setelah penulisan tidak dilayani primary: " + router);
+        }
+        for (int i = 0; i < replicas; i++) {
+            BenchmarkDatabase.replicate(REPLICA_URLS[i]);
+        }
+        awaitReplicaReads(router);
+        System.out.println(router);
+    }
+
+    // Menunggu health check menerima semua replika, lalu memastikan pembacaan dibagi ke setiap replika
+    private void awaitReplicaReads(ReplicaRouter router) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 50 * CHECK_INTERVAL_MS;
+        while (true) {
+            long[] before = router.getReplicaReadCounts();
+            long primaryReads = router.getPrimaryReadCount();
+            for (int id = 1; id <= 10 * replicas; id++) {
+                dao.getBookById(id);
+            }
+            long[] after = router.getReplicaReadCounts();
+            boolean balanced = router.getPrimaryReadCount() == primaryReads;
+            for (int i = 0; i < after.length; i++) {
+                balanced &= after[i] > before[i];
+            }
+            if (balanced) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Pembacaan tidak dibagi ke semua replika: " + router);
+            }
+            Thread.sleep(CHECK_INTERVAL_MS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.closeConnection();
+    }
+
+    @Benchmark
+    public Book getBookById() {
+        return dao.getBookById(1 + ThreadLocalRandom.current().nextInt(ROWS));
+    }
+
+    @Benchmark
+    public int countBooks() {
+        return dao.countBooks();
+    }
+}
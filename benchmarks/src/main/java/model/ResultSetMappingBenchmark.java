@@ -0,0 +1,87 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark mapResultSetToBook saja, tanpa biaya eksekusi query: ResultSet scrollable
+ * dibaca sekali saat setup, lalu setiap pemanggilan memetakan ulang seluruh barisnya.
+ * Hasil dilaporkan sebagai baris per detik (OperationsPerInvocation).
+ *
+ * mapByColumnName adalah pemetaan lama (kolom dicari berdasarkan nama, lalu setter yang
+ * masing-masing menghitung ulang rating) sebagai pembanding pemetaan berdasarkan posisi.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultSetMappingBenchmark {
+    private static final int ROWS = 1_000;
+
+    private Connection conn;
+    private Statement stmt;
+    private ResultSet rs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.recreate(ROWS);
+        conn = DatabaseConnection.getConnection();
+        stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        rs = stmt.executeQuery(BookDAOImpl.SELECT_BOOKS_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        rs.close();
+        stmt.close();
+        conn.close();
+        DatabaseConnection.closeConnection();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapResultSetToBook(Blackhole blackhole) throws SQLException {
+        rs.beforeFirst();
+        while (rs.next()) {
+            blackhole.consume(BookDAOImpl.mapResultSetToBook(rs));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapByColumnName(Blackhole blackhole) throws SQLException {
+        rs.beforeFirst();
+        while (rs.next()) {
+            Book book = new Book();
+            book.setId(rs.getInt("id"));
+            book.setTitle(rs.getString("title"));
+            book.setAuthor(rs.getString("author"));
+            book.setPublicationYear(rs.getInt("publication_year"));
+            book.setStorylineScore(rs.getDouble("storyline_score"));
+            book.setLanguageStyleScore(rs.getDouble("language_style_score"));
+            book.setOriginalityScore(rs.getDouble("originality_score"));
+            book.calculateRating();
+            blackhole.consume(book);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark cache PreparedStatement di ConnectionPool: operasi baca BookDAOImpl yang sama
+ * dengan cache dimatikan (statementCacheSize=0) dan dinyalakan. Setiap kombinasi parameter
+ * berjalan di JVM tersendiri, sehingga pool dibuat dengan ukuran cache yang diminta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementCacheBenchmark {
+    private static final int ROWS = 10_000;
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private final BookDAOImpl dao = new BookDAOImpl();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        System.setProperty("library.pool.statementCacheSize", Integer.toString(statementCacheSize));
+        BenchmarkDatabase.recreate(ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.closeConnection();
+    }
+
+    private static int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(ROWS);
+    }
+
+    @Benchmark
+    public Book getBookById() {
+        return dao.getBookById(randomId());
+    }
+
+    @Benchmark
+    public List<Book> getBooksByIds() {
+        return dao.getBooksByIds(randomId(), randomId(), randomId(), randomId(), randomId());
+    }
+
+    @Benchmark
+    public int countBooks() {
+        return dao.countBooks();
+    }
+}
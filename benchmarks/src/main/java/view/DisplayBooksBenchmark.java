@@ -0,0 +1,82 @@
+package view;
+
+import model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.swing.JTable;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pengisian model tabel seperti LibraryView.displayBooks: BookListTableModel.setBooks
+ * pada JTable dengan renderer yang sama, lalu menyiapkan renderer untuk satu layar pertama
+ * (VISIBLE_ROWS baris x semua kolom), yaitu pekerjaan yang dilakukan EDT sebelum tabel tampil.
+ *
+ * LibraryView sendiri adalah JFrame dan tidak dapat dibuat dalam mode headless (CI), jadi
+ * benchmark ini menyusun JTable-nya dengan konfigurasi yang sama seperti LibraryView.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class DisplayBooksBenchmark {
+    private static final int VISIBLE_ROWS = 40;
+
+    @Param({"100", "1000", "10000"})
+    public int books;
+
+    private List<Book> bookList;
+    private BookListTableModel model;
+    private JTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bookList = new ArrayList<>(books);
+        Random random = new Random(42);
+        for (int i = 0; i < books; i++) {
+            Book book = new Book("Buku " + i, "Penulis " + (i % 100), 1950 + random.nextInt(75),
+                    random.nextInt(51) / 10.0, random.nextInt(51) / 10.0, random.nextInt(51) / 10.0);
+            book.setId(i + 1);
+            bookList.add(book);
+        }
+        model = new BookListTableModel();
+        table = new JTable(model);
+        table.setAutoCreateColumnsFromModel(false);
+        TableColumnModel columns = table.getColumnModel();
+        ScoreCellRenderer scoreRenderer = new ScoreCellRenderer("0.0");
+        for (int column = 4; column <= 6; column++) {
+            columns.getColumn(column).setCellRenderer(scoreRenderer);
+        }
+        columns.getColumn(7).setCellRenderer(new ScoreCellRenderer("0.00"));
+    }
+
+    @Benchmark
+    public void displayBooks(Blackhole blackhole) {
+        model.setBooks(bookList);
+        int rows = Math.min(VISIBLE_ROWS, table.getRowCount());
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < table.getColumnCount(); column++) {
+                TableCellRenderer renderer = table.getCellRenderer(row, column);
+                blackhole.consume(table.prepareRenderer(renderer, row, column));
+            }
+        }
+    }
+}
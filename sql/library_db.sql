@@ -0,0 +1,90 @@
+-- Skema database library_db yang dipakai oleh BookDAOImpl.
+-- Jalankan pada server MySQL: mysql -u root < sql/library_db.sql
+-- Skrip aman dijalankan ulang: tabel, indeks, dan baris awal yang sudah ada dilewati.
+
+CREATE DATABASE IF NOT EXISTS library_db;
+USE library_db;
+
+CREATE TABLE IF NOT EXISTS books (
+    id                   INT AUTO_INCREMENT PRIMARY KEY,
+    title                VARCHAR(255) NOT NULL,
+    author               VARCHAR(255) NOT NULL,
+    publication_year     INT          NOT NULL,
+    storyline_score      DOUBLE       NOT NULL,
+    language_style_score DOUBLE       NOT NULL,
+    originality_score    DOUBLE       NOT NULL,
+    rating               DOUBLE       NOT NULL,
+    -- Versi perubahan terakhir dan versi saat buku dibuat (lihat book_change_seq)
+    version              BIGINT       NOT NULL DEFAULT 0,
+    created_version      BIGINT       NOT NULL DEFAULT 0
+);
+
+-- MySQL tidak mengenal CREATE INDEX IF NOT EXISTS: indeks dibuat lewat prosedur sementara
+-- yang memeriksa information_schema lebih dulu
+DROP PROCEDURE IF EXISTS create_index_if_missing;
+DELIMITER //
+CREATE PROCEDURE create_index_if_missing(IN table_name_in VARCHAR(64), IN index_name_in VARCHAR(64),
+                                         IN columns_in VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = table_name_in AND index_name = index_name_in) THEN
+        SET @create_index_sql = CONCAT('CREATE INDEX ', index_name_in, ' ON ', table_name_in, ' (', columns_in, ')');
+        PREPARE create_index_stmt FROM @create_index_sql;
+        EXECUTE create_index_stmt;
+        DEALLOCATE PREPARE create_index_stmt;
+    END IF;
+END //
+DELIMITER ;
+
+-- Indeks untuk pagination keyset: setiap kunci urutan diikuti id sebagai pemutus seri
+CALL create_index_if_missing('books', 'idx_books_title_id', 'title, id');
+CALL create_index_if_missing('books', 'idx_books_author_id', 'author, id');
+CALL create_index_if_missing('books', 'idx_books_year_id', 'publication_year, id');
+CALL create_index_if_missing('books', 'idx_books_rating_id', 'rating, id');
+
+-- Indeks untuk leaderboard (topRated): ORDER BY rating DESC, id LIMIT n dibaca langsung
+-- dari indeks tanpa mengurutkan tabel. Arah kedua kolom berlawanan, sehingga idx_books_rating_id
+-- yang dibaca mundur (rating DESC, id DESC) tidak dapat menggantikannya.
+-- Indeks menurun memerlukan MySQL 8.0 atau lebih baru.
+CALL create_index_if_missing('books', 'idx_books_rating_desc', 'rating DESC, id');
+CALL create_index_if_missing('books', 'idx_books_author_rating', 'author, rating DESC, id');
+
+-- Pelacakan perubahan untuk BookDAO.changesSince. book_change_seq berisi satu baris dengan
+-- nomor versi terakhir; setiap transaksi tulis menaikkannya dan menandai baris yang diubah.
+-- Buku yang dihapus dicatat di book_tombstones; pruned_version adalah versi tombstone terakhir
+-- yang sudah dibuang (klien dengan token lebih kecil harus memuat ulang semua data).
+-- seq dimulai dari 1 karena token 0 berarti "minta token awal".
+CALL create_index_if_missing('books', 'idx_books_version', 'version');
+
+CREATE TABLE IF NOT EXISTS book_change_seq (
+    id             TINYINT PRIMARY KEY,
+    seq            BIGINT  NOT NULL,
+    pruned_version BIGINT  NOT NULL DEFAULT 0
+);
+INSERT IGNORE INTO book_change_seq (id, seq, pruned_version) VALUES (1, 1, 0);
+
+CREATE TABLE IF NOT EXISTS book_tombstones (
+    book_id    INT       NOT NULL,
+    version    BIGINT    NOT NULL,
+    -- created_version buku yang dihapus: klien dengan token setelahnya tidak pernah melihatnya
+    created_version BIGINT NOT NULL DEFAULT 0,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (book_id, version)
+);
+CALL create_index_if_missing('book_tombstones', 'idx_book_tombstones_version', 'version');
+CALL create_index_if_missing('book_tombstones', 'idx_book_tombstones_deleted_at', 'deleted_at');
+
+-- Pengaturan bersama semua klien database yang sama, misalnya rumus rating yang dipakai
+-- kolom rating (rating.formula, dicatat oleh MainApp --rerate; belum ada = rata-rata biasa).
+CREATE TABLE IF NOT EXISTS library_settings (
+    name  VARCHAR(64)  PRIMARY KEY,
+    setting_value VARCHAR(255) NOT NULL
+);
+
+DROP PROCEDURE create_index_if_missing;
+
+-- Migrasi database lama (dibuat sebelum pelacakan perubahan): jalankan ALTER TABLE berikut
+-- sekali, lalu jalankan ulang skrip ini.
+-- ALTER TABLE books
+--     ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+--     ADD COLUMN created_version BIGINT NOT NULL DEFAULT 0;
@@ -1,18 +1,70 @@
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
+import model.AppConfig;
 import model.BookDAO;
 import model.BookDAOImpl;
+import model.BookTransferResult;
+import model.DataAccessException;
+import model.CachingBookDAO;
+import model.InstrumentedBookDAO;
+import model.LeaderboardBookDAO;
+import model.LogBookDAO;
+import model.MappedBookDAO;
+import model.RatingEngine;
+import model.ReRatingJob;
+import model.RemoteBookDAO;
+import model.SearchIndexBookDAO;
+import model.WriteBehindBookDAO;
+import model.DatabaseConnection;
 import view.LibraryView;
+import controller.BookHttpServer;
 import controller.LibraryController;
+import controller.StartupTimer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Kelas MainApp adalah titik masuk utama untuk aplikasi perpustakaan digital.
  * Ini menginisialisasi Model (DAO), View (GUI), dan Controller,
  * lalu menjalankan aplikasi.
+ *
+ * Cold start: jendela dibuat dan ditampilkan di EDT segera, sementara driver JDBC dan
+ * koneksi pertama disiapkan di thread latar dan rantai DAO dibuat di thread main;
+ * controller dipasang setelah keduanya siap dan memuat data tanpa menahan EDT.
  */
 public class MainApp {
+    // Ditutup saat aplikasi berhenti, terbalik dari urutan pembuatannya (decorator sebelum
+    // penyimpanan di bawahnya), sebelum pool koneksi database ditutup
+    private static final Deque<AutoCloseable> closeOnShutdown = new ArrayDeque<>();
+
     public static void main(String[] args) {
+        StartupTimer.start();
+
+        // Menutup penyimpanan lalu pool koneksi database saat aplikasi berhenti
+        Runtime.getRuntime().addShutdownHook(new Thread(MainApp::shutdown));
+
+        // Menghitung ulang semua rating dengan rumus library.rating.* lalu keluar: --rerate
+        if (args.length > 0 && "--rerate".equals(args[0])) {
+            System.exit(rerate() ? 0 : 1);
+            return;
+        }
+
+        // Mode server tanpa GUI: --server atau library.mode=server
+        if ((args.length > 0 && "--server".equals(args[0])) || "server".equalsIgnoreCase(AppConfig.get("library.mode", "desktop"))) {
+            runServer();
+            return;
+        }
+
+        // Driver JDBC dan koneksi database disiapkan bersamaan dengan pembuatan jendela
+        warmUpDataLayer();
+
         // Mengatur Look and Feel (opsional, untuk tampilan yang lebih modern)
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -20,22 +72,187 @@ public class MainApp {
             System.err.println("Gagal mengatur Look and Feel: " + e.getMessage());
         }
 
-        // Menjalankan aplikasi di Event Dispatch Thread (EDT) Swing
-        SwingUtilities.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                // Inisialisasi Model (DAO)
-                BookDAO bookDAO = new BookDAOImpl();
+        // Inisialisasi View di Event Dispatch Thread (EDT) Swing, lalu langsung ditampilkan
+        CompletableFuture<LibraryView> shown = new CompletableFuture<>();
+        SwingUtilities.invokeLater(() -> {
+            LibraryView libraryView = new LibraryView();
+            libraryView.onFirstPaint(StartupTimer::markFirstPaint);
+            libraryView.setStatus("Memuat katalog...");
+            libraryView.setVisible(true);
+            shown.complete(libraryView);
+        });
+
+        // Inisialisasi Model (DAO) di thread main, bersamaan dengan pembuatan jendela
+        InstrumentedBookDAO bookDAO = createBookDAO();
+
+        // Inisialisasi Controller di EDT setelah jendela tampil
+        shown.thenAccept(libraryView -> SwingUtilities.invokeLater(() -> new LibraryController(libraryView, bookDAO)));
+    }
+
+    // Memuat driver dan membuka koneksi (library.startup.warmConnections, default 2: jumlah
+    // baris dan halaman pertama dimuat bersamaan) di thread latar; hanya untuk penyimpanan jdbc
+    private static void warmUpDataLayer() {
+        if (!AppConfig.get("library.remote.url", "").isEmpty()
+                || !"jdbc".equalsIgnoreCase(AppConfig.get("library.storage", "jdbc"))) {
+            return;
+        }
+        Thread warmUp = new Thread(() -> {
+            try {
+                DatabaseConnection.warmUp(AppConfig.getInt("library.startup.warmConnections", 2));
+            } catch (SQLException e) {
+                // Tidak fatal: query pertama akan mencoba membuka koneksi lagi dan melaporkan kesalahannya
+                System.err.println("Gagal menyiapkan koneksi database: " + e.getMessage());
+            }
+        }, "library-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
 
-                // Inisialisasi View
-                LibraryView libraryView = new LibraryView();
+    // Server buku (library.server.host/port, bawaan hanya localhost): rantai DAO yang sama dengan aplikasi desktop, termasuk
+    // cache, indeks pencarian, dan leaderboard, dibagi oleh semua klien RemoteBookDAO
+    private static void runServer() {
+        BookDAO source = createSource();
+        InstrumentedBookDAO bookDAO = createBookDAO(source);
+        InetSocketAddress address = new InetSocketAddress(AppConfig.get("library.server.host", "127.0.0.1"),
+                AppConfig.getInt("library.server.port", 8080));
+        try {
+            BookHttpServer server = new BookHttpServer(bookDAO, source, address);
+            closeAtShutdown(server); // Ditutup paling awal, sebelum write-behind dan penyimpanan
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Gagal menjalankan server buku di " + address + ": " + e.getMessage());
+            System.exit(1);
+        }
+        useAppliedRatingFormula(bookDAO);
+    }
 
-                // Inisialisasi Controller
-                new LibraryController(libraryView, bookDAO);
+    // Rumus rating yang tercatat di penyimpanan dipasang di latar belakang (statistik penulis
+    // untuk rumus bayesian dihitung dari seluruh katalog); tidak ada rating yang ditulis ulang
+    private static void useAppliedRatingFormula(BookDAO bookDAO) {
+        Thread prepare = new Thread(() -> {
+            try {
+                ReRatingJob.useApplied(bookDAO);
+            } catch (RuntimeException e) {
+                System.err.println("Gagal menyiapkan rumus rating: " + e.getMessage());
+            }
+        }, "library-rating");
+        prepare.setDaemon(true);
+        prepare.start();
+    }
 
-                // Tampilkan View
-                libraryView.setVisible(true);
+    // Satu-satunya tempat rating seluruh katalog dihitung ulang: rumus library.rating.* diterapkan
+    // ke penyimpanan (bukan lewat server buku) lalu dicatat di sana. Proses lain yang sedang
+    // berjalan menerima rating baru lewat change feed, tetapi memakai rumus baru untuk
+    // penulisannya sendiri baru setelah dimulai ulang.
+    private static boolean rerate() {
+        RatingEngine engine = RatingEngine.fromConfig();
+        BookDAO storage = createStorage();
+        ReRatingJob job = new ReRatingJob(storage, engine);
+        int[] reported = {0};
+        job.setListener((rows, fraction, rowsPerSecond) -> {
+            if (fraction * 10 >= reported[0] + 1) { // Setiap 10%
+                reported[0] = (int) (fraction * 10);
+                System.out.printf("Menghitung ulang rating: %,d buku (%.0f%%, %,.0f buku/detik)%n", rows, fraction * 100, rowsPerSecond);
             }
         });
+        try {
+            BookTransferResult result = job.run();
+            ReRatingJob.recordApplied(storage, engine);
+            System.out.println("Rating dihitung ulang dengan rumus " + engine.describe() + ": " + result);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Gagal menghitung ulang rating: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Model (DAO) dengan cache di depan penyimpanan, indeks pencarian, dan leaderboard di memori.
+    // Paling luar: pencatat latensi per operasi, seperti yang dirasakan oleh pemanggilnya.
+    // Jika library.remote.url diisi, buku dibaca dari server buku; pencarian dan leaderboard
+    // sudah dijalankan server, sehingga di sisi klien cukup cache.
+    private static InstrumentedBookDAO createBookDAO() {
+        return createBookDAO(createSource());
+    }
+
+    private static InstrumentedBookDAO createBookDAO(BookDAO source) {
+        InstrumentedBookDAO bookDAO;
+        if (source instanceof RemoteBookDAO) {
+            bookDAO = new InstrumentedBookDAO(new CachingBookDAO(source));
+        } else {
+            bookDAO = new InstrumentedBookDAO(
+                    new LeaderboardBookDAO(new SearchIndexBookDAO(new CachingBookDAO(withWriteBehind(source)))));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.print(bookDAO.report());
+            bookDAO.close();
+        }));
+        return bookDAO;
+    }
+
+    // Sumber buku paling bawah rantai DAO: server buku jika library.remote.url diisi, selain itu penyimpanan lokal
+    private static BookDAO createSource() {
+        String remoteUrl = AppConfig.get("library.remote.url", "");
+        return remoteUrl.isEmpty() ? createStorage() : new RemoteBookDAO(remoteUrl);
+    }
+
+    // Penyimpanan dipilih lewat library.storage: "jdbc" (MySQL, default), "log" (berkas log lokal tanpa server)
+    // atau "mapped" (berkas record berukuran tetap yang dipetakan ke memori). Skema jdbc yang tidak
+    // lengkap menghentikan aplikasi di sini, bukan pada penulisan pertama.
+    private static BookDAO createStorage() {
+        String storage = AppConfig.get("library.storage", "jdbc");
+        if ("log".equalsIgnoreCase(storage)) {
+            LogBookDAO logDAO = new LogBookDAO(Paths.get(AppConfig.get("library.log.path", "data/books.log")));
+            closeAtShutdown(logDAO);
+            return logDAO;
+        }
+        if ("mapped".equalsIgnoreCase(storage)) {
+            MappedBookDAO mappedDAO = new MappedBookDAO(Paths.get(AppConfig.get("library.mapped.path", "data/books")));
+            closeAtShutdown(mappedDAO);
+            return mappedDAO;
+        }
+        if (!"jdbc".equalsIgnoreCase(storage)) {
+            System.err.println("Nilai library.storage tidak dikenal: " + storage + " (gunakan jdbc, log atau mapped), memakai jdbc");
+        }
+        BookDAOImpl jdbcDAO = new BookDAOImpl();
+        try {
+            jdbcDAO.checkSchema();
+        } catch (DataAccessException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        return jdbcDAO;
+    }
+
+    // Write-behind (opsional, library.writeBehind.enabled): perubahan buku ditunda dan digabung
+    // per id, lalu ditulis per batch; berada tepat di atas penyimpanan, di bawah cache
+    private static BookDAO withWriteBehind(BookDAO storage) {
+        if (!AppConfig.getBoolean("library.writeBehind.enabled", false)) {
+            return storage;
+        }
+        WriteBehindBookDAO writeBehind = new WriteBehindBookDAO(storage);
+        closeAtShutdown(writeBehind);
+        return writeBehind;
+    }
+
+    private static void closeAtShutdown(AutoCloseable resource) {
+        synchronized (closeOnShutdown) {
+            closeOnShutdown.push(resource);
+        }
+    }
+
+    // Satu shutdown hook agar urutannya pasti: sisa write-behind ditulis sebelum penyimpanan
+    // dan pool koneksi ditutup (shutdown hook terpisah berjalan bersamaan tanpa urutan)
+    private static void shutdown() {
+        synchronized (closeOnShutdown) {
+            while (!closeOnShutdown.isEmpty()) {
+                AutoCloseable resource = closeOnShutdown.pop();
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    System.err.println("Gagal menutup " + resource + ": " + e.getMessage());
+                }
+            }
+        }
+        DatabaseConnection.closeConnection();
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package controller;
+
+import model.AsyncBookDAO;
+import model.Book;
+import model.BookAnalytics;
+import model.BookChanges;
+import model.BookGrouping;
+import view.AnalyticsPanel;
+import view.LibraryView;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * AnalyticsController mengisi tab analitik. Saat tab pertama kali dibuka, agregat dari
+ * database (BookDAO.groupStats) ditampilkan lebih dulu, sementara BookAnalytics dibangun di
+ * latar belakang untuk median dan distribusi. Setelah itu statistik diperbarui per buku dari
+ * perubahan yang diterima LibraryController (change feed dan operasi sendiri), tanpa membaca
+ * ulang katalog.
+ *
+ * Semua metode dipanggil dari Event Dispatch Thread.
+ */
+public class AnalyticsController {
+    private final LibraryView view;
+    private final AnalyticsPanel panel;
+    private final AsyncBookDAO bookDAO;
+
+    private BookAnalytics analytics; // null selama belum dibangun atau perlu dibangun ulang
+    private boolean building;
+    private int generation;
+    // Perubahan yang tiba selama pembangunan; diterapkan ulang setelahnya (upsert/remove idempoten)
+    private final List<Consumer<BookAnalytics>> pendingUpdates = new ArrayList<>();
+
+    public AnalyticsController(LibraryView view, AsyncBookDAO bookDAO) {
+        this.view = view;
+        this.panel = view.getAnalyticsPanel();
+        this.bookDAO = bookDAO;
+
+        view.addTabChangeListener(e -> {
+            if (view.isAnalyticsVisible() && analytics == null && !building) {
+                refresh();
+            }
+        });
+        panel.addOptionListener(e -> render());
+        panel.addRefreshListener(e -> refresh());
+    }
+
+    // Membangun ulang statistik dari seluruh katalog
+    public void refresh() {
+        final int expected = ++generation;
+        analytics = null;
+        building = true;
+        pendingUpdates.clear();
+        panel.setStatus("Menghitung...");
+
+        // Agregat dari database biasanya jauh lebih cepat; tampilkan sambil menunggu
+        final BookGrouping grouping = panel.getGrouping();
+        bookDAO.groupStats(grouping).whenCompleteAsync((stats, error) -> {
+            if (expected != generation || analytics != null || error != null || stats == null
+                    || grouping != panel.getGrouping()) {
+                return;
+            }
+            panel.showStats(null, stats);
+            panel.setStatus("Agregat database; median dan distribusi sedang dihitung...");
+        }, SwingUtilities::invokeLater);
+
+        final long start = System.nanoTime();
+        bookDAO.supply(() -> BookAnalytics.load(bookDAO.getDelegate())).whenCompleteAsync((result, error) -> {
+            if (expected != generation) {
+                return; // Sudah digantikan oleh perhitungan yang lebih baru
+            }
+            building = false;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                panel.setStatus("Gagal menghitung analitik: " + cause.getMessage());
+                return;
+            }
+            for (Consumer<BookAnalytics> update : pendingUpdates) {
+                update.accept(result);
+            }
+            pendingUpdates.clear();
+            analytics = result;
+            render();
+            panel.setStatus(String.format("%,d buku (dihitung dalam %,d ms)", result.size(),
+                    (System.nanoTime() - start) / 1_000_000));
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Statistik tidak berlaku lagi (misalnya setelah impor atau muat ulang tabel)
+    public void invalidate() {
+        if (analytics == null && !building) {
+            return; // Belum pernah dihitung; akan dihitung saat tab dibuka
+        }
+        generation++;
+        analytics = null;
+        building = false;
+        pendingUpdates.clear();
+        if (view.isAnalyticsVisible()) {
+            refresh();
+        } else {
+            panel.setStatus("Data berubah; buka tab ini untuk menghitung ulang.");
+        }
+    }
+
+    // Perubahan dari change feed
+    public void apply(BookChanges changes) {
+        if (changes.isReloadRequired()) {
+            invalidate();
+            return;
+        }
+        update(a -> a.apply(changes));
+    }
+
+    // Buku yang ditambahkan atau diperbarui oleh pengguna ini
+    public void bookSaved(Book book) {
+        Book copy = new Book(book);
+        update(a -> a.upsert(copy));
+    }
+
+    public void bookDeleted(int id) {
+        update(a -> a.remove(id));
+    }
+
+    private void update(Consumer<BookAnalytics> update) {
+        if (building) {
+            pendingUpdates.add(update);
+        } else if (analytics != null) {
+            update.accept(analytics);
+            if (view.isAnalyticsVisible()) {
+                render();
+                panel.setStatus(String.format("%,d buku (diperbarui)", analytics.size()));
+            }
+        }
+    }
+
+    private void render() {
+        if (analytics != null) {
+            panel.showStats(analytics.overall(), analytics.stats(panel.getGrouping()));
+        } else if (!building && view.isAnalyticsVisible()) {
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package controller;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.AppConfig;
+import model.Book;
+import model.BookChanges;
+import model.BookDAO;
+import model.BookFilter;
+import model.BookGroupStats;
+import model.BookGrouping;
+import model.BookHttpProtocol;
+import model.BookJson;
+import model.BookSortKey;
+import model.BookValidator;
+import model.DaoExecutors;
+import model.DataAccessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookHttpServer menyajikan BookDAO sebagai API JSON lewat HttpServer bawaan JDK, untuk mode
+ * server tanpa GUI: banyak klien desktop (RemoteBookDAO) berbagi satu rantai DAO beserta
+ * cache, indeks pencarian, leaderboard, dan pool koneksinya, alih-alih masing-masing
+ * membuka koneksi dan membaca seluruh tabel sendiri. Format pesan ada di BookHttpProtocol.
+ *
+ * GET  /books?sort=&limit=&after_id=&after_key=   satu halaman (keyset), JSON Lines
+ * GET  /books/all                                 seluruh katalog, dialirkan per baris
+ * GET  /books/{id}, /books/count, /books/ids?ids=1,2, /books/search?q=&limit=,
+ *      /books/top?n=&author=&from=&to=, /books/changes?since=, /books/stats?group=
+ * POST /books, /books/batch, /books/delete;  PUT /books/{id}, /books/batch;  DELETE /books/{id}
+ *
+ * Penulisan (POST, PUT, DELETE) hanya diterima dengan header "Authorization: Bearer <token>"
+ * yang sama dengan library.server.writeToken; tanpa token yang dikonfigurasi, server hanya
+ * baca. Isi permintaan dibatasi library.server.maxBodyBytes, dan limit/n pencarian serta
+ * leaderboard dipangkas ke library.server.maxPageSize.
+ *
+ * GET mendukung If-None-Match. ETag daftar adalah token change feed katalog yang diperiksa
+ * sebelum query dijalankan, sehingga respons 304 tidak menyentuh penyimpanan; ETag satu buku
+ * adalah hash isinya. Perubahan dari server lain pada database yang sama diambil lewat
+ * changesSince setiap library.server.changesPollMs, yang juga membuang entri cache bersama.
+ * Hanya poll tersebut yang melewati rantai DAO: /books/changes?since= dengan token klien
+ * dijawab langsung dari penyimpanan (changeFeed), karena cache, indeks, dan leaderboard
+ * menambal dirinya sendiri dari setiap hasil changesSince yang melewatinya.
+ */
+public class BookHttpServer implements AutoCloseable {
+    private static final int MAX_PAGE_SIZE = AppConfig.getInt("library.server.maxPageSize", 10_000);
+    private static final long CHANGES_POLL_MS = AppConfig.getLong("library.server.changesPollMs", 1000L);
+    private static final int MAX_BODY_BYTES = AppConfig.getInt("library.server.maxBodyBytes", 8 << 20);
+    private static final String WRITE_TOKEN = AppConfig.get("library.server.writeToken", "");
+
+    private final BookDAO bookDAO;
+    private final BookDAO changeFeed;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService poller;
+
+    // Token change feed terakhir yang sudah diterapkan ke rantai DAO (-1 = perlu dibaca ulang).
+    // Jika penyimpanan tidak melacak perubahan, server ini satu-satunya penulis dan ETag
+    // daftar memakai nomor generasi yang naik setiap kali ada penulisan lewat server.
+    private final Object tokenLock = new Object();
+    private long changeToken = -1;
+    private long appliedToken;
+    private volatile boolean changesSupported = true;
+    private final AtomicLong generation = new AtomicLong();
+
+    // changeFeed: penyimpanan di bawah rantai bookDAO, untuk changesSince dengan token klien
+    public BookHttpServer(BookDAO bookDAO, BookDAO changeFeed, InetSocketAddress address) throws IOException {
+        this.bookDAO = bookDAO;
+        this.changeFeed = changeFeed;
+        this.server = HttpServer.create(address, 0);
+        this.executor = DaoExecutors.create("book-http");
+        server.setExecutor(executor);
+        server.createContext("/books", this::handle);
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "book-http-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollChanges, CHANGES_POLL_MS, CHANGES_POLL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Server buku berjalan di http://" + server.getAddress().getHostString()
+                + ":" + server.getAddress().getPort() + "/books");
+        if (WRITE_TOKEN.isEmpty()) {
+            System.out.println("library.server.writeToken tidak diisi: server hanya menerima pembacaan.");
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        server.stop(1); // Memberi waktu satu detik bagi permintaan yang sedang berjalan
+        executor.shutdown();
+    }
+
+    // ---------------------------------------------------------------- routing
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String rest = path.length() > "/books".length() ? path.substring("/books/".length()) : "";
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if ("GET".equals(method)) {
+                handleGet(exchange, rest, query);
+            } else if (!isAuthorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendError(exchange, WRITE_TOKEN.isEmpty() ? 403 : 401, WRITE_TOKEN.isEmpty()
+                        ? "Server hanya baca (library.server.writeToken tidak diisi)" : "Token penulisan tidak valid");
+            } else if ("POST".equals(method)) {
+                handlePost(exchange, rest);
+            } else if ("PUT".equals(method)) {
+                handlePut(exchange, rest);
+            } else if ("DELETE".equals(method) && isId(rest)) {
+                if (bookDAO.deleteBook(Integer.parseInt(rest))) {
+                    written();
+                    sendEmpty(exchange, 204);
+                } else {
+                    sendError(exchange, 404, "Buku tidak ditemukan: " + rest);
+                }
+            } else {
+                sendError(exchange, 405, "Metode tidak didukung: " + method + " " + path);
+            }
+        } catch (BodyTooLargeException e) {
+            sendError(exchange, 413, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (DataAccessException e) {
+            System.err.println("Permintaan " + exchange.getRequestURI() + " gagal: " + e.getMessage());
+            sendError(exchange, 500, e.getMessage());
+        } catch (UncheckedIOException e) {
+            // Klien memutus koneksi di tengah respons yang dialirkan; tidak ada yang perlu dikirim
+            System.err.println("Respons " + exchange.getRequestURI() + " terputus: " + e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Kesalahan tak terduga pada " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleGet(HttpExchange exchange, String rest, Map<String, String> query) throws IOException {
+        if (isId(rest)) {
+            Book book = bookDAO.getBookById(Integer.parseInt(rest));
+            if (book == null) {
+                sendError(exchange, 404, "Buku tidak ditemukan: " + rest);
+                return;
+            }
+            StringBuilder body = new StringBuilder(256);
+            BookJson.appendJson(body, book);
+            String json = body.toString();
+            sendText(exchange, BookHttpProtocol.JSON, json, contentTag(json));
+            return;
+        }
+        switch (rest) {
+            case "changes": {
+                // Tidak di-cache: tokennya sendiri sudah menjadi validator
+                BookChanges changes = changeFeed.changesSince(parseLong(query, "since", 0));
+                if (changes == null) {
+                    sendError(exchange, 501, "Penyimpanan tidak melacak perubahan");
+                    return;
+                }
+                StringBuilder body = new StringBuilder();
+                BookHttpProtocol.appendChangesHeader(body, changes);
+                for (Book book : changes.getInserted()) {
+                    BookHttpProtocol.appendChange(body, book, true);
+                }
+                for (Book book : changes.getUpdated()) {
+                    BookHttpProtocol.appendChange(body, book, false);
+                }
+                sendText(exchange, BookHttpProtocol.JSON_LINES, body.toString(), null);
+                return;
+            }
+            default:
+                break;
+        }
+
+        // Semua daftar di bawah ini bergantung pada isi katalog: 304 sebelum query dijalankan
+        String etag = catalogueTag();
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        switch (rest) {
+            case "": {
+                BookSortKey sortKey = parseSortKey(query.get("sort"));
+                int limit = parseInt(query, "limit", 100);
+                if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                    throw new IllegalArgumentException("limit harus di antara 1 dan " + MAX_PAGE_SIZE + ": " + limit);
+                }
+                Book after = null;
+                if (query.containsKey("after_id")) {
+                    after = BookHttpProtocol.afterProbe(sortKey, parseInt(query, "after_id", 0), query.get("after_key"));
+                }
+                sendBooks(exchange, bookDAO.getBooksAfter(sortKey, after, limit), etag);
+                return;
+            }
+            case "all":
+                streamAll(exchange, etag);
+                return;
+            case "count":
+                sendText(exchange, BookHttpProtocol.JSON, "{\"count\":" + bookDAO.countBooks() + "}", etag);
+                return;
+            case "ids":
+                sendBooks(exchange, bookDAO.getBooksByIds(BookHttpProtocol.parseIds(query.get("ids"))), etag);
+                return;
+            case "search":
+                sendBooks(exchange, bookDAO.searchBooks(require(query, "q"), clamp(parseInt(query, "limit", 50))), etag);
+                return;
+            case "top": {
+                BookFilter filter = BookFilter.all();
+                if (query.containsKey("author")) {
+                    filter = filter.withAuthor(query.get("author"));
+                }
+                if (query.containsKey("from") || query.containsKey("to")) {
+                    filter = filter.withYears(parseInt(query, "from", Integer.MIN_VALUE), parseInt(query, "to", Integer.MAX_VALUE));
+                }
+                sendBooks(exchange, bookDAO.topRated(clamp(parseInt(query, "n", 10)), filter), etag);
+                return;
+            }
+            case "stats": {
+                BookGrouping grouping = parseEnum(BookGrouping.class, require(query, "group"));
+                List<BookGroupStats> stats = bookDAO.groupStats(grouping);
+                if (stats == null) {
+                    sendError(exchange, 501, "Penyimpanan tidak mendukung agregat per kelompok");
+                    return;
+                }
+                StringBuilder body = new StringBuilder(stats.size() * 256);
+                for (BookGroupStats group : stats) {
+                    BookHttpProtocol.appendGroupStats(body, group);
+                }
+                sendText(exchange, BookHttpProtocol.JSON_LINES, body.toString(), etag);
+                return;
+            }
+            default:
+                sendError(exchange, 404, "Sumber tidak dikenal: /books/" + rest);
+        }
+    }
+
+    private void handlePost(HttpExchange exchange, String rest) throws IOException {
+        switch (rest) {
+            case "": {
+                Book saved = bookDAO.addBook(validated(BookJson.fromJson(readBody(exchange))));
+                written();
+                StringBuilder body = new StringBuilder(256);
+                BookJson.appendJson(body, saved);
+                send(exchange, 201, BookHttpProtocol.JSON, body.toString(), null);
+                return;
+            }
+            case "batch": {
+                List<Book> saved = bookDAO.addBooks(readBooks(exchange));
+                written();
+                sendBooks(exchange, saved, null);
+                return;
+            }
+            case "delete": {
+                int deleted = bookDAO.deleteBooks(BookHttpProtocol.parseIds(readBody(exchange)));
+                written();
+                sendText(exchange, BookHttpProtocol.JSON, "{\"deleted\":" + deleted + "}", null);
+                return;
+            }
+            default:
+                sendError(exchange, 404, "Sumber tidak dikenal: /books/" + rest);
+        }
+    }
+
+    private void handlePut(HttpExchange exchange, String rest) throws IOException {
+        if ("batch".equals(rest)) {
+            int updated = bookDAO.updateBooks(readBooks(exchange));
+            written();
+            sendText(exchange, BookHttpProtocol.JSON, "{\"updated\":" + updated + "}", null);
+            return;
+        }
+        if (!isId(rest)) {
+            sendError(exchange, 404, "Sumber tidak dikenal: /books/" + rest);
+            return;
+        }
+        Book book = validated(BookJson.fromJson(readBody(exchange)));
+        book.setId(Integer.parseInt(rest)); // Id di path yang berlaku
+        Book saved = bookDAO.updateBook(book);
+        written();
+        if (saved == null) {
+            sendError(exchange, 404, "Buku tidak ditemukan: " + rest);
+            return;
+        }
+        StringBuilder body = new StringBuilder(256);
+        BookJson.appendJson(body, saved);
+        sendText(exchange, BookHttpProtocol.JSON, body.toString(), null);
+    }
+
+    // ---------------------------------------------------------------- ETag dan change feed
+
+    // Token katalog sebagai ETag; null jika tidak diketahui (respons tanpa ETag)
+    private String catalogueTag() {
+        if (!changesSupported) {
+            return "\"g" + generation.get() + '"';
+        }
+        synchronized (tokenLock) {
+            if (changeToken < 0) {
+                pollChangesLocked();
+            }
+            return changeToken < 0 ? null : "\"c" + changeToken + '"';
+        }
+    }
+
+    // Penulisan lewat server ini: token berikutnya dibaca ulang sebelum ETag daftar dipakai
+    private void written() {
+        generation.incrementAndGet();
+        synchronized (tokenLock) {
+            changeToken = -1;
+        }
+    }
+
+    private void pollChanges() {
+        try {
+            synchronized (tokenLock) {
+                pollChangesLocked();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Gagal membaca perubahan katalog: " + e.getMessage());
+        }
+    }
+
+    // Menerapkan perubahan sejak token terakhir ke rantai DAO (cache, indeks, leaderboard) lalu
+    // memajukan token. Selalu dari appliedToken, bukan token 0, agar ETag tidak pernah
+    // mendahului isi cache bersama.
+    private void pollChangesLocked() {
+        if (!changesSupported) {
+            return;
+        }
+        BookChanges changes = bookDAO.changesSince(appliedToken);
+        if (changes == null) {
+            changesSupported = false;
+            return;
+        }
+        appliedToken = changes.getToken();
+        changeToken = appliedToken;
+    }
+
+    private static String contentTag(String body) {
+        return "\"b" + Integer.toHexString(body.hashCode()) + Integer.toHexString(body.length()) + '"';
+    }
+
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        if (etag == null) {
+            return false;
+        }
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(etag) || tag.equals("W/" + etag) || tag.equals("*")) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------- respons
+
+    // Seluruh katalog dialirkan dengan chunked transfer encoding, satu buku per baris,
+    // langsung dari cursor forEachBook tanpa menampungnya di memori. Status 200 sudah terkirim
+    // sebelum buku pertama dibaca, jadi aliran selalu ditutup baris penutup (jumlah buku atau
+    // kesalahan) yang diperiksa RemoteBookDAO; tanpa baris itu aliran dianggap terpotong.
+    private void streamAll(HttpExchange exchange, String etag) throws IOException {
+        setHeaders(exchange, BookHttpProtocol.JSON_LINES, etag);
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder(256);
+            try {
+                long count = bookDAO.forEachBook(book -> {
+                    line.setLength(0);
+                    BookJson.appendJson(line, book);
+                    line.append('\n');
+                    try {
+                        out.append(line);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                line.setLength(0);
+                BookHttpProtocol.appendStreamEnd(line, count);
+            } catch (DataAccessException e) {
+                System.err.println("Aliran " + exchange.getRequestURI() + " gagal: " + e.getMessage());
+                line.setLength(0);
+                BookHttpProtocol.appendStreamError(line, e.getMessage());
+            }
+            out.append(line);
+        }
+    }
+
+    private void sendBooks(HttpExchange exchange, List<Book> books, String etag) throws IOException {
+        setHeaders(exchange, BookHttpProtocol.JSON_LINES, etag);
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder(256);
+            for (Book book : books) {
+                line.setLength(0);
+                BookJson.appendJson(line, book);
+                line.append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    private static void sendText(HttpExchange exchange, String contentType, String body, String etag) throws IOException {
+        send(exchange, 200, contentType, body, etag);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body, String etag) throws IOException {
+        if (status == 200 && notModified(exchange, etag)) {
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        setHeaders(exchange, contentType, etag);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        StringBuilder body = new StringBuilder("{\"error\":");
+        BookJson.appendString(body, message == null ? "" : message);
+        body.append('}');
+        try {
+            exchange.getResponseHeaders().remove("ETag");
+            send(exchange, status, BookHttpProtocol.JSON, body.toString(), null);
+        } catch (IOException | RuntimeException e) {
+            // Header respons sudah terkirim (misalnya di tengah aliran); koneksi ditutup saja
+        }
+    }
+
+    private static void setHeaders(HttpExchange exchange, String contentType, String etag) {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", contentType);
+        if (etag != null) {
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", "no-cache"); // Boleh disimpan, tetapi selalu divalidasi ulang
+        }
+    }
+
+    // ---------------------------------------------------------------- permintaan
+
+    // Token dibandingkan dalam waktu konstan; tanpa token yang dikonfigurasi tidak ada penulisan
+    private static boolean isAuthorized(HttpExchange exchange) {
+        if (WRITE_TOKEN.isEmpty()) {
+            return false;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8),
+                WRITE_TOKEN.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Isi permintaan, paling banyak MAX_BODY_BYTES; yang lebih besar ditolak dengan 413
+    private static String readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && length.trim().matches("\\d{1,18}") && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+            throw new BodyTooLargeException();
+        }
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new BodyTooLargeException();
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    // Isi JSON Lines dibaca per baris; setiap buku divalidasi seperti input form
+    private static List<Book> readBooks(HttpExchange exchange) throws IOException {
+        List<Book> books = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(readBody(exchange)));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                books.add(validated(BookJson.fromJson(line)));
+            }
+        }
+        return books;
+    }
+
+    private static Book validated(Book book) {
+        String error = BookValidator.validate(book);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        return book;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static boolean isId(String text) {
+        if (text.isEmpty() || text.length() > 10) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Parameter " + name + " wajib diisi");
+        }
+        return value;
+    }
+
+    // limit/n dari klien dibatasi ke 1..MAX_PAGE_SIZE
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+    }
+
+    private static int parseInt(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " harus berupa bilangan bulat: " + value);
+        }
+    }
+
+    private static long parseLong(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " harus berupa bilangan bulat: " + value);
+        }
+    }
+
+    private static BookSortKey parseSortKey(String value) {
+        return value == null ? BookSortKey.ID : parseEnum(BookSortKey.class, value);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nilai " + type.getSimpleName() + " tidak dikenal: " + value);
+        }
+    }
+
+    // Isi permintaan melebihi library.server.maxBodyBytes
+    private static final class BodyTooLargeException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private BodyTooLargeException() {
+            super("Isi permintaan melebihi " + MAX_BODY_BYTES + " byte");
+        }
+    }
+}
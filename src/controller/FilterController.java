@@ -0,0 +1,317 @@
+package controller;
+
+import model.AppConfig;
+import model.AsyncBookDAO;
+import model.Book;
+import model.BookChanges;
+import model.BookRowFilter;
+import model.ColumnarBookStore;
+import model.DaoExecutors;
+import view.ColumnarBookTableModel;
+import view.LibraryView;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * FilterController menangani bilah filter dan pengurutan lewat judul kolom tabel, tanpa
+ * query baru ke penyimpanan. Saat pertama kali dipakai, katalog dimuat sekali ke
+ * ColumnarBookStore (kolom primitif dengan kamus penulis); setelah itu setiap filter dan
+ * urutan dievaluasi di thread latar terhadap store tersebut dan hasilnya, berupa daftar id,
+ * dipasang ke tabel di EDT dengan satu event perubahan.
+ *
+ * Ketikan di bilah filter ditunda selama library.filter.delayMs; evaluasi yang diminta
+ * selama evaluasi lain berjalan digabung menjadi satu evaluasi berikutnya. Store hanya
+ * diubah di EDT: perubahan buku yang tiba saat store sedang dimuat atau dibaca thread latar
+ * ditampung lalu diterapkan setelahnya (upsert/remove idempoten), diikuti evaluasi ulang.
+ *
+ * Tanpa filter dan dengan urutan bawaan (id menaik), tabel kembali ke PagedBookTableModel.
+ * Semua metode dipanggil dari Event Dispatch Thread.
+ */
+public class FilterController {
+    private static final int FILTER_DELAY_MS = AppConfig.getInt("library.filter.delayMs", 200);
+    private static final int LOAD_FETCH_SIZE = AppConfig.getInt("library.filter.fetchSize", 5000);
+
+    // Urutan kolom tabel (AbstractBookTableModel) sama dengan urutan ColumnarBookStore.Column
+    private static final ColumnarBookStore.Column[] COLUMNS = ColumnarBookStore.Column.values();
+
+    private final LibraryView view;
+    private final AsyncBookDAO bookDAO;
+    private final Runnable showCatalogue;
+    private final ColumnarBookTableModel tableModel = new ColumnarBookTableModel();
+    // Satu thread latar: evaluasi tidak pernah berjalan bersamaan
+    private final ExecutorService worker = DaoExecutors.newBoundedPool("book-filter", 1, 4);
+    private final Timer filterTimer;
+
+    private BookRowFilter filter = BookRowFilter.none();
+    private ColumnarBookStore.Column sortColumn = ColumnarBookStore.Column.ID;
+    private boolean ascending = true;
+
+    private ColumnarBookStore store; // null selama belum dimuat atau perlu dimuat ulang
+    private boolean loading;
+    private boolean evaluating;
+    private boolean rerun; // Filter/urutan berubah selama evaluasi berjalan
+    private int generation;
+    // Perubahan yang tiba selama store dimuat atau dibaca thread latar
+    private final List<Consumer<ColumnarBookStore>> pendingUpdates = new ArrayList<>();
+
+    // showCatalogue dipanggil setiap kali model tabel katalog yang harus tampil berubah
+    public FilterController(LibraryView view, AsyncBookDAO bookDAO, Runnable showCatalogue) {
+        this.view = view;
+        this.bookDAO = bookDAO;
+        this.showCatalogue = showCatalogue;
+
+        this.filterTimer = new Timer(FILTER_DELAY_MS, e -> filterChanged());
+        this.filterTimer.setRepeats(false);
+        view.addFilterListener(new FilterListener());
+        view.addFilterResetListener(e -> {
+            view.clearFilterFields();
+            filterTimer.stop();
+            sortColumn = ColumnarBookStore.Column.ID;
+            ascending = true;
+            view.setSortIndicator(sortColumn.ordinal(), ascending);
+            filterChanged();
+        });
+        view.addHeaderClickListener(new HeaderClickListener());
+        view.setSortIndicator(sortColumn.ordinal(), ascending);
+    }
+
+    // Apakah tabel katalog harus memakai model hasil filter/urutan ini
+    public boolean isActive() {
+        return !filter.isEmpty() || sortColumn != ColumnarBookStore.Column.ID || !ascending;
+    }
+
+    public ColumnarBookTableModel getTableModel() {
+        return tableModel;
+    }
+
+    // Katalog berubah terlalu banyak (impor, muat ulang): store dimuat ulang saat dibutuhkan
+    public void invalidate() {
+        generation++;
+        store = null;
+        loading = false;
+        evaluating = false;
+        rerun = false;
+        pendingUpdates.clear();
+        if (isActive()) {
+            evaluate();
+        }
+    }
+
+    // Perubahan dari change feed
+    public void apply(BookChanges changes) {
+        if (changes.isReloadRequired()) {
+            invalidate();
+            return;
+        }
+        List<Book> saved = new ArrayList<>(changes.getInserted());
+        saved.addAll(changes.getUpdated());
+        int[] deletedIds = changes.getDeletedIds();
+        update(s -> {
+            for (Book book : saved) {
+                s.upsert(book);
+            }
+            for (int id : deletedIds) {
+                s.remove(id);
+            }
+        });
+    }
+
+    // Buku yang ditambahkan atau diperbarui oleh pengguna ini
+    public void bookSaved(Book book) {
+        Book copy = new Book(book);
+        update(s -> s.upsert(copy));
+    }
+
+    public void bookDeleted(int id) {
+        update(s -> s.remove(id));
+    }
+
+    private void update(Consumer<ColumnarBookStore> update) {
+        if (loading || evaluating) {
+            pendingUpdates.add(update);
+        } else if (store != null) {
+            update.accept(store);
+            if (isActive()) {
+                evaluate(); // Buku yang berubah bisa masuk/keluar filter atau pindah urutan
+            }
+        }
+    }
+
+    // Membaca bilah filter setelah jeda mengetik; isian yang tidak valid tidak mengubah tabel
+    private void filterChanged() {
+        BookRowFilter next;
+        try {
+            next = BookRowFilter.of(view.getFilterAuthor(), parseInt(view.getFilterFromYear()),
+                    parseInt(view.getFilterToYear()), parseDouble(view.getFilterMinRating()));
+        } catch (NumberFormatException ex) {
+            view.setStatus("Filter tidak valid: tahun dan rating harus berupa angka.");
+            return;
+        } catch (IllegalArgumentException ex) {
+            view.setStatus("Filter tidak valid: " + ex.getMessage());
+            return;
+        }
+        if (next.equals(filter) && (store != null || !isActive())) {
+            return;
+        }
+        filter = next;
+        view.setStatus(" ");
+        evaluate();
+    }
+
+    private void sortBy(ColumnarBookStore.Column column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        view.setSortIndicator(column.ordinal(), ascending);
+        evaluate();
+    }
+
+    // Menjalankan filter dan urutan saat ini; memuat store lebih dulu jika belum ada
+    private void evaluate() {
+        if (!isActive()) {
+            showCatalogue.run(); // Urutan bawaan tanpa filter: tabel per halaman dari penyimpanan
+            return;
+        }
+        if (store == null) {
+            if (!loading) {
+                load();
+            }
+            return;
+        }
+        if (evaluating) {
+            rerun = true;
+            return;
+        }
+        final int expected = generation;
+        final ColumnarBookStore target = store;
+        final BookRowFilter currentFilter = filter;
+        final ColumnarBookStore.Column column = sortColumn;
+        final boolean order = ascending;
+        evaluating = true;
+        rerun = false;
+        CompletableFuture.supplyAsync(() -> {
+            int[] rows = target.sortRows(currentFilter.apply(target), column, order);
+            int[] ids = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                ids[i] = target.getId(rows[i]);
+            }
+            return ids;
+        }, worker).whenCompleteAsync((ids, error) -> {
+            if (expected != generation) {
+                return; // Store sudah dibuang
+            }
+            evaluating = false;
+            boolean changed = replayPendingUpdates();
+            if (error != null) {
+                view.setStatus("Gagal menerapkan filter: " + unwrap(error).getMessage());
+                return;
+            }
+            if (!rerun && !changed) {
+                show(ids);
+            }
+            if (rerun || changed) {
+                evaluate(); // Hasil ini sudah usang; langsung hitung ulang
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Memuat seluruh katalog ke store di latar belakang, lalu mengevaluasi filter
+    private void load() {
+        final int expected = ++generation;
+        loading = true;
+        pendingUpdates.clear();
+        view.setStatus("Menyiapkan filter...");
+        final long start = System.nanoTime();
+        bookDAO.supply(() -> ColumnarBookStore.load(bookDAO.getDelegate(), LOAD_FETCH_SIZE)).whenCompleteAsync((loaded, error) -> {
+            if (expected != generation) {
+                return;
+            }
+            loading = false;
+            if (error != null) {
+                view.setStatus("Gagal memuat katalog untuk filter: " + unwrap(error).getMessage());
+                return;
+            }
+            store = loaded;
+            replayPendingUpdates();
+            view.setStatus(String.format("%,d buku siap difilter (dimuat dalam %,d ms)", loaded.size(),
+                    (System.nanoTime() - start) / 1_000_000));
+            evaluate();
+        }, SwingUtilities::invokeLater);
+    }
+
+    private boolean replayPendingUpdates() {
+        if (pendingUpdates.isEmpty()) {
+            return false;
+        }
+        for (Consumer<ColumnarBookStore> update : pendingUpdates) {
+            update.accept(store);
+        }
+        pendingUpdates.clear();
+        return true;
+    }
+
+    // Memasang hasil sebagai satu perubahan model; buku yang dipilih tetap terpilih jika masih lolos filter
+    private void show(int[] ids) {
+        if (!isActive()) {
+            return; // Filter dikosongkan selama evaluasi; tabel per halaman sudah dipasang
+        }
+        int selectedId = view.getBookTableModel() == tableModel ? view.getSelectedBookId() : -1;
+        tableModel.setBookIds(store, ids);
+        showCatalogue.run();
+        if (selectedId >= 0) {
+            view.selectRow(tableModel.getRowOf(selectedId));
+        }
+    }
+
+    private static Integer parseInt(String text) {
+        String value = text.trim();
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static Double parseDouble(String text) {
+        String value = text.trim();
+        return value.isEmpty() ? null : Double.valueOf(value);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // Listener untuk bilah filter; setiap ketikan memulai ulang timer jeda
+    class FilterListener implements DocumentListener {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            filterTimer.restart();
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            filterTimer.restart();
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+            filterTimer.restart();
+        }
+    }
+
+    // Klik judul kolom: urutkan menurut kolom tersebut; klik berikutnya membalik arah urutan
+    class HeaderClickListener extends MouseAdapter {
+        @Override
+        public void mouseClicked(MouseEvent e) {
+            int column = view.getHeaderColumnAt(e);
+            if (column >= 0 && column < COLUMNS.length) {
+                sortBy(COLUMNS[column]);
+            }
+        }
+    }
+}
@@ -1,45 +1,434 @@
 package controller;
 
+import model.AppConfig;
+import model.AsyncBookDAO;
 import model.Book;
+import model.BookChanges;
 import model.BookDAO;
+import model.BookExporter;
+import model.BookImporter;
+import model.BookPageSnapshot;
+import model.BookSortKey;
+import model.BookTransferListener;
+import model.BookTransferResult;
+import model.BookValidator;
+import model.ForwardingBookDAO;
+import model.InstrumentedBookDAO;
+import model.ReRatingJob;
+import model.RemoteBookDAO;
+import model.WriteBehindBookDAO;
+import model.WriteBehindListener;
 import view.LibraryView;
+import view.PagedBookTableModel;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * LibraryController bertindak sebagai perantara antara LibraryView (antarmuka pengguna)
  * dan BookDAO (model data). Ini menangani input pengguna dari view,
  * memprosesnya dengan menggunakan model, dan kemudian memperbarui view.
  * Ini adalah implementasi dari pola desain MVC.
+ *
+ * Semua akses DAO dijalankan lewat AsyncBookDAO di luar Event Dispatch Thread;
+ * hasilnya dikembalikan ke EDT sebelum view diperbarui.
+ *
+ * Perubahan dari klien lain diambil setiap library.changes.pollMs lewat BookDAO.changesSince
+ * dan ditambalkan ke tabel per baris; tabel hanya dimuat ulang jika feed memintanya.
+ *
+ * Saat dimulai, halaman pertama dari sesi sebelumnya (library.startup.snapshotPath, kosong =
+ * nonaktif) langsung ditampilkan sebagai pratinjau sampai data dari penyimpanan tiba.
+ *
+ * Filter dan urutan kolom dievaluasi di memori oleh FilterController; selama kotak pencarian
+ * berisi teks, hasil pencarian yang ditampilkan.
  */
 public class LibraryController {
     private final LibraryView view;
-    private final BookDAO bookDAO;
+    private final AsyncBookDAO bookDAO;
+    private final PagedBookTableModel bookTableModel;
+    private final AnalyticsController analyticsController;
+    private final FilterController filterController;
+
+    // Jumlah permintaan tulis yang sedang berjalan; tombol dinonaktifkan selama lebih dari nol
+    private int requestsInFlight;
+
+    // Pencarian saat mengetik: dijalankan setelah pengguna berhenti mengetik selama SEARCH_DELAY_MS
+    private final Timer searchTimer;
+    private CompletableFuture<List<Book>> pendingSearch;
+    private String activeQuery = "";
+
+    // Ukuran halaman dan jumlah halaman maksimum yang disimpan di memori oleh tabel
+    private static final int PAGE_SIZE = AppConfig.getInt("library.table.pageSize", 200);
+    private static final int MAX_CACHED_PAGES = AppConfig.getInt("library.table.maxPages", 20);
+
+    // Jumlah maksimum hasil pencarian dan jeda sebelum pencarian dijalankan
+    private static final int SEARCH_LIMIT = AppConfig.getInt("library.search.limit", 100);
+    private static final int SEARCH_DELAY_MS = AppConfig.getInt("library.search.delayMs", 150);
+
+    // Ringkasan metrik DAO di status bar (hanya jika DAO dibungkus InstrumentedBookDAO)
+    private static final boolean STATUS_READOUT = AppConfig.getBoolean("library.metrics.statusReadout", false);
+    private static final int STATUS_READOUT_MS = AppConfig.getInt("library.metrics.statusReadoutMs", 1000);
+
+    // Berkas snapshot halaman pertama untuk pratinjau saat aplikasi dimulai (null = nonaktif)
+    private static final Path STARTUP_SNAPSHOT = snapshotPath(AppConfig.get("library.startup.snapshotPath", "data/first-page.jsonl"));
+
+    // Snapshot ditulis satu per satu di satu thread; reload beruntun hanya menulis snapshot terbaru
+    private final ExecutorService snapshotWriter = STARTUP_SNAPSHOT == null ? null : Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "first-page-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<BookPageSnapshot> pendingSnapshot = new AtomicReference<>();
+
+    // Interval polling change feed (0 = nonaktif)
+    private static final int CHANGES_POLL_MS = AppConfig.getInt("library.changes.pollMs", 3000);
+
+    // Change feed: token terakhir (-1 = belum diketahui), generasi untuk membuang hasil usang,
+    // dan perubahan milik sendiri yang sudah diterapkan ke tabel sehingga dilewati saat muncul di feed
+    private final Timer changesTimer;
+    private long changeToken = -1;
+    private int feedGeneration;
+    private boolean pollInFlight;
+    // Jeda setelah pengambilan token gagal: tick yang dilewati sebelum mencoba (dan memuat ulang) lagi
+    private int tokenFailures;
+    private int ticksToSkip;
+    private final Set<Integer> ownInserts = new HashSet<>();
+    private final Set<Integer> ownDeletes = new HashSet<>();
 
     public LibraryController(LibraryView view, BookDAO bookDAO) {
+        this(view, new AsyncBookDAO(bookDAO));
+    }
+
+    public LibraryController(LibraryView view, AsyncBookDAO bookDAO) {
         this.view = view;
         this.bookDAO = bookDAO;
 
+        // Halaman tabel diambil di latar belakang saat viewport membutuhkannya
+        this.bookTableModel = new PagedBookTableModel(bookDAO, BookSortKey.ID, PAGE_SIZE, MAX_CACHED_PAGES);
+        this.bookTableModel.setLoadListener(this::firstPageLoaded);
+        showStartupSnapshot();
+        this.view.setBookTableModel(bookTableModel);
+
+        // Tab analitik, diperbarui dari perubahan yang sama dengan tabel
+        this.analyticsController = new AnalyticsController(view, bookDAO);
+
+        // Bilah filter dan urutan kolom, diperbarui dari perubahan yang sama dengan tabel
+        this.filterController = new FilterController(view, bookDAO, this::showCatalogue);
+
         // Menambahkan listener ke komponen view
         this.view.addAddButtonListener(new AddButtonListener());
         this.view.addUpdateButtonListener(new UpdateButtonListener());
         this.view.addDeleteButtonListener(new DeleteButtonListener());
         this.view.addClearButtonListener(new ClearButtonListener());
+        this.view.addImportButtonListener(new ImportButtonListener());
+        this.view.addExportButtonListener(new ExportButtonListener());
         this.view.addTableMouseListener(new TableMouseListener());
 
-        // Muat data awal saat aplikasi dimulai
-        loadAllBooks();
+        this.searchTimer = new Timer(SEARCH_DELAY_MS, e -> search(view.getSearchText().trim()));
+        this.searchTimer.setRepeats(false);
+        this.view.addSearchListener(new SearchListener());
+
+        if (STATUS_READOUT && bookDAO.getDelegate() instanceof InstrumentedBookDAO) {
+            InstrumentedBookDAO metrics = (InstrumentedBookDAO) bookDAO.getDelegate();
+            new Timer(STATUS_READOUT_MS, e -> view.setStatusReadout(metrics.readout())).start();
+        }
+
+        this.changesTimer = new Timer(Math.max(CHANGES_POLL_MS, 1), e -> pollChanges());
+
+        // Kegagalan flush write-behind (jika aktif) ditampilkan ke pengguna
+        WriteBehindBookDAO writeBehind = ForwardingBookDAO.find(bookDAO.getDelegate(), WriteBehindBookDAO.class);
+        if (writeBehind != null) {
+            writeBehind.setListener(new WriteBehindListener() {
+                @Override
+                public void onFlushFailed(int pending, RuntimeException error) {
+                    SwingUtilities.invokeLater(() -> view.showError("Perubahan buku gagal disimpan ke database ("
+                            + pending + " perubahan menunggu dan akan dicoba lagi): " + error.getMessage()));
+                }
+
+                @Override
+                public void onFlushRecovered(int written) {
+                    SwingUtilities.invokeLater(() -> view.setStatus("Perubahan yang tertunda berhasil disimpan ("
+                            + written + " buku)."));
+                }
+
+                @Override
+                public void onBooksDropped(List<Book> books, RuntimeException error) {
+                    SwingUtilities.invokeLater(() -> view.showError(books.size() + " perubahan buku tidak dapat disimpan dan dibuang (mis. \""
+                            + books.get(0).getTitle() + "\"): " + error.getMessage()));
+                }
+            });
+        }
+
+        // Muat data awal saat aplikasi dimulai (tidak menunggu di EDT)
+        if (CHANGES_POLL_MS > 0) {
+            resyncChanges();
+            changesTimer.start();
+        } else {
+            loadAllBooks();
+        }
+        useAppliedRatingFormula();
+    }
+
+    // Rumus rating yang tercatat di penyimpanan dipasang di latar belakang (termasuk statistik
+    // penulis untuk rumus bayesian); rating tidak pernah dihitung ulang dari sini, hanya lewat
+    // MainApp --rerate. Klien server buku dilewati: rating dihitung oleh server.
+    private void useAppliedRatingFormula() {
+        if (ForwardingBookDAO.find(bookDAO.getDelegate(), RemoteBookDAO.class) != null) {
+            return;
+        }
+        bookDAO.supply(() -> ReRatingJob.useApplied(bookDAO.getDelegate())).whenComplete((applied, error) -> {
+            if (error != null) {
+                System.err.println("Gagal menyiapkan rumus rating: " + unwrap(error).getMessage());
+            }
+        });
+    }
+
+    // Pratinjau dari sesi sebelumnya, dibaca di EDT karena hanya satu halaman kecil
+    private void showStartupSnapshot() {
+        if (STARTUP_SNAPSHOT == null) {
+            return;
+        }
+        BookPageSnapshot snapshot = BookPageSnapshot.read(STARTUP_SNAPSHOT);
+        if (snapshot != null && snapshot.getSortKey() == bookTableModel.getSortKey()) {
+            bookTableModel.showPreview(snapshot.getTotalCount(), snapshot.getBooks());
+            view.setStatus("Memuat katalog... (menampilkan data sesi sebelumnya)");
+        } else {
+            view.setStatus("Memuat katalog...");
+        }
+    }
+
+    // Jumlah buku dan halaman pertama dari penyimpanan sudah tampil: aplikasi interaktif.
+    // Halaman pertama disimpan sebagai pratinjau untuk aplikasi berikutnya (di latar belakang).
+    private void firstPageLoaded(int rowCount, List<Book> firstPage) {
+        if (StartupTimer.getInteractiveMillis() < 0) {
+            StartupTimer.markInteractive(rowCount);
+            view.setStatus(" ");
+        }
+        if (STARTUP_SNAPSHOT != null) {
+            BookPageSnapshot snapshot = new BookPageSnapshot(rowCount, bookTableModel.getSortKey(), firstPage);
+            if (pendingSnapshot.getAndSet(snapshot) == null) {
+                snapshotWriter.execute(this::writePendingSnapshot);
+            }
+        }
+    }
+
+    // Di thread snapshotWriter: menulis snapshot terbaru yang belum ditulis
+    private void writePendingSnapshot() {
+        BookPageSnapshot snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.write(STARTUP_SNAPSHOT);
+        } catch (IOException e) {
+            System.err.println("Gagal menyimpan snapshot halaman pertama: " + e.getMessage());
+        }
     }
 
-    // Memuat semua buku dan menampilkannya di view
+    private static Path snapshotPath(String path) {
+        return path.trim().isEmpty() ? null : Paths.get(path.trim());
+    }
+
+    // Memuat ulang tabel; hanya jumlah baris dan halaman yang terlihat yang diambil.
+    // Reload yang sedang berjalan dibatalkan dan digantikan oleh yang baru.
     private void loadAllBooks() {
-        List<Book> books = bookDAO.getAllBooks();
-        view.displayBooks(books);
+        bookTableModel.reload();
+        analyticsController.invalidate();
+        filterController.invalidate();
+        if (activeQuery.isEmpty()) {
+            showCatalogue();
+        } else {
+            search(activeQuery); // Hasil pencarian yang sedang ditampilkan ikut diperbarui
+        }
+    }
+
+    // Memuat ulang tabel; dengan change feed aktif, token baru diambil lebih dulu
+    private void reloadTable() {
+        if (changesTimer.isRunning()) {
+            resyncChanges();
+        } else {
+            loadAllBooks();
+        }
+    }
+
+    // Mengambil token awal lalu memuat ulang tabel. Token diambil sebelum tabel dimuat, sehingga
+    // perubahan di antara keduanya paling buruk diterapkan dua kali (jumlah baris yang berlebih
+    // dikoreksi saat halaman terakhir dimuat), bukan terlewat.
+    private void resyncChanges() {
+        final int expected = ++feedGeneration;
+        changeToken = -1;
+        ownInserts.clear();
+        pollInFlight = true;
+        CompletableFuture<BookChanges> request = bookDAO.changesSince(0);
+        request.whenCompleteAsync((changes, error) -> {
+            if (expected != feedGeneration) {
+                return;
+            }
+            pollInFlight = false;
+            if (error != null) {
+                System.err.println("Gagal mengambil token perubahan: " + unwrap(error).getMessage());
+                tokenFailures++;
+                ticksToSkip = (1 << Math.min(tokenFailures, 5)) - 1; // 1, 3, 7, 15, lalu 31 tick
+            } else if (changes == null) {
+                changesTimer.stop(); // Penyimpanan tidak melacak perubahan
+            } else {
+                changeToken = changes.getToken();
+                tokenFailures = 0;
+                ticksToSkip = 0;
+            }
+            loadAllBooks();
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Satu tick timer: minta perubahan setelah token terakhir; tick dilewati selama permintaan berjalan
+    private void pollChanges() {
+        if (pollInFlight) {
+            return;
+        }
+        if (changeToken < 0) {
+            // Permintaan token sebelumnya gagal; setiap percobaan memuat ulang seluruh tabel,
+            // jadi jedanya diperpanjang selama kegagalan berlanjut
+            if (ticksToSkip > 0) {
+                ticksToSkip--;
+            } else {
+                resyncChanges();
+            }
+            return;
+        }
+        final int expected = feedGeneration;
+        pollInFlight = true;
+        CompletableFuture<BookChanges> request = bookDAO.changesSince(changeToken);
+        request.whenCompleteAsync((changes, error) -> {
+            if (expected != feedGeneration) {
+                return;
+            }
+            pollInFlight = false;
+            if (error != null) {
+                System.err.println("Gagal mengambil perubahan buku: " + unwrap(error).getMessage());
+                return;
+            }
+            if (changes == null) {
+                changesTimer.stop();
+                return;
+            }
+            if (changes.isReloadRequired()) {
+                resyncChanges();
+                return;
+            }
+            changeToken = changes.getToken();
+            if (!changes.isEmpty()) {
+                applyChanges(changes);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Menambalkan perubahan klien lain ke tabel tanpa memuat ulang
+    private void applyChanges(BookChanges changes) {
+        for (Book book : changes.getInserted()) {
+            if (bookTableModel.getRowOf(book.getId()) >= 0) {
+                // Sudah ada (penambahan sendiri, atau ikut terbaca saat reload): cukup diperbarui
+                ownInserts.remove(book.getId());
+                bookTableModel.updateBook(book);
+            } else if (!ownInserts.remove(book.getId())) {
+                bookTableModel.insertBook(book);
+            }
+        }
+        for (Book book : changes.getUpdated()) {
+            bookTableModel.updateBook(book);
+        }
+        for (int id : changes.getDeletedIds()) {
+            if (!ownDeletes.remove(id)) {
+                bookTableModel.removeBook(id);
+            }
+        }
+        analyticsController.apply(changes);
+        filterController.apply(changes);
+        refreshSearch();
+    }
+
+    // Menjalankan pencarian; query kosong kembali ke tabel lengkap. Pencarian sebelumnya dibatalkan.
+    private void search(String query) {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
+        }
+        activeQuery = query;
+        if (query.isEmpty()) {
+            showCatalogue();
+            return;
+        }
+        CompletableFuture<List<Book>> request = bookDAO.searchBooks(query, SEARCH_LIMIT);
+        pendingSearch = request;
+        request.whenCompleteAsync((books, error) -> {
+            if (request != pendingSearch) {
+                return; // Sudah digantikan oleh pencarian yang lebih baru
+            }
+            pendingSearch = null;
+            if (error != null) {
+                view.showError("Terjadi kesalahan saat mencari: " + unwrap(error).getMessage());
+                return;
+            }
+            view.displayBooks(books);
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Tabel katalog: hasil filter/urutan jika aktif, selain itu tabel per halaman.
+    // Tidak mengganti hasil pencarian yang sedang ditampilkan.
+    private void showCatalogue() {
+        if (activeQuery.isEmpty()) {
+            view.setBookTableModel(filterController.isActive() ? filterController.getTableModel() : bookTableModel);
+        }
+    }
+
+    // Setelah menambah/mengubah/menghapus buku saat hasil pencarian ditampilkan, cari ulang
+    private void refreshSearch() {
+        if (!activeQuery.isEmpty()) {
+            search(activeQuery);
+        }
+    }
+
+    // Menjalankan permintaan DAO lalu memproses hasilnya di EDT; tombol dinonaktifkan selama berjalan
+    private <T> void runRequest(CompletableFuture<T> request, Consumer<T> onSuccess, String errorPrefix) {
+        requestsInFlight++;
+        view.setBusy(true);
+        request.whenCompleteAsync((result, error) -> {
+            requestsInFlight--;
+            if (requestsInFlight == 0) {
+                view.setBusy(false);
+            }
+            if (request.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                view.showError(errorPrefix + cause.getMessage());
+                cause.printStackTrace();
+                return;
+            }
+            onSuccess.accept(result);
+        }, SwingUtilities::invokeLater);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     // Listener untuk tombol "Tambah"
@@ -49,8 +438,9 @@ public class LibraryController {
             try {
                 String title = view.getTitleField();
                 String author = view.getAuthorField();
-                if (title.isEmpty() || author.isEmpty()) {
-                    view.showError("Judul dan Penulis tidak boleh kosong.");
+                String error = BookValidator.checkRequired(title, author);
+                if (error != null) {
+                    view.showError(error);
                     return;
                 }
                 int year = Integer.parseInt(view.getYearField());
@@ -58,21 +448,28 @@ public class LibraryController {
                 double language = Double.parseDouble(view.getLanguageField());
                 double originality = Double.parseDouble(view.getOriginalityField());
 
-                if (year <= 0 || storyline < 0 || storyline > 5 || language < 0 || language > 5 || originality < 0 || originality > 5) {
-                    view.showError("Input tidak valid. Pastikan tahun > 0 dan skor antara 0-5.");
+                error = BookValidator.checkRanges(year, storyline, language, originality);
+                if (error != null) {
+                    view.showError(error);
                     return;
                 }
 
                 Book newBook = new Book(title, author, year, storyline, language, originality);
-                bookDAO.addBook(newBook);
-                loadAllBooks(); // Muat ulang data tabel
-                view.clearFields();
-                view.showSuccessMessage("Data Buku Berhasil Ditambahkan");
+                runRequest(bookDAO.addBook(newBook), saved -> {
+                    if (bookTableModel.getRowOf(saved.getId()) >= 0) {
+                        bookTableModel.updateBook(saved); // Sudah disisipkan oleh change feed
+                    } else {
+                        bookTableModel.insertBook(saved); // Sisipkan satu baris, tanpa memuat ulang tabel
+                        ownInserts.add(saved.getId());
+                    }
+                    analyticsController.bookSaved(saved);
+                    filterController.bookSaved(saved);
+                    refreshSearch();
+                    view.clearFields();
+                    view.showSuccessMessage("Data Buku Berhasil Ditambahkan");
+                }, "Terjadi kesalahan: ");
             } catch (NumberFormatException ex) {
                 view.showError("Format angka tidak valid untuk Tahun atau Skor.");
-            } catch (Exception ex) {
-                view.showError("Terjadi kesalahan: " + ex.getMessage());
-                ex.printStackTrace();
             }
         }
     }
@@ -90,8 +487,9 @@ public class LibraryController {
             try {
                 String title = view.getTitleField();
                 String author = view.getAuthorField();
-                if (title.isEmpty() || author.isEmpty()) {
-                    view.showError("Judul dan Penulis tidak boleh kosong.");
+                String error = BookValidator.checkRequired(title, author);
+                if (error != null) {
+                    view.showError(error);
                     return;
                 }
                 int year = Integer.parseInt(view.getYearField());
@@ -99,22 +497,31 @@ public class LibraryController {
                 double language = Double.parseDouble(view.getLanguageField());
                 double originality = Double.parseDouble(view.getOriginalityField());
 
-                if (year <= 0 || storyline < 0 || storyline > 5 || language < 0 || language > 5 || originality < 0 || originality > 5) {
-                    view.showError("Input tidak valid. Pastikan tahun > 0 dan skor antara 0-5.");
+                error = BookValidator.checkRanges(year, storyline, language, originality);
+                if (error != null) {
+                    view.showError(error);
                     return;
                 }
 
                 Book updatedBook = new Book(title, author, year, storyline, language, originality);
                 updatedBook.setId(selectedId); // Set ID untuk buku yang akan diupdate
-                bookDAO.updateBook(updatedBook);
-                loadAllBooks();
-                view.clearFields();
-                view.showSuccessMessage("Data Buku Berhasil Diperbarui");
+                runRequest(bookDAO.updateBook(updatedBook), saved -> {
+                    if (saved == null) {
+                        view.showError("Buku sudah tidak ada di database.");
+                        bookTableModel.removeBook(selectedId);
+                        analyticsController.bookDeleted(selectedId);
+                        filterController.bookDeleted(selectedId);
+                        return;
+                    }
+                    bookTableModel.updateBook(saved); // Ganti satu baris berdasarkan id
+                    analyticsController.bookSaved(saved);
+                    filterController.bookSaved(saved);
+                    refreshSearch();
+                    view.clearFields();
+                    view.showSuccessMessage("Data Buku Berhasil Diperbarui");
+                }, "Terjadi kesalahan saat memperbarui: ");
             } catch (NumberFormatException ex) {
                 view.showError("Format angka tidak valid untuk Tahun atau Skor.");
-            } catch (Exception ex) {
-                view.showError("Terjadi kesalahan saat memperbarui: " + ex.getMessage());
-                ex.printStackTrace();
             }
         }
     }
@@ -136,15 +543,30 @@ public class LibraryController {
                     JOptionPane.WARNING_MESSAGE);
 
             if (confirm == JOptionPane.YES_OPTION) {
-                try {
-                    bookDAO.deleteBook(selectedId);
-                    loadAllBooks();
+                // Dicatat sebelum permintaan dikirim, karena feed bisa melaporkannya lebih dulu
+                ownDeletes.add(selectedId);
+                CompletableFuture<Boolean> request = bookDAO.deleteBook(selectedId);
+                request.whenCompleteAsync((deleted, error) -> {
+                    if (error != null || !Boolean.TRUE.equals(deleted)) {
+                        ownDeletes.remove(selectedId); // Tidak akan muncul di feed
+                    }
+                }, SwingUtilities::invokeLater);
+                runRequest(request, deleted -> {
+                    if (!Boolean.TRUE.equals(deleted)) {
+                        // Sudah dihapus di tempat lain: baris yang tersisa di tabel sudah basi
+                        view.showError("Buku sudah tidak ada di database.");
+                        bookTableModel.removeBook(selectedId);
+                        analyticsController.bookDeleted(selectedId);
+                        filterController.bookDeleted(selectedId);
+                        return;
+                    }
+                    bookTableModel.removeBook(selectedId); // Hapus satu baris berdasarkan id
+                    analyticsController.bookDeleted(selectedId);
+                    filterController.bookDeleted(selectedId);
+                    refreshSearch();
                     view.clearFields();
                     view.showSuccessMessage("Data Buku Berhasil Dihapus");
-                } catch (Exception ex) {
-                    view.showError("Terjadi kesalahan saat menghapus: " + ex.getMessage());
-                    ex.printStackTrace();
-                }
+                }, "Terjadi kesalahan saat menghapus: ");
             }
         }
     }
@@ -157,24 +579,107 @@ public class LibraryController {
         }
     }
 
+    // Listener kemajuan impor/ekspor; dipanggil di thread latar, status diperbarui di EDT
+    private BookTransferListener progressListener(String action) {
+        return (rows, fraction, rowsPerSecond) -> {
+            String text = fraction >= 0
+                    ? String.format("%s: %,d baris (%.0f%%, %,.0f baris/detik)", action, rows, fraction * 100, rowsPerSecond)
+                    : String.format("%s: %,d baris (%,.0f baris/detik)", action, rows, rowsPerSecond);
+            SwingUtilities.invokeLater(() -> view.setStatus(text));
+        };
+    }
+
+    // Listener untuk tombol "Impor"
+    class ImportButtonListener implements ActionListener {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            Path path = view.chooseImportFile();
+            if (path == null) {
+                return;
+            }
+            BookImporter importer = new BookImporter(bookDAO.getDelegate());
+            importer.setListener(progressListener("Mengimpor"));
+            runRequest(bookDAO.supply(() -> {
+                try {
+                    return importer.importFile(path);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex.getMessage(), ex);
+                }
+            }), result -> {
+                reloadTable(); // Banyak baris baru; muat ulang tabel sekali saja
+                view.showMessage("Impor Selesai", describe(result), result.getRecordsRejected() > 0
+                        ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+            }, "Impor gagal: ");
+        }
+    }
+
+    // Listener untuk tombol "Ekspor"
+    class ExportButtonListener implements ActionListener {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            Path path = view.chooseExportFile();
+            if (path == null) {
+                return;
+            }
+            BookExporter exporter = new BookExporter(bookDAO.getDelegate());
+            exporter.setListener(progressListener("Mengekspor"));
+            runRequest(bookDAO.supply(() -> {
+                try {
+                    return exporter.exportFile(path);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex.getMessage(), ex);
+                }
+            }), result -> view.showMessage("Ekspor Selesai", describe(result), JOptionPane.INFORMATION_MESSAGE),
+                    "Ekspor gagal: ");
+        }
+    }
+
+    // Ringkasan hasil transfer beserta beberapa kesalahan pertama
+    private static String describe(BookTransferResult result) {
+        StringBuilder message = new StringBuilder(result.toString());
+        int shown = Math.min(10, result.getErrors().size());
+        for (int i = 0; i < shown; i++) {
+            message.append('\n').append(result.getErrors().get(i));
+        }
+        if (result.getRecordsRejected() > shown) {
+            message.append("\n... dan ").append(result.getRecordsRejected() - shown).append(" kesalahan lainnya");
+        }
+        return message.toString();
+    }
+
+    // Listener untuk kotak pencarian; setiap ketikan memulai ulang timer jeda
+    class SearchListener implements DocumentListener {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            searchTimer.restart();
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            searchTimer.restart();
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+            searchTimer.restart();
+        }
+    }
+
     // Listener untuk klik pada tabel (mengisi form dengan data baris yang dipilih)
     class TableMouseListener extends MouseAdapter {
         @Override
         public void mouseClicked(MouseEvent e) {
-            int selectedRow = view.getSelectedBookId(); // Ini sebenarnya mengambil ID, kita butuh data baris
-            JTable table = (JTable) e.getSource();
-            int row = table.getSelectedRow();
-
-            if (row >= 0) { // Pastikan baris valid dipilih
-                // Ambil data dari model tabel, bukan langsung dari bookDAO untuk efisiensi
-                // ID, Judul, Penulis, Tahun, Alur, Bahasa, Orisinalitas
-                // Kolom ID (indeks 0) tidak perlu diisi ke form, tapi berguna untuk update/delete
-                view.setTitleField(table.getValueAt(row, 1).toString());
-                view.setAuthorField(table.getValueAt(row, 2).toString());
-                view.setYearField(table.getValueAt(row, 3).toString());
-                view.setStorylineField(table.getValueAt(row, 4).toString());
-                view.setLanguageField(table.getValueAt(row, 5).toString());
-                view.setOriginalityField(table.getValueAt(row, 6).toString());
+            // Ambil data dari model tabel, bukan langsung dari bookDAO untuk efisiensi
+            Book selected = view.getSelectedBook();
+
+            if (selected != null) { // Pastikan baris valid dipilih dan sudah dimuat
+                // ID tidak perlu diisi ke form, tapi berguna untuk update/delete
+                view.setTitleField(selected.getTitle());
+                view.setAuthorField(selected.getAuthor());
+                view.setYearField(String.valueOf(selected.getPublicationYear()));
+                view.setStorylineField(String.valueOf(selected.getStorylineScore()));
+                view.setLanguageField(String.valueOf(selected.getLanguageStyleScore()));
+                view.setOriginalityField(String.valueOf(selected.getOriginalityScore()));
             }
         }
     }
@@ -0,0 +1,58 @@
+package controller;
+
+import java.time.Instant;
+
+/**
+ * StartupTimer mengukur cold start aplikasi desktop:
+ * - time-to-first-paint: jendela pertama kali digambar;
+ * - time-to-interactive: jumlah buku dan halaman pertama tabel dari penyimpanan sudah tampil.
+ *
+ * Waktu dihitung sejak proses JVM dimulai (jika diketahui), selain itu sejak start() dipanggil
+ * di awal main. Hasilnya dicetak sekali ke stdout dan dapat dibaca lewat getter.
+ */
+public final class StartupTimer {
+    private static long originMillis = -1;
+    private static volatile long firstPaintMillis = -1;
+    private static volatile long interactiveMillis = -1;
+
+    private StartupTimer() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    // Dipanggil di awal main agar titik awal tercatat walaupun waktu mulai proses tidak diketahui
+    public static synchronized void start() {
+        if (originMillis < 0) {
+            originMillis = ProcessHandle.current().info().startInstant()
+                    .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+        }
+    }
+
+    public static synchronized void markFirstPaint() {
+        if (firstPaintMillis < 0) {
+            firstPaintMillis = elapsed();
+            System.out.println("Startup: jendela digambar setelah " + firstPaintMillis + " ms");
+        }
+    }
+
+    public static synchronized void markInteractive(int rowCount) {
+        if (interactiveMillis < 0) {
+            interactiveMillis = elapsed();
+            System.out.println("Startup: interaktif setelah " + interactiveMillis + " ms (" + rowCount + " buku)");
+        }
+    }
+
+    // Milidetik sejak awal hingga jendela digambar (-1 jika belum)
+    public static long getFirstPaintMillis() {
+        return firstPaintMillis;
+    }
+
+    // Milidetik sejak awal hingga data pertama tampil (-1 jika belum)
+    public static long getInteractiveMillis() {
+        return interactiveMillis;
+    }
+
+    private static long elapsed() {
+        start();
+        return System.currentTimeMillis() - originMillis;
+    }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Kelas AppConfig menyediakan akses terpusat ke konfigurasi aplikasi.
+ * Nilai dibaca dari system property (-Dkunci=nilai) terlebih dahulu,
+ * lalu dari berkas library.properties di direktori kerja (jika ada),
+ * dan terakhir memakai nilai default yang diberikan pemanggil.
+ */
+public final class AppConfig {
+    // Nama berkas konfigurasi opsional di direktori kerja
+    public static final String CONFIG_FILE = "library.properties";
+
+    private static final Properties FILE_PROPERTIES = loadFileProperties();
+
+    private AppConfig() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    // Membaca berkas konfigurasi sekali saja saat kelas dimuat
+    private static Properties loadFileProperties() {
+        Properties properties = new Properties();
+        Path path = Paths.get(System.getProperty("library.config", CONFIG_FILE));
+        if (Files.isRegularFile(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Gagal membaca berkas konfigurasi " + path + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = FILE_PROPERTIES.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Nilai konfigurasi " + key + " bukan angka: " + value);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Nilai konfigurasi " + key + " bukan angka: " + value);
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Nilai konfigurasi " + key + " bukan angka: " + value);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
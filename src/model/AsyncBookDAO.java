@@ -0,0 +1,130 @@
+package model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * AsyncBookDAO menjalankan operasi BookDAO di executor latar belakang dan
+ * mengembalikan CompletableFuture, sehingga pemanggil di Event Dispatch Thread
+ * tidak pernah menunggu JDBC.
+ *
+ * Membatalkan future (cancel) mencegah operasi yang belum mulai untuk dijalankan
+ * dan menginterupsi thread yang sedang menjalankannya.
+ */
+public class AsyncBookDAO implements AutoCloseable {
+    private final BookDAO delegate;
+    private final ExecutorService executor;
+
+    public AsyncBookDAO(BookDAO delegate) {
+        this(delegate, DaoExecutors.create("book-dao"));
+    }
+
+    public AsyncBookDAO(BookDAO delegate, ExecutorService executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    // DAO sinkron di balik versi async ini
+    public BookDAO getDelegate() {
+        return delegate;
+    }
+
+    public CompletableFuture<Book> addBook(Book book) {
+        return supply(() -> delegate.addBook(book));
+    }
+
+    public CompletableFuture<Book> getBookById(int id) {
+        return supply(() -> delegate.getBookById(id));
+    }
+
+    public CompletableFuture<List<Book>> getAllBooks() {
+        return supply(delegate::getAllBooks);
+    }
+
+    // action dijalankan di thread executor, bukan di Event Dispatch Thread
+    public CompletableFuture<Long> forEachBook(Consumer<? super Book> action, int fetchSize) {
+        return supply(() -> delegate.forEachBook(action, fetchSize));
+    }
+
+    public CompletableFuture<Book> updateBook(Book book) {
+        return supply(() -> delegate.updateBook(book));
+    }
+
+    public CompletableFuture<Boolean> deleteBook(int id) {
+        return supply(() -> delegate.deleteBook(id));
+    }
+
+    public CompletableFuture<List<Book>> addBooks(Collection<Book> books) {
+        return supply(() -> delegate.addBooks(books));
+    }
+
+    public CompletableFuture<Integer> updateBooks(Collection<Book> books) {
+        return supply(() -> delegate.updateBooks(books));
+    }
+
+    public CompletableFuture<Integer> deleteBooks(int... ids) {
+        return supply(() -> delegate.deleteBooks(ids));
+    }
+
+    public CompletableFuture<List<Book>> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        return supply(() -> delegate.getBooksAfter(sortKey, after, limit));
+    }
+
+    public CompletableFuture<Integer> countBooks() {
+        return supply(delegate::countBooks);
+    }
+
+    public CompletableFuture<List<Book>> searchBooks(String query, int limit) {
+        return supply(() -> delegate.searchBooks(query, limit));
+    }
+
+    public CompletableFuture<List<Book>> topRated(int n, BookFilter filter) {
+        return supply(() -> delegate.topRated(n, filter));
+    }
+
+    public CompletableFuture<BookChanges> changesSince(long token) {
+        return supply(() -> delegate.changesSince(token));
+    }
+
+    public CompletableFuture<List<BookGroupStats>> groupStats(BookGrouping grouping) {
+        return supply(() -> delegate.groupStats(grouping));
+    }
+
+    // Menjalankan operasi apa pun di executor DAO
+    public <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (result.isDone()) {
+                    return; // Sudah dibatalkan sebelum sempat berjalan
+                }
+                try {
+                    result.complete(operation.get());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new DataAccessException("Terlalu banyak permintaan data yang mengantre", e));
+            return result;
+        }
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
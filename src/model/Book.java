@@ -4,7 +4,9 @@ package model;
  * Kelas Book merepresentasikan entitas buku dalam perpustakaan.
  * Ini mencakup informasi seperti judul, penulis, tahun terbit,
  * dan skor untuk alur cerita, gaya bahasa, serta orisinalitas.
- * Rating buku dihitung secara otomatis berdasarkan skor-skor tersebut.
+ * Rating buku dihitung secara otomatis berdasarkan skor-skor tersebut, dengan rumus dari
+ * RatingEngine.current(). Setter skor hanya menandai rating usang; rating dihitung sekali saat
+ * dibaca berikutnya, bukan sekali per setter.
  *
  * Konsep OOP yang diterapkan:
  * - Enkapsulasi: Semua field bersifat private dan diakses melalui getter dan setter.
@@ -18,6 +20,7 @@ public class Book {
     private double languageStyleScore;
     private double originalityScore;
     private double rating;
+    private boolean ratingStale; // true jika skor/penulis berubah sejak rating terakhir dihitung
 
     // Konstruktor
     public Book(String title, String author, int publicationYear, double storylineScore, double languageStyleScore, double originalityScore) {
@@ -34,6 +37,47 @@ public class Book {
         // Konstruktor default
     }
 
+    // Konstruktor lengkap untuk buku yang dibaca dari penyimpanan: semua field diisi sekali jalan,
+    // tanpa validasi setter dan tanpa menghitung ulang rating (nilai tersimpan dipakai apa adanya)
+    public Book(int id, String title, String author, int publicationYear, double storylineScore,
+                double languageStyleScore, double originalityScore, double rating) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.publicationYear = publicationYear;
+        this.storylineScore = storylineScore;
+        this.languageStyleScore = languageStyleScore;
+        this.originalityScore = originalityScore;
+        this.rating = rating;
+    }
+
+    // Konstruktor salinan, misalnya agar buku di cache tidak ikut berubah oleh pemanggil
+    public Book(Book other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.author = other.author;
+        this.publicationYear = other.publicationYear;
+        this.storylineScore = other.storylineScore;
+        this.languageStyleScore = other.languageStyleScore;
+        this.originalityScore = other.originalityScore;
+        this.rating = other.rating;
+        this.ratingStale = other.ratingStale;
+    }
+
+    // Mengisi ulang semua field sekaligus, untuk objek yang dipakai ulang saat membaca banyak baris
+    void assign(int id, String title, String author, int publicationYear, double storylineScore,
+                double languageStyleScore, double originalityScore, double rating) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.publicationYear = publicationYear;
+        this.storylineScore = storylineScore;
+        this.languageStyleScore = languageStyleScore;
+        this.originalityScore = originalityScore;
+        this.rating = rating;
+        this.ratingStale = false;
+    }
+
     // Getter dan Setter (Enkapsulasi)
     public int getId() {
         return id;
@@ -57,6 +101,7 @@ public class Book {
 
     public void setAuthor(String author) {
         this.author = author;
+        this.ratingStale = true; // Rumus bayesian bergantung pada penulis
     }
 
     public int getPublicationYear() {
@@ -76,7 +121,7 @@ public class Book {
     public void setStorylineScore(double storylineScore) {
         if (storylineScore >= 0 && storylineScore <= 5) {
             this.storylineScore = storylineScore;
-            this.calculateRating();
+            this.ratingStale = true;
         }
     }
 
@@ -87,7 +132,7 @@ public class Book {
     public void setLanguageStyleScore(double languageStyleScore) {
         if (languageStyleScore >= 0 && languageStyleScore <= 5) {
             this.languageStyleScore = languageStyleScore;
-            this.calculateRating();
+            this.ratingStale = true;
         }
     }
 
@@ -98,17 +143,26 @@ public class Book {
     public void setOriginalityScore(double originalityScore) {
         if (originalityScore >= 0 && originalityScore <= 5) {
             this.originalityScore = originalityScore;
-            this.calculateRating();
+            this.ratingStale = true;
         }
     }
 
     public double getRating() {
+        if (ratingStale) {
+            calculateRating();
+        }
         return rating;
     }
 
-    // Metode untuk menghitung rating
+    // Metode untuk menghitung rating dengan rumus yang sedang berlaku
     public void calculateRating() {
-        this.rating = (this.storylineScore + this.languageStyleScore + this.originalityScore) / 3.0;
+        this.rating = RatingEngine.current().rate(this);
+        this.ratingStale = false;
+    }
+
+    // Rata-rata biasa ketiga skor (rumus bawaan RatingEngine)
+    public static double ratingOf(double storylineScore, double languageStyleScore, double originalityScore) {
+        return (storylineScore + languageStyleScore + originalityScore) / 3.0;
     }
 
     // Override toString untuk representasi string yang mudah dibaca (opsional)
@@ -122,7 +176,7 @@ public class Book {
                 ", storylineScore=" + storylineScore +
                 ", languageStyleScore=" + languageStyleScore +
                 ", originalityScore=" + originalityScore +
-                ", rating=" + String.format("%.2f", rating) +
+                ", rating=" + String.format("%.2f", getRating()) +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * BookAnalytics menghitung statistik katalog per penulis dan per tahun terbit: jumlah buku,
+ * rata-rata, median, kuantil, minimum, maksimum, dan distribusi rating serta ketiga skor.
+ *
+ * Setiap kelompok menyimpan satu ScoreHistogram per metrik. Sketsa tersebut dapat digabung,
+ * sehingga load() membagi katalog ke beberapa thread (parallel stream) dan menggabungkan
+ * hasil sebagiannya, dan dapat dikurangi, sehingga upsert/remove/apply memperbarui statistik
+ * satu buku tanpa membaca ulang katalog. Untuk itu nilai terakhir setiap buku disimpan
+ * (tanpa judul), sekitar seratus byte per buku.
+ *
+ * Agregat yang cukup berupa count/avg/min/max dapat dihitung langsung oleh database lewat
+ * BookDAO.groupStats; kelas ini dipakai untuk median dan distribusi, atau jika penyimpanan
+ * tidak mendukungnya. Kelas ini tidak thread-safe: bangun di thread latar, lalu pakai dari
+ * satu thread saja (misalnya EDT).
+ */
+public final class BookAnalytics {
+    private static final BookMetric[] METRICS = BookMetric.values();
+    private static final BookGrouping[] GROUPINGS = BookGrouping.values();
+
+    private final Map<Integer, Entry> books = new HashMap<>();
+    private final Map<BookGrouping, Map<String, Group>> groups = new EnumMap<>(BookGrouping.class);
+    private final Group catalogue = new Group(null);
+
+    public BookAnalytics() {
+        for (BookGrouping grouping : GROUPINGS) {
+            groups.put(grouping, new HashMap<>());
+        }
+    }
+
+    // Membaca seluruh katalog lewat streamBooks; buku dibagi ke thread ForkJoinPool.commonPool
+    // dan setiap thread mengisi BookAnalytics sendiri sebelum hasilnya digabung
+    public static BookAnalytics load(BookDAO bookDAO) {
+        try (Stream<Book> stream = bookDAO.streamBooks()) {
+            return stream.parallel().collect(Collector.of(BookAnalytics::new, BookAnalytics::upsert,
+                    BookAnalytics::merge, Collector.Characteristics.UNORDERED));
+        }
+    }
+
+    // Jumlah buku yang tercakup
+    public int size() {
+        return books.size();
+    }
+
+    // Menambahkan buku baru atau mengganti nilai buku yang sudah tercakup
+    public void upsert(Book book) {
+        Entry previous = books.remove(book.getId());
+        if (previous != null) {
+            unaccount(previous);
+        }
+        Entry entry = new Entry(book);
+        books.put(book.getId(), entry);
+        catalogue.add(entry);
+        for (BookGrouping grouping : GROUPINGS) {
+            Group group = groups.get(grouping).computeIfAbsent(entry.keys[grouping.ordinal()], Group::new);
+            entry.keys[grouping.ordinal()] = group.key; // Satu objek String per kelompok, bukan per buku
+            group.add(entry);
+        }
+    }
+
+    public boolean remove(int id) {
+        Entry previous = books.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        unaccount(previous);
+        return true;
+    }
+
+    // Menerapkan hasil change feed; false jika feed meminta muat ulang (bangun ulang dengan load)
+    public boolean apply(BookChanges changes) {
+        if (changes.isReloadRequired()) {
+            return false;
+        }
+        for (Book book : changes.getInserted()) {
+            upsert(book);
+        }
+        for (Book book : changes.getUpdated()) {
+            upsert(book);
+        }
+        for (int id : changes.getDeletedIds()) {
+            remove(id);
+        }
+        return true;
+    }
+
+    // Ringkasan setiap kelompok, berurutan menurut kunci kelompok
+    public List<BookGroupStats> stats(BookGrouping grouping) {
+        Map<String, Group> byKey = groups.get(grouping);
+        List<String> keys = new ArrayList<>(byKey.keySet());
+        keys.sort(grouping.keyOrder());
+        List<BookGroupStats> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(BookGroupStats.of(grouping, key, byKey.get(key).metrics));
+        }
+        return result;
+    }
+
+    // Ringkasan satu kelompok, atau null jika kelompok tersebut tidak ada
+    public BookGroupStats stats(BookGrouping grouping, String key) {
+        Group group = groups.get(grouping).get(key);
+        return group == null ? null : BookGroupStats.of(grouping, key, group.metrics);
+    }
+
+    // Ringkasan seluruh katalog
+    public BookGroupStats overall() {
+        return BookGroupStats.of(null, "Semua buku", catalogue.metrics);
+    }
+
+    private void unaccount(Entry entry) {
+        catalogue.remove(entry);
+        for (BookGrouping grouping : GROUPINGS) {
+            Map<String, Group> byKey = groups.get(grouping);
+            String key = entry.keys[grouping.ordinal()];
+            Group group = byKey.get(key);
+            group.remove(entry);
+            if (group.isEmpty()) {
+                byKey.remove(key);
+            }
+        }
+    }
+
+    // Penggabung untuk parallel stream: setiap bagian berisi buku yang berbeda
+    private BookAnalytics merge(BookAnalytics other) {
+        books.putAll(other.books);
+        catalogue.merge(other.catalogue);
+        for (BookGrouping grouping : GROUPINGS) {
+            Map<String, Group> byKey = groups.get(grouping);
+            for (Map.Entry<String, Group> group : other.groups.get(grouping).entrySet()) {
+                Group existing = byKey.putIfAbsent(group.getKey(), group.getValue());
+                if (existing != null) {
+                    existing.merge(group.getValue());
+                }
+            }
+        }
+        return this;
+    }
+
+    // Nilai terakhir satu buku, agar kontribusinya dapat dikurangi saat buku berubah
+    private static final class Entry {
+        private final String[] keys = new String[GROUPINGS.length];
+        private final double[] values = new double[METRICS.length];
+
+        Entry(Book book) {
+            for (BookGrouping grouping : GROUPINGS) {
+                keys[grouping.ordinal()] = grouping.keyOf(book);
+            }
+            for (BookMetric metric : METRICS) {
+                values[metric.ordinal()] = metric.valueOf(book);
+            }
+        }
+    }
+
+    // Satu sketsa per metrik untuk satu kelompok
+    private static final class Group {
+        private final String key;
+        private final ScoreHistogram[] metrics = new ScoreHistogram[METRICS.length];
+
+        Group(String key) {
+            this.key = key;
+            for (int i = 0; i < metrics.length; i++) {
+                metrics[i] = new ScoreHistogram();
+            }
+        }
+
+        void add(Entry entry) {
+            for (int i = 0; i < metrics.length; i++) {
+                metrics[i].add(entry.values[i]);
+            }
+        }
+
+        void remove(Entry entry) {
+            for (int i = 0; i < metrics.length; i++) {
+                metrics[i].remove(entry.values[i]);
+            }
+        }
+
+        void merge(Group other) {
+            for (int i = 0; i < metrics.length; i++) {
+                metrics[i].merge(other.metrics[i]);
+            }
+        }
+
+        boolean isEmpty() {
+            return metrics[0].getCount() == 0;
+        }
+    }
+}
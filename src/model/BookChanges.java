@@ -0,0 +1,81 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BookChanges adalah hasil BookDAO.changesSince: buku yang ditambahkan, diubah, dan dihapus
+ * setelah token tertentu, beserta token baru untuk permintaan berikutnya.
+ *
+ * Jika perubahan tidak dapat disusun (token terlalu lama sehingga tombstone sudah dibuang,
+ * atau perubahannya terlalu banyak), isReloadRequired() bernilai true dan pemanggil
+ * sebaiknya memuat ulang seluruh data lalu melanjutkan dengan getToken().
+ */
+public final class BookChanges {
+    private final long token;
+    private final List<Book> inserted;
+    private final List<Book> updated;
+    private final int[] deletedIds;
+    private final boolean reloadRequired;
+
+    public BookChanges(long token, List<Book> inserted, List<Book> updated, int[] deletedIds) {
+        this(token, inserted, updated, deletedIds, false);
+    }
+
+    private BookChanges(long token, List<Book> inserted, List<Book> updated, int[] deletedIds, boolean reloadRequired) {
+        this.token = token;
+        this.inserted = Collections.unmodifiableList(inserted);
+        this.updated = Collections.unmodifiableList(updated);
+        this.deletedIds = deletedIds;
+        this.reloadRequired = reloadRequired;
+    }
+
+    // Tidak ada perubahan; hanya token (misalnya untuk permintaan pertama dengan token 0)
+    public static BookChanges none(long token) {
+        return new BookChanges(token, Collections.<Book>emptyList(), Collections.<Book>emptyList(), new int[0]);
+    }
+
+    // Perubahan tidak tersedia; muat ulang semua data lalu lanjutkan dari token ini
+    public static BookChanges reload(long token) {
+        return new BookChanges(token, Collections.<Book>emptyList(), Collections.<Book>emptyList(), new int[0], true);
+    }
+
+    // Token untuk changesSince berikutnya
+    public long getToken() {
+        return token;
+    }
+
+    // Buku yang ditambahkan setelah token lama (urut versi perubahan)
+    public List<Book> getInserted() {
+        return inserted;
+    }
+
+    // Buku yang sudah ada sebelum token lama dan diubah setelahnya
+    public List<Book> getUpdated() {
+        return updated;
+    }
+
+    public int[] getDeletedIds() {
+        return deletedIds.clone();
+    }
+
+    public boolean isReloadRequired() {
+        return reloadRequired;
+    }
+
+    public boolean isEmpty() {
+        return !reloadRequired && inserted.isEmpty() && updated.isEmpty() && deletedIds.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        if (reloadRequired) {
+            return "BookChanges{token=" + token + ", reloadRequired}";
+        }
+        return "BookChanges{token=" + token +
+                ", inserted=" + inserted.size() +
+                ", updated=" + updated.size() +
+                ", deleted=" + deletedIds.length +
+                '}';
+    }
+}
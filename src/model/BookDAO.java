@@ -1,6 +1,16 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Interface BookDAO (Data Access Object) mendefinisikan operasi standar
@@ -8,9 +18,197 @@ import java.util.List;
  * Ini adalah bagian dari pola desain DAO dan menerapkan konsep Interface dalam OOP.
  */
 public interface BookDAO {
-    void addBook(Book book);        // Create
+    // Jumlah baris per round trip (atau per halaman) untuk forEachBook/streamBooks tanpa fetchSize
+    int DEFAULT_FETCH_SIZE = AppConfig.getInt("library.stream.fetchSize", 1000);
+
+    Book addBook(Book book);        // Create, mengembalikan buku yang tersimpan beserta id-nya
     Book getBookById(int id);       // Read
     List<Book> getAllBooks();       // Read All
-    void updateBook(Book book);     // Update
-    void deleteBook(int id);        // Delete
+    Book updateBook(Book book);     // Update, mengembalikan buku yang tersimpan (null jika id tidak ada)
+    boolean deleteBook(int id);     // Delete, true jika ada baris yang terhapus
+
+    // Read Page: halaman berikutnya setelah buku 'after' menurut urutan (sortKey, id).
+    // 'after' bernilai null untuk halaman pertama. Memakai pagination keyset, bukan OFFSET.
+    List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit);
+
+    int countBooks();               // Jumlah seluruh buku
+
+    // Read berdasarkan beberapa id sekaligus; buku yang tidak ada dilewati, urutan tidak dijamin
+    default List<Book> getBooksByIds(int... ids) {
+        List<Book> books = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Book book = getBookById(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    // Pencarian judul/penulis, paling relevan lebih dulu (maksimal 'limit' buku).
+    // Implementasi default memindai getAllBooks(); decorator SearchIndexBookDAO memakai indeks trigram.
+    default List<Book> searchBooks(String query, int limit) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<Book> found = new ArrayList<>();
+        if (needle.isEmpty()) {
+            return found;
+        }
+        for (Book book : getAllBooks()) {
+            if (contains(book.getTitle(), needle) || contains(book.getAuthor(), needle)) {
+                found.add(book);
+                if (found.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Leaderboard: n buku dengan rating tertinggi yang cocok dengan filter (null = semua buku),
+    // urut rating menurun lalu id menaik. Implementasi default memindai getAllBooks() dengan
+    // heap berukuran n; BookDAOImpl memakai ORDER BY rating DESC ... LIMIT n lewat indeks.
+    default List<Book> topRated(int n, BookFilter filter) {
+        return Leaderboard.top(getAllBooks(), n, filter == null ? BookFilter.all() : filter);
+    }
+
+    // Operasi massal. Implementasi default memanggil operasi satu baris berulang kali;
+    // implementasi JDBC menimpanya dengan batch agar tidak satu round trip per buku.
+
+    // Create massal, mengembalikan buku yang tersimpan beserta id-nya (urutan sama dengan masukan)
+    default List<Book> addBooks(Collection<Book> books) {
+        List<Book> saved = new ArrayList<>(books.size());
+        for (Book book : books) {
+            saved.add(addBook(book));
+        }
+        return saved;
+    }
+
+    // Update massal, mengembalikan jumlah buku yang diperbarui
+    default int updateBooks(Collection<Book> books) {
+        int updated = 0;
+        for (Book book : books) {
+            if (updateBook(book) != null) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    // Menyimpan rating yang sudah dihitung (book.getRating()) tanpa mengubah kolom lain, untuk
+    // penghitungan ulang massal (ReRatingJob). Buku yang penulis atau skornya sudah berubah sejak
+    // dibaca dilewati. Mengembalikan jumlah buku yang diperbarui. Implementasi default menulis
+    // ulang seluruh buku lewat updateBooks (penyimpanan menghitung ratingnya saat menulis).
+    default int updateRatings(Collection<Book> books) {
+        return updateBooks(books);
+    }
+
+    // Delete massal, mengembalikan jumlah buku yang terhapus
+    default int deleteBooks(int... ids) {
+        int deleted = 0;
+        for (int id : ids) {
+            if (deleteBook(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    // Pembacaan sekali jalan atas seluruh buku, berurutan id, tanpa menampung semuanya di memori.
+    // Objek Book yang diberikan ke action boleh dipakai ulang untuk buku berikutnya; salin
+    // (new Book(book)) jika perlu disimpan. Mengembalikan jumlah buku yang diberikan ke action.
+    // Implementasi default membaca per halaman fetchSize buku (pagination keyset);
+    // BookDAOImpl memakai satu cursor forward-only / streaming result set.
+    default long forEachBook(Consumer<? super Book> action, int fetchSize) {
+        long count = 0;
+        Book last = null;
+        while (true) {
+            List<Book> page = getBooksAfter(BookSortKey.ID, last, fetchSize);
+            for (Book book : page) {
+                action.accept(book);
+            }
+            count += page.size();
+            if (page.size() < fetchSize) {
+                return count;
+            }
+            last = page.get(page.size() - 1);
+        }
+    }
+
+    default long forEachBook(Consumer<? super Book> action) {
+        return forEachBook(action, DEFAULT_FETCH_SIZE);
+    }
+
+    // Seperti forEachBook, sebagai Stream yang dibaca malas; setiap elemen adalah objek baru.
+    // Stream harus ditutup (try-with-resources) agar koneksi/cursor di baliknya dilepas.
+    default Stream<Book> streamBooks(int fetchSize) {
+        Spliterator<Book> pages = new Spliterators.AbstractSpliterator<Book>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<Book> page = Collections.emptyIterator();
+            private Book last;
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Book> action) {
+                while (!page.hasNext()) {
+                    if (done) {
+                        return false;
+                    }
+                    List<Book> next = getBooksAfter(BookSortKey.ID, last, fetchSize);
+                    done = next.size() < fetchSize;
+                    if (next.isEmpty()) {
+                        return false;
+                    }
+                    last = next.get(next.size() - 1);
+                    page = next.iterator();
+                }
+                action.accept(page.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(pages, false);
+    }
+
+    default Stream<Book> streamBooks() {
+        return streamBooks(DEFAULT_FETCH_SIZE);
+    }
+
+    // Change feed: perubahan setelah token dari panggilan sebelumnya (token 0 = hanya minta token awal),
+    // agar klien lain dapat menambal tampilannya tanpa membaca ulang seluruh katalog.
+    // Mengembalikan null jika penyimpanan tidak melacak perubahan (implementasi default).
+    default BookChanges changesSince(long token) {
+        return null;
+    }
+
+    // Agregat count/avg/min/max setiap BookMetric per kelompok, dihitung oleh penyimpanan sendiri
+    // (GROUP BY). Mengembalikan null jika tidak didukung (implementasi default); median dan
+    // distribusi selalu dihitung di memori oleh BookAnalytics.
+    default List<BookGroupStats> groupStats(BookGrouping grouping) {
+        return null;
+    }
+
+    // Rumus rating (RatingEngine.describe()) yang dipakai rating tersimpan. Dicatat bersama datanya
+    // agar semua klien penyimpanan yang sama memakai rumus yang sama. Mengembalikan null jika
+    // penyimpanan tidak mencatatnya (implementasi default; ReRatingJob memakai berkas penanda).
+    default String getRatingFormula() {
+        return null;
+    }
+
+    // Mencatat rumus rating setelah semua rating dihitung ulang; false jika tidak didukung
+    default boolean setRatingFormula(String formula) {
+        return false;
+    }
+
+    private static boolean contains(String text, String lowerCaseNeedle) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle);
+    }
+
+    // Read Page berdasarkan id saja (urutan id menaik)
+    default List<Book> getBooksAfter(int lastId, int limit) {
+        Book after = null;
+        if (lastId > 0) {
+            after = new Book();
+            after.setId(lastId);
+        }
+        return getBooksAfter(BookSortKey.ID, after, limit);
+    }
 }
@@ -2,49 +2,135 @@ package model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementasi dari BookDAO yang menggunakan JDBC untuk berinteraksi
  * dengan database. Kelas ini menangani semua operasi SQL terkait buku.
+ * Kegagalan operasi tulis dilaporkan sebagai DataAccessException.
+ *
+ * Operasi massal (addBooks, updateBooks, deleteBooks) dikirim dalam batch JDBC
+ * berukuran batchSize, dengan satu transaksi per batch.
+ * Pembacaan seluruh tabel (ekspor, analitik, pembangunan indeks) memakai forEachBook atau
+ * streamBooks, yang membaca lewat cursor forward-only sebanyak fetchSize baris per round trip
+ * (streaming result set pada MySQL), sehingga memori tetap datar berapa pun jumlah bukunya.
+ *
+ * Semua query memakai PreparedStatement dengan teks SQL yang tetap, sehingga dipakai ulang
+ * dari cache statement di ConnectionPool, dan daftar kolom eksplisit (SELECT_BOOKS_SQL) yang
+ * dibaca berdasarkan posisi oleh mapResultSetToBook.
+ *
+ * Pelacakan perubahan (changesSince): setiap transaksi tulis mengambil nomor versi baru dari
+ * baris tunggal book_change_seq dan menuliskannya ke kolom version buku yang diubah; buku yang
+ * dihapus dicatat di book_tombstones dengan versi yang sama. Kunci baris book_change_seq ditahan
+ * sampai commit, sehingga versi terlihat oleh pembaca sesuai urutannya dan klien cukup meminta
+ * baris dengan versi di atas token terakhirnya. Tombstone yang lebih tua dari
+ * library.changes.tombstoneRetentionMs dibuang; klien dengan token sebelum itu diminta memuat
+ * ulang semua data, begitu juga jika perubahannya lebih dari library.changes.maxRows.
+ *
+ * Pembacaan buku memakai DatabaseConnection.getReadConnection() (replika jika dikonfigurasi);
+ * setiap versi yang diambil, dan setiap token yang dikembalikan changesSince, dicatat lewat
+ * requireVersion, sehingga pembacaan setelah penulisan sendiri, dan snapshot yang akan
+ * diperbarui dari token tersebut, memakai primary sampai replika menyusul. changesSince dan
+ * semua penulisan tetap memakai primary.
  */
 public class BookDAOImpl implements BookDAO {
+    // Urutan kolom ini harus sama dengan indeks yang dibaca oleh mapResultSetToBook
+    static final String SELECT_BOOKS_SQL = "SELECT id, title, author, publication_year, storyline_score, "
+            + "language_style_score, originality_score, rating FROM books";
+    private static final String STREAM_SQL = SELECT_BOOKS_SQL + " ORDER BY id";
+    private static final String SELECT_BY_ID_SQL = SELECT_BOOKS_SQL + " WHERE id = ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM books";
+    private static final String DELETE_SQL = "DELETE FROM books WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO books (title, author, publication_year, storyline_score, language_style_score, originality_score, rating, version, created_version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE books SET title = ?, author = ?, publication_year = ?, storyline_score = ?, language_style_score = ?, originality_score = ?, rating = ?, version = ? WHERE id = ?";
+    // Hanya rating; baris yang penulis/skornya berubah sejak dibaca tidak disentuh (ratingnya sudah dihitung saat diubah)
+    private static final String UPDATE_RATING_SQL = "UPDATE books SET rating = ?, version = ? WHERE id = ? AND author = ? "
+            + "AND storyline_score = ? AND language_style_score = ? AND originality_score = ?";
 
-    @Override
-    public void addBook(Book book) {
-        String sql = "INSERT INTO books (title, author, publication_year, storyline_score, language_style_score, originality_score, rating) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    // Pelacakan perubahan: nomor versi, tombstone buku yang dihapus, dan pembacaan perubahan
+    private static final String NEXT_VERSION_SQL = "UPDATE book_change_seq SET seq = seq + 1 WHERE id = 1";
+    private static final String SELECT_VERSION_SQL = "SELECT seq, pruned_version FROM book_change_seq WHERE id = 1";
+    private static final String TOMBSTONE_SQL = "INSERT INTO book_tombstones (book_id, version, created_version) SELECT id, ?, created_version FROM books WHERE id = ?";
+    private static final String CHANGED_BOOKS_SQL = "SELECT id, title, author, publication_year, storyline_score, "
+            + "language_style_score, originality_score, rating, created_version FROM books "
+            + "WHERE version > ? AND version <= ? ORDER BY version, id LIMIT ?";
+    // Buku yang dibuat dan dihapus setelah token tidak pernah dilihat klien, jadi tidak dilaporkan
+    private static final String DELETED_IDS_SQL = "SELECT book_id FROM book_tombstones "
+            + "WHERE version > ? AND version <= ? AND created_version <= ? ORDER BY version, book_id LIMIT ?";
+    private static final String PRUNE_VERSION_SQL = "SELECT MAX(version) FROM book_tombstones WHERE deleted_at < ?";
+    private static final String PRUNE_SEQ_SQL = "UPDATE book_change_seq SET pruned_version = GREATEST(pruned_version, ?) WHERE id = 1";
+    private static final String PRUNE_TOMBSTONES_SQL = "DELETE FROM book_tombstones WHERE version <= ?";
+
+    // Pengaturan bersama semua klien database (library_settings)
+    private static final String RATING_FORMULA_SETTING = "rating.formula";
+    private static final String SELECT_SETTING_SQL = "SELECT setting_value FROM library_settings WHERE name = ?";
+    private static final String UPDATE_SETTING_SQL = "UPDATE library_settings SET setting_value = ? WHERE name = ?";
+    private static final String INSERT_SETTING_SQL = "INSERT INTO library_settings (name, setting_value) VALUES (?, ?)";
+
+    // Jumlah perubahan maksimum per changesSince sebelum klien diminta memuat ulang semua data
+    private static final int CHANGES_MAX_ROWS = AppConfig.getInt("library.changes.maxRows", 1000);
+    // Lama tombstone disimpan (default 7 hari); pembuangan dijalankan paling sering sekali per jam
+    private static final long TOMBSTONE_RETENTION_MS = AppConfig.getLong("library.changes.tombstoneRetentionMs", 7L * 24 * 60 * 60 * 1000);
+    private static final long PRUNE_INTERVAL_MS = 60L * 60 * 1000;
 
-            pstmt.setString(1, book.getTitle());
-            pstmt.setString(2, book.getAuthor());
-            pstmt.setInt(3, book.getPublicationYear());
-            pstmt.setDouble(4, book.getStorylineScore());
-            pstmt.setDouble(5, book.getLanguageStyleScore());
-            pstmt.setDouble(6, book.getOriginalityScore());
-            book.calculateRating(); // Pastikan rating terhitung sebelum disimpan
-            pstmt.setDouble(7, book.getRating());
-            pstmt.executeUpdate();
+    private volatile long lastPruneMillis;
 
-            // Mendapatkan ID yang digenerate oleh database
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    book.setId(generatedKeys.getInt(1));
+    // Jumlah baris per batch JDBC (dan per transaksi) pada operasi massal
+    private int batchSize = AppConfig.getInt("library.jdbc.batchSize", 500);
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Ukuran batch harus lebih dari 0: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Book addBook(Book book) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                long version = nextVersion(conn);
+                bindBookColumns(pstmt, book);
+                pstmt.setLong(8, version);
+                pstmt.setLong(9, version);
+                pstmt.executeUpdate();
+
+                // Mendapatkan ID yang digenerate oleh database
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        book.setId(generatedKeys.getInt(1));
+                    }
                 }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
             System.out.println("Buku berhasil ditambahkan: " + book.getTitle());
+            return book;
         } catch (SQLException e) {
-            System.err.println("Error saat menambahkan buku: " + e.getMessage());
-            e.printStackTrace();
+            throw new DataAccessException("Error saat menambahkan buku: " + e.getMessage(), e);
         }
     }
 
     @Override
     public Book getBookById(int id) {
-        String sql = "SELECT * FROM books WHERE id = ?";
         Book book = null;
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
 
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -61,10 +147,9 @@ public class BookDAOImpl implements BookDAO {
     @Override
     public List<Book> getAllBooks() {
         List<Book> books = new ArrayList<>();
-        String sql = "SELECT * FROM books";
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_BOOKS_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 books.add(mapResultSetToBook(rs));
@@ -77,56 +162,794 @@ public class BookDAOImpl implements BookDAO {
     }
 
     @Override
-    public void updateBook(Book book) {
-        String sql = "UPDATE books SET title = ?, author = ?, publication_year = ?, storyline_score = ?, language_style_score = ?, originality_score = ?, rating = ? WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        List<Book> books = new ArrayList<>(limit);
+        String column = sortKey.getColumn();
+        String orderBy = sortKey == BookSortKey.ID ? "id" : column + ", id";
+        String sql;
+        if (after == null) {
+            sql = SELECT_BOOKS_SQL + " ORDER BY " + orderBy + " LIMIT ?";
+        } else if (sortKey == BookSortKey.ID) {
+            sql = SELECT_BOOKS_SQL + " WHERE id > ? ORDER BY id LIMIT ?";
+        } else {
+            // Perbandingan baris (kunci, id) agar halaman dicari lewat indeks, bukan dilewati satu per satu
+            sql = SELECT_BOOKS_SQL + " WHERE (" + column + ", id) > (?, ?) ORDER BY " + orderBy + " LIMIT ?";
+        }
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, book.getTitle());
-            pstmt.setString(2, book.getAuthor());
-            pstmt.setInt(3, book.getPublicationYear());
-            pstmt.setDouble(4, book.getStorylineScore());
-            pstmt.setDouble(5, book.getLanguageStyleScore());
-            pstmt.setDouble(6, book.getOriginalityScore());
-            book.calculateRating(); // Pastikan rating terhitung ulang sebelum disimpan
-            pstmt.setDouble(7, book.getRating());
-            pstmt.setInt(8, book.getId());
-            pstmt.executeUpdate();
-            System.out.println("Buku berhasil diperbarui: " + book.getTitle());
+            int index = 1;
+            if (after != null) {
+                if (sortKey != BookSortKey.ID) {
+                    sortKey.bindKey(pstmt, index++, after);
+                }
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
         } catch (SQLException e) {
-            System.err.println("Error saat memperbarui buku: " + e.getMessage());
+            System.err.println("Error saat mengambil halaman buku: " + e.getMessage());
+            e.printStackTrace();
         }
+        return books;
     }
 
     @Override
-    public void deleteBook(int id) {
-        String sql = "DELETE FROM books WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+    public List<Book> getBooksByIds(int... ids) {
+        List<Book> books = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return books;
+        }
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            for (int from = 0; from < ids.length; from += batchSize) {
+                int size = Math.min(batchSize, ids.length - from);
+                // Jumlah parameter dibulatkan ke pangkat dua (id terakhir diulang) agar hanya
+                // ada sedikit variasi teks SQL yang perlu disiapkan dan di-cache
+                int parameters = size == 1 ? 1 : Math.max(size, Math.min(batchSize, Integer.highestOneBit(size - 1) << 1));
+                try (PreparedStatement pstmt = conn.prepareStatement(selectInSql(parameters))) {
+                    for (int i = 0; i < parameters; i++) {
+                        pstmt.setInt(i + 1, ids[from + Math.min(i, size - 1)]);
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            books.add(mapResultSetToBook(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saat mengambil buku berdasarkan daftar ID: " + e.getMessage());
+        }
+        return books;
+    }
+
+    // Tanpa indeks di memori: LIKE pada judul/penulis, kecocokan awalan judul lebih dulu.
+    // LIKE '%...%' tidak memakai indeks B-tree, jadi untuk katalog besar gunakan SearchIndexBookDAO.
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        List<Book> books = new ArrayList<>();
+        String needle = escapeLike(query.trim());
+        if (needle.isEmpty()) {
+            return books;
+        }
+        String sql = SELECT_BOOKS_SQL + " WHERE title LIKE ? OR author LIKE ? "
+                + "ORDER BY (title LIKE ?) DESC, title, id LIMIT ?";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+            pstmt.setString(1, "%" + needle + "%");
+            pstmt.setString(2, "%" + needle + "%");
+            pstmt.setString(3, needle + "%");
+            pstmt.setInt(4, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saat mencari buku: " + e.getMessage());
+        }
+        return books;
+    }
+
+    // Top-N langsung dari database. Tanpa filter dan dengan filter penulis, urutan
+    // (rating DESC, id) dibaca dari indeks idx_books_rating_desc / idx_books_author_rating
+    // dan berhenti setelah n baris; filter tahun membaca rentang idx_books_year_id lalu
+    // MySQL menyimpan n teratas dengan priority queue (filesort dengan LIMIT).
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        List<Book> books = new ArrayList<>();
+        if (n <= 0) {
+            return books;
+        }
+        if (filter == null) {
+            filter = BookFilter.all();
+        }
+        StringBuilder sql = new StringBuilder(SELECT_BOOKS_SQL);
+        if (filter.hasAuthor()) {
+            sql.append(" WHERE author = ?");
+        }
+        if (filter.hasYearRange()) {
+            sql.append(filter.hasAuthor() ? " AND" : " WHERE").append(" publication_year BETWEEN ? AND ?");
+        }
+        sql.append(" ORDER BY rating DESC, id LIMIT ?");
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            if (filter.hasAuthor()) {
+                pstmt.setString(index++, filter.getAuthor());
+            }
+            if (filter.hasYearRange()) {
+                pstmt.setInt(index++, filter.getFromYear());
+                pstmt.setInt(index++, filter.getToYear());
+            }
+            pstmt.setInt(index, n);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapResultSetToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saat mengambil buku dengan rating tertinggi: " + e.getMessage());
+        }
+        return books;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Membaca seluruh buku berurutan id lewat satu cursor; satu objek Book dipakai ulang untuk
+    // setiap baris. Selama pembacaan, koneksi ini tidak dapat dipakai untuk query lain (MySQL
+    // streaming), jadi action sebaiknya tidak memanggil DAO yang sama secara sinkron.
+    @Override
+    public long forEachBook(Consumer<? super Book> action, int fetchSize) {
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            // Beberapa driver (mis. PostgreSQL) hanya memakai cursor di dalam transaksi
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(STREAM_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(streamingFetchSize(conn, fetchSize));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Book book = new Book();
+                    while (rs.next()) {
+                        mapResultSetToBook(rs, book);
+                        action.accept(book);
+                        count++;
+                    }
+                }
+            } finally {
+                conn.rollback(); // Hanya membaca, tidak ada yang perlu di-commit
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat membaca buku (" + count + " buku sudah dibaca): "
+                    + e.getMessage(), e);
+        }
+    }
+
+    // Cursor dibuka saat stream dibuat dan ditutup oleh Stream.close(); setiap elemen objek baru
+    @Override
+    public Stream<Book> streamBooks(int fetchSize) {
+        BookCursor cursor = new BookCursor();
+        try {
+            cursor.open(fetchSize);
+        } catch (SQLException e) {
+            cursor.close();
+            throw new DataAccessException("Error saat membuka cursor buku: " + e.getMessage(), e);
+        }
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    // Koneksi, statement, dan result set yang dipegang oleh satu streamBooks
+    private static final class BookCursor extends Spliterators.AbstractSpliterator<Book> implements AutoCloseable {
+        private Connection conn;
+        private PreparedStatement pstmt;
+        private ResultSet rs;
+        private long count;
+
+        private BookCursor() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        private void open(int fetchSize) throws SQLException {
+            conn = DatabaseConnection.getReadConnection();
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement(STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(streamingFetchSize(conn, fetchSize));
+            rs = pstmt.executeQuery();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Book> action) {
+            try {
+                if (rs == null || !rs.next()) {
+                    return false;
+                }
+                count++;
+                action.accept(mapResultSetToBook(rs));
+                return true;
+            } catch (SQLException e) {
+                throw new DataAccessException("Error saat membaca buku (" + count + " buku sudah dibaca): "
+                        + e.getMessage(), e);
+            }
+        }
+
+        // Result set ditutup lebih dulu: MySQL tidak menerima perintah lain (rollback) selama
+        // streaming result set masih terbuka
+        @Override
+        public void close() {
+            closeQuietly(rs);
+            closeQuietly(pstmt);
+            if (conn != null) {
+                try {
+                    conn.rollback(); // Hanya membaca, tidak ada yang perlu di-commit
+                } catch (SQLException e) {
+                    System.err.println("Gagal menutup cursor buku: " + e.getMessage());
+                }
+                closeQuietly(conn);
+            }
+            rs = null;
+            pstmt = null;
+            conn = null;
+        }
+
+        private static void closeQuietly(AutoCloseable resource) {
+            if (resource == null) {
+                return;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Gagal menutup cursor buku: " + e.getMessage());
+            }
+        }
+    }
+
+    // MySQL Connector/J menampung seluruh hasil di memori kecuali fetch size Integer.MIN_VALUE
+    // (streaming baris demi baris) atau useCursorFetch=true (cursor server dengan fetch size biasa).
+    private static int streamingFetchSize(Connection conn, int fetchSize) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        if ("MySQL".equalsIgnoreCase(meta.getDatabaseProductName())
+                && !meta.getURL().contains("useCursorFetch=true")) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    @Override
+    public int countBooks() {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(COUNT_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saat menghitung jumlah buku: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                bindBookColumns(pstmt, book);
+                pstmt.setLong(8, nextVersion(conn));
+                pstmt.setInt(9, book.getId());
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return null; // Buku dengan id tersebut sudah tidak ada
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            System.out.println("Buku berhasil diperbarui: " + book.getTitle());
+            return book;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat memperbarui buku: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        boolean deleted;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement tombstone = conn.prepareStatement(TOMBSTONE_SQL);
+                 PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+                // Tombstone dicatat dalam transaksi yang sama dengan DELETE
+                tombstone.setLong(1, nextVersion(conn));
+                tombstone.setInt(2, id);
+                tombstone.executeUpdate();
+                pstmt.setInt(1, id);
+                deleted = pstmt.executeUpdate() > 0;
+                if (deleted) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat menghapus buku: " + e.getMessage(), e);
+        }
+        if (deleted) {
             System.out.println("Buku dengan ID " + id + " berhasil dihapus.");
+            pruneTombstonesIfDue();
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        List<Book> saved = new ArrayList<>(books.size());
+        if (books.isEmpty()) {
+            return saved;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                Iterator<Book> it = books.iterator();
+                List<Book> chunk = new ArrayList<>(Math.min(batchSize, books.size()));
+                while (it.hasNext()) {
+                    chunk.clear();
+                    long version = nextVersion(conn); // Satu versi per batch (satu transaksi)
+                    while (it.hasNext() && chunk.size() < batchSize) {
+                        Book book = it.next();
+                        bindBookColumns(pstmt, book);
+                        pstmt.setLong(8, version);
+                        pstmt.setLong(9, version);
+                        pstmt.addBatch();
+                        chunk.add(book);
+                    }
+                    pstmt.executeBatch();
+
+                    // ID yang digenerate dikembalikan dengan urutan yang sama dengan batch
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (Book book : chunk) {
+                            if (generatedKeys.next()) {
+                                book.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                    conn.commit();
+                    saved.addAll(chunk);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            System.out.println(saved.size() + " buku berhasil ditambahkan.");
+            return saved;
         } catch (SQLException e) {
-            System.err.println("Error saat menghapus buku: " + e.getMessage());
-        }
-    }
-
-    // Metode helper untuk memetakan ResultSet ke objek Book
-    private Book mapResultSetToBook(ResultSet rs) throws SQLException {
-        Book book = new Book();
-        book.setId(rs.getInt("id"));
-        book.setTitle(rs.getString("title"));
-        book.setAuthor(rs.getString("author"));
-        book.setPublicationYear(rs.getInt("publication_year"));
-        book.setStorylineScore(rs.getDouble("storyline_score"));
-        book.setLanguageStyleScore(rs.getDouble("language_style_score"));
-        book.setOriginalityScore(rs.getDouble("originality_score"));
-        // Rating diambil langsung dari database, karena sudah dihitung saat insert/update
-        // atau bisa dihitung ulang jika perlu: book.calculateRating();
-        book.calculateRating(); // Hitung ulang untuk konsistensi jika ada perubahan skor
-        // Jika rating dari DB mau dipakai langsung:
-        // book.rating = rs.getDouble("rating"); // Perlu setter untuk rating jika mau cara ini
-        return book;
+            throw new DataAccessException("Error saat menambahkan buku secara massal (" + saved.size()
+                    + " buku sudah tersimpan): " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
+        }
+        int updated = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                int pending = 0;
+                long version = 0;
+                for (Book book : books) {
+                    if (pending == 0) {
+                        version = nextVersion(conn); // Satu versi per batch (satu transaksi)
+                    }
+                    bindBookColumns(pstmt, book);
+                    pstmt.setLong(8, version);
+                    pstmt.setInt(9, book.getId());
+                    pstmt.addBatch();
+                    if (++pending == batchSize) {
+                        updated += countAffected(pstmt.executeBatch());
+                        conn.commit();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    updated += countAffected(pstmt.executeBatch());
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            System.out.println(updated + " buku berhasil diperbarui.");
+            return updated;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat memperbarui buku secara massal (" + updated
+                    + " buku sudah diperbarui): " + e.getMessage(), e);
+        }
+    }
+
+    // Seperti updateBooks (satu transaksi dan satu versi per batch), tanpa menulis ulang judul dan skor
+    @Override
+    public int updateRatings(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
+        }
+        int updated = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_RATING_SQL)) {
+                int pending = 0;
+                long version = 0;
+                for (Book book : books) {
+                    if (pending == 0) {
+                        version = nextVersion(conn);
+                    }
+                    pstmt.setDouble(1, book.getRating());
+                    pstmt.setLong(2, version);
+                    pstmt.setInt(3, book.getId());
+                    pstmt.setString(4, book.getAuthor());
+                    pstmt.setDouble(5, book.getStorylineScore());
+                    pstmt.setDouble(6, book.getLanguageStyleScore());
+                    pstmt.setDouble(7, book.getOriginalityScore());
+                    pstmt.addBatch();
+                    if (++pending == batchSize) {
+                        updated += countAffected(pstmt.executeBatch());
+                        conn.commit();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    updated += countAffected(pstmt.executeBatch());
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            return updated;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat memperbarui rating buku (" + updated
+                    + " buku sudah diperbarui): " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        if (ids.length == 0) {
+            return 0;
+        }
+        int deleted = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            // Satu INSERT tombstone dan satu DELETE ... WHERE id IN (...) per potongan, dalam satu
+            // transaksi; teks SQL potongan penuh selalu sama sehingga dipakai ulang dari cache statement
+            for (int from = 0; from < ids.length; from += batchSize) {
+                int size = Math.min(batchSize, ids.length - from);
+                try (PreparedStatement tombstone = conn.prepareStatement(tombstoneInSql(size));
+                     PreparedStatement pstmt = conn.prepareStatement(deleteInSql(size))) {
+                    tombstone.setLong(1, nextVersion(conn));
+                    for (int i = 0; i < size; i++) {
+                        tombstone.setInt(i + 2, ids[from + i]);
+                        pstmt.setInt(i + 1, ids[from + i]);
+                    }
+                    tombstone.executeUpdate();
+                    deleted += pstmt.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat menghapus buku secara massal (" + deleted
+                    + " buku sudah terhapus): " + e.getMessage(), e);
+        }
+        System.out.println(deleted + " buku berhasil dihapus.");
+        pruneTombstonesIfDue();
+        return deleted;
+    }
+
+    // Agregat per kelompok dihitung oleh database; hanya satu baris per kelompok yang dikirim
+    @Override
+    public List<BookGroupStats> groupStats(BookGrouping grouping) {
+        List<BookGroupStats> stats = new ArrayList<>();
+        BookMetric[] metrics = BookMetric.values();
+        StringBuilder sql = new StringBuilder("SELECT ").append(grouping.getColumn()).append(", COUNT(*)");
+        for (BookMetric metric : metrics) {
+            String column = metric.getColumn();
+            sql.append(", AVG(").append(column).append("), MIN(").append(column)
+                    .append("), MAX(").append(column).append(')');
+        }
+        sql.append(" FROM books GROUP BY ").append(grouping.getColumn());
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                double[] mean = new double[metrics.length];
+                double[] min = new double[metrics.length];
+                double[] max = new double[metrics.length];
+                for (int i = 0; i < metrics.length; i++) {
+                    mean[i] = rs.getDouble(3 + i * 3);
+                    min[i] = rs.getDouble(4 + i * 3);
+                    max[i] = rs.getDouble(5 + i * 3);
+                }
+                stats.add(new BookGroupStats(grouping, rs.getString(1), rs.getLong(2), mean, min, max));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saat menghitung statistik buku: " + e.getMessage());
+        }
+        stats.sort((a, b) -> grouping.keyOrder().compare(a.getKey(), b.getKey()));
+        return stats;
+    }
+
+    // Rumus rating tercatat di library_settings (dibaca dari primary); belum tercatat = rata-rata biasa.
+    // Kegagalan dilempar: menebak rumus bisa membuat klien menulis rating dengan rumus lain.
+    @Override
+    public String getRatingFormula() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_SETTING_SQL)) {
+            pstmt.setString(1, RATING_FORMULA_SETTING);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : RatingEngine.mean().describe();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat membaca rumus rating: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean setRatingFormula(String formula) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement update = conn.prepareStatement(UPDATE_SETTING_SQL)) {
+                update.setString(1, formula);
+                update.setString(2, RATING_FORMULA_SETTING);
+                if (update.executeUpdate() == 0) {
+                    try (PreparedStatement insert = conn.prepareStatement(INSERT_SETTING_SQL)) {
+                        insert.setString(1, RATING_FORMULA_SETTING);
+                        insert.setString(2, formula);
+                        insert.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat mencatat rumus rating: " + e.getMessage(), e);
+        }
+    }
+
+    // ---------------------------------------------------------------- pelacakan perubahan
+
+    // Tabel yang dipakai setiap penulisan (versi dan tombstone), juga saat library.changes.pollMs=0
+    private static final String[] SCHEMA_CHECK_SQL = {
+            "SELECT version, created_version FROM books WHERE 1 = 0",
+            "SELECT book_id, version, created_version, deleted_at FROM book_tombstones WHERE 1 = 0",
+            "SELECT name, setting_value FROM library_settings WHERE 1 = 0",
+    };
+
+    // Memeriksa skema saat aplikasi dimulai, agar tabel yang belum dibuat tidak baru ketahuan
+    // sebagai kegagalan penulisan pertama. Melempar DataAccessException jika tabel, kolom, atau
+    // baris book_change_seq tidak ada; database yang belum dapat dihubungi hanya dicatat.
+    public void checkSchema() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (String sql : SCHEMA_CHECK_SQL) {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                     ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(SELECT_VERSION_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new DataAccessException("Skema database tidak lengkap: baris book_change_seq (id = 1) "
+                            + "tidak ditemukan. Jalankan sql/library_db.sql.");
+                }
+            }
+        } catch (SQLException e) {
+            if (e instanceof SQLSyntaxErrorException || (e.getSQLState() != null && e.getSQLState().startsWith("42"))) {
+                throw new DataAccessException("Skema database tidak lengkap (tabel book_change_seq, book_tombstones, "
+                        + "library_settings dan kolom version/created_version diperlukan): " + e.getMessage()
+                        + ". Jalankan sql/library_db.sql.", e);
+            }
+            System.err.println("Error saat memeriksa skema database: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public BookChanges changesSince(long token) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long current;
+            long pruned;
+            try (PreparedStatement pstmt = conn.prepareStatement(SELECT_VERSION_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Baris book_change_seq tidak ditemukan");
+                }
+                current = rs.getLong(1);
+                pruned = rs.getLong(2);
+            }
+            // Data yang dibaca setelah ini (misalnya snapshot untuk token ini) harus memuat versi current
+            DatabaseConnection.requireVersion(current);
+            if (token <= 0) {
+                return BookChanges.none(current);
+            }
+            if (token < pruned || token > current) {
+                // Tombstone sudah dibuang, atau token berasal dari database lain
+                return BookChanges.reload(current);
+            }
+            if (token == current) {
+                return BookChanges.none(current);
+            }
+
+            List<Book> inserted = new ArrayList<>();
+            List<Book> updated = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(CHANGED_BOOKS_SQL)) {
+                pstmt.setLong(1, token);
+                pstmt.setLong(2, current);
+                pstmt.setInt(3, CHANGES_MAX_ROWS + 1);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Buku yang dibuat setelah token belum dikenal klien
+                        (rs.getLong(9) > token ? inserted : updated).add(mapResultSetToBook(rs));
+                    }
+                }
+            }
+            int remaining = CHANGES_MAX_ROWS - inserted.size() - updated.size();
+            if (remaining < 0) {
+                return BookChanges.reload(current);
+            }
+            int[] deletedIds = new int[Math.min(remaining, 16)];
+            int deletedCount = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETED_IDS_SQL)) {
+                pstmt.setLong(1, token);
+                pstmt.setLong(2, current);
+                pstmt.setLong(3, token);
+                pstmt.setInt(4, remaining + 1);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (deletedCount == remaining) {
+                            return BookChanges.reload(current);
+                        }
+                        if (deletedCount == deletedIds.length) {
+                            deletedIds = Arrays.copyOf(deletedIds, Math.min(remaining, deletedCount * 2));
+                        }
+                        deletedIds[deletedCount++] = rs.getInt(1);
+                    }
+                }
+            }
+            return new BookChanges(current, inserted, updated, Arrays.copyOf(deletedIds, deletedCount));
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saat membaca perubahan buku: " + e.getMessage(), e);
+        }
+    }
+
+    // Mengambil versi berikutnya di dalam transaksi conn. UPDATE mengunci baris book_change_seq
+    // sampai commit, sehingga transaksi tulis berikutnya menunggu dan versinya selalu lebih besar.
+    private static long nextVersion(Connection conn) throws SQLException {
+        try (PreparedStatement update = conn.prepareStatement(NEXT_VERSION_SQL)) {
+            if (update.executeUpdate() == 0) {
+                throw new SQLException("Baris book_change_seq tidak ditemukan");
+            }
+        }
+        try (PreparedStatement select = conn.prepareStatement(SELECT_VERSION_SQL);
+             ResultSet rs = select.executeQuery()) {
+            rs.next();
+            long version = rs.getLong(1);
+            DatabaseConnection.requireVersion(version);
+            return version;
+        }
+    }
+
+    // Membuang tombstone yang lebih tua dari masa simpan dan mencatat versi terakhir yang dibuang.
+    // Kegagalan hanya dicatat: penghapusan bukunya sendiri sudah berhasil.
+    private void pruneTombstonesIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastPruneMillis < PRUNE_INTERVAL_MS) {
+            return;
+        }
+        lastPruneMillis = now;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement select = conn.prepareStatement(PRUNE_VERSION_SQL)) {
+                select.setTimestamp(1, new Timestamp(now - TOMBSTONE_RETENTION_MS));
+                long version;
+                try (ResultSet rs = select.executeQuery()) {
+                    version = rs.next() ? rs.getLong(1) : 0;
+                }
+                if (version > 0) {
+                    try (PreparedStatement seq = conn.prepareStatement(PRUNE_SEQ_SQL);
+                         PreparedStatement delete = conn.prepareStatement(PRUNE_TOMBSTONES_SQL)) {
+                        seq.setLong(1, version);
+                        seq.executeUpdate();
+                        delete.setLong(1, version);
+                        int pruned = delete.executeUpdate();
+                        System.out.println(pruned + " tombstone buku dibuang (sampai versi " + version + ").");
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saat membuang tombstone buku: " + e.getMessage());
+        }
+    }
+
+    private static String deleteInSql(int count) {
+        return inSql("DELETE FROM books WHERE id IN (", count);
+    }
+
+    private static String tombstoneInSql(int count) {
+        return inSql("INSERT INTO book_tombstones (book_id, version, created_version) SELECT id, ?, created_version FROM books WHERE id IN (", count);
+    }
+
+    private static String selectInSql(int count) {
+        return inSql(SELECT_BOOKS_SQL + " WHERE id IN (", count);
+    }
+
+    private static String inSql(String prefix, int count) {
+        StringBuilder sql = new StringBuilder(prefix);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+
+    // Menjumlahkan hasil executeBatch; SUCCESS_NO_INFO dihitung sebagai satu baris
+    private static int countAffected(int[] results) {
+        int total = 0;
+        for (int result : results) {
+            if (result > 0) {
+                total += result;
+            } else if (result == Statement.SUCCESS_NO_INFO) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // Mengisi parameter kolom 1-7 (title sampai rating) untuk INSERT dan UPDATE; versi diisi pemanggil
+    private static void bindBookColumns(PreparedStatement pstmt, Book book) throws SQLException {
+        pstmt.setString(1, book.getTitle());
+        pstmt.setString(2, book.getAuthor());
+        pstmt.setInt(3, book.getPublicationYear());
+        pstmt.setDouble(4, book.getStorylineScore());
+        pstmt.setDouble(5, book.getLanguageStyleScore());
+        pstmt.setDouble(6, book.getOriginalityScore());
+        book.calculateRating(); // Pastikan rating terhitung sebelum disimpan
+        pstmt.setDouble(7, book.getRating());
+    }
+
+    // Memetakan baris hasil SELECT_BOOKS_SQL ke Book berdasarkan posisi kolom, tanpa pencarian nama
+    // kolom dan tanpa setter (package-private agar dapat diukur oleh benchmark)
+    static Book mapResultSetToBook(ResultSet rs) throws SQLException {
+        return new Book(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                rs.getDouble(5), rs.getDouble(6), rs.getDouble(7), rs.getDouble(8));
+    }
+
+    // Seperti mapResultSetToBook, tetapi mengisi objek yang sudah ada (dipakai ulang oleh forEachBook)
+    static void mapResultSetToBook(ResultSet rs, Book book) throws SQLException {
+        book.assign(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                rs.getDouble(5), rs.getDouble(6), rs.getDouble(7), rs.getDouble(8));
     }
-}
\ No newline at end of file
+}
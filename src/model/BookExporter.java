@@ -0,0 +1,85 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Kelas BookExporter menulis seluruh tabel books ke berkas katalog (CSV atau JSON lines).
+ *
+ * Buku dibaca sekali jalan lewat BookDAO.forEachBook dengan fetchSize baris per round trip
+ * (cursor forward-only pada BookDAOImpl, pagination keyset pada DAO lain).
+ * Setiap buku langsung ditulis ke ChannelLineWriter, sehingga pemakaian memori tetap
+ * berapa pun jumlah bukunya.
+ */
+public class BookExporter {
+    // Jumlah baris di antara dua laporan kemajuan
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final BookDAO bookDAO;
+    private int fetchSize = AppConfig.getInt("library.export.fetchSize", 1000);
+    private BookTransferListener listener;
+
+    public BookExporter(BookDAO bookDAO) {
+        this.bookDAO = bookDAO;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size harus lebih dari 0: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public void setListener(BookTransferListener listener) {
+        this.listener = listener;
+    }
+
+    // Format ditentukan dari ekstensi berkas
+    public BookTransferResult exportFile(Path path) throws IOException {
+        return exportFile(path, BookFileFormat.fromFileName(path));
+    }
+
+    public BookTransferResult exportFile(Path path, BookFileFormat format) throws IOException {
+        BookTransferResult result = new BookTransferResult();
+        long start = System.nanoTime();
+        long total = listener != null ? bookDAO.countBooks() : -1; // Hanya untuk persentase kemajuan
+
+        try (ChannelLineWriter writer = new ChannelLineWriter(path)) {
+            if (format.header() != null) {
+                writer.writeLine(format.header());
+            }
+            Consumer<Book> sink = book -> {
+                format.format(book, writer.buffer());
+                try {
+                    writer.endLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                result.recordRead();
+                result.addWritten(1);
+                if (result.getRecordsWritten() % PROGRESS_INTERVAL == 0) {
+                    reportProgress(result.getRecordsWritten(), total, start);
+                }
+            };
+            try {
+                bookDAO.forEachBook(sink, fetchSize);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        reportProgress(result.getRecordsWritten(), result.getRecordsWritten(), start);
+        System.out.println("Ekspor " + path.getFileName() + " selesai: " + result);
+        return result;
+    }
+
+    private void reportProgress(long rows, long total, long start) {
+        if (listener != null) {
+            double fraction = total > 0 ? Math.min(1.0, (double) rows / total) : -1;
+            listener.onProgress(rows, fraction, BookTransferResult.rate(rows, System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enum BookFileFormat mendefinisikan format berkas katalog yang didukung oleh
+ * BookImporter dan BookExporter. Setiap buku ditulis sebagai satu record teks:
+ * - CSV: id,title,author,publication_year,storyline_score,language_style_score,originality_score,rating
+ *   (field yang berisi koma, kutip, atau baris baru dibungkus tanda kutip ganda)
+ * - JSON_LINES: satu objek JSON per baris (lihat BookJson)
+ *
+ * Kolom id dan rating ikut ditulis saat ekspor; saat impor, id diberikan ulang oleh
+ * database tujuan dan rating dihitung ulang dari skor.
+ */
+public enum BookFileFormat {
+    CSV {
+        @Override
+        public String header() {
+            return "id,title,author,publication_year,storyline_score,language_style_score,originality_score,rating";
+        }
+
+        @Override
+        public boolean isHeader(String record) {
+            return record.startsWith("id,");
+        }
+
+        @Override
+        public boolean isOpenAfter(CharSequence line, boolean open) {
+            // Record masih terbuka jika jumlah tanda kutip sejauh ini ganjil (baris baru di dalam
+            // field berkutip); cukup menghitung baris yang baru ditambahkan
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == '"') {
+                    open = !open;
+                }
+            }
+            return open;
+        }
+
+        @Override
+        public Book parse(CharSequence record) {
+            List<String> fields = splitCsv(record);
+            if (fields.size() < 7) {
+                throw new IllegalArgumentException("Diharapkan minimal 7 kolom, ditemukan " + fields.size());
+            }
+            try {
+                Book book = new Book(fields.get(1), fields.get(2),
+                        Integer.parseInt(fields.get(3).trim()),
+                        Double.parseDouble(fields.get(4).trim()),
+                        Double.parseDouble(fields.get(5).trim()),
+                        Double.parseDouble(fields.get(6).trim()));
+                String id = fields.get(0).trim();
+                if (!id.isEmpty()) {
+                    book.setId(Integer.parseInt(id));
+                }
+                return book;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Format angka tidak valid: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void format(Book book, StringBuilder out) {
+            out.append(book.getId()).append(',');
+            appendCsvField(out, book.getTitle());
+            out.append(',');
+            appendCsvField(out, book.getAuthor());
+            out.append(',').append(book.getPublicationYear());
+            out.append(',').append(book.getStorylineScore());
+            out.append(',').append(book.getLanguageStyleScore());
+            out.append(',').append(book.getOriginalityScore());
+            out.append(',').append(book.getRating());
+        }
+    },
+
+    JSON_LINES {
+        @Override
+        public String header() {
+            return null;
+        }
+
+        @Override
+        public boolean isHeader(String record) {
+            return false;
+        }
+
+        @Override
+        public boolean isOpenAfter(CharSequence line, boolean open) {
+            return false;
+        }
+
+        @Override
+        public Book parse(CharSequence record) {
+            return BookJson.fromJson(record);
+        }
+
+        @Override
+        public void format(Book book, StringBuilder out) {
+            BookJson.appendJson(out, book);
+        }
+    };
+
+    // Baris judul yang ditulis di awal berkas, atau null jika format tidak memakainya
+    public abstract String header();
+
+    public abstract boolean isHeader(String record);
+
+    // Apakah record masih berlanjut ke baris berikutnya setelah 'line' ditambahkan; 'open' adalah
+    // hasil untuk baris sebelumnya dari record yang sama (false untuk baris pertama)
+    public abstract boolean isOpenAfter(CharSequence line, boolean open);
+
+    // Membaca satu record menjadi Book; melempar IllegalArgumentException jika formatnya salah
+    public abstract Book parse(CharSequence record);
+
+    // Menulis satu buku sebagai satu record (tanpa baris baru)
+    public abstract void format(Book book, StringBuilder out);
+
+    // Menentukan format dari ekstensi berkas (.csv, .jsonl / .ndjson)
+    public static BookFileFormat fromFileName(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Format berkas tidak dikenal: " + name + " (gunakan .csv atau .jsonl)");
+    }
+
+    private static List<String> splitCsv(CharSequence record) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void appendCsvField(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
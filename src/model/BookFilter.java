@@ -0,0 +1,127 @@
+package model;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * BookFilter adalah kriteria opsional untuk leaderboard (topRated): penulis tertentu
+ * dan/atau rentang tahun terbit (misalnya satu dekade). Objek ini immutable dan memiliki
+ * equals/hashCode, sehingga dapat dipakai sebagai kunci leaderboard di memori.
+ */
+public final class BookFilter {
+    private static final BookFilter ALL = new BookFilter(null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private final String author; // null berarti semua penulis
+    private final int fromYear;  // inklusif
+    private final int toYear;    // inklusif
+
+    private BookFilter(String author, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("Rentang tahun tidak valid: " + fromYear + " - " + toYear);
+        }
+        this.author = author;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+    }
+
+    // Tanpa filter: seluruh katalog
+    public static BookFilter all() {
+        return ALL;
+    }
+
+    public static BookFilter byAuthor(String author) {
+        return ALL.withAuthor(author);
+    }
+
+    // Satu dekade, misalnya byDecade(1990) untuk tahun 1990-1999
+    public static BookFilter byDecade(int decade) {
+        return ALL.withDecade(decade);
+    }
+
+    public static BookFilter byYears(int fromYear, int toYear) {
+        return ALL.withYears(fromYear, toYear);
+    }
+
+    public BookFilter withAuthor(String author) {
+        String trimmed = author == null ? null : author.trim();
+        return new BookFilter(trimmed == null || trimmed.isEmpty() ? null : trimmed, fromYear, toYear);
+    }
+
+    public BookFilter withDecade(int decade) {
+        int start = Math.floorDiv(decade, 10) * 10;
+        return withYears(start, start + 9);
+    }
+
+    public BookFilter withYears(int fromYear, int toYear) {
+        return new BookFilter(author, fromYear, toYear);
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public boolean hasAuthor() {
+        return author != null;
+    }
+
+    public boolean hasYearRange() {
+        return fromYear != Integer.MIN_VALUE || toYear != Integer.MAX_VALUE;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    // Penulis dibandingkan tanpa membedakan huruf besar/kecil, sama seperti collation default MySQL
+    public boolean matches(Book book) {
+        if (author != null && !author.equalsIgnoreCase(book.getAuthor())) {
+            return false;
+        }
+        int year = book.getPublicationYear();
+        return year >= fromYear && year <= toYear;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookFilter)) {
+            return false;
+        }
+        BookFilter other = (BookFilter) o;
+        return fromYear == other.fromYear && toYear == other.toYear
+                && Objects.equals(normalizedAuthor(), other.normalizedAuthor());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(normalizedAuthor(), fromYear, toYear);
+    }
+
+    private String normalizedAuthor() {
+        return author == null ? null : author.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        if (author == null && !hasYearRange()) {
+            return "semua buku";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (author != null) {
+            sb.append("penulis=").append(author);
+        }
+        if (hasYearRange()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append("tahun=").append(fromYear).append('-').append(toYear);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+/**
+ * BookGroupStats adalah ringkasan satu kelompok buku (satu penulis, satu tahun terbit,
+ * atau seluruh katalog): jumlah buku serta rata-rata, minimum, dan maksimum setiap BookMetric.
+ *
+ * Ringkasan yang dihitung oleh database (BookDAO.groupStats) hanya berisi agregat tersebut.
+ * Ringkasan dari BookAnalytics juga membawa ScoreHistogram per metrik, sehingga median,
+ * kuantil lain, dan distribusi tersedia (hasDistribution() bernilai true).
+ */
+public final class BookGroupStats {
+    private static final int METRICS = BookMetric.values().length;
+
+    private final BookGrouping grouping;
+    private final String key;
+    private final long count;
+    private final double[] mean;
+    private final double[] min;
+    private final double[] max;
+    private final ScoreHistogram[] histograms;
+
+    // Agregat dari database; array diindeks dengan BookMetric.ordinal()
+    BookGroupStats(BookGrouping grouping, String key, long count, double[] mean, double[] min, double[] max) {
+        this(grouping, key, count, mean, min, max, null);
+    }
+
+    private BookGroupStats(BookGrouping grouping, String key, long count, double[] mean, double[] min, double[] max,
+                           ScoreHistogram[] histograms) {
+        this.grouping = grouping;
+        this.key = key;
+        this.count = count;
+        this.mean = mean;
+        this.min = min;
+        this.max = max;
+        this.histograms = histograms;
+    }
+
+    // Ringkasan dari sketsa per metrik; sketsa disalin agar hasil tidak ikut berubah
+    static BookGroupStats of(BookGrouping grouping, String key, ScoreHistogram[] sketches) {
+        double[] mean = new double[METRICS];
+        double[] min = new double[METRICS];
+        double[] max = new double[METRICS];
+        ScoreHistogram[] copies = new ScoreHistogram[METRICS];
+        for (int i = 0; i < METRICS; i++) {
+            copies[i] = sketches[i].copy();
+            mean[i] = copies[i].getMean();
+            min[i] = copies[i].getMin();
+            max[i] = copies[i].getMax();
+        }
+        return new BookGroupStats(grouping, key, copies[0].getCount(), mean, min, max, copies);
+    }
+
+    // Pengelompokan ringkasan ini, atau null untuk seluruh katalog
+    public BookGrouping getGrouping() {
+        return grouping;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean(BookMetric metric) {
+        return mean[metric.ordinal()];
+    }
+
+    public double getMin(BookMetric metric) {
+        return min[metric.ordinal()];
+    }
+
+    public double getMax(BookMetric metric) {
+        return max[metric.ordinal()];
+    }
+
+    public boolean hasDistribution() {
+        return histograms != null;
+    }
+
+    // Median dan kuantil lain; NaN jika ringkasan tidak membawa distribusi
+    public double getMedian(BookMetric metric) {
+        return getQuantile(metric, 0.5);
+    }
+
+    public double getQuantile(BookMetric metric, double q) {
+        return histograms == null ? Double.NaN : histograms[metric.ordinal()].quantile(q);
+    }
+
+    // Jumlah buku per rentang skor yang sama lebar; array kosong jika tidak ada distribusi
+    public long[] getDistribution(BookMetric metric, int buckets) {
+        return histograms == null ? new long[0] : histograms[metric.ordinal()].distribution(buckets);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BookGroupStats{%s=%s, n=%d, rating rata-rata=%.2f}",
+                grouping == null ? "katalog" : grouping.getColumn(), key, count, getMean(BookMetric.RATING));
+    }
+}
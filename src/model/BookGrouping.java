@@ -0,0 +1,35 @@
+package model;
+
+import java.util.Comparator;
+
+/**
+ * Enum BookGrouping mendefinisikan pengelompokan analitik katalog: per penulis atau per
+ * tahun terbit. Kunci kelompok selalu berupa String (tahun ditulis sebagai angka desimal),
+ * dan keyOrder mengurutkan kunci tersebut sesuai jenisnya.
+ */
+public enum BookGrouping {
+    AUTHOR("author", String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder())),
+    PUBLICATION_YEAR("publication_year", Comparator.comparingInt(Integer::parseInt));
+
+    private final String column;
+    private final Comparator<String> keyOrder;
+
+    BookGrouping(String column, Comparator<String> keyOrder) {
+        this.column = column;
+        this.keyOrder = keyOrder;
+    }
+
+    // Nama kolom di tabel books (dipakai pada GROUP BY)
+    public String getColumn() {
+        return column;
+    }
+
+    public String keyOf(Book book) {
+        return this == AUTHOR ? String.valueOf(book.getAuthor()) : Integer.toString(book.getPublicationYear());
+    }
+
+    // Urutan kunci kelompok: penulis secara alfabetis, tahun secara numerik
+    public Comparator<String> keyOrder() {
+        return keyOrder;
+    }
+}
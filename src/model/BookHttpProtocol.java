@@ -0,0 +1,220 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kelas BookHttpProtocol berisi format pesan yang dipakai bersama oleh server HTTP
+ * (controller.BookHttpServer) dan RemoteBookDAO. Satu buku dikirim sebagai objek JSON
+ * BookJson; daftar buku dikirim sebagai JSON Lines (satu objek per baris), sehingga kedua
+ * sisi dapat menulis dan membaca daftar panjang baris demi baris tanpa menampungnya.
+ *
+ * - Halaman keyset: parameter after_id dan after_key (nilai kunci urutan buku terakhir).
+ * - changesSince: baris pertama {"token":..,"reload":..,"deleted":"1,2,3"}, lalu satu baris
+ *   per buku dengan field tambahan "change" bernilai "insert" atau "update".
+ * - Seluruh katalog (/books/all): satu baris per buku, ditutup baris {"end":jumlah}; jika
+ *   penyimpanan gagal di tengah aliran, ditutup baris {"error":"..."}. Aliran tanpa baris
+ *   penutup terputus di tengah jalan dan tidak boleh dianggap lengkap.
+ * - groupStats: satu baris per kelompok: key, count, dan {kolom}_mean/_min/_max per BookMetric.
+ */
+public final class BookHttpProtocol {
+    public static final String JSON = "application/json; charset=utf-8";
+    public static final String JSON_LINES = "application/x-ndjson; charset=utf-8";
+
+    private BookHttpProtocol() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    // Nilai kunci urutan buku terakhir sebuah halaman, untuk parameter after_key
+    public static String keyOf(BookSortKey sortKey, Book after) {
+        switch (sortKey) {
+            case TITLE: return after.getTitle();
+            case AUTHOR: return after.getAuthor();
+            case PUBLICATION_YEAR: return Integer.toString(after.getPublicationYear());
+            case RATING: return Double.toString(after.getRating());
+            default: return Integer.toString(after.getId());
+        }
+    }
+
+    // Buku pembanding yang hanya berisi id dan kunci urutan, cukup untuk getBooksAfter
+    public static Book afterProbe(BookSortKey sortKey, int id, String key) {
+        Book probe = new Book();
+        probe.setId(id);
+        switch (sortKey) {
+            case TITLE:
+                probe.setTitle(key);
+                break;
+            case AUTHOR:
+                probe.setAuthor(key);
+                break;
+            case PUBLICATION_YEAR:
+                probe.setPublicationYear(Integer.parseInt(key));
+                break;
+            case RATING:
+                // Rating dihitung dari skor; ketiga skor sama dengan rating memberi rating yang sama
+                double rating = Double.parseDouble(key);
+                probe.assign(id, null, null, 0, rating, rating, rating, rating);
+                break;
+            default:
+                break;
+        }
+        return probe;
+    }
+
+    // ---------------------------------------------------------------- change feed
+
+    public static void appendChangesHeader(StringBuilder out, BookChanges changes) {
+        out.append("{\"token\":").append(changes.getToken());
+        out.append(",\"reload\":").append(changes.isReloadRequired());
+        out.append(",\"deleted\":\"");
+        int[] deleted = changes.getDeletedIds();
+        for (int i = 0; i < deleted.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(deleted[i]);
+        }
+        out.append("\"}\n");
+    }
+
+    public static void appendChange(StringBuilder out, Book book, boolean inserted) {
+        BookJson.appendJson(out, book);
+        out.setLength(out.length() - 1); // Tutup objek dilepas untuk menambah field "change"
+        out.append(",\"change\":\"").append(inserted ? "insert" : "update").append("\"}\n");
+    }
+
+    // Membaca hasil changesSince dari baris-baris respons (baris kosong dilewati)
+    public static BookChanges readChanges(List<String> lines) {
+        int first = 0;
+        while (first < lines.size() && lines.get(first).trim().isEmpty()) {
+            first++;
+        }
+        if (first == lines.size()) {
+            throw new IllegalArgumentException("Respons changesSince kosong");
+        }
+        Map<String, Object> header = BookJson.parseObject(lines.get(first));
+        long token = (long) asNumber(header.get("token"), "token");
+        if (Boolean.TRUE.equals(header.get("reload"))) {
+            return BookChanges.reload(token);
+        }
+        List<Book> inserted = new ArrayList<>();
+        List<Book> updated = new ArrayList<>();
+        for (int i = first + 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            Map<String, Object> fields = BookJson.parseObject(line);
+            Book book = BookJson.fromJson(line);
+            ("insert".equals(fields.get("change")) ? inserted : updated).add(book);
+        }
+        return new BookChanges(token, inserted, updated, parseIds(String.valueOf(header.get("deleted"))));
+    }
+
+    // ---------------------------------------------------------------- aliran katalog
+
+    public static void appendStreamEnd(StringBuilder out, long count) {
+        out.append("{\"end\":").append(count).append("}\n");
+    }
+
+    public static void appendStreamError(StringBuilder out, String message) {
+        out.append("{\"error\":");
+        BookJson.appendString(out, message == null ? "" : message);
+        out.append("}\n");
+    }
+
+    // Jumlah buku menurut baris penutup aliran, atau -1 jika baris ini sebuah buku. Baris
+    // penutup kesalahan, atau jumlah yang tidak sama dengan 'read', ditolak.
+    public static long readStreamEnd(String line, long read) {
+        if (line.startsWith("{\"id\":")) {
+            return -1;
+        }
+        Map<String, Object> fields = BookJson.parseObject(line);
+        if (fields.containsKey("error")) {
+            throw new IllegalArgumentException("Server gagal di tengah aliran buku: " + fields.get("error"));
+        }
+        long count = (long) asNumber(fields.get("end"), "end");
+        if (count != read) {
+            throw new IllegalArgumentException("Aliran buku berisi " + read + " buku, server mengirim " + count);
+        }
+        return count;
+    }
+
+    // ---------------------------------------------------------------- statistik kelompok
+
+    public static void appendGroupStats(StringBuilder out, BookGroupStats stats) {
+        out.append("{\"key\":");
+        BookJson.appendString(out, stats.getKey());
+        out.append(",\"count\":").append(stats.getCount());
+        for (BookMetric metric : BookMetric.values()) {
+            String column = metric.getColumn();
+            out.append(",\"").append(column).append("_mean\":").append(jsonNumber(stats.getMean(metric)));
+            out.append(",\"").append(column).append("_min\":").append(jsonNumber(stats.getMin(metric)));
+            out.append(",\"").append(column).append("_max\":").append(jsonNumber(stats.getMax(metric)));
+        }
+        out.append("}\n");
+    }
+
+    public static BookGroupStats parseGroupStats(BookGrouping grouping, String line) {
+        Map<String, Object> fields = BookJson.parseObject(line);
+        BookMetric[] metrics = BookMetric.values();
+        double[] mean = new double[metrics.length];
+        double[] min = new double[metrics.length];
+        double[] max = new double[metrics.length];
+        for (BookMetric metric : metrics) {
+            String column = metric.getColumn();
+            mean[metric.ordinal()] = asNumberOrNaN(fields.get(column + "_mean"));
+            min[metric.ordinal()] = asNumberOrNaN(fields.get(column + "_min"));
+            max[metric.ordinal()] = asNumberOrNaN(fields.get(column + "_max"));
+        }
+        return new BookGroupStats(grouping, String.valueOf(fields.get("key")),
+                (long) asNumber(fields.get("count"), "count"), mean, min, max);
+    }
+
+    // ---------------------------------------------------------------- daftar id
+
+    public static String joinIds(int... ids) {
+        StringBuilder out = new StringBuilder(ids.length * 6);
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(ids[i]);
+        }
+        return out.toString();
+    }
+
+    public static int[] parseIds(String text) {
+        String trimmed = text == null ? "" : text.trim();
+        if (trimmed.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = trimmed.split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                ids[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Id tidak valid: " + parts[i]);
+            }
+        }
+        return ids;
+    }
+
+    // NaN (kelompok kosong) tidak valid di JSON, dikirim sebagai null
+    private static String jsonNumber(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value);
+    }
+
+    private static double asNumber(Object value, String field) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw new IllegalArgumentException("Field " + field + " harus berupa angka");
+    }
+
+    private static double asNumberOrNaN(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+}
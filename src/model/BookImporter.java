@@ -0,0 +1,169 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kelas BookImporter membaca berkas katalog (CSV atau JSON lines) dan menyimpannya
+ * ke database lewat BookDAO.addBooks dalam batch.
+ *
+ * Berkas dibaca record demi record lewat ChannelLineReader, sehingga pemakaian memori
+ * hanya sebesar buffer baca ditambah satu batch, berapa pun ukuran berkasnya.
+ * Setiap record divalidasi dengan BookValidator (aturan yang sama dengan form);
+ * record yang tidak valid dilewati dan dicatat di BookTransferResult.
+ * Kolom id di berkas diabaikan: database tujuan memberikan id baru.
+ */
+public class BookImporter {
+    // Batas panjang satu record, agar tanda kutip yang tidak ditutup tidak menelan seluruh berkas
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private final BookDAO bookDAO;
+    private int batchSize = AppConfig.getInt("library.import.batchSize", 1000);
+    private BookTransferListener listener;
+
+    public BookImporter(BookDAO bookDAO) {
+        this.bookDAO = bookDAO;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Ukuran batch harus lebih dari 0: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setListener(BookTransferListener listener) {
+        this.listener = listener;
+    }
+
+    // Format ditentukan dari ekstensi berkas
+    public BookTransferResult importFile(Path path) throws IOException {
+        return importFile(path, BookFileFormat.fromFileName(path));
+    }
+
+    public BookTransferResult importFile(Path path, BookFileFormat format) throws IOException {
+        BookTransferResult result = new BookTransferResult();
+        long start = System.nanoTime();
+        List<Book> batch = new ArrayList<>(batchSize);
+
+        try (ChannelLineReader reader = new ChannelLineReader(path)) {
+            StringBuilder line = new StringBuilder(256);
+            StringBuilder record = new StringBuilder(256);
+            long lineNumber = 0;
+            long recordLine = 0;
+            boolean open = false;
+            boolean firstRecord = true;
+
+            while (reader.readLine(line, MAX_RECORD_LENGTH - record.length())) {
+                lineNumber++;
+                if (reader.isLineTooLong()) {
+                    result.recordRead();
+                    result.reject("Baris " + (record.length() == 0 ? lineNumber : recordLine) + ": record terlalu panjang");
+                    record.setLength(0);
+                    open = false;
+                    continue;
+                }
+                if (record.length() == 0) {
+                    if (isBlank(line)) {
+                        continue;
+                    }
+                    recordLine = lineNumber;
+                } else {
+                    record.append('\n'); // Baris baru di dalam field berkutip
+                }
+                record.append(line);
+
+                open = format.isOpenAfter(line, open);
+                if (open) {
+                    if (record.length() > MAX_RECORD_LENGTH) {
+                        result.recordRead();
+                        result.reject("Baris " + recordLine + ": record terlalu panjang atau tanda kutip tidak ditutup");
+                        record.setLength(0);
+                        open = false;
+                    }
+                    continue;
+                }
+
+                if (firstRecord) {
+                    firstRecord = false;
+                    if (format.isHeader(record.toString())) {
+                        record.setLength(0);
+                        continue;
+                    }
+                }
+
+                result.recordRead();
+                Book book = parseRecord(format, record, recordLine, result);
+                record.setLength(0);
+                if (book != null) {
+                    batch.add(book);
+                    if (batch.size() >= batchSize) {
+                        flush(batch, result, recordLine);
+                        reportProgress(result, reader, start);
+                    }
+                }
+            }
+
+            if (record.length() > 0) {
+                result.recordRead();
+                result.reject("Baris " + recordLine + ": record terpotong di akhir berkas");
+            }
+            flush(batch, result, lineNumber);
+            reportProgress(result, reader, start);
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        System.out.println("Impor " + path.getFileName() + " selesai: " + result);
+        return result;
+    }
+
+    private static Book parseRecord(BookFileFormat format, CharSequence record, long recordLine, BookTransferResult result) {
+        Book book;
+        try {
+            book = format.parse(record);
+        } catch (IllegalArgumentException e) {
+            result.reject("Baris " + recordLine + ": " + e.getMessage());
+            return null;
+        }
+        String error = BookValidator.validate(book);
+        if (error != null) {
+            result.reject("Baris " + recordLine + ": " + error);
+            return null;
+        }
+        book.setId(0);
+        return book;
+    }
+
+    private void flush(List<Book> batch, BookTransferResult result, long lineNumber) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            result.addWritten(bookDAO.addBooks(batch).size());
+        } catch (DataAccessException e) {
+            throw new DataAccessException("Impor berhenti sebelum baris " + lineNumber + " ("
+                    + result.getRecordsWritten() + " buku sudah tersimpan): " + e.getMessage(), e);
+        }
+        batch.clear();
+    }
+
+    private void reportProgress(BookTransferResult result, ChannelLineReader reader, long start) throws IOException {
+        if (listener != null) {
+            long size = reader.size();
+            double fraction = size > 0 ? Math.min(1.0, (double) reader.position() / size) : 1.0;
+            listener.onProgress(result.getRecordsRead(), fraction,
+                    BookTransferResult.rate(result.getRecordsRead(), System.nanoTime() - start));
+        }
+    }
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
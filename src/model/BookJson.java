@@ -0,0 +1,240 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kelas BookJson mengubah Book menjadi objek JSON datar dan sebaliknya.
+ * Hanya mendukung bentuk yang ditulis oleh kelas ini sendiri (satu objek
+ * tanpa objek/array bersarang), sehingga tidak memerlukan pustaka JSON eksternal.
+ *
+ * Contoh: {"id":1,"title":"Laskar Pelangi","author":"Andrea Hirata","publication_year":2005,
+ *          "storyline_score":4.5,"language_style_score":4.0,"originality_score":4.5,"rating":4.33}
+ */
+public final class BookJson {
+
+    private BookJson() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    public static String toJson(Book book) {
+        StringBuilder out = new StringBuilder(160);
+        appendJson(out, book);
+        return out.toString();
+    }
+
+    // Menulis satu buku sebagai objek JSON ke StringBuilder yang sudah ada
+    public static void appendJson(StringBuilder out, Book book) {
+        out.append("{\"id\":").append(book.getId());
+        out.append(",\"title\":");
+        appendString(out, book.getTitle());
+        out.append(",\"author\":");
+        appendString(out, book.getAuthor());
+        out.append(",\"publication_year\":").append(book.getPublicationYear());
+        out.append(",\"storyline_score\":").append(book.getStorylineScore());
+        out.append(",\"language_style_score\":").append(book.getLanguageStyleScore());
+        out.append(",\"originality_score\":").append(book.getOriginalityScore());
+        out.append(",\"rating\":").append(book.getRating());
+        out.append('}');
+    }
+
+    public static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    // Membaca satu objek JSON datar menjadi Book; skor tidak divalidasi di sini
+    public static Book fromJson(CharSequence json) {
+        Map<String, Object> fields = parseObject(json);
+        Book book = new Book(
+                asString(fields.get("title")),
+                asString(fields.get("author")),
+                (int) asNumber(fields.get("publication_year"), "publication_year"),
+                asNumber(fields.get("storyline_score"), "storyline_score"),
+                asNumber(fields.get("language_style_score"), "language_style_score"),
+                asNumber(fields.get("originality_score"), "originality_score"));
+        Object id = fields.get("id");
+        if (id != null) {
+            book.setId((int) asNumber(id, "id"));
+        }
+        return book;
+    }
+
+    // Parser objek JSON datar: nilai berupa string, angka, true/false, atau null
+    public static Map<String, Object> parseObject(CharSequence json) {
+        Parser parser = new Parser(json);
+        Map<String, Object> fields = parser.readObject();
+        parser.skipWhitespace();
+        if (parser.pos != json.length()) {
+            throw parser.error("Karakter tambahan setelah objek");
+        }
+        return fields;
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static double asNumber(Object value, String field) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw new IllegalArgumentException("Field " + field + " harus berupa angka");
+    }
+
+    private static final class Parser {
+        private final CharSequence text;
+        private int pos;
+
+        private Parser(CharSequence text) {
+            this.text = text;
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> fields = new HashMap<>();
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return fields;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                fields.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return fields;
+                }
+                if (c != ',') {
+                    throw error("Diharapkan ',' atau '}'");
+                }
+            }
+        }
+
+        private Object readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == 'n' && matches("null")) {
+                return null;
+            }
+            if (c == 't' && matches("true")) {
+                return Boolean.TRUE;
+            }
+            if (c == 'f' && matches("false")) {
+                return Boolean.FALSE;
+            }
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Nilai tidak dikenal");
+            }
+            try {
+                return Double.parseDouble(text.subSequence(start, pos).toString());
+            } catch (NumberFormatException e) {
+                throw error("Angka tidak valid");
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case '"': out.append('"'); break;
+                    case '\\': out.append('\\'); break;
+                    case '/': out.append('/'); break;
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'n': out.append('\n'); break;
+                    case 'r': out.append('\r'); break;
+                    case 't': out.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Escape unicode terpotong");
+                        }
+                        out.append((char) Integer.parseInt(text.subSequence(pos, pos + 4).toString(), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        throw error("Escape tidak dikenal");
+                }
+            }
+        }
+
+        private boolean matches(String word) {
+            if (pos + word.length() <= text.length() && text.subSequence(pos, pos + word.length()).toString().equals(word)) {
+                pos += word.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("JSON terpotong");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Diharapkan '" + expected + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " pada posisi " + pos);
+        }
+    }
+}
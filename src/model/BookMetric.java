@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * Enum BookMetric mendefinisikan nilai buku yang dapat diringkas oleh analitik katalog:
+ * rating dan ketiga skor penyusunnya, semuanya berada di rentang 0 sampai 5.
+ */
+public enum BookMetric {
+    RATING("rating"),
+    STORYLINE_SCORE("storyline_score"),
+    LANGUAGE_STYLE_SCORE("language_style_score"),
+    ORIGINALITY_SCORE("originality_score");
+
+    private final String column;
+
+    BookMetric(String column) {
+        this.column = column;
+    }
+
+    // Nama kolom di tabel books
+    public String getColumn() {
+        return column;
+    }
+
+    public double valueOf(Book book) {
+        switch (this) {
+            case RATING: return book.getRating();
+            case STORYLINE_SCORE: return book.getStorylineScore();
+            case LANGUAGE_STYLE_SCORE: return book.getLanguageStyleScore();
+            default: return book.getOriginalityScore();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BookPageSnapshot adalah salinan halaman pertama tabel (beserta jumlah seluruh buku) yang
+ * disimpan di disk, agar jendela dapat langsung menampilkan data saat aplikasi dimulai,
+ * sebelum koneksi database siap. Isinya bisa sudah usang dan hanya dipakai sebagai pratinjau
+ * sampai halaman yang sebenarnya selesai dimuat.
+ *
+ * Format berkas: JSON Lines, baris pertama {"count":..,"sort":"ID"}, lalu satu buku per baris.
+ * Berkas ditulis ke berkas sementara lalu dipindahkan, sehingga tidak pernah terbaca setengah jadi.
+ */
+public final class BookPageSnapshot {
+    private final int totalCount;
+    private final BookSortKey sortKey;
+    private final List<Book> books;
+
+    public BookPageSnapshot(int totalCount, BookSortKey sortKey, List<Book> books) {
+        this.totalCount = totalCount;
+        this.sortKey = sortKey;
+        this.books = Collections.unmodifiableList(new ArrayList<>(books));
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public BookSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    // Membaca snapshot; null jika berkas belum ada atau tidak dapat dibaca (dicatat, bukan dilempar)
+    public static BookPageSnapshot read(Path path) {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return null;
+            }
+            Map<String, Object> fields = BookJson.parseObject(header);
+            int count = ((Number) fields.get("count")).intValue();
+            BookSortKey sortKey = BookSortKey.valueOf(String.valueOf(fields.get("sort")));
+            List<Book> books = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    books.add(BookJson.fromJson(line));
+                }
+            }
+            return new BookPageSnapshot(count, sortKey, books);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Snapshot halaman pertama tidak dapat dibaca (" + path + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        StringBuilder line = new StringBuilder(256);
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write("{\"count\":" + totalCount + ",\"sort\":\"" + sortKey.name() + "\"}\n");
+            for (Book book : books) {
+                line.setLength(0);
+                BookJson.appendJson(line, book);
+                line.append('\n');
+                writer.append(line);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
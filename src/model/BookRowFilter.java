@@ -0,0 +1,84 @@
+package model;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * BookRowFilter adalah gabungan predikat filter tabel: rentang tahun terbit, rating minimum,
+ * dan potongan nama penulis (tanpa membedakan huruf besar/kecil). Predikat yang tidak diisi
+ * tidak membatasi apa pun. Dievaluasi langsung pada kolom ColumnarBookStore, tanpa membuat
+ * objek Book.
+ */
+public final class BookRowFilter {
+    private static final BookRowFilter NONE = new BookRowFilter(null, null, null, Double.NaN);
+
+    private final String author; // null = semua penulis
+    private final Integer fromYear;
+    private final Integer toYear;
+    private final double minRating; // NaN = tanpa batas
+
+    private BookRowFilter(String author, Integer fromYear, Integer toYear, double minRating) {
+        this.author = author;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.minRating = minRating;
+    }
+
+    public static BookRowFilter none() {
+        return NONE;
+    }
+
+    // Nilai null (atau teks kosong/NaN) berarti predikat tersebut tidak dipakai
+    public static BookRowFilter of(String author, Integer fromYear, Integer toYear, Double minRating) {
+        String text = author == null ? "" : author.trim().toLowerCase(Locale.ROOT);
+        if (fromYear != null && toYear != null && fromYear > toYear) {
+            throw new IllegalArgumentException("Tahun awal (" + fromYear + ") lebih besar dari tahun akhir (" + toYear + ")");
+        }
+        return new BookRowFilter(text.isEmpty() ? null : text, fromYear, toYear,
+                minRating == null ? Double.NaN : minRating);
+    }
+
+    public boolean isEmpty() {
+        return author == null && fromYear == null && toYear == null && Double.isNaN(minRating);
+    }
+
+    // Nomor baris store yang lolos semua predikat, dalam urutan penyimpanan. Predikat paling
+    // murah dijalankan lebih dulu; predikat berikutnya hanya memeriksa baris yang tersisa.
+    public int[] apply(ColumnarBookStore store) {
+        int[] rows = null;
+        if (fromYear != null || toYear != null) {
+            rows = store.filterRange(rows, ColumnarBookStore.Column.PUBLICATION_YEAR,
+                    fromYear == null ? Integer.MIN_VALUE : fromYear, toYear == null ? Integer.MAX_VALUE : toYear);
+        }
+        if (!Double.isNaN(minRating)) {
+            rows = store.filterRange(rows, ColumnarBookStore.Column.RATING, minRating, Double.POSITIVE_INFINITY);
+        }
+        if (author != null) {
+            rows = store.filterContains(rows, ColumnarBookStore.Column.AUTHOR, author);
+        }
+        return rows == null ? store.allRows() : rows;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookRowFilter)) {
+            return false;
+        }
+        BookRowFilter other = (BookRowFilter) o;
+        return Objects.equals(author, other.author) && Objects.equals(fromYear, other.fromYear)
+                && Objects.equals(toYear, other.toYear) && Double.compare(minRating, other.minRating) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(author, fromYear, toYear, minRating);
+    }
+
+    @Override
+    public String toString() {
+        return "BookRowFilter{penulis=" + author + ", tahun=" + fromYear + ".." + toYear + ", ratingMin=" + minRating + '}';
+    }
+}
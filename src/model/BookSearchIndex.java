@@ -0,0 +1,656 @@
+package model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * BookSearchIndex adalah indeks trigram di memori atas judul dan penulis buku.
+ *
+ * Teks dinormalisasi (huruf kecil, tanpa diakritik, selain huruf/angka menjadi spasi),
+ * lalu setiap kata dipecah menjadi trigram dengan satu spasi di kiri dan kanan
+ * ("harry" menjadi " ha", "har", "arr", "rry", "ry "). Setiap trigram menunjuk ke
+ * posting list berisi slot dokumen yang terurut.
+ *
+ * Pencarian memecah query menjadi token; token terakhir dianggap awalan (pencarian saat
+ * mengetik). Kandidat dipilih dari posting list terpendek lalu dicek ke list lain dengan
+ * binary search, dengan ambang jumlah trigram yang sedikit longgar agar substring dan salah
+ * ketik tetap ditemukan. Kandidat kemudian diverifikasi dan diberi skor:
+ * kata sama persis > awalan kata > substring > salah ketik (jarak edit 1-2).
+ * Setiap kandidat dinilai saat dikumpulkan dan hanya 'limit' hasil terbaik yang disimpan
+ * (heap berukuran tetap), sehingga semua kandidat ikut bersaing tanpa menyimpan daftar
+ * kandidat. Tahap toleransi salah ketik hanya dijalankan jika kecocokan biasa kurang dari
+ * limit. Sebagai pengaman untuk query yang sangat umum, penilaian berhenti setelah
+ * library.search.maxCandidates kandidat.
+ *
+ * Perubahan diterapkan secara bertahap: buku yang diubah mendapat slot baru dan slot lamanya
+ * ditandai mati (lazy deletion). Slot mati dibersihkan dengan compact() saat jumlahnya sudah
+ * lebih banyak dari slot hidup. Aman dipakai dari banyak thread (read-write lock).
+ */
+public class BookSearchIndex {
+    // Panjang token minimum yang dicari (token satu huruf terlalu umum untuk diindeks)
+    public static final int MIN_TOKEN_LENGTH = 2;
+
+    // Batas jumlah kandidat yang dinilai per pencarian, agar query yang sangat umum (misalnya
+    // satu kata yang ada di jutaan judul) tetap memiliki batas waktu
+    private static final int MAX_CANDIDATES = AppConfig.getInt("library.search.maxCandidates", 100_000);
+
+    private static final PostingList EMPTY = new PostingList();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Data per slot dokumen
+    private int slotCount;
+    private int[] slotIds = new int[1024];
+    private String[] slotTitles = new String[1024];   // Judul ternormalisasi
+    private String[] slotAuthors = new String[1024];  // Penulis ternormalisasi
+    private boolean[] dead = new boolean[1024];
+    private int deadCount;
+
+    private final IntIntMap slotById = new IntIntMap();
+
+    // Trigram -> nomor posting list
+    private final IntIntMap trigramIds = new IntIntMap();
+    private final List<PostingList> postings = new ArrayList<>();
+
+    // Jumlah buku yang diindeks
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Menambah atau mengganti entri satu buku
+    public void upsert(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(book.getId());
+            addSlot(book.getId(), normalize(book.getTitle()), normalize(book.getAuthor()));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsertAll(Iterable<Book> books) {
+        upsertAll(books, id -> false);
+    }
+
+    // Seperti upsertAll, tetapi melewati id yang diminta; pengecekan dilakukan di dalam lock
+    void upsertAll(Iterable<Book> books, IntPredicate skip) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                if (skip.test(book.getId())) {
+                    continue;
+                }
+                removeSlot(book.getId());
+                addSlot(book.getId(), normalize(book.getTitle()), normalize(book.getAuthor()));
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotCount = 0;
+            deadCount = 0;
+            slotIds = new int[1024];
+            slotTitles = new String[1024];
+            slotAuthors = new String[1024];
+            dead = new boolean[1024];
+            slotById.clear();
+            trigramIds.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Mencari buku; mengembalikan id buku terurut dari skor tertinggi (maksimal 'limit')
+    public int[] search(String query, int limit) {
+        String[] tokens = tokenize(normalize(query));
+        if (tokens.length == 0 || limit <= 0) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<List<PostingList>> tokenLists = new ArrayList<>(tokens.length);
+            for (String token : tokens) {
+                tokenLists.add(listsFor(token));
+            }
+            // Tahap ketat dulu (semua trigram cocok); tahap longgar (salah ketik) hanya jika hasilnya kurang
+            TopResults results = new TopResults(limit);
+            IntIntMap seen = new IntIntMap();
+            int budget = collectCandidates(tokenLists, tokens, false, MAX_CANDIDATES, seen, results);
+            if (results.size < limit && budget > 0) {
+                collectCandidates(tokenLists, tokens, true, budget, seen, results);
+            }
+            return results.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Teks ternormalisasi: huruf kecil tanpa diakritik, hanya huruf/angka dipisah satu spasi
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') {
+            out.setLength(length - 1);
+        }
+        return out.toString();
+    }
+
+    private static String[] tokenize(String normalized) {
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split(" ")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private void addSlot(int id, String title, String author) {
+        if (slotCount == slotIds.length) {
+            int capacity = slotCount + (slotCount >> 1);
+            slotIds = Arrays.copyOf(slotIds, capacity);
+            slotTitles = Arrays.copyOf(slotTitles, capacity);
+            slotAuthors = Arrays.copyOf(slotAuthors, capacity);
+            dead = Arrays.copyOf(dead, capacity);
+        }
+        int slot = slotCount++;
+        slotIds[slot] = id;
+        slotTitles[slot] = title;
+        slotAuthors[slot] = author;
+        dead[slot] = false;
+        slotById.put(id, slot);
+        indexText(slot, title);
+        indexText(slot, author);
+    }
+
+    private void removeSlot(int id) {
+        int slot = slotById.remove(id);
+        if (slot >= 0) {
+            dead[slot] = true;
+            deadCount++;
+        }
+    }
+
+    // Slot baru selalu lebih besar dari slot lama, sehingga posting list tetap terurut dengan append
+    private void indexText(int slot, String text) {
+        int length = text.length();
+        int wordStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == ' ') {
+                if (i > wordStart) {
+                    char previous = ' ';
+                    char current = ' ';
+                    for (int j = wordStart; j <= i; j++) {
+                        char next = j < i ? text.charAt(j) : ' ';
+                        if (j > wordStart) {
+                            postingFor(trigramKey(previous, current, next), true).add(slot);
+                        }
+                        previous = current;
+                        current = next;
+                    }
+                }
+                wordStart = i + 1;
+            }
+        }
+    }
+
+    // Posting list untuk trigram awalan token: spasi di kiri saja, karena token bisa jadi
+    // masih diketik. Trigram yang tidak ada di indeks tetap dihitung (sebagai list kosong).
+    private List<PostingList> listsFor(String token) {
+        List<PostingList> lists = new ArrayList<>(token.length());
+        char previous = ' ';
+        char current = token.charAt(0);
+        for (int i = 1; i < token.length(); i++) {
+            char next = token.charAt(i);
+            PostingList list = postingFor(trigramKey(previous, current, next), false);
+            lists.add(list != null ? list : EMPTY);
+            previous = current;
+            current = next;
+        }
+        return lists;
+    }
+
+    // Berapa trigram token yang boleh tidak cocok. Tahap ketat hanya memberi kelonggaran
+    // untuk kecocokan di tengah kata; tahap longgar menambah kelonggaran untuk salah ketik.
+    private static int slack(int tokenLength, boolean fuzzy) {
+        int slack = tokenLength >= 4 ? 1 : 0;
+        if (fuzzy) {
+            if (tokenLength >= 5) {
+                slack++;
+            }
+            if (tokenLength >= 6) {
+                slack++;
+            }
+            if (tokenLength >= 8) {
+                slack++;
+            }
+        }
+        return slack;
+    }
+
+    // Menilai slot yang memenuhi ambang trigram untuk setiap token (maksimal 'max' slot) ke dalam
+    // 'out'; mengembalikan sisa batasnya. Iterasi digerakkan oleh list terpendek dari satu token:
+    // dokumen yang memenuhi ambang token itu pasti ada di salah satu list tersebut. List lain
+    // dicek dengan galloping search yang hanya bergerak maju. Slot yang sudah dinilai di tahap
+    // ketat ('seen') tidak dinilai ulang di tahap longgar.
+    private int collectCandidates(List<List<PostingList>> tokenLists, String[] tokens, boolean fuzzy, int max,
+                                  IntIntMap seen, TopResults out) {
+        int tokenCount = tokenLists.size();
+        int[] thresholds = new int[tokenCount];
+        List<List<Cursor>> cursors = new ArrayList<>(tokenCount);
+        List<PostingList> driverLists = null;
+        long driverCost = Long.MAX_VALUE;
+        for (int t = 0; t < tokenCount; t++) {
+            List<PostingList> lists = new ArrayList<>(tokenLists.get(t));
+            int k = lists.size();
+            thresholds[t] = Math.max(1, k - slack(k + 1, fuzzy));
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            List<PostingList> drivers = lists.subList(0, k - thresholds[t] + 1);
+            long cost = 0;
+            for (PostingList list : drivers) {
+                cost += list.size;
+            }
+            if (cost < driverCost) {
+                driverCost = cost;
+                driverLists = drivers;
+            }
+            List<Cursor> tokenCursors = new ArrayList<>(k);
+            for (PostingList list : lists) {
+                tokenCursors.add(new Cursor(list));
+            }
+            cursors.add(tokenCursors);
+        }
+
+        Cursor[] drivers = new Cursor[driverLists.size()];
+        for (int i = 0; i < drivers.length; i++) {
+            drivers[i] = new Cursor(driverLists.get(i));
+        }
+        while (max > 0) {
+            // Slot berikutnya dari gabungan list penggerak
+            int slot = Integer.MAX_VALUE;
+            for (Cursor driver : drivers) {
+                if (driver.pos < driver.list.size) {
+                    slot = Math.min(slot, driver.list.slots[driver.pos]);
+                }
+            }
+            if (slot == Integer.MAX_VALUE) {
+                return max;
+            }
+            for (Cursor driver : drivers) {
+                if (driver.pos < driver.list.size && driver.list.slots[driver.pos] == slot) {
+                    driver.pos++;
+                }
+            }
+            // Dalam satu tahap slot datang berurutan; hanya tahap kedua yang bisa bertemu slot yang sama
+            if (dead[slot] || (fuzzy && seen.get(slot) >= 0)) {
+                continue;
+            }
+            boolean accepted = true;
+            for (int t = 0; t < tokenCount && accepted; t++) {
+                int count = 0;
+                int remaining = cursors.get(t).size();
+                for (Cursor cursor : cursors.get(t)) {
+                    if (count + remaining < thresholds[t]) {
+                        break; // Ambang tidak mungkin tercapai lagi
+                    }
+                    remaining--;
+                    if (cursor.advanceTo(slot)) {
+                        count++;
+                    }
+                }
+                accepted = count >= thresholds[t];
+            }
+            if (accepted) {
+                max--;
+                if (!fuzzy) {
+                    seen.put(slot, 0);
+                }
+                long rank = rank(slot, tokens);
+                if (rank != REJECTED) {
+                    out.offer(rank);
+                }
+            }
+        }
+        return max;
+    }
+
+    // Posisi baca pada satu posting list; hanya bergerak maju
+    private static final class Cursor {
+        private final PostingList list;
+        private int pos;
+
+        private Cursor(PostingList list) {
+            this.list = list;
+        }
+
+        // Maju ke slot pertama >= target (galloping), lalu cek apakah slot itu target
+        private boolean advanceTo(int target) {
+            int[] slots = list.slots;
+            int size = list.size;
+            if (pos >= size) {
+                return false;
+            }
+            if (slots[pos] < target) {
+                int step = 1;
+                int low = pos;
+                int high = pos + 1;
+                while (high < size && slots[high] < target) {
+                    low = high;
+                    step <<= 1;
+                    high = pos + step;
+                }
+                pos = Arrays.binarySearch(slots, low, Math.min(high + 1, size), target);
+                if (pos < 0) {
+                    pos = -pos - 1;
+                }
+            }
+            return pos < size && slots[pos] == target;
+        }
+    }
+
+    // Hasil terbaik sejauh ini: max-heap berukuran 'limit' berisi nilai urutan dari rank(),
+    // sehingga nilai terburuk di puncak dan langsung digantikan kandidat yang lebih baik
+    private static final class TopResults {
+        private final long[] heap;
+        private int size;
+
+        TopResults(int limit) {
+            this.heap = new long[limit];
+        }
+
+        void offer(long rank) {
+            if (size < heap.length) {
+                int i = size++;
+                heap[i] = rank;
+                while (i > 0 && heap[(i - 1) >>> 1] < heap[i]) {
+                    swap(i, (i - 1) >>> 1);
+                    i = (i - 1) >>> 1;
+                }
+            } else if (rank < heap[0]) {
+                heap[0] = rank;
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && heap[child + 1] > heap[child]) {
+                        child++;
+                    }
+                    if (heap[i] >= heap[child]) {
+                        break;
+                    }
+                    swap(i, child);
+                    i = child;
+                }
+            }
+        }
+
+        private void swap(int a, int b) {
+            long t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+        }
+
+        // Id buku terurut dari skor tertinggi
+        int[] ids() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            int[] ids = new int[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = (int) sorted[i];
+            }
+            return ids;
+        }
+    }
+
+    private static final long REJECTED = Long.MAX_VALUE;
+
+    // Memverifikasi satu kandidat; token terakhir dianggap awalan. Mengembalikan nilai urutan
+    // (lebih kecil = lebih baik: skor menurun, lalu id menaik) atau REJECTED jika tidak cocok.
+    private long rank(int slot, String[] tokens) {
+        int score = 0;
+        for (int t = 0; t < tokens.length; t++) {
+            boolean prefix = t == tokens.length - 1;
+            int titleScore = matchScore(slotTitles[slot], tokens[t], prefix);
+            int authorScore = titleScore == 5 ? 0 : matchScore(slotAuthors[slot], tokens[t], prefix);
+            if (titleScore == 0 && authorScore == 0) {
+                // Salah ketik hanya dicek jika tidak ada kecocokan biasa sama sekali
+                if (hasTypo(slotTitles[slot], tokens[t], prefix)) {
+                    titleScore = 1;
+                } else if (hasTypo(slotAuthors[slot], tokens[t], prefix)) {
+                    authorScore = 1;
+                } else {
+                    return REJECTED;
+                }
+            }
+            // Kecocokan di judul sedikit lebih diutamakan daripada di penulis
+            score += Math.max(titleScore * 10 + 1, authorScore * 10);
+        }
+        // Teks yang lebih pendek (lebih sedikit kata lain) diutamakan pada skor yang sama
+        int lengthPenalty = Math.min(255, slotTitles[slot].length());
+        int key = score * 256 + (255 - lengthPenalty);
+        return ((long) ~key << 32) | (slotIds[slot] & 0xFFFFFFFFL);
+    }
+
+    // 5: kata sama persis, 4: awalan kata untuk token terakhir (sedang diketik),
+    // 3: awalan kata, 2: substring, 0: tidak cocok (1 dipakai untuk salah ketik)
+    private static int matchScore(String text, String token, boolean prefix) {
+        int best = 0;
+        int length = token.length();
+        for (int at = text.indexOf(token); at >= 0; at = text.indexOf(token, at + 1)) {
+            boolean startsWord = at == 0 || text.charAt(at - 1) == ' ';
+            boolean endsWord = at + length == text.length() || text.charAt(at + length) == ' ';
+            if (startsWord && endsWord) {
+                return 5;
+            }
+            best = Math.max(best, startsWord ? (prefix ? 4 : 3) : 2);
+        }
+        return best;
+    }
+
+    // Apakah ada kata yang cocok dengan token dalam batas salah ketik
+    private static boolean hasTypo(String text, String token, boolean prefix) {
+        if (maxEdits(token.length()) == 0) {
+            return false;
+        }
+        int wordStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && text.charAt(i) != ' ') {
+                continue;
+            }
+            if (i > wordStart && isTypo(text, wordStart, i, token, prefix)) {
+                return true;
+            }
+            wordStart = i + 1;
+        }
+        return false;
+    }
+
+    private static int maxEdits(int tokenLength) {
+        return tokenLength >= 8 ? 2 : tokenLength >= 4 ? 1 : 0;
+    }
+
+    // Jarak edit antara token dan kata (atau awalan kata, jika token masih diketik) dalam batas toleransi
+    private static boolean isTypo(String text, int start, int end, String token, boolean prefix) {
+        int maxEdits = maxEdits(token.length());
+        int wordLength = end - start;
+        if (prefix && wordLength > token.length() + maxEdits) {
+            // Bandingkan dengan awalan kata yang panjangnya hampir sama dengan token
+            for (int cut = token.length() - maxEdits; cut <= token.length() + maxEdits; cut++) {
+                if (cut > 0 && cut <= wordLength && editDistance(text, start, start + cut, token, maxEdits) <= maxEdits) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return Math.abs(wordLength - token.length()) <= maxEdits
+                && editDistance(text, start, end, token, maxEdits) <= maxEdits;
+    }
+
+    // Jarak edit (Levenshtein dengan pertukaran dua huruf bersebelahan dihitung satu edit),
+    // berhenti lebih awal jika sudah pasti melebihi maxEdits
+    private static int editDistance(String text, int start, int end, String token, int maxEdits) {
+        int n = end - start;
+        int m = token.length();
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char c = text.charAt(start + i - 1);
+            for (int j = 1; j <= m; j++) {
+                char t = token.charAt(j - 1);
+                int cost = c == t ? 0 : 1;
+                int distance = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && c == token.charAt(j - 2) && text.charAt(start + i - 2) == t) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return rowMin;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+
+    // Kunci trigram: tepat (10 bit per karakter) untuk huruf Latin, hash untuk karakter lain.
+    // Tabrakan hash hanya menambah kandidat, karena setiap kandidat tetap diverifikasi.
+    private static int trigramKey(char a, char b, char c) {
+        if (a < 1024 && b < 1024 && c < 1024) {
+            return (a << 20) | (b << 10) | c;
+        }
+        int h = (a * 31 + b) * 31 + c;
+        return (h * 0x9E3779B9) & 0x3FFFFFFF;
+    }
+
+    private PostingList postingFor(int key, boolean create) {
+        int index = trigramIds.get(key);
+        if (index >= 0) {
+            return postings.get(index);
+        }
+        if (!create) {
+            return null;
+        }
+        PostingList list = new PostingList();
+        trigramIds.put(key, postings.size());
+        postings.add(list);
+        return list;
+    }
+
+    // Membangun ulang posting list tanpa slot mati jika slot mati sudah lebih banyak dari yang hidup
+    private void compactIfNeeded() {
+        if (deadCount > 1024 && deadCount > slotCount - deadCount) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] newSlot = new int[slotCount];
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (dead[slot]) {
+                newSlot[slot] = -1;
+            } else {
+                newSlot[slot] = live;
+                slotIds[live] = slotIds[slot];
+                slotTitles[live] = slotTitles[slot];
+                slotAuthors[live] = slotAuthors[slot];
+                dead[live] = false;
+                slotById.put(slotIds[live], live);
+                live++;
+            }
+        }
+        Arrays.fill(slotTitles, live, slotCount, null);
+        Arrays.fill(slotAuthors, live, slotCount, null);
+        slotCount = live;
+        deadCount = 0;
+        for (PostingList list : postings) {
+            int n = 0;
+            for (int i = 0; i < list.size; i++) {
+                int slot = newSlot[list.slots[i]];
+                if (slot >= 0) {
+                    list.slots[n++] = slot;
+                }
+            }
+            list.size = n;
+        }
+    }
+
+    // Daftar slot terurut untuk satu trigram
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return; // Trigram yang sama muncul dua kali di satu dokumen
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+}
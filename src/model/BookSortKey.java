@@ -0,0 +1,60 @@
+package model;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Comparator;
+
+/**
+ * Enum BookSortKey mendefinisikan kolom yang dapat dipakai sebagai kunci urutan
+ * pada pagination keyset. Setiap kunci selalu diikuti kolom id sebagai pemutus seri,
+ * sehingga urutan (kunci, id) unik dan halaman berikutnya dapat dicari dengan
+ * kondisi "(kunci, id) > (nilai terakhir, id terakhir)" tanpa OFFSET.
+ */
+public enum BookSortKey {
+    ID("id", Comparator.comparingInt(Book::getId)),
+    TITLE("title", Comparator.comparing(Book::getTitle, Comparator.nullsFirst(Comparator.<String>naturalOrder()))),
+    AUTHOR("author", Comparator.comparing(Book::getAuthor, Comparator.nullsFirst(Comparator.<String>naturalOrder()))),
+    PUBLICATION_YEAR("publication_year", Comparator.comparingInt(Book::getPublicationYear)),
+    RATING("rating", Comparator.comparingDouble(Book::getRating));
+
+    private final String column;
+    private final Comparator<Book> comparator;
+
+    BookSortKey(String column, Comparator<Book> keyComparator) {
+        this.column = column;
+        this.comparator = keyComparator.thenComparingInt(Book::getId);
+    }
+
+    // Nama kolom di tabel books
+    public String getColumn() {
+        return column;
+    }
+
+    // Comparator yang urutannya sama dengan ORDER BY kunci, id
+    public Comparator<Book> comparator() {
+        return comparator;
+    }
+
+    // Mengisi parameter nilai kunci dari buku terakhir pada halaman sebelumnya
+    void bindKey(PreparedStatement pstmt, int index, Book last) throws SQLException {
+        switch (this) {
+            case ID:
+                pstmt.setInt(index, last.getId());
+                break;
+            case TITLE:
+                pstmt.setString(index, last.getTitle());
+                break;
+            case AUTHOR:
+                pstmt.setString(index, last.getAuthor());
+                break;
+            case PUBLICATION_YEAR:
+                pstmt.setInt(index, last.getPublicationYear());
+                break;
+            case RATING:
+                pstmt.setDouble(index, last.getRating());
+                break;
+            default:
+                throw new IllegalStateException("Kunci urutan tidak dikenal: " + this);
+        }
+    }
+}
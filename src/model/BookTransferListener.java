@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Listener kemajuan impor/ekspor katalog buku. Dipanggil dari thread yang
+ * menjalankan transfer (bukan EDT), secara berkala setelah setiap batch.
+ */
+@FunctionalInterface
+public interface BookTransferListener {
+    // rows: jumlah record yang sudah diproses; fraction: 0.0-1.0, atau -1 jika tidak diketahui
+    void onProgress(long rows, double fraction, double rowsPerSecond);
+}
@@ -0,0 +1,79 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Kelas BookTransferResult berisi ringkasan satu kali impor atau ekspor:
+ * jumlah record yang dibaca, yang tersimpan/tertulis, yang ditolak beserta
+ * sebagian pesan kesalahannya, dan lama prosesnya.
+ */
+public class BookTransferResult {
+    // Hanya sebagian pesan kesalahan yang disimpan agar memori tetap kecil untuk berkas yang sangat rusak
+    static final int MAX_ERRORS = 100;
+
+    private long recordsRead;
+    private long recordsWritten;
+    private long recordsRejected;
+    private long elapsedNanos;
+    private final List<String> errors = new ArrayList<>();
+
+    void recordRead() {
+        recordsRead++;
+    }
+
+    void addRead(long count) {
+        recordsRead += count;
+    }
+
+    void addWritten(long count) {
+        recordsWritten += count;
+    }
+
+    void reject(String message) {
+        recordsRejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public long getRecordsRejected() {
+        return recordsRejected;
+    }
+
+    // Pesan kesalahan pertama (maksimal MAX_ERRORS), misalnya "Baris 12: Judul dan Penulis tidak boleh kosong."
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000L;
+    }
+
+    public double getRowsPerSecond() {
+        return rate(recordsRead, elapsedNanos);
+    }
+
+    static double rate(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d dibaca, %d tersimpan, %d ditolak dalam %.1f detik (%.0f baris/detik)",
+                recordsRead, recordsWritten, recordsRejected, elapsedNanos / 1e9, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+/**
+ * Kelas BookValidator berisi aturan validasi data buku yang dipakai bersama oleh
+ * controller (input form) dan importer (berkas katalog): judul dan penulis wajib diisi,
+ * tahun terbit harus lebih dari 0, dan setiap skor berada di antara 0 sampai 5.
+ * Setiap metode mengembalikan pesan kesalahan, atau null jika data valid.
+ */
+public final class BookValidator {
+    public static final String REQUIRED_MESSAGE = "Judul dan Penulis tidak boleh kosong.";
+    public static final String RANGE_MESSAGE = "Input tidak valid. Pastikan tahun > 0 dan skor antara 0-5.";
+
+    private BookValidator() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    public static String checkRequired(String title, String author) {
+        if (title == null || title.isEmpty() || author == null || author.isEmpty()) {
+            return REQUIRED_MESSAGE;
+        }
+        return null;
+    }
+
+    public static String checkRanges(int year, double storyline, double language, double originality) {
+        if (year <= 0 || !isScore(storyline) || !isScore(language) || !isScore(originality)) {
+            return RANGE_MESSAGE;
+        }
+        return null;
+    }
+
+    public static String validate(Book book) {
+        String error = checkRequired(book.getTitle(), book.getAuthor());
+        if (error == null) {
+            error = checkRanges(book.getPublicationYear(), book.getStorylineScore(),
+                    book.getLanguageStyleScore(), book.getOriginalityScore());
+        }
+        return error;
+    }
+
+    private static boolean isScore(double score) {
+        return score >= 0 && score <= 5; // NaN juga ditolak
+    }
+}
@@ -0,0 +1,440 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * CachingBookDAO adalah decorator BookDAO dengan cache read-through/write-through.
+ *
+ * - Cache per id: LRU berukuran terbatas yang dibagi ke beberapa stripe, masing-masing
+ *   dengan lock sendiri, sehingga thread yang membaca id berbeda jarang saling menunggu.
+ * - Snapshot getAllBooks (opsional): daftar lengkap yang disimpan setelah pembacaan pertama
+ *   dan ditambal saat addBook/updateBook/deleteBook. Operasi massal membuang snapshot.
+ *
+ * Buku disimpan sebagai CompactBook (skor satu byte, penulis di-intern) dan dibuat ulang
+ * sebagai Book baru saat keluar cache, sehingga perubahan objek oleh pemanggil tidak
+ * mengubah isi cache, sementara snapshot katalog besar memakai sekitar sepertiga lebih
+ * sedikit memori (lihat CompactBookBenchmark). Perubahan dari klien lain yang terlihat lewat changesSince
+ * membuang entri buku tersebut dan snapshot; untuk perubahan dari luar lainnya, panggil
+ * invalidateAll().
+ */
+public class CachingBookDAO extends ForwardingBookDAO {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final boolean snapshotEnabled;
+
+    // Snapshot daftar lengkap (null jika belum dimuat atau sudah dibuang), dijaga oleh snapshotLock
+    private final Object snapshotLock = new Object();
+    private List<CompactBook> snapshot;
+    private long snapshotVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder snapshotMisses = new LongAdder();
+
+    public CachingBookDAO(BookDAO delegate) {
+        this(delegate, AppConfig.getInt("library.cache.maxEntries", 10_000),
+                AppConfig.getBoolean("library.cache.snapshot", true));
+    }
+
+    public CachingBookDAO(BookDAO delegate, int maxEntries, boolean snapshotEnabled) {
+        super(delegate);
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Ukuran cache harus lebih dari 0: " + maxEntries);
+        }
+        int perStripe = Math.max(1, (maxEntries + STRIPES - 1) / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.snapshotEnabled = snapshotEnabled;
+    }
+
+    @Override
+    public Book getBookById(int id) {
+        Stripe stripe = stripeFor(id);
+        long version;
+        synchronized (stripe) {
+            CompactBook cached = stripe.entries.get(id);
+            if (cached != null) {
+                hits.increment();
+                return cached.toBook();
+            }
+            version = stripe.version;
+        }
+        misses.increment();
+        Book loaded = delegate.getBookById(id);
+        if (loaded != null) {
+            synchronized (stripe) {
+                // Jangan menimpa nilai yang ditulis oleh update/delete selama buku ini dimuat
+                if (stripe.version == version) {
+                    stripe.entries.put(id, CompactBook.of(loaded));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        if (!snapshotEnabled) {
+            return delegate.getAllBooks();
+        }
+        long version;
+        synchronized (snapshotLock) {
+            if (snapshot != null) {
+                snapshotHits.increment();
+                return toBooks(snapshot);
+            }
+            version = snapshotVersion;
+        }
+        snapshotMisses.increment();
+        List<Book> loaded = delegate.getAllBooks();
+        synchronized (snapshotLock) {
+            if (snapshotVersion == version) {
+                snapshot = Collections.unmodifiableList(compact(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public int countBooks() {
+        if (snapshotEnabled) {
+            synchronized (snapshotLock) {
+                if (snapshot != null) {
+                    return snapshot.size();
+                }
+            }
+        }
+        return delegate.countBooks();
+    }
+
+    // Write-through addBook/updateBook: versi stripe dan snapshot dicatat sebelum penulisan ke
+    // delegate. Jika penulisan lain ke cache terjadi sebelum hasilnya dipasang, urutan commit di
+    // database tidak diketahui, sehingga entri (atau snapshot) dibuang alih-alih ditimpa.
+
+    @Override
+    public Book addBook(Book book) {
+        long[] versions = stripeVersions(); // Id baru belum diketahui sebelum penulisan
+        long snapshotAt = snapshotVersion();
+        Book saved;
+        try {
+            saved = delegate.addBook(book);
+        } catch (RuntimeException e) {
+            invalidateSnapshot();
+            throw e;
+        }
+        putIfUnchanged(saved, versions[stripeIndex(saved.getId())]);
+        patchSnapshotIfUnchanged(snapshotAt, list -> list.add(CompactBook.of(saved)));
+        return saved;
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        int id = book.getId();
+        long version = stripeVersion(id);
+        long snapshotAt = snapshotVersion();
+        Book saved;
+        try {
+            saved = delegate.updateBook(book);
+        } catch (RuntimeException e) {
+            invalidate(id);
+            invalidateSnapshot();
+            throw e;
+        }
+        if (saved == null) {
+            // Buku sudah tidak ada di database
+            invalidate(id);
+            patchSnapshot(list -> list.removeIf(b -> b.getId() == id));
+            return null;
+        }
+        putIfUnchanged(saved, version);
+        patchSnapshotIfUnchanged(snapshotAt, list -> {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).getId() == id) {
+                    list.set(i, CompactBook.of(saved));
+                    return;
+                }
+            }
+        });
+        return saved;
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        boolean deleted;
+        try {
+            deleted = delegate.deleteBook(id);
+        } catch (RuntimeException e) {
+            invalidate(id);
+            invalidateSnapshot();
+            throw e;
+        }
+        invalidate(id);
+        patchSnapshot(list -> list.removeIf(b -> b.getId() == id));
+        return deleted;
+    }
+
+    @Override
+    public BookChanges changesSince(long token) {
+        BookChanges changes = delegate.changesSince(token);
+        if (changes == null || changes.isEmpty()) {
+            return changes;
+        }
+        if (changes.isReloadRequired()) {
+            invalidateAll();
+            return changes;
+        }
+        for (Book book : changes.getInserted()) {
+            invalidate(book.getId());
+        }
+        for (Book book : changes.getUpdated()) {
+            invalidate(book.getId());
+        }
+        for (int id : changes.getDeletedIds()) {
+            invalidate(id);
+        }
+        invalidateSnapshot();
+        return changes;
+    }
+
+    // Operasi massal tidak mengisi cache per id (agar impor besar tidak menggusur isi cache)
+    // dan membuang snapshot, karena menambalnya per batch akan menyalin daftar berulang kali.
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        try {
+            return delegate.addBooks(books);
+        } finally {
+            invalidateSnapshot();
+        }
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        try {
+            return delegate.updateBooks(books);
+        } finally {
+            for (Book book : books) {
+                invalidate(book.getId());
+            }
+            invalidateSnapshot();
+        }
+    }
+
+    @Override
+    public int updateRatings(Collection<Book> books) {
+        try {
+            return delegate.updateRatings(books);
+        } finally {
+            for (Book book : books) {
+                invalidate(book.getId());
+            }
+            invalidateSnapshot();
+        }
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        try {
+            return delegate.deleteBooks(ids);
+        } finally {
+            Set<Integer> deleted = new HashSet<>();
+            for (int id : ids) {
+                invalidate(id);
+                deleted.add(id);
+            }
+            patchSnapshot(list -> list.removeIf(b -> deleted.contains(b.getId())));
+        }
+    }
+
+    // Mengosongkan seluruh cache, misalnya setelah tabel diubah oleh aplikasi lain
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.clear();
+                stripe.version++;
+            }
+        }
+        invalidateSnapshot();
+    }
+
+    // Memasang hasil penulisan hanya jika stripe tidak ditulis sejak versi dicatat; jika sudah,
+    // entri dibuang agar nilai yang lebih lama tidak menimpa yang lebih baru
+    private void putIfUnchanged(Book book, long version) {
+        Stripe stripe = stripeFor(book.getId());
+        synchronized (stripe) {
+            if (stripe.version == version) {
+                stripe.entries.put(book.getId(), CompactBook.of(book));
+            } else {
+                stripe.entries.remove(book.getId());
+            }
+            stripe.version++;
+        }
+    }
+
+    private long stripeVersion(int id) {
+        Stripe stripe = stripeFor(id);
+        synchronized (stripe) {
+            return stripe.version;
+        }
+    }
+
+    private long[] stripeVersions() {
+        long[] versions = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (stripes[i]) {
+                versions[i] = stripes[i].version;
+            }
+        }
+        return versions;
+    }
+
+    private long snapshotVersion() {
+        synchronized (snapshotLock) {
+            return snapshotVersion;
+        }
+    }
+
+    private void invalidate(int id) {
+        Stripe stripe = stripeFor(id);
+        synchronized (stripe) {
+            stripe.entries.remove(id);
+            stripe.version++;
+        }
+    }
+
+    private void invalidateSnapshot() {
+        synchronized (snapshotLock) {
+            snapshot = null;
+            snapshotVersion++;
+        }
+    }
+
+    // Menambal snapshot dengan salinan baru (copy-on-write); pembaca lama tetap memegang daftar lama
+    private void patchSnapshot(Consumer<List<CompactBook>> patch) {
+        synchronized (snapshotLock) {
+            snapshotVersion++;
+            if (snapshot != null) {
+                List<CompactBook> patched = new ArrayList<>(snapshot);
+                patch.accept(patched);
+                snapshot = Collections.unmodifiableList(patched);
+            }
+        }
+    }
+
+    // Seperti patchSnapshot, tetapi snapshot dibuang jika sudah diubah sejak versi dicatat
+    private void patchSnapshotIfUnchanged(long version, Consumer<List<CompactBook>> patch) {
+        synchronized (snapshotLock) {
+            if (snapshotVersion != version) {
+                snapshot = null;
+                snapshotVersion++;
+                return;
+            }
+            patchSnapshot(patch);
+        }
+    }
+
+    private Stripe stripeFor(int id) {
+        return stripes[stripeIndex(id)];
+    }
+
+    private static int stripeIndex(int id) {
+        int h = id * 0x9E3779B9; // Menyebar id berurutan ke stripe yang berbeda
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private static List<CompactBook> compact(List<Book> books) {
+        List<CompactBook> compact = new ArrayList<>(books.size());
+        for (Book book : books) {
+            compact.add(CompactBook.of(book));
+        }
+        return compact;
+    }
+
+    private static List<Book> toBooks(List<CompactBook> books) {
+        List<Book> copy = new ArrayList<>(books.size());
+        for (CompactBook book : books) {
+            copy.add(book.toBook());
+        }
+        return copy;
+    }
+
+    // Statistik cache
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getSnapshotHitCount() {
+        return snapshotHits.sum();
+    }
+
+    public long getSnapshotMissCount() {
+        return snapshotMisses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachingBookDAO[entri=%d, hit=%d, miss=%d, eviction=%d, hit rate=%.1f%%, snapshot hit=%d, snapshot miss=%d]",
+                size(), getHitCount(), getMissCount(), getEvictionCount(), getHitRate() * 100,
+                getSnapshotHitCount(), getSnapshotMissCount());
+    }
+
+    // Satu bagian cache: LinkedHashMap berurutan akses (LRU) dengan lock dan versinya sendiri
+    private final class Stripe {
+        private final Map<Integer, CompactBook> entries;
+        // Naik setiap kali isi stripe ditulis, agar hasil read-through yang basi tidak dipasang
+        private long version;
+
+        private Stripe(int capacity) {
+            this.entries = new LinkedHashMap<Integer, CompactBook>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, CompactBook> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pembaca baris teks UTF-8 dari FileChannel dengan buffer berukuran tetap.
+ * Pemakaian memori tidak bergantung pada ukuran berkas, sehingga berkas
+ * berukuran beberapa GB dapat dibaca baris demi baris. Panjang satu baris juga dibatasi
+ * pemanggil: sisa baris yang terlalu panjang (misalnya berkas biner atau berakhiran \r saja)
+ * dilewati sampai \n berikutnya, bukan ditampung.
+ */
+final class ChannelLineReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean endOfFile;
+    private boolean flushed;
+    private boolean firstLine = true;
+    private boolean lineTooLong;
+
+    ChannelLineReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        chars.flip(); // Mulai dalam keadaan kosong
+    }
+
+    // Membaca satu baris ke 'line' (tanpa \n atau \r\n); false jika sudah akhir berkas.
+    // Paling banyak maxLength karakter disimpan; jika baris lebih panjang, sisanya dilewati
+    // dan isLineTooLong() bernilai true sampai baris berikutnya dibaca.
+    boolean readLine(StringBuilder line, int maxLength) throws IOException {
+        line.setLength(0);
+        lineTooLong = false;
+        while (true) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (c == '\n') {
+                    return finishLine(line);
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    lineTooLong = true;
+                }
+            }
+            if (!fill()) {
+                return (line.length() > 0 || lineTooLong) && finishLine(line);
+            }
+        }
+    }
+
+    // Apakah baris terakhir yang dibaca melebihi maxLength (isinya terpotong)
+    boolean isLineTooLong() {
+        return lineTooLong;
+    }
+
+    private boolean finishLine(StringBuilder line) {
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        if (firstLine) {
+            firstLine = false;
+            if (line.length() > 0 && line.charAt(0) == '\uFEFF') {
+                line.deleteCharAt(0); // Buang BOM UTF-8
+            }
+        }
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0 && !flushed) {
+            if (!endOfFile && channel.read(bytes) < 0) {
+                endOfFile = true;
+            }
+            bytes.flip();
+            CoderResult result = decoder.decode(bytes, chars, endOfFile);
+            bytes.compact();
+            if (endOfFile && result.isUnderflow()) {
+                // Semua byte sudah didekode; flush hanya boleh dipanggil sekali, setelah itu
+                // decoder tidak boleh dipakai lagi
+                decoder.flush(chars);
+                flushed = true;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    // Posisi baca dan ukuran berkas dalam byte, untuk menghitung persentase kemajuan
+    long position() throws IOException {
+        return channel.position();
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Penulis baris teks UTF-8 ke FileChannel dengan buffer berukuran tetap.
+ * Teks dikumpulkan lalu di-encode dan ditulis per blok, bukan per baris.
+ */
+final class ChannelLineWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder pending = new StringBuilder(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long bytesWritten;
+
+    ChannelLineWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // Buffer internal untuk menyusun baris sebelum writeLine()
+    StringBuilder buffer() {
+        return pending;
+    }
+
+    // Mengakhiri baris yang sedang disusun di buffer()
+    void endLine() throws IOException {
+        pending.append('\n');
+        if (pending.length() >= BUFFER_SIZE) {
+            drain();
+        }
+    }
+
+    void writeLine(CharSequence line) throws IOException {
+        pending.append(line);
+        endLine();
+    }
+
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    private void drain() throws IOException {
+        CharBuffer source = CharBuffer.wrap(pending);
+        while (true) {
+            CoderResult result = encoder.encode(source, bytes, false);
+            if (result.isError()) {
+                result.throwException();
+            }
+            writeBytes();
+            if (result.isUnderflow()) {
+                break;
+            }
+        }
+        // Sisa karakter (misalnya surrogate yang terpotong) disimpan untuk blok berikutnya
+        pending.delete(0, source.position());
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    void flush() throws IOException {
+        drain();
+        CharBuffer empty = CharBuffer.allocate(0);
+        encoder.encode(empty, bytes, true);
+        encoder.flush(bytes);
+        writeBytes();
+        encoder.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
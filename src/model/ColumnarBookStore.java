@@ -0,0 +1,473 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ColumnarBookStore menyimpan katalog buku di memori dalam bentuk kolom primitif:
+ * id dan tahun sebagai int[], tiga skor sebagai float[], serta judul dan penulis
+ * sebagai kode int ke kamus string (dictionary encoding). Satu baris memakai sekitar
+ * 32 byte ditambah indeks id, jauh lebih kecil dari satu objek Book beserta String-nya.
+ *
+ * Pengurutan, filter rentang, dan agregat bekerja langsung pada array, tanpa membuat
+ * objek Book. Objek Book baru dibuat lewat toBook(row) saat baris memang ditampilkan.
+ * Rating disalin dari buku sebagai float, karena rumusnya (RatingEngine) tidak selalu rata-rata
+ * biasa ketiga skor.
+ *
+ * Nomor baris hanya berlaku sampai store diubah (remove memindahkan baris terakhir
+ * ke posisi yang dihapus). Kelas ini tidak thread-safe: bangun di thread latar,
+ * lalu pakai dari satu thread saja (misalnya EDT).
+ */
+public final class ColumnarBookStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Kolom yang dapat difilter, diagregasi, atau diurutkan
+    public enum Column {
+        ID, TITLE, AUTHOR, PUBLICATION_YEAR, STORYLINE_SCORE, LANGUAGE_STYLE_SCORE, ORIGINALITY_SCORE, RATING;
+
+        public boolean isNumeric() {
+            return this != TITLE && this != AUTHOR;
+        }
+
+        public static Column of(BookSortKey sortKey) {
+            switch (sortKey) {
+                case TITLE: return TITLE;
+                case AUTHOR: return AUTHOR;
+                case PUBLICATION_YEAR: return PUBLICATION_YEAR;
+                case RATING: return RATING;
+                default: return ID;
+            }
+        }
+    }
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] years = new int[INITIAL_CAPACITY];
+    private float[] storylineScores = new float[INITIAL_CAPACITY];
+    private float[] languageScores = new float[INITIAL_CAPACITY];
+    private float[] originalityScores = new float[INITIAL_CAPACITY];
+    private float[] ratings = new float[INITIAL_CAPACITY];
+    private int[] titleCodes = new int[INITIAL_CAPACITY];
+    private int[] authorCodes = new int[INITIAL_CAPACITY];
+
+    private final Dictionary titles = new Dictionary();
+    private final Dictionary authors = new Dictionary();
+    private final IntIntMap rowById = new IntIntMap();
+
+    // Memuat seluruh buku dari DAO sekali jalan (forEachBook), tanpa menampung List<Book> penuh
+    public static ColumnarBookStore load(BookDAO bookDAO, int pageSize) {
+        ColumnarBookStore store = new ColumnarBookStore();
+        bookDAO.forEachBook(store::upsert, pageSize);
+        return store;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Menambah buku baru atau mengganti isi buku dengan id yang sama
+    public void upsert(Book book) {
+        int row = rowById.get(book.getId());
+        if (row < 0) {
+            ensureCapacity(size + 1);
+            row = size++;
+            ids[row] = book.getId();
+            rowById.put(book.getId(), row);
+        }
+        years[row] = book.getPublicationYear();
+        storylineScores[row] = (float) book.getStorylineScore();
+        languageScores[row] = (float) book.getLanguageStyleScore();
+        originalityScores[row] = (float) book.getOriginalityScore();
+        ratings[row] = (float) book.getRating();
+        titleCodes[row] = titles.encode(book.getTitle());
+        authorCodes[row] = authors.encode(book.getAuthor());
+    }
+
+    // Menghapus buku; baris terakhir dipindahkan ke posisi yang kosong
+    public boolean remove(int id) {
+        int row = rowById.remove(id);
+        if (row < 0) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            years[row] = years[last];
+            storylineScores[row] = storylineScores[last];
+            languageScores[row] = languageScores[last];
+            originalityScores[row] = originalityScores[last];
+            ratings[row] = ratings[last];
+            titleCodes[row] = titleCodes[last];
+            authorCodes[row] = authorCodes[last];
+            rowById.put(ids[row], row);
+        }
+        return true;
+    }
+
+    // Nomor baris untuk id tertentu, atau -1 jika tidak ada
+    public int rowOf(int id) {
+        return rowById.get(id);
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public String getTitle(int row) {
+        return titles.decode(titleCodes[row]);
+    }
+
+    public String getAuthor(int row) {
+        return authors.decode(authorCodes[row]);
+    }
+
+    public int getPublicationYear(int row) {
+        return years[row];
+    }
+
+    public double getStorylineScore(int row) {
+        return exact(storylineScores[row]);
+    }
+
+    public double getLanguageStyleScore(int row) {
+        return exact(languageScores[row]);
+    }
+
+    public double getOriginalityScore(int row) {
+        return exact(originalityScores[row]);
+    }
+
+    public double getRating(int row) {
+        return exact(ratings[row]);
+    }
+
+    // Membuat objek Book untuk satu baris (hanya untuk baris yang ditampilkan/diedit)
+    public Book toBook(int row) {
+        Book book = new Book(getTitle(row), getAuthor(row), years[row],
+                getStorylineScore(row), getLanguageStyleScore(row), getOriginalityScore(row));
+        book.setId(ids[row]);
+        return book;
+    }
+
+    // Nilai numerik satu sel; skor memakai presisi float (cukup untuk filter dan agregat)
+    public double getNumber(Column column, int row) {
+        switch (column) {
+            case ID: return ids[row];
+            case PUBLICATION_YEAR: return years[row];
+            case STORYLINE_SCORE: return storylineScores[row];
+            case LANGUAGE_STYLE_SCORE: return languageScores[row];
+            case ORIGINALITY_SCORE: return originalityScores[row];
+            case RATING: return rating(row);
+            default: throw new IllegalArgumentException("Kolom " + column + " bukan kolom angka");
+        }
+    }
+
+    // Semua nomor baris, dalam urutan penyimpanan
+    public int[] allRows() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    // Nomor baris terurut menurut (kolom, id); id selalu menaik sebagai pemecah seri
+    public int[] sortedRows(Column column, boolean ascending) {
+        return sortRows(allRows(), column, ascending);
+    }
+
+    // Mengurutkan sebagian baris (misalnya hasil filter) menurut (kolom, id)
+    public int[] sortRows(int[] rows, Column column, boolean ascending) {
+        int n = rows.length;
+        int[] rank = column == Column.TITLE ? titles.ranks() : column == Column.AUTHOR ? authors.ranks() : null;
+
+        // Kunci 32-bit di bagian atas dan nomor baris di bagian bawah, lalu satu Arrays.sort(long[])
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            int row = rows[i];
+            int key = sortKey(column, row, rank);
+            if (!ascending) {
+                key = ~key; // Membalik urutan tanpa overflow
+            }
+            packed[i] = ((long) key << 32) | (row & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+
+        int[] sorted = new int[n];
+        int runStart = 0;
+        for (int i = 0; i < n; i++) {
+            sorted[i] = (int) packed[i];
+            if (i + 1 == n || (packed[i + 1] >>> 32) != (packed[i] >>> 32)) {
+                if (column != Column.ID && i > runStart) {
+                    sortRunById(sorted, runStart, i + 1);
+                }
+                runStart = i + 1;
+            }
+        }
+        return sorted;
+    }
+
+    // Baris (dari 'rows', atau semua baris jika null) dengan min <= nilai kolom <= max
+    public int[] filterRange(int[] rows, Column column, double min, double max) {
+        if (!column.isNumeric()) {
+            throw new IllegalArgumentException("Kolom " + column + " bukan kolom angka");
+        }
+        int n = rows == null ? size : rows.length;
+        int[] matches = new int[n];
+        int count = 0;
+        if (column == Column.RATING) {
+            // Dibandingkan lewat kunci rating, agar rating 4.0 tidak terbuang karena galat float
+            long minKey = Math.round(Math.max(min, -1e6) * 3 * 100_000);
+            long maxKey = Math.round(Math.min(max, 1e6) * 3 * 100_000);
+            for (int i = 0; i < n; i++) {
+                int row = rows == null ? i : rows[i];
+                int key = ratingKey(row);
+                if (key >= minKey && key <= maxKey) {
+                    matches[count++] = row;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+        // Skor disimpan sebagai float: batas ikut dibulatkan ke float (4.2f < 4.2 sebagai double)
+        boolean scores = column == Column.STORYLINE_SCORE || column == Column.LANGUAGE_STYLE_SCORE
+                || column == Column.ORIGINALITY_SCORE;
+        double low = scores ? (float) min : min;
+        double high = scores ? (float) max : max;
+        for (int i = 0; i < n; i++) {
+            int row = rows == null ? i : rows[i];
+            double value = getNumber(column, row);
+            if (value >= low && value <= high) {
+                matches[count++] = row;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    // Baris yang judul atau penulisnya memuat teks tertentu (tanpa membedakan huruf besar/kecil).
+    // Pencocokan dilakukan sekali per entri kamus, bukan sekali per baris.
+    public int[] filterContains(int[] rows, Column column, String text) {
+        int[] codes;
+        Dictionary dictionary;
+        if (column == Column.TITLE) {
+            codes = titleCodes;
+            dictionary = titles;
+        } else if (column == Column.AUTHOR) {
+            codes = authorCodes;
+            dictionary = authors;
+        } else {
+            throw new IllegalArgumentException("Kolom " + column + " bukan kolom teks");
+        }
+        boolean[] codeMatches = dictionary.matchContains(text.toLowerCase(Locale.ROOT));
+        int n = rows == null ? size : rows.length;
+        int[] matches = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int row = rows == null ? i : rows[i];
+            if (codeMatches[codes[row]]) {
+                matches[count++] = row;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    // Agregat count/sum/min/max/mean satu kolom angka atas baris tertentu (null = semua baris)
+    public ColumnStats aggregate(int[] rows, Column column) {
+        if (!column.isNumeric()) {
+            throw new IllegalArgumentException("Kolom " + column + " bukan kolom angka");
+        }
+        int n = rows == null ? size : rows.length;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double value = getNumber(column, rows == null ? i : rows[i]);
+            sum += value;
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+        }
+        return new ColumnStats(column, n, sum, min, max);
+    }
+
+    // Jumlah entri kamus judul dan penulis yang berbeda (termasuk entri yang tidak dipakai lagi)
+    public int getDistinctTitles() {
+        return titles.size();
+    }
+
+    public int getDistinctAuthors() {
+        return authors.size();
+    }
+
+    private float rating(int row) {
+        return ratings[row];
+    }
+
+    private int sortKey(Column column, int row, int[] rank) {
+        switch (column) {
+            case ID: return ids[row];
+            case TITLE: return rank[titleCodes[row]];
+            case AUTHOR: return rank[authorCodes[row]];
+            case PUBLICATION_YEAR: return years[row];
+            case STORYLINE_SCORE: return sortableBits(storylineScores[row]);
+            case LANGUAGE_STYLE_SCORE: return sortableBits(languageScores[row]);
+            case ORIGINALITY_SCORE: return sortableBits(originalityScores[row]);
+            default: return ratingKey(row);
+        }
+    }
+
+    // Kunci urut rating: tiga kali rating dibulatkan ke 0,00001, agar rating yang sama
+    // (misalnya dari skor 0.7+0+0 dan 0.5+0.1+0.1) tidak terpisah oleh galat pembulatan float
+    private int ratingKey(int row) {
+        return (int) Math.round((double) ratings[row] * 3 * 100_000);
+    }
+
+    // Bit float yang urutan int-nya sama dengan urutan nilai float-nya
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private void sortRunById(int[] rows, int from, int to) {
+        long[] packed = new long[to - from];
+        for (int i = from; i < to; i++) {
+            packed[i - from] = ((long) ids[rows[i]] << 32) | (rows[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        for (int i = from; i < to; i++) {
+            rows[i] = (int) packed[i - from];
+        }
+    }
+
+    // Mengembalikan skor desimal yang disimpan sebagai float (misalnya 4.3f menjadi 4.3, bukan 4.300000190734863)
+    private static double exact(float value) {
+        return Double.parseDouble(Float.toString(value));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        years = Arrays.copyOf(years, newCapacity);
+        storylineScores = Arrays.copyOf(storylineScores, newCapacity);
+        languageScores = Arrays.copyOf(languageScores, newCapacity);
+        originalityScores = Arrays.copyOf(originalityScores, newCapacity);
+        ratings = Arrays.copyOf(ratings, newCapacity);
+        titleCodes = Arrays.copyOf(titleCodes, newCapacity);
+        authorCodes = Arrays.copyOf(authorCodes, newCapacity);
+    }
+
+    // Hasil agregat satu kolom
+    public static final class ColumnStats {
+        private final Column column;
+        private final int count;
+        private final double sum;
+        private final double min;
+        private final double max;
+
+        ColumnStats(Column column, int count, double sum, double min, double max) {
+            this.column = column;
+            this.count = count;
+            this.sum = sum;
+            this.min = count == 0 ? Double.NaN : min;
+            this.max = count == 0 ? Double.NaN : max;
+        }
+
+        public Column getColumn() {
+            return column;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[n=%d, min=%.2f, max=%.2f, rata-rata=%.2f]", column, count, min, max, getMean());
+        }
+    }
+
+    // Kamus string: setiap string berbeda mendapat kode int yang tetap
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] ranks; // Peringkat urutan tiap kode, dibuat ulang setelah kamus bertambah
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                ranks = null;
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        // Peringkat tiap kode menurut urutan string; cukup mengurutkan kamus, bukan seluruh baris
+        int[] ranks() {
+            if (ranks == null) {
+                Integer[] order = new Integer[values.size()];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> compareNullable(values.get(a), values.get(b)));
+                int[] result = new int[order.length];
+                for (int rank = 0; rank < order.length; rank++) {
+                    result[order[rank]] = rank;
+                }
+                ranks = result;
+            }
+            return ranks;
+        }
+
+        boolean[] matchContains(String lowerCaseText) {
+            boolean[] matches = new boolean[values.size()];
+            for (int code = 0; code < matches.length; code++) {
+                String value = values.get(code);
+                matches[code] = value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseText);
+            }
+            return matches;
+        }
+
+        // Urutan sama dengan kolom VARCHAR di database untuk data ASCII; null paling awal
+        private static int compareNullable(String a, String b) {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : -1) : 1;
+            }
+            return a.compareTo(b);
+        }
+    }
+}
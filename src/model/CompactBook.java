@@ -0,0 +1,167 @@
+package model;
+
+/**
+ * CompactBook adalah bentuk ringkas Book yang tidak dapat diubah, untuk katalog besar yang
+ * disimpan di memori (misalnya snapshot CachingBookDAO).
+ *
+ * - Skor disimpan sebagai bilangan tetap (fixed-point) satu byte dalam satuan 0,1
+ *   (0-50), sesuai rentang 0-5 dan satu desimal yang ditampilkan di tabel.
+ * - Rating dengan rumus mean tidak disimpan; nilainya dihitung dari ketiga skor saat diminta.
+ *   Rating dari rumus lain (weighted, bayesian; lihat RatingEngine) bergantung pada bobot atau
+ *   statistik penulis saat buku dinilai, sehingga disimpan apa adanya sebagai satu double.
+ * - Nama penulis dibagi lewat StringInterner.AUTHORS.
+ *
+ * Satu objek memakai 32 byte (compressed oops), atau 40 byte jika ratingnya disimpan, dibanding
+ * 64 byte untuk Book dengan empat double, ditambah String penulis yang kini tidak lagi berulang
+ * per buku. Konversi tidak pernah mengubah nilai: buku yang skornya tidak tepat satu desimal
+ * disimpan dalam subkelas yang tetap memakai double untuk semua nilai.
+ */
+public class CompactBook {
+    // Satuan skor: nilai byte dibagi SCALE
+    public static final int SCALE = 10;
+    private static final int MAX_UNITS = 5 * SCALE;
+
+    private final int id;
+    private final String title;
+    private final String author;
+    private final int publicationYear;
+    private final byte storyline;
+    private final byte languageStyle;
+    private final byte originality;
+
+    private CompactBook(int id, String title, String author, int publicationYear,
+                        byte storyline, byte languageStyle, byte originality) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.publicationYear = publicationYear;
+        this.storyline = storyline;
+        this.languageStyle = languageStyle;
+        this.originality = originality;
+    }
+
+    // Bentuk ringkas dari sebuah Book (Book tidak ikut berubah dan boleh dipakai ulang sesudahnya)
+    public static CompactBook of(Book book) {
+        String author = StringInterner.AUTHORS.intern(book.getAuthor());
+        int storyline = units(book.getStorylineScore());
+        int languageStyle = units(book.getLanguageStyleScore());
+        int originality = units(book.getOriginalityScore());
+        if (storyline < 0 || languageStyle < 0 || originality < 0) {
+            return new Precise(book, author);
+        }
+        if (book.getRating() == Book.ratingOf(score(storyline), score(languageStyle), score(originality))) {
+            return new CompactBook(book.getId(), book.getTitle(), author, book.getPublicationYear(),
+                    (byte) storyline, (byte) languageStyle, (byte) originality);
+        }
+        return new Rated(book, author, (byte) storyline, (byte) languageStyle, (byte) originality);
+    }
+
+    // Nilai skor dalam satuan 0,1, atau -1 jika skor tidak tepat satu desimal di rentang 0-5
+    private static int units(double score) {
+        double scaled = score * SCALE;
+        if (!(scaled >= 0 && scaled <= MAX_UNITS)) {
+            return -1;
+        }
+        int units = (int) Math.round(scaled);
+        return score(units) == score ? units : -1;
+    }
+
+    private static double score(int units) {
+        return units / (double) SCALE;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public int getPublicationYear() {
+        return publicationYear;
+    }
+
+    public double getStorylineScore() {
+        return score(storyline);
+    }
+
+    public double getLanguageStyleScore() {
+        return score(languageStyle);
+    }
+
+    public double getOriginalityScore() {
+        return score(originality);
+    }
+
+    // Dihitung dengan rumus yang sama dengan Book, sehingga hasilnya identik
+    public double getRating() {
+        return Book.ratingOf(getStorylineScore(), getLanguageStyleScore(), getOriginalityScore());
+    }
+
+    // Book baru dengan nilai yang sama persis dengan Book asalnya
+    public Book toBook() {
+        return new Book(id, title, author, publicationYear, getStorylineScore(),
+                getLanguageStyleScore(), getOriginalityScore(), getRating());
+    }
+
+    @Override
+    public String toString() {
+        return "CompactBook{id=" + id + ", title='" + title + "', author='" + author + "'}";
+    }
+
+    // Buku yang skornya ringkas tetapi ratingnya bukan rata-rata skor (rumus weighted atau bayesian)
+    private static final class Rated extends CompactBook {
+        private final double rating;
+
+        private Rated(Book book, String author, byte storyline, byte languageStyle, byte originality) {
+            super(book.getId(), book.getTitle(), author, book.getPublicationYear(), storyline, languageStyle, originality);
+            this.rating = book.getRating();
+        }
+
+        @Override
+        public double getRating() {
+            return rating;
+        }
+    }
+
+    // Buku yang skornya tidak dapat disimpan sebagai byte tanpa kehilangan nilai
+    private static final class Precise extends CompactBook {
+        private final double storylineScore;
+        private final double languageStyleScore;
+        private final double originalityScore;
+        private final double rating;
+
+        private Precise(Book book, String author) {
+            super(book.getId(), book.getTitle(), author, book.getPublicationYear(), (byte) 0, (byte) 0, (byte) 0);
+            this.storylineScore = book.getStorylineScore();
+            this.languageStyleScore = book.getLanguageStyleScore();
+            this.originalityScore = book.getOriginalityScore();
+            this.rating = book.getRating();
+        }
+
+        @Override
+        public double getStorylineScore() {
+            return storylineScore;
+        }
+
+        @Override
+        public double getLanguageStyleScore() {
+            return languageStyleScore;
+        }
+
+        @Override
+        public double getOriginalityScore() {
+            return originalityScore;
+        }
+
+        @Override
+        public double getRating() {
+            return rating;
+        }
+    }
+}
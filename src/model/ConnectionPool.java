@@ -0,0 +1,545 @@
+package model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kelas ConnectionPool menyimpan sejumlah koneksi JDBC fisik agar dapat dipakai
+ * ulang oleh DAO tanpa mengulang handshake ke database pada setiap operasi.
+ *
+ * Koneksi yang dipinjam dibungkus dengan proxy, sehingga memanggil close()
+ * (misalnya lewat try-with-resources) hanya mengembalikan koneksi ke pool.
+ * Pool ini thread-safe, dibatasi ukuran maksimum, memvalidasi koneksi saat
+ * dipinjam, membuang koneksi yang menganggur terlalu lama, dan mencatat metrik.
+ *
+ * Setiap koneksi fisik juga menyimpan cache PreparedStatement (LRU, statementCacheSize per
+ * koneksi, 0 = tanpa cache) berdasarkan teks SQL. prepareStatement dengan SQL yang sama
+ * mengembalikan statement yang sudah disiapkan, dan close() pada statement itu hanya
+ * membersihkan parameternya lalu mengembalikannya ke cache. Dengan useServerPrepStmts=true
+ * pada MySQL, ini juga menghemat round trip PREPARE ke server.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    // Koneksi menganggur; yang terakhir dikembalikan ada di depan (LIFO)
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    // Satu izin untuk setiap koneksi yang sedang dipinjam
+    private final Semaphore permits;
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    // Metrik pool
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHitCount = new LongAdder();
+    private final LongAdder statementMissCount = new LongAdder();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String jdbcUrl, String username, String password,
+                          int minSize, int maxSize, long idleTimeoutMillis,
+                          long acquireTimeoutMillis, long validationIntervalMillis) {
+        this(jdbcUrl, username, password, minSize, maxSize, idleTimeoutMillis,
+                acquireTimeoutMillis, validationIntervalMillis, 0);
+    }
+
+    public ConnectionPool(String jdbcUrl, String username, String password,
+                          int minSize, int maxSize, long idleTimeoutMillis,
+                          long acquireTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Ukuran pool tidak valid: min=" + minSize + ", max=" + maxSize);
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, idleTimeoutMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Meminjam koneksi dari pool; close() pada koneksi ini mengembalikannya ke pool
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool koneksi sudah ditutup");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Menunggu koneksi dari pool diinterupsi", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Tidak ada koneksi tersedia dalam " + acquireTimeoutMillis
+                    + " ms (aktif=" + activeCount.get() + ", maks=" + maxSize + ")");
+        }
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = createEntry();
+            }
+            activeCount.incrementAndGet();
+            borrowCount.increment();
+            return entry.lend();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Membuka koneksi sampai jumlah minimum agar operasi pertama tidak menunggu handshake
+    public void warmUp() throws SQLException {
+        while (!closed && totalCount.get() < minSize) {
+            idle.offerLast(createEntry());
+        }
+    }
+
+    // Mengambil koneksi menganggur yang masih valid, atau null jika tidak ada
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            destroy(entry);
+        }
+        return null;
+    }
+
+    // Validasi saat dipinjam; koneksi yang baru saja dipakai dilewati agar tidak ping setiap kali
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            long idleMillis = System.currentTimeMillis() - entry.lastUsedMillis;
+            if (idleMillis < validationIntervalMillis) {
+                return true;
+            }
+            return entry.physical.isValid(5);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry createEntry() throws SQLException {
+        Connection physical = DriverManager.getConnection(jdbcUrl, username, password);
+        totalCount.incrementAndGet();
+        createdCount.increment();
+        return new PooledEntry(physical);
+    }
+
+    // Dipanggil oleh proxy saat koneksi pinjaman ditutup
+    private void release(PooledEntry entry) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || entry.physical.isClosed()) {
+                destroy(entry);
+                return;
+            }
+            entry.reset();
+            entry.lastUsedMillis = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            System.err.println("Koneksi rusak dibuang dari pool: " + e.getMessage());
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        totalCount.decrementAndGet();
+        destroyedCount.increment();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Gagal menutup koneksi fisik: " + e.getMessage());
+        }
+    }
+
+    // Membuang koneksi yang menganggur terlalu lama lalu mengisi kembali sampai ukuran minimum
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledEntry> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && totalCount.get() > minSize) {
+            PooledEntry entry = oldestFirst.next();
+            if (now - entry.lastUsedMillis > idleTimeoutMillis && idle.removeFirstOccurrence(entry)) {
+                destroy(entry);
+            }
+        }
+        try {
+            warmUp();
+        } catch (SQLException e) {
+            System.err.println("Gagal mengisi ulang pool koneksi: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        long max;
+        while (nanos > (max = maxWaitNanos.get())) {
+            if (maxWaitNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    public String getJdbcUrl() { return jdbcUrl; }
+
+    // Metrik pool
+    public int getActiveCount() { return activeCount.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getTotalCount() { return totalCount.get(); }
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public int getWaitingThreadCount() { return permits.getQueueLength(); }
+    public long getBorrowCount() { return borrowCount.sum(); }
+    public long getTimeoutCount() { return timeoutCount.sum(); }
+    public long getCreatedCount() { return createdCount.sum(); }
+    public long getDestroyedCount() { return destroyedCount.sum(); }
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public long getStatementHitCount() { return statementHitCount.sum(); }
+    public long getStatementMissCount() { return statementMissCount.sum(); }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum() + timeoutCount.sum();
+        return borrows == 0 ? 0 : totalWaitNanos.sum() / (double) borrows / 1_000_000.0;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+        // Koneksi yang masih dipinjam akan ditutup saat dikembalikan
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "active=" + getActiveCount() +
+                ", idle=" + getIdleCount() +
+                ", total=" + getTotalCount() +
+                ", max=" + maxSize +
+                ", waiting=" + getWaitingThreadCount() +
+                ", borrows=" + getBorrowCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) +
+                ", maxWaitMs=" + String.format("%.3f", getMaxWaitMillis()) +
+                ", stmtHits=" + getStatementHitCount() +
+                ", stmtMisses=" + getStatementMissCount() +
+                '}';
+    }
+
+    // Koneksi fisik beserta status pemakaiannya
+    private final class PooledEntry {
+        private final Connection physical;
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        // Cache statement, urutan akses (LRU). Hanya dipakai oleh peminjam koneksi saat ini.
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Mengembalikan statement dari cache, atau menyiapkan yang baru dan menyimpannya.
+        // Jika statement untuk SQL yang sama sedang dipakai, dibuat statement biasa di luar cache.
+        private Object prepare(Connection lease, Method method, Object[] args) throws Throwable {
+            String key = statementKey(args);
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                if (!cached.physical.isClosed()) {
+                    statementHitCount.increment();
+                    return cached.lend(lease);
+                }
+                statements.remove(key);
+                cached = null;
+            }
+            statementMissCount.increment();
+            PreparedStatement statement = (PreparedStatement) invokePhysical(physical, method, args);
+            if (cached != null) {
+                return statement;
+            }
+            cached = new CachedStatement(statement);
+            statements.put(key, cached);
+            return cached.lend(lease);
+        }
+
+        private Connection lend() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+
+        // Mengembalikan status koneksi ke default sebelum dipakai peminjam berikutnya
+        private void reset() throws SQLException {
+            // Statement yang belum ditutup peminjam diambil kembali; proxy lamanya tidak bisa dipakai lagi
+            for (CachedStatement statement : statements.values()) {
+                statement.reclaim();
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+        }
+    }
+
+    // Varian prepareStatement yang di-cache: (sql), (sql, autoGeneratedKeys), (sql, resultSetType, concurrency)
+    private static boolean isCacheable(Method method, Object[] args) {
+        if (!"prepareStatement".equals(method.getName()) || args == null || args.length > 3) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (type != String.class && type != int.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String statementKey(Object[] args) {
+        if (args.length == 1) {
+            return (String) args[0];
+        }
+        StringBuilder key = new StringBuilder((String) args[0]);
+        for (int i = 1; i < args.length; i++) {
+            key.append('\u0000').append(args[i]);
+        }
+        return key.toString();
+    }
+
+    private static Object invokePhysical(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Statement fisik di cache beserta status pemakaiannya
+    private final class CachedStatement {
+        private final PreparedStatement physical;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+        private StatementLeaseHandler borrower; // Proxy yang sedang memakai statement ini
+
+        private CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.defaultFetchSize = physical.getFetchSize();
+            this.defaultMaxRows = physical.getMaxRows();
+            this.defaultQueryTimeout = physical.getQueryTimeout();
+        }
+
+        private PreparedStatement lend(Connection lease) {
+            inUse = true;
+            borrower = new StatementLeaseHandler(this, lease);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    borrower);
+        }
+
+        // Koneksi dikembalikan ke pool sementara statement ini belum ditutup peminjamnya
+        private void reclaim() {
+            if (inUse) {
+                borrower.returned = true;
+                giveBack();
+            }
+        }
+
+        // Dipanggil saat statement pinjaman ditutup: dibersihkan untuk peminjam berikutnya
+        private void giveBack() {
+            inUse = false;
+            borrower = null;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                physical.clearParameters();
+                physical.clearBatch();
+                if (physical.getFetchSize() != defaultFetchSize) {
+                    physical.setFetchSize(defaultFetchSize);
+                }
+                if (physical.getMaxRows() != defaultMaxRows) {
+                    physical.setMaxRows(defaultMaxRows);
+                }
+                if (physical.getQueryTimeout() != defaultQueryTimeout) {
+                    physical.setQueryTimeout(defaultQueryTimeout);
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closePhysical();
+            }
+        }
+
+        // Dikeluarkan dari cache (LRU); jika sedang dipakai, ditutup saat dikembalikan
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Gagal menutup statement: " + e.getMessage());
+            }
+        }
+    }
+
+    // Proxy untuk satu kali pemakaian statement dari cache; close() mengembalikannya ke cache
+    private static final class StatementLeaseHandler implements InvocationHandler {
+        private final CachedStatement statement;
+        private final Connection lease;
+        private volatile boolean returned;
+
+        private StatementLeaseHandler(CachedStatement statement, Connection lease) {
+            this.statement = statement;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        statement.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || statement.physical.isClosed();
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement.physical + (returned ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement sudah ditutup");
+            }
+            return invokePhysical(statement.physical, method, args);
+        }
+    }
+
+    // Proxy untuk satu kali peminjaman; close() mengembalikan koneksi ke pool
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private volatile boolean returned;
+
+        private LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + (returned ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Koneksi sudah dikembalikan ke pool");
+            }
+            if (statementCacheSize > 0 && isCacheable(method, args)) {
+                return entry.prepare((Connection) proxy, method, args);
+            }
+            return invokePhysical(entry.physical, method, args);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kelas DaoExecutors membuat executor untuk menjalankan operasi DAO di luar
+ * Event Dispatch Thread.
+ *
+ * Mode dipilih lewat konfigurasi library.dao.executor:
+ * - auto (default): virtual thread jika JDK mendukung, selain itu pool terbatas
+ * - virtual: virtual thread (jatuh ke pool terbatas jika JDK belum mendukung)
+ * - pool: pool thread terbatas berukuran library.dao.poolSize
+ */
+public final class DaoExecutors {
+
+    private DaoExecutors() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    // Membuat executor sesuai konfigurasi aplikasi
+    public static ExecutorService create(String name) {
+        String mode = AppConfig.get("library.dao.executor", "auto");
+        if (!"pool".equalsIgnoreCase(mode)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+            if ("virtual".equalsIgnoreCase(mode)) {
+                System.err.println("Virtual thread tidak tersedia di JDK ini, memakai pool thread terbatas.");
+            }
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        int poolSize = AppConfig.getInt("library.dao.poolSize", Math.max(2, Math.min(8, cores)));
+        int queueCapacity = AppConfig.getInt("library.dao.queueCapacity", 1000);
+        return newBoundedPool(name, poolSize, queueCapacity);
+    }
+
+    // Pool thread daemon dengan antrean terbatas; tugas yang ditolak gagal, bukan dijalankan di pemanggil
+    public static ExecutorService newBoundedPool(final String name, int poolSize, int queueCapacity) {
+        final AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() dipanggil lewat refleksi agar tetap
+    // dapat dikompilasi dan dijalankan pada JDK yang belum memiliki virtual thread
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
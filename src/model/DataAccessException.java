@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Exception yang dilempar DAO ketika operasi tulis ke penyimpanan gagal.
+ * Bersifat unchecked agar antarmuka BookDAO tetap sederhana, sementara
+ * controller tetap dapat menampilkan pesan kesalahan kepada pengguna.
+ */
+public class DataAccessException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public DataAccessException(String message) {
+        super(message);
+    }
+}
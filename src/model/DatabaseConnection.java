@@ -1,52 +1,174 @@
 package model;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Kelas DatabaseConnection bertanggung jawab untuk membuat dan mengelola
  * koneksi ke database MySQL.
+ * Koneksi disediakan oleh ConnectionPool, sehingga koneksi yang ditutup oleh DAO
+ * dikembalikan ke pool dan dapat dipakai ulang tanpa handshake baru.
+ * Jika library.jdbc.replicaUrls diisi (URL dipisah koma), pembacaan lewat getReadConnection()
+ * dibagi ke replika oleh ReplicaRouter; penulisan dan pembacaan yang harus melihat
+ * penulisan sendiri tetap memakai primary (library.jdbc.url).
  * Pastikan driver JDBC MySQL (Connector/J) ada di classpath.
  */
 public class DatabaseConnection {
     // URL JDBC, username, dan password untuk koneksi database
-    // Sesuaikan dengan konfigurasi database Anda
-    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/library_db?useSSL=false&serverTimezone=UTC";
-    private static final String USERNAME = "root"; // Ganti dengan username database Anda
-    private static final String PASSWORD = ""; // Ganti dengan password database Anda
+    // Sesuaikan dengan konfigurasi database Anda (atau lewat library.properties / -D)
+    private static final String JDBC_URL = AppConfig.get("library.jdbc.url",
+            "jdbc:mysql://localhost:3306/library_db?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true");
+    private static final String USERNAME = AppConfig.get("library.jdbc.username", "root"); // Ganti dengan username database Anda
+    private static final String PASSWORD = AppConfig.get("library.jdbc.password", ""); // Ganti dengan password database Anda
+    private static final String DRIVER_CLASS = AppConfig.get("library.jdbc.driver", "com.mysql.cj.jdbc.Driver");
 
-    private static Connection connection;
+    // Konfigurasi pool koneksi
+    private static final int POOL_MIN_SIZE = AppConfig.getInt("library.pool.minSize", 1);
+    private static final int POOL_MAX_SIZE = AppConfig.getInt("library.pool.maxSize", 10);
+    private static final long POOL_IDLE_TIMEOUT_MS = AppConfig.getLong("library.pool.idleTimeoutMs", 300_000L);
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = AppConfig.getLong("library.pool.acquireTimeoutMs", 5_000L);
+    private static final long POOL_VALIDATION_INTERVAL_MS = AppConfig.getLong("library.pool.validationIntervalMs", 1_000L);
+    // Jumlah PreparedStatement yang disimpan per koneksi (0 = tanpa cache)
+    private static final int POOL_STATEMENT_CACHE_SIZE = AppConfig.getInt("library.pool.statementCacheSize", 64);
 
-    // Metode untuk mendapatkan koneksi database
+    // Replika baca (kosong = semua pembacaan ke primary) dan syarat replika dipakai
+    private static final String REPLICA_URLS = AppConfig.get("library.jdbc.replicaUrls", "");
+    private static final long REPLICA_MAX_LAG = AppConfig.getLong("library.replica.maxLag", 100L);
+    private static final long REPLICA_CHECK_INTERVAL_MS = AppConfig.getLong("library.replica.checkMs", 1_000L);
+
+    private static volatile ConnectionPool pool;
+    private static volatile ReplicaRouter router;
+    private static volatile boolean routerCreated;
+
+    // Metode untuk mendapatkan koneksi database (dipinjam dari pool)
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                // Mendaftarkan driver JDBC
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                // Membuat koneksi baru
-                connection = DriverManager.getConnection(JDBC_URL, USERNAME, PASSWORD);
-                System.out.println("Koneksi ke database berhasil!");
-            } catch (ClassNotFoundException e) {
-                System.err.println("Driver JDBC tidak ditemukan: " + e.getMessage());
-                throw new SQLException("Driver JDBC tidak ditemukan", e);
-            } catch (SQLException e) {
-                System.err.println("Koneksi ke database gagal: " + e.getMessage());
-                throw e; // Lemparkan kembali SQLException agar bisa ditangani oleh pemanggil
+        return getPool().getConnection();
+    }
+
+    // Koneksi untuk pembacaan: dari replika jika dikonfigurasi dan memenuhi syarat, selain itu primary
+    public static Connection getReadConnection() throws SQLException {
+        ReplicaRouter current = getRouter();
+        return current != null ? current.getReadConnection() : getConnection();
+    }
+
+    // Mencatat versi (transaksi tulis atau token change feed) yang harus sudah dimuat replika
+    // sebelum dipakai untuk pembacaan berikutnya. Router dibuat jika belum ada, agar versi yang
+    // dicatat sebelum pembacaan pertama tidak hilang.
+    public static void requireVersion(long version) throws SQLException {
+        ReplicaRouter current = getRouter();
+        if (current != null) {
+            current.requireVersion(version);
+        }
+    }
+
+    // Router replika, dibuat sekali saat pembacaan pertama; null jika tidak ada replika
+    public static ReplicaRouter getRouter() throws SQLException {
+        if (routerCreated) {
+            return router;
+        }
+        ConnectionPool primary = getPool();
+        synchronized (DatabaseConnection.class) {
+            if (!routerCreated) {
+                List<ConnectionPool> replicas = new ArrayList<>();
+                for (String url : REPLICA_URLS.split(",")) {
+                    if (!url.trim().isEmpty()) {
+                        replicas.add(new ConnectionPool(url.trim(), USERNAME, PASSWORD,
+                                POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_IDLE_TIMEOUT_MS,
+                                POOL_ACQUIRE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS, POOL_STATEMENT_CACHE_SIZE));
+                    }
+                }
+                if (!replicas.isEmpty()) {
+                    router = new ReplicaRouter(primary, replicas, REPLICA_MAX_LAG, REPLICA_CHECK_INTERVAL_MS);
+                    System.out.println("Pembacaan dibagi ke " + replicas.size() + " replika database.");
+                }
+                routerCreated = true;
             }
+            return router;
         }
-        return connection;
     }
 
-    // Metode untuk menutup koneksi (opsional, bisa dipanggil saat aplikasi ditutup)
-    public static void closeConnection() {
-        if (connection != null) {
+    // Metode untuk mendapatkan pool, dibuat sekali saat pertama kali dibutuhkan
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        // Mendaftarkan driver JDBC (cukup sekali)
+                        Class.forName(DRIVER_CLASS);
+                    } catch (ClassNotFoundException e) {
+                        System.err.println("Driver JDBC tidak ditemukan: " + e.getMessage());
+                        throw new SQLException("Driver JDBC tidak ditemukan", e);
+                    }
+                    current = new ConnectionPool(JDBC_URL, USERNAME, PASSWORD,
+                            POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_IDLE_TIMEOUT_MS,
+                            POOL_ACQUIRE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS, POOL_STATEMENT_CACHE_SIZE);
+                    pool = current;
+                    System.out.println("Pool koneksi database dibuat (maks " + POOL_MAX_SIZE + " koneksi).");
+                }
+            }
+        }
+        return current;
+    }
+
+    // Memuat driver, membuat pool, lalu membuka beberapa koneksi sekaligus secara paralel
+    // (dipanggil di latar belakang saat aplikasi dimulai), agar query pertama yang berjalan
+    // bersamaan tidak masing-masing menunggu handshake satu per satu
+    public static void warmUp(int connections) throws SQLException {
+        ConnectionPool current = getPool();
+        current.warmUp();
+        List<CompletableFuture<Connection>> opened = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            CompletableFuture<Connection> connection = new CompletableFuture<>();
+            Thread opener = new Thread(() -> {
+                try {
+                    connection.complete(current.getConnection());
+                } catch (SQLException | RuntimeException e) {
+                    connection.completeExceptionally(e);
+                }
+            }, "library-warmup-" + i);
+            opener.setDaemon(true);
+            opener.start();
+            opened.add(connection);
+        }
+        // Semua koneksi dipinjam bersamaan dulu, baru dikembalikan ke pool
+        CompletableFuture.allOf(opened.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+        SQLException failure = null;
+        for (CompletableFuture<Connection> connection : opened) {
             try {
-                connection.close();
-                System.out.println("Koneksi database ditutup.");
-            } catch (SQLException e) {
-                System.err.println("Gagal menutup koneksi database: " + e.getMessage());
+                connection.join().close();
+            } catch (CompletionException e) {
+                failure = e.getCause() instanceof SQLException ? (SQLException) e.getCause() : new SQLException(e.getCause());
             }
         }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Metode untuk menutup semua koneksi (opsional, bisa dipanggil saat aplikasi ditutup)
+    public static void closeConnection() {
+        ConnectionPool current;
+        ReplicaRouter currentRouter;
+        synchronized (DatabaseConnection.class) {
+            current = pool;
+            currentRouter = router;
+            pool = null;
+            router = null;
+            routerCreated = false;
+        }
+        if (currentRouter != null) {
+            currentRouter.close();
+            System.out.println("Replika database ditutup: " + currentRouter);
+        }
+        if (current != null) {
+            current.close();
+            System.out.println("Pool koneksi database ditutup: " + current);
+        }
     }
-}
\ No newline at end of file
+}
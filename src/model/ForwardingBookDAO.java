@@ -0,0 +1,139 @@
+package model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Kelas dasar untuk decorator BookDAO: setiap operasi diteruskan ke DAO yang dibungkus.
+ * Subclass cukup menimpa operasi yang perlu diubah. Operasi massal juga diteruskan,
+ * sehingga batch JDBC milik DAO di bawahnya tetap dipakai.
+ */
+public abstract class ForwardingBookDAO implements BookDAO {
+    protected final BookDAO delegate;
+
+    protected ForwardingBookDAO(BookDAO delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("DAO yang dibungkus tidak boleh null");
+        }
+        this.delegate = delegate;
+    }
+
+    // DAO yang dibungkus oleh decorator ini
+    public BookDAO getDelegate() {
+        return delegate;
+    }
+
+    // Mencari decorator atau penyimpanan bertipe tertentu di rantai DAO, atau null jika tidak ada
+    public static <T extends BookDAO> T find(BookDAO dao, Class<T> type) {
+        BookDAO current = dao;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
+            current = current instanceof ForwardingBookDAO ? ((ForwardingBookDAO) current).getDelegate() : null;
+        }
+        return null;
+    }
+
+    @Override
+    public Book addBook(Book book) {
+        return delegate.addBook(book);
+    }
+
+    @Override
+    public Book getBookById(int id) {
+        return delegate.getBookById(id);
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        return delegate.getAllBooks();
+    }
+
+    @Override
+    public long forEachBook(Consumer<? super Book> action, int fetchSize) {
+        return delegate.forEachBook(action, fetchSize);
+    }
+
+    @Override
+    public Stream<Book> streamBooks(int fetchSize) {
+        return delegate.streamBooks(fetchSize);
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        return delegate.updateBook(book);
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        return delegate.deleteBook(id);
+    }
+
+    @Override
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        return delegate.getBooksAfter(sortKey, after, limit);
+    }
+
+    @Override
+    public int countBooks() {
+        return delegate.countBooks();
+    }
+
+    @Override
+    public List<Book> getBooksByIds(int... ids) {
+        return delegate.getBooksByIds(ids);
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        return delegate.searchBooks(query, limit);
+    }
+
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        return delegate.topRated(n, filter);
+    }
+
+    @Override
+    public BookChanges changesSince(long token) {
+        return delegate.changesSince(token);
+    }
+
+    @Override
+    public List<BookGroupStats> groupStats(BookGrouping grouping) {
+        return delegate.groupStats(grouping);
+    }
+
+    @Override
+    public String getRatingFormula() {
+        return delegate.getRatingFormula();
+    }
+
+    @Override
+    public boolean setRatingFormula(String formula) {
+        return delegate.setRatingFormula(formula);
+    }
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        return delegate.addBooks(books);
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        return delegate.updateBooks(books);
+    }
+
+    @Override
+    public int updateRatings(Collection<Book> books) {
+        return delegate.updateRatings(books);
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        return delegate.deleteBooks(ids);
+    }
+}
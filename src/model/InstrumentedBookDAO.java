@@ -0,0 +1,512 @@
+package model;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * InstrumentedBookDAO adalah decorator BookDAO yang mencatat, per operasi, jumlah panggilan,
+ * jumlah kegagalan (exception), dan histogram latensi (p50/p95/p99/maks).
+ *
+ * Pencatatan memakai LongAdder dan LatencyHistogram tanpa lock dan tanpa alokasi, sehingga
+ * aman dipasang permanen. Metrik dapat dibaca lewat:
+ * - JMX: satu OperationStatsMXBean per operasi (library.metrics.jmx, default true)
+ * - ringkasan berkala ke konsole (library.metrics.dumpIntervalMs, default 60000; 0 = mati)
+ * - snapshot()/report()/readout() dari kode, misalnya untuk status bar LibraryView
+ *
+ * BookDAOImpl menangani sebagian kegagalan baca sendiri (mengembalikan null atau daftar kosong);
+ * kegagalan seperti itu tidak terlihat sebagai error di sini, hanya latensinya yang tercatat.
+ */
+public class InstrumentedBookDAO extends ForwardingBookDAO implements AutoCloseable {
+
+    /** Operasi BookDAO yang diukur. */
+    public enum Operation {
+        ADD_BOOK("addBook"),
+        GET_BOOK_BY_ID("getBookById"),
+        GET_ALL_BOOKS("getAllBooks"),
+        FOR_EACH_BOOK("forEachBook"),
+        UPDATE_BOOK("updateBook"),
+        DELETE_BOOK("deleteBook"),
+        GET_BOOKS_AFTER("getBooksAfter"),
+        COUNT_BOOKS("countBooks"),
+        GET_BOOKS_BY_IDS("getBooksByIds"),
+        SEARCH_BOOKS("searchBooks"),
+        TOP_RATED("topRated"),
+        CHANGES_SINCE("changesSince"),
+        GROUP_STATS("groupStats"),
+        ADD_BOOKS("addBooks"),
+        UPDATE_BOOKS("updateBooks"),
+        UPDATE_RATINGS("updateRatings"),
+        DELETE_BOOKS("deleteBooks");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final String name;
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private final ScheduledExecutorService dumper;
+    // Jumlah panggilan saat ringkasan terakhir dicetak; ringkasan dilewati jika tidak ada aktivitas
+    private long lastDumpedCount;
+
+    public InstrumentedBookDAO(BookDAO delegate) {
+        this(delegate, "library", AppConfig.getBoolean("library.metrics.jmx", true),
+                AppConfig.getLong("library.metrics.dumpIntervalMs", 60_000L));
+    }
+
+    public InstrumentedBookDAO(BookDAO delegate, String name, boolean registerJmx, long dumpIntervalMillis) {
+        super(delegate);
+        this.name = name;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+        if (registerJmx) {
+            registerMBeans();
+        }
+        if (dumpIntervalMillis > 0) {
+            dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "book-dao-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleWithFixedDelay(this::dumpIfActive, dumpIntervalMillis, dumpIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            dumper = null;
+        }
+    }
+
+    private void record(Operation operation, long startNanos, boolean succeeded) {
+        OperationStats s = stats.get(operation);
+        s.latency.record(System.nanoTime() - startNanos);
+        s.calls.increment();
+        if (!succeeded) {
+            s.errors.increment();
+        }
+    }
+
+    @Override
+    public Book addBook(Book book) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Book saved = delegate.addBook(book);
+            ok = true;
+            return saved;
+        } finally {
+            record(Operation.ADD_BOOK, start, ok);
+        }
+    }
+
+    @Override
+    public Book getBookById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Book book = delegate.getBookById(id);
+            ok = true;
+            return book;
+        } finally {
+            record(Operation.GET_BOOK_BY_ID, start, ok);
+        }
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Book> books = delegate.getAllBooks();
+            ok = true;
+            return books;
+        } finally {
+            record(Operation.GET_ALL_BOOKS, start, ok);
+        }
+    }
+
+    // Dicatat sebagai satu operasi untuk seluruh pembacaan (termasuk waktu di dalam action)
+    @Override
+    public long forEachBook(Consumer<? super Book> action, int fetchSize) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            long count = delegate.forEachBook(action, fetchSize);
+            ok = true;
+            return count;
+        } finally {
+            record(Operation.FOR_EACH_BOOK, start, ok);
+        }
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Book saved = delegate.updateBook(book);
+            ok = true;
+            return saved;
+        } finally {
+            record(Operation.UPDATE_BOOK, start, ok);
+        }
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            boolean deleted = delegate.deleteBook(id);
+            ok = true;
+            return deleted;
+        } finally {
+            record(Operation.DELETE_BOOK, start, ok);
+        }
+    }
+
+    @Override
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Book> books = delegate.getBooksAfter(sortKey, after, limit);
+            ok = true;
+            return books;
+        } finally {
+            record(Operation.GET_BOOKS_AFTER, start, ok);
+        }
+    }
+
+    @Override
+    public int countBooks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            int count = delegate.countBooks();
+            ok = true;
+            return count;
+        } finally {
+            record(Operation.COUNT_BOOKS, start, ok);
+        }
+    }
+
+    @Override
+    public List<Book> getBooksByIds(int... ids) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Book> books = delegate.getBooksByIds(ids);
+            ok = true;
+            return books;
+        } finally {
+            record(Operation.GET_BOOKS_BY_IDS, start, ok);
+        }
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Book> books = delegate.searchBooks(query, limit);
+            ok = true;
+            return books;
+        } finally {
+            record(Operation.SEARCH_BOOKS, start, ok);
+        }
+    }
+
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Book> books = delegate.topRated(n, filter);
+            ok = true;
+            return books;
+        } finally {
+            record(Operation.TOP_RATED, start, ok);
+        }
+    }
+
+    @Override
+    public BookChanges changesSince(long token) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            BookChanges changes = delegate.changesSince(token);
+            ok = true;
+            return changes;
+        } finally {
+            record(Operation.CHANGES_SINCE, start, ok);
+        }
+    }
+
+    @Override
+    public List<BookGroupStats> groupStats(BookGrouping grouping) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<BookGroupStats> stats = delegate.groupStats(grouping);
+            ok = true;
+            return stats;
+        } finally {
+            record(Operation.GROUP_STATS, start, ok);
+        }
+    }
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Book> saved = delegate.addBooks(books);
+            ok = true;
+            return saved;
+        } finally {
+            record(Operation.ADD_BOOKS, start, ok);
+        }
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            int updated = delegate.updateBooks(books);
+            ok = true;
+            return updated;
+        } finally {
+            record(Operation.UPDATE_BOOKS, start, ok);
+        }
+    }
+
+    @Override
+    public int updateRatings(Collection<Book> books) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            int updated = delegate.updateRatings(books);
+            ok = true;
+            return updated;
+        } finally {
+            record(Operation.UPDATE_RATINGS, start, ok);
+        }
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            int deleted = delegate.deleteBooks(ids);
+            ok = true;
+            return deleted;
+        } finally {
+            record(Operation.DELETE_BOOKS, start, ok);
+        }
+    }
+
+    // Statistik satu operasi (juga objek MXBean yang didaftarkan ke JMX)
+    public OperationStatsMXBean getStats(Operation operation) {
+        return stats.get(operation);
+    }
+
+    // Snapshot latensi semua operasi, dalam urutan enum Operation
+    public Map<Operation, LatencyHistogram.Snapshot> snapshot() {
+        Map<Operation, LatencyHistogram.Snapshot> snapshot = new EnumMap<>(Operation.class);
+        for (OperationStats s : stats.values()) {
+            snapshot.put(s.operation, s.latency.snapshot());
+        }
+        return snapshot;
+    }
+
+    public void reset() {
+        for (OperationStats s : stats.values()) {
+            s.reset();
+        }
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (OperationStats s : stats.values()) {
+            total += s.calls.sum();
+        }
+        return total;
+    }
+
+    public long getTotalErrorCount() {
+        long total = 0;
+        for (OperationStats s : stats.values()) {
+            total += s.errors.sum();
+        }
+        return total;
+    }
+
+    // Tabel ringkasan untuk konsole; operasi yang belum pernah dipanggil tidak ditampilkan
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Metrik BookDAO [%s]%n", name));
+        sb.append(String.format("  %-14s %9s %6s %10s %10s %10s %10s%n",
+                "operasi", "jumlah", "galat", "p50 ms", "p95 ms", "p99 ms", "maks ms"));
+        for (OperationStats s : stats.values()) {
+            long calls = s.calls.sum();
+            if (calls == 0) {
+                continue;
+            }
+            LatencyHistogram.Snapshot snapshot = s.latency.snapshot();
+            sb.append(String.format("  %-14s %9d %6d %10.3f %10.3f %10.3f %10.3f%n",
+                    s.operation.getMethodName(), calls, s.errors.sum(),
+                    snapshot.getP50Millis(), snapshot.getP95Millis(),
+                    snapshot.getP99Millis(), snapshot.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    // Satu baris singkat untuk status bar: total panggilan dan operasi dengan p99 terburuk
+    public String readout() {
+        OperationStats slowest = null;
+        LatencyHistogram.Snapshot slowestSnapshot = null;
+        for (OperationStats s : stats.values()) {
+            if (s.calls.sum() == 0) {
+                continue;
+            }
+            LatencyHistogram.Snapshot snapshot = s.latency.snapshot();
+            if (slowestSnapshot == null || snapshot.getP99Millis() > slowestSnapshot.getP99Millis()) {
+                slowest = s;
+                slowestSnapshot = snapshot;
+            }
+        }
+        if (slowest == null) {
+            return "DAO: belum ada operasi";
+        }
+        return String.format("DAO: %d operasi, %d galat | terlambat: %s p95=%.1f ms p99=%.1f ms maks=%.1f ms",
+                getTotalCount(), getTotalErrorCount(), slowest.operation.getMethodName(),
+                slowestSnapshot.getP95Millis(), slowestSnapshot.getP99Millis(), slowestSnapshot.getMaxMillis());
+    }
+
+    private void dumpIfActive() {
+        long total = getTotalCount();
+        if (total != lastDumpedCount) {
+            lastDumpedCount = total;
+            System.out.print(report());
+        }
+    }
+
+    private void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationStats s : stats.values()) {
+            try {
+                ObjectName objectName = new ObjectName("model:type=BookDAO,name=" + ObjectName.quote(name)
+                        + ",operation=" + s.operation.getMethodName());
+                server.registerMBean(s, objectName);
+                registeredNames.add(objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                System.err.println("MBean metrik sudah terdaftar, gunakan nama lain: " + e.getMessage());
+                return;
+            } catch (JMException e) {
+                System.err.println("Gagal mendaftarkan MBean metrik: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Menghentikan ringkasan berkala dan melepas MBean
+    @Override
+    public void close() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registeredNames) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                System.err.println("Gagal melepas MBean metrik " + objectName + ": " + e.getMessage());
+            }
+        }
+        registeredNames.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InstrumentedBookDAO[%s, operasi=%d, galat=%d]", name, getTotalCount(), getTotalErrorCount());
+    }
+
+    private static final class OperationStats implements OperationStatsMXBean {
+        private final Operation operation;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private OperationStats(Operation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public String getOperation() {
+            return operation.getMethodName();
+        }
+
+        @Override
+        public long getCount() {
+            return calls.sum();
+        }
+
+        @Override
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return latency.snapshot().getMeanMillis();
+        }
+
+        @Override
+        public double getP50Millis() {
+            return latency.snapshot().getP50Millis();
+        }
+
+        @Override
+        public double getP95Millis() {
+            return latency.snapshot().getP95Millis();
+        }
+
+        @Override
+        public double getP99Millis() {
+            return latency.snapshot().getP99Millis();
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return latency.snapshot().getMaxMillis();
+        }
+
+        @Override
+        public void reset() {
+            calls.reset();
+            errors.reset();
+            latency.reset();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Peta int -> int dengan open addressing (linear probing), tanpa boxing.
+ * Dipakai sebagai indeks id -> nomor baris/slot untuk struktur data berukuran jutaan buku.
+ * Nilai -1 berarti kunci tidak ada; kunci Integer.MIN_VALUE tidak boleh dipakai.
+ */
+final class IntIntMap {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys = newKeys(1024);
+    private int[] values = new int[1024];
+    private int count;
+
+    int size() {
+        return count;
+    }
+
+    void clear() {
+        keys = newKeys(1024);
+        values = new int[1024];
+        count = 0;
+    }
+
+    int get(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    void put(int key, int value) {
+        if ((count + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == FREE) {
+            keys[i] = key;
+            count++;
+        }
+        values[i] = value;
+    }
+
+    int remove(int key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == FREE) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        keys[i] = FREE;
+        count--;
+        // Geser entri berikutnya dalam cluster agar pencarian linear tetap benar
+        for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            int k = keys[j];
+            int v = values[j];
+            keys[j] = FREE;
+            count--;
+            put(k, v);
+        }
+        return removed;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = newKeys(capacity);
+        values = new int[capacity];
+        count = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int[] newKeys(int capacity) {
+        int[] keys = new int[capacity];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,111 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Leaderboard menyimpan N buku dengan rating tertinggi untuk satu BookFilter, diurutkan
+ * rating menurun lalu id menaik (sama dengan ORDER BY rating DESC, id di BookDAOImpl).
+ *
+ * Isi leaderboard selalu tepat |entries| buku teratas yang cocok dengan filter. Buku baru
+ * atau buku yang skornya naik disisipkan jika masuk peringkat; buku yang keluar peringkat
+ * (dihapus, skornya turun, atau tidak lagi cocok) membuat leaderboard memendek, dan
+ * LeaderboardBookDAO memuat ulang dari database hanya jika permintaan melebihi isinya.
+ * Kelas ini tidak thread-safe; pemanggil menjaga akses dengan lock.
+ */
+final class Leaderboard {
+    // Urutan peringkat: rating menurun, lalu id menaik sebagai pemutus seri
+    static final Comparator<Book> RANKING = Comparator.comparingDouble(Book::getRating).reversed()
+            .thenComparingInt(Book::getId);
+
+    private final BookFilter filter;
+    private final int capacity;
+    private final TreeSet<Book> entries = new TreeSet<>(RANKING);
+    private final Map<Integer, Book> byId = new HashMap<>();
+    // true jika leaderboard berisi seluruh buku yang cocok (kurang dari capacity)
+    private boolean complete;
+
+    Leaderboard(BookFilter filter, int capacity, List<Book> top) {
+        this.filter = filter;
+        this.capacity = capacity;
+        for (Book book : top) {
+            add(new Book(book));
+        }
+        this.complete = top.size() < capacity;
+    }
+
+    // Apakah n buku teratas dapat dijawab dari memori
+    boolean canServe(int n) {
+        return complete || n <= entries.size();
+    }
+
+    List<Book> top(int n) {
+        List<Book> top = new ArrayList<>(Math.min(n, entries.size()));
+        Iterator<Book> it = entries.iterator();
+        while (it.hasNext() && top.size() < n) {
+            top.add(new Book(it.next()));
+        }
+        return top;
+    }
+
+    // Buku baru atau yang berubah; disisipkan hanya jika cocok dengan filter dan masuk peringkat
+    void offer(Book book) {
+        if (!filter.matches(book)) {
+            return;
+        }
+        if (!complete && (entries.isEmpty() || RANKING.compare(book, entries.last()) > 0)) {
+            return; // Di bawah buku terakhir: mungkin ada buku lain di database yang lebih tinggi
+        }
+        add(new Book(book));
+        if (entries.size() > capacity) {
+            byId.remove(entries.pollLast().getId());
+            complete = false;
+        }
+    }
+
+    void remove(int id) {
+        Book old = byId.remove(id);
+        if (old != null) {
+            entries.remove(old);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void add(Book book) {
+        remove(book.getId());
+        entries.add(book);
+        byId.put(book.getId(), book);
+    }
+
+    // N buku teratas dari sekumpulan buku dengan min-heap berukuran n, tanpa mengurutkan semuanya
+    static List<Book> top(Iterable<Book> books, int n, BookFilter filter) {
+        List<Book> top = new ArrayList<>();
+        if (n <= 0) {
+            return top;
+        }
+        PriorityQueue<Book> heap = new PriorityQueue<>(Math.min(n, 1024) + 1, RANKING.reversed());
+        for (Book book : books) {
+            if (!filter.matches(book)) {
+                continue;
+            }
+            if (heap.size() < n) {
+                heap.add(book);
+            } else if (RANKING.compare(book, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(book);
+            }
+        }
+        top.addAll(heap);
+        top.sort(RANKING);
+        return top;
+    }
+}
@@ -0,0 +1,239 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LeaderboardBookDAO adalah decorator BookDAO yang menjawab topRated dari leaderboard
+ * di memori: satu TreeSet berukuran terbatas (capacity buku) per BookFilter yang pernah
+ * diminta, dimuat sekali lewat delegate.topRated lalu diperbarui secara bertahap oleh
+ * addBook, updateBook, dan deleteBook berdasarkan rating dari Book.calculateRating().
+ *
+ * Permintaan lebih dari capacity buku diteruskan langsung ke database. Jumlah filter yang
+ * disimpan dibatasi (LRU), sehingga filter penulis/dekade yang jarang dipakai tidak
+ * menumpuk di memori.
+ */
+public class LeaderboardBookDAO extends ForwardingBookDAO {
+    private final int capacity;
+    private final Map<BookFilter, Leaderboard> boards;
+    // Naik setiap kali buku ditulis, agar hasil pemuatan yang basi tidak dipasang (dijaga oleh this)
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public LeaderboardBookDAO(BookDAO delegate) {
+        this(delegate, AppConfig.getInt("library.leaderboard.capacity", 100),
+                AppConfig.getInt("library.leaderboard.maxBoards", 32));
+    }
+
+    public LeaderboardBookDAO(BookDAO delegate, int capacity, int maxBoards) {
+        super(delegate);
+        if (capacity <= 0 || maxBoards <= 0) {
+            throw new IllegalArgumentException("Ukuran leaderboard harus lebih dari 0: " + capacity + ", " + maxBoards);
+        }
+        this.capacity = capacity;
+        this.boards = new LinkedHashMap<BookFilter, Leaderboard>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BookFilter, Leaderboard> eldest) {
+                return size() > maxBoards;
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        BookFilter key = filter == null ? BookFilter.all() : filter;
+        if (n > capacity) {
+            return delegate.topRated(n, key);
+        }
+        long loadVersion;
+        synchronized (this) {
+            Leaderboard board = boards.get(key);
+            if (board != null && board.canServe(n)) {
+                hits.increment();
+                return board.top(n);
+            }
+            loadVersion = version;
+        }
+        misses.increment();
+        // Selalu muat capacity buku, agar permintaan n yang lebih kecil berikutnya dijawab dari memori
+        List<Book> loaded = delegate.topRated(capacity, key);
+        synchronized (this) {
+            if (version == loadVersion) {
+                boards.put(key, new Leaderboard(key, capacity, loaded));
+            }
+        }
+        return new ArrayList<>(loaded.subList(0, Math.min(n, loaded.size())));
+    }
+
+    @Override
+    public Book addBook(Book book) {
+        Book saved;
+        try {
+            saved = delegate.addBook(book);
+        } catch (RuntimeException e) {
+            invalidateAll();
+            throw e;
+        }
+        synchronized (this) {
+            version++;
+            for (Leaderboard board : boards.values()) {
+                board.offer(saved);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        Book saved;
+        try {
+            saved = delegate.updateBook(book);
+        } catch (RuntimeException e) {
+            invalidateAll();
+            throw e;
+        }
+        synchronized (this) {
+            version++;
+            for (Leaderboard board : boards.values()) {
+                // Posisi lama dilepas dulu; skor yang turun di bawah peringkat terakhir tidak disisipkan lagi
+                board.remove(book.getId());
+                if (saved != null) {
+                    board.offer(saved);
+                }
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        try {
+            return delegate.deleteBook(id);
+        } finally {
+            removeFromBoards(id);
+        }
+    }
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        List<Book> saved;
+        try {
+            saved = delegate.addBooks(books);
+        } catch (RuntimeException e) {
+            invalidateAll();
+            throw e;
+        }
+        synchronized (this) {
+            version++;
+            for (Leaderboard board : boards.values()) {
+                for (Book book : saved) {
+                    board.offer(book);
+                }
+            }
+        }
+        return saved;
+    }
+
+    // Perubahan klien lain ditambal seperti updateBook: buku di feed pasti masih ada di database
+    @Override
+    public BookChanges changesSince(long token) {
+        BookChanges changes = delegate.changesSince(token);
+        if (changes == null || changes.isEmpty()) {
+            return changes;
+        }
+        if (changes.isReloadRequired()) {
+            invalidateAll();
+            return changes;
+        }
+        synchronized (this) {
+            version++;
+            for (Leaderboard board : boards.values()) {
+                for (Book book : changes.getInserted()) {
+                    board.remove(book.getId());
+                    board.offer(book);
+                }
+                for (Book book : changes.getUpdated()) {
+                    board.remove(book.getId());
+                    board.offer(book);
+                }
+                for (int id : changes.getDeletedIds()) {
+                    board.remove(id);
+                }
+            }
+        }
+        return changes;
+    }
+
+    // updateBooks tidak memberi tahu buku mana yang benar-benar ada, jadi leaderboard dibuang
+    // (bukan ditambal) agar id yang sudah terhapus tidak muncul kembali di peringkat.
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        try {
+            return delegate.updateBooks(books);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public int updateRatings(Collection<Book> books) {
+        try {
+            return delegate.updateRatings(books);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        try {
+            return delegate.deleteBooks(ids);
+        } finally {
+            removeFromBoards(ids);
+        }
+    }
+
+    // Membuang seluruh leaderboard, misalnya setelah tabel diubah oleh aplikasi lain
+    public synchronized void invalidateAll() {
+        version++;
+        boards.clear();
+    }
+
+    private synchronized void removeFromBoards(int... ids) {
+        version++;
+        for (Leaderboard board : boards.values()) {
+            for (int id : ids) {
+                board.remove(id);
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("LeaderboardBookDAO[filter=%d, kapasitas=%d, hit=%d, miss=%d]",
+                boards.size(), capacity, getHitCount(), getMissCount());
+    }
+}
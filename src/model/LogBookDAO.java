@@ -0,0 +1,1061 @@
+package model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * LogBookDAO adalah implementasi BookDAO tanpa server database: buku disimpan di satu
+ * berkas log biner lokal yang hanya ditambah di akhir (append-only), dengan indeks
+ * id -> (offset, panjang) di memori.
+ *
+ * - Setiap perubahan adalah satu record baru (PUT atau DELETE) dengan checksum CRC32C;
+ *   record lama menjadi sampah yang dibersihkan oleh kompaksi di latar belakang.
+ * - fsync dilakukan secara group commit: penulis yang menunggu bersamaan berbagi satu
+ *   FileChannel.force, sehingga beberapa penulis tidak membayar fsync masing-masing.
+ * - Saat ditutup, indeks ditulis ke berkas hint (.idx). Saat dibuka, hint dimuat lalu hanya
+ *   ekor log setelahnya yang dipindai; record terakhir yang terpotong (crash) dibuang.
+ *
+ * Pembacaan memakai positional read (pread) dan tidak saling menunggu; penulis diserialkan.
+ * getAllBooks hanya menahan lock selama mengambil daftar record yang berlaku, bukan selama
+ * pemindaian. getBooksAfter dengan kunci selain ID memakai urutan id yang disimpan per versi
+ * isi log, sehingga halaman berikutnya tidak memindai seluruh log selama tidak ada penulisan.
+ * Konfigurasi: library.log.fsync (default true), library.log.compactIntervalMs (30000),
+ * library.log.compactMinBytes (1 MB).
+ */
+public class LogBookDAO implements BookDAO, AutoCloseable {
+    private static final int MAGIC = 0x424B4C47;      // "BKLG"
+    private static final int HINT_MAGIC = 0x424B4958; // "BKIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;        // magic, versi, generasi, id berikutnya
+
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    // length, type, id, crc
+    private static final int RECORD_OVERHEAD = 4 + 1 + 4 + 4;
+    // Panjang record disimpan dalam 24 bit entri indeks
+    private static final int MAX_RECORD_LENGTH = (1 << 24) - 1;
+    private static final int LENGTH_BITS = 24;
+
+    private final Path path;
+    private final Path hintPath;
+    private final boolean fsync;
+    private final long compactMinBytes;
+
+    // Dijaga oleh stateLock: baca = read lock; ubah indeks / ganti berkas = write lock
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private IntLongMap index = new IntLongMap();
+    private long generation;
+    private long garbageBytes;
+    private long indexedEnd;  // Akhir log yang sudah tercermin di indeks
+    private volatile int[] sortedIds; // Cache id terurut untuk getBooksAfter(ID); null jika basi
+    private long contentVersion;      // Naik setiap kali indeks berubah (untuk sortedByKey)
+    private volatile SortedIds sortedByKey; // Cache id terurut untuk getBooksAfter kunci lain
+
+    // Dijaga oleh appendLock: hanya satu penulis (atau kompaksi) pada satu waktu
+    private final Object appendLock = new Object();
+    private long fileEnd;
+    private int nextId;
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+    private boolean closed;
+
+    // Group commit: appendedSeq naik setiap kali record ditulis, durableSeq setelah fsync
+    private final Object syncLock = new Object();
+    private volatile long appendedSeq;
+    private long durableSeq;
+    private boolean syncing;
+
+    private final ScheduledExecutorService compactor;
+
+    public LogBookDAO(Path path) {
+        this(path, AppConfig.getBoolean("library.log.fsync", true),
+                AppConfig.getLong("library.log.compactIntervalMs", 30_000L),
+                AppConfig.getLong("library.log.compactMinBytes", 1L << 20));
+    }
+
+    public LogBookDAO(Path path, boolean fsync, long compactIntervalMillis, long compactMinBytes) {
+        this.path = path.toAbsolutePath();
+        this.hintPath = this.path.resolveSibling(this.path.getFileName() + ".idx");
+        this.fsync = fsync;
+        this.compactMinBytes = compactMinBytes;
+        long start = System.nanoTime();
+        try {
+            open();
+        } catch (IOException e) {
+            throw new DataAccessException("Gagal membuka berkas data buku " + this.path + ": " + e.getMessage(), e);
+        }
+        System.out.printf("Berkas data buku dibuka: %s (%d buku, %d ms)%n",
+                this.path, index.size(), (System.nanoTime() - start) / 1_000_000);
+        if (compactIntervalMillis > 0) {
+            compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "book-log-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactIfNeeded, compactIntervalMillis, compactIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            compactor = null;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // ---------------------------------------------------------------- pembacaan
+
+    @Override
+    public Book getBookById(int id) {
+        stateLock.readLock().lock();
+        try {
+            long entry = index.get(id);
+            return entry < 0 ? null : readBook(channel, entry);
+        } catch (IOException e) {
+            System.err.println("Error saat mengambil buku berdasarkan ID: " + e.getMessage());
+            return null;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Book> getBooksByIds(int... ids) {
+        List<Book> books = new ArrayList<>(ids.length);
+        stateLock.readLock().lock();
+        try {
+            for (int id : ids) {
+                long entry = index.get(id);
+                if (entry >= 0) {
+                    books.add(readBook(channel, entry));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error saat mengambil buku berdasarkan daftar ID: " + e.getMessage());
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return books;
+    }
+
+    // Membaca log secara berurutan (bukan pread per buku) dan mengambil versi terbaru setiap id
+    @Override
+    public List<Book> getAllBooks() {
+        List<Book> books = readAll(null);
+        books.sort(BookSortKey.ID.comparator());
+        return books;
+    }
+
+    @Override
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        if (sortKey == BookSortKey.ID) {
+            int lastId = after == null ? Integer.MIN_VALUE : after.getId();
+            stateLock.readLock().lock();
+            try {
+                int[] ids = sortedIds();
+                int from = Arrays.binarySearch(ids, lastId);
+                from = from >= 0 ? from + 1 : -from - 1;
+                return getBooksByIds(Arrays.copyOfRange(ids, from, Math.min(ids.length, from + limit)));
+            } finally {
+                stateLock.readLock().unlock();
+            }
+        }
+        // Kunci lain: id terurut menurut kunci tersebut, dibangun sekali per versi isi log.
+        // Halaman dicari dengan binary search (satu pread per langkah) lalu dibaca per id.
+        for (int attempt = 0; attempt < 3; attempt++) {
+            List<Book> page = pageOf(sortedBy(sortKey), after, limit);
+            if (page != null) {
+                return page;
+            }
+        }
+        // Log terus berubah selama halaman dicari: satu pemindaian dengan heap berukuran limit
+        PriorityQueue<Book> heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, sortKey.comparator().reversed());
+        for (Book book : readAll(null)) {
+            if (after != null && sortKey.comparator().compare(book, after) <= 0) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(book);
+            } else if (sortKey.comparator().compare(book, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(book);
+            }
+        }
+        List<Book> page = new ArrayList<>(heap);
+        page.sort(sortKey.comparator());
+        return page;
+    }
+
+    // Versi terbaru setiap buku dalam urutan log. Read lock hanya ditahan untuk mengambil daftar
+    // record yang berlaku; record di bawah indexedEnd tidak pernah berubah, jadi pemindaian dan
+    // decode berjalan tanpa lock. Jika kompaksi menukar berkas di tengah jalan, pemindaian diulang.
+    private List<Book> readAll(long[] versionOut) {
+        for (int attempt = 1; ; attempt++) {
+            FileChannel ch;
+            long end;
+            long[] live;
+            stateLock.readLock().lock();
+            try {
+                ch = channel;
+                end = indexedEnd;
+                live = new long[index.size()];
+                int[] n = {0};
+                index.forEach((id, entry) -> live[n[0]++] = entry);
+                if (versionOut != null) {
+                    versionOut[0] = contentVersion;
+                }
+            } finally {
+                stateLock.readLock().unlock();
+            }
+            Arrays.sort(live); // Urut offset
+            List<Book> books = new ArrayList<>(live.length);
+            try {
+                scan(ch, HEADER_SIZE, end, (offset, length, record) -> {
+                    if (record.get(4) == TYPE_PUT && Arrays.binarySearch(live, entry(offset, length)) >= 0) {
+                        books.add(decodeBook(record));
+                    }
+                });
+                return books;
+            } catch (ClosedChannelException e) {
+                if (attempt == 3) {
+                    System.err.println("Error saat mengambil semua buku: berkas data ditutup atau ditukar berulang kali");
+                    return books;
+                }
+            } catch (IOException e) {
+                System.err.println("Error saat mengambil semua buku: " + e.getMessage());
+                e.printStackTrace();
+                return books;
+            }
+        }
+    }
+
+    // Id terurut menurut sortKey untuk versi isi log saat ini; dibangun ulang jika sudah basi
+    private SortedIds sortedBy(BookSortKey sortKey) {
+        SortedIds sorted = sortedByKey;
+        if (sorted != null && sorted.sortKey == sortKey && sorted.version == currentVersion()) {
+            return sorted;
+        }
+        long[] version = new long[1];
+        List<Book> books = readAll(version);
+        books.sort(sortKey.comparator());
+        int[] ids = new int[books.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = books.get(i).getId();
+        }
+        sorted = new SortedIds(sortKey, version[0], ids);
+        sortedByKey = sorted;
+        return sorted;
+    }
+
+    private long currentVersion() {
+        stateLock.readLock().lock();
+        try {
+            return contentVersion;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    // Halaman setelah 'after' menurut urutan sorted, atau null jika log sudah berubah sejak
+    // urutan itu dibangun. Read lock ditahan agar buku yang dibandingkan sesuai dengan urutannya.
+    private List<Book> pageOf(SortedIds sorted, Book after, int limit) {
+        stateLock.readLock().lock();
+        try {
+            if (sorted.version != contentVersion) {
+                return null;
+            }
+            int[] ids = sorted.ids;
+            int low = 0;
+            int high = ids.length;
+            if (after != null) {
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (sorted.sortKey.comparator().compare(readBook(channel, index.get(ids[mid])), after) <= 0) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            List<Book> page = new ArrayList<>(Math.min(limit, ids.length - low));
+            for (int i = low; i < ids.length && page.size() < limit; i++) {
+                page.add(readBook(channel, index.get(ids[i])));
+            }
+            return page;
+        } catch (IOException e) {
+            System.err.println("Error saat mengambil halaman buku: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    // Id semua buku terurut menurut satu kunci selain ID, untuk satu versi isi log
+    private static final class SortedIds {
+        private final BookSortKey sortKey;
+        private final long version;
+        private final int[] ids;
+
+        private SortedIds(BookSortKey sortKey, long version, int[] ids) {
+            this.sortKey = sortKey;
+            this.version = version;
+            this.ids = ids;
+        }
+    }
+
+    @Override
+    public int countBooks() {
+        stateLock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    // Dipanggil dengan read lock; dibangun ulang hanya setelah buku ditambah atau dihapus
+    private int[] sortedIds() {
+        int[] ids = sortedIds;
+        if (ids == null) {
+            int[] collected = new int[index.size()];
+            int[] n = {0};
+            index.forEach((id, entry) -> collected[n[0]++] = id);
+            Arrays.sort(collected);
+            sortedIds = ids = collected;
+        }
+        return ids;
+    }
+
+    // ---------------------------------------------------------------- penulisan
+
+    @Override
+    public Book addBook(Book book) {
+        long seq;
+        synchronized (appendLock) {
+            ensureOpen();
+            try {
+                writeBuffer.clear();
+                int id = nextId;
+                int length = encodePut(id, book);
+                seq = flushWrites(new int[]{id}, new int[]{length});
+                nextId = id + 1;
+                book.setId(id);
+            } catch (IOException e) {
+                throw new DataAccessException("Error saat menambahkan buku: " + e.getMessage(), e);
+            }
+        }
+        awaitDurable(seq, "menambahkan buku");
+        System.out.println("Buku berhasil ditambahkan: " + book.getTitle());
+        return book;
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        long seq;
+        synchronized (appendLock) {
+            ensureOpen();
+            if (!contains(book.getId())) {
+                return null;
+            }
+            try {
+                writeBuffer.clear();
+                int length = encodePut(book.getId(), book);
+                seq = flushWrites(new int[]{book.getId()}, new int[]{length});
+            } catch (IOException e) {
+                throw new DataAccessException("Error saat memperbarui buku: " + e.getMessage(), e);
+            }
+        }
+        awaitDurable(seq, "memperbarui buku");
+        System.out.println("Buku berhasil diperbarui: " + book.getTitle());
+        return book;
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        long seq;
+        synchronized (appendLock) {
+            ensureOpen();
+            if (!contains(id)) {
+                return false;
+            }
+            try {
+                writeBuffer.clear();
+                int length = encodeDelete(id);
+                seq = flushWrites(new int[]{id}, new int[]{length});
+            } catch (IOException e) {
+                throw new DataAccessException("Error saat menghapus buku: " + e.getMessage(), e);
+            }
+        }
+        awaitDurable(seq, "menghapus buku");
+        System.out.println("Buku dengan ID " + id + " berhasil dihapus.");
+        return true;
+    }
+
+    // Operasi massal: semua record ditulis dengan satu write dan satu fsync
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        List<Book> saved = new ArrayList<>(books.size());
+        if (books.isEmpty()) {
+            return saved;
+        }
+        long seq;
+        synchronized (appendLock) {
+            ensureOpen();
+            int[] ids = new int[books.size()];
+            int[] lengths = new int[books.size()];
+            try {
+                writeBuffer.clear();
+                int i = 0;
+                for (Book book : books) {
+                    ids[i] = nextId + i;
+                    lengths[i] = encodePut(ids[i], book);
+                    i++;
+                }
+                seq = flushWrites(ids, lengths);
+            } catch (IOException e) {
+                throw new DataAccessException("Error saat menambahkan buku secara massal: " + e.getMessage(), e);
+            }
+            nextId += books.size();
+            int i = 0;
+            for (Book book : books) {
+                book.setId(ids[i++]);
+                saved.add(book);
+            }
+        }
+        awaitDurable(seq, "menambahkan buku secara massal");
+        return saved;
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        long seq;
+        int updated = 0;
+        synchronized (appendLock) {
+            ensureOpen();
+            int[] ids = new int[books.size()];
+            int[] lengths = new int[books.size()];
+            try {
+                writeBuffer.clear();
+                for (Book book : books) {
+                    if (contains(book.getId())) {
+                        ids[updated] = book.getId();
+                        lengths[updated] = encodePut(book.getId(), book);
+                        updated++;
+                    }
+                }
+                if (updated == 0) {
+                    return 0;
+                }
+                seq = flushWrites(Arrays.copyOf(ids, updated), Arrays.copyOf(lengths, updated));
+            } catch (IOException e) {
+                throw new DataAccessException("Error saat memperbarui buku secara massal: " + e.getMessage(), e);
+            }
+        }
+        awaitDurable(seq, "memperbarui buku secara massal");
+        return updated;
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        long seq;
+        int deleted = 0;
+        synchronized (appendLock) {
+            ensureOpen();
+            int[] present = new int[ids.length];
+            int[] lengths = new int[ids.length];
+            try {
+                writeBuffer.clear();
+                IntIntMap seen = new IntIntMap();
+                for (int id : ids) {
+                    if (contains(id) && seen.get(id) < 0) {
+                        seen.put(id, deleted);
+                        present[deleted] = id;
+                        lengths[deleted] = encodeDelete(id);
+                        deleted++;
+                    }
+                }
+                if (deleted == 0) {
+                    return 0;
+                }
+                seq = flushWrites(Arrays.copyOf(present, deleted), Arrays.copyOf(lengths, deleted));
+            } catch (IOException e) {
+                throw new DataAccessException("Error saat menghapus buku secara massal: " + e.getMessage(), e);
+            }
+        }
+        awaitDurable(seq, "menghapus buku secara massal");
+        return deleted;
+    }
+
+    private boolean contains(int id) {
+        stateLock.readLock().lock();
+        try {
+            return index.get(id) >= 0;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new DataAccessException("Berkas data buku sudah ditutup: " + path, null);
+        }
+    }
+
+    // Menulis isi writeBuffer di akhir log, lalu memperbarui indeks. Dipanggil dengan appendLock.
+    private long flushWrites(int[] ids, int[] lengths) throws IOException {
+        writeBuffer.flip();
+        long start = fileEnd;
+        writeFully(channel, writeBuffer, start);
+        fileEnd = start + writeBuffer.limit();
+        long seq = ++appendedSeq;
+
+        stateLock.writeLock().lock();
+        try {
+            long offset = start;
+            for (int i = 0; i < ids.length; i++) {
+                applyRecord(ids[i], offset, lengths[i], writeBuffer.get((int) (offset - start) + 4));
+                offset += lengths[i];
+            }
+            indexedEnd = fileEnd;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return seq;
+    }
+
+    // Menerapkan satu record ke indeks (saat menulis maupun saat memindai log). Dipanggil dengan write lock.
+    private void applyRecord(int id, long offset, int length, byte type) {
+        contentVersion++;
+        if (type == TYPE_PUT) {
+            long old = index.put(id, entry(offset, length));
+            if (old >= 0) {
+                garbageBytes += lengthOf(old);
+            } else {
+                sortedIds = null;
+            }
+        } else {
+            long old = index.remove(id);
+            garbageBytes += length + (old >= 0 ? lengthOf(old) : 0);
+            if (old >= 0) {
+                sortedIds = null;
+            }
+        }
+    }
+
+    // Menunggu sampai record dengan nomor seq tersimpan di disk (group commit)
+    private void awaitDurable(long seq, String action) {
+        if (!fsync) {
+            return;
+        }
+        try {
+            synchronized (syncLock) {
+                while (true) {
+                    if (durableSeq >= seq) {
+                        return;
+                    }
+                    if (!syncing) {
+                        syncing = true;
+                        break;
+                    }
+                    syncLock.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Terputus saat menunggu penyimpanan ke disk", e);
+        }
+        // Thread ini menjadi pemimpin: satu force untuk semua record yang sudah ditulis
+        long target = appendedSeq;
+        boolean forced = false;
+        try {
+            stateLock.readLock().lock();
+            try {
+                channel.force(false);
+            } finally {
+                stateLock.readLock().unlock();
+            }
+            forced = true;
+        } catch (IOException e) {
+            throw new DataAccessException("Error saat " + action + " (fsync gagal): " + e.getMessage(), e);
+        } finally {
+            synchronized (syncLock) {
+                syncing = false;
+                if (forced && target > durableSeq) {
+                    durableSeq = target;
+                }
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- format record
+
+    private static long entry(long offset, int length) {
+        return (offset << LENGTH_BITS) | length;
+    }
+
+    private static long offsetOf(long entry) {
+        return entry >>> LENGTH_BITS;
+    }
+
+    private static int lengthOf(long entry) {
+        return (int) (entry & MAX_RECORD_LENGTH);
+    }
+
+    // Record PUT: length, type, id, tahun, 3 skor, judul, penulis, crc. Mengembalikan panjang total.
+    private int encodePut(int id, Book book) throws IOException {
+        byte[] title = utf8(book.getTitle());
+        byte[] author = utf8(book.getAuthor());
+        int length = RECORD_OVERHEAD + 4 + 3 * 8 + 4 + lengthOf(title) + 4 + lengthOf(author);
+        if (length > MAX_RECORD_LENGTH) {
+            throw new IOException("Record buku terlalu besar: " + length + " byte");
+        }
+        ensureWriteCapacity(length);
+        int start = writeBuffer.position();
+        writeBuffer.putInt(length - 4).put(TYPE_PUT).putInt(id)
+                .putInt(book.getPublicationYear())
+                .putDouble(book.getStorylineScore())
+                .putDouble(book.getLanguageStyleScore())
+                .putDouble(book.getOriginalityScore());
+        putBytes(title);
+        putBytes(author);
+        writeBuffer.putInt(crc(writeBuffer, start + 4, writeBuffer.position()));
+        return length;
+    }
+
+    private int encodeDelete(int id) {
+        ensureWriteCapacity(RECORD_OVERHEAD);
+        int start = writeBuffer.position();
+        writeBuffer.putInt(RECORD_OVERHEAD - 4).put(TYPE_DELETE).putInt(id);
+        writeBuffer.putInt(crc(writeBuffer, start + 4, writeBuffer.position()));
+        return RECORD_OVERHEAD;
+    }
+
+    private void putBytes(byte[] bytes) {
+        if (bytes == null) {
+            writeBuffer.putInt(-1);
+        } else {
+            writeBuffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private void ensureWriteCapacity(int length) {
+        if (writeBuffer.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(writeBuffer.capacity() * 2, writeBuffer.position() + length));
+            writeBuffer.flip();
+            larger.put(writeBuffer);
+            writeBuffer = larger;
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int lengthOf(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static int crc(ByteBuffer buffer, int from, int to) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(to).position(from);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    // Membaca satu buku dari record PUT di posisi entry
+    private static Book readBook(FileChannel ch, long entry) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(lengthOf(entry));
+        readFully(ch, record, offsetOf(entry));
+        record.flip();
+        if (!isValid(record, 0, record.limit())) {
+            throw new IOException("Record rusak pada offset " + offsetOf(entry));
+        }
+        return decodeBook(record);
+    }
+
+    // record: satu record utuh mulai dari field length di posisi 0. Rating tidak disimpan di log;
+    // dihitung dengan rumus yang berlaku saat dibaca, sehingga log tidak perlu ditulis ulang saat rumus berubah.
+    private static Book decodeBook(ByteBuffer record) {
+        ByteBuffer in = record.duplicate();
+        in.position(9);
+        int year = in.getInt();
+        double storyline = in.getDouble();
+        double languageStyle = in.getDouble();
+        double originality = in.getDouble();
+        String title = getString(in);
+        String author = getString(in);
+        return new Book(record.getInt(5), title, author, year, storyline, languageStyle, originality,
+                RatingEngine.current().rate(author, storyline, languageStyle, originality));
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String text = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return text;
+    }
+
+    // Memeriksa field length dan CRC record yang dimulai pada posisi from
+    private static boolean isValid(ByteBuffer buffer, int from, int available) {
+        if (available < RECORD_OVERHEAD) {
+            return false;
+        }
+        int length = buffer.getInt(from) + 4;
+        if (length < RECORD_OVERHEAD || length > available) {
+            return false;
+        }
+        byte type = buffer.get(from + 4);
+        if (type != TYPE_PUT && type != TYPE_DELETE) {
+            return false;
+        }
+        return crc(buffer, from + 4, from + length - 4) == buffer.getInt(from + length - 4);
+    }
+
+    // ---------------------------------------------------------------- membuka dan memindai log
+
+    private interface RecordVisitor {
+        // record: salinan satu record utuh (length di posisi 0)
+        void visit(long offset, int length, ByteBuffer record) throws IOException;
+    }
+
+    // Memindai record [from, to) secara berurutan dengan buffer besar; mengembalikan akhir record valid terakhir
+    private static long scan(FileChannel ch, long from, long to, RecordVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        long bufferStart = from;
+        long offset = from;
+        while (offset < to) {
+            buffer.clear();
+            int wanted = (int) Math.min(buffer.capacity(), to - bufferStart);
+            buffer.limit(wanted);
+            readFully(ch, buffer, bufferStart);
+            buffer.flip();
+            int pos = (int) (offset - bufferStart);
+            boolean progressed = false;
+            while (pos + 4 <= buffer.limit()) {
+                int length = buffer.getInt(pos) + 4;
+                if (length < RECORD_OVERHEAD || length > MAX_RECORD_LENGTH) {
+                    return offset; // Panjang tidak masuk akal: ekor rusak
+                }
+                if (pos + length > buffer.limit()) {
+                    if (length > buffer.capacity()) {
+                        buffer = ByteBuffer.allocate(length);
+                    }
+                    break; // Record terpotong oleh batas buffer, baca ulang mulai dari record ini
+                }
+                if (!isValid(buffer, pos, length)) {
+                    return offset;
+                }
+                ByteBuffer record = buffer.duplicate();
+                record.limit(pos + length).position(pos);
+                visitor.visit(offset, length, record.slice());
+                pos += length;
+                offset += length;
+                progressed = true;
+            }
+            if (!progressed && bufferStart + buffer.limit() >= to) {
+                return offset; // Sisa di akhir berkas bukan record utuh
+            }
+            bufferStart = offset;
+        }
+        return offset;
+    }
+
+    private void open() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size == 0) {
+            generation = ThreadLocalRandom.current().nextLong();
+            writeHeader(channel, generation, 1);
+            channel.force(true);
+            size = HEADER_SIZE;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException("Bukan berkas data buku yang dikenal (versi " + VERSION + ")");
+            }
+            generation = header.getLong(8);
+        }
+        // Id berikutnya dari header: id buku yang sudah dihapus dan dikompaksi tidak dipakai ulang
+        int headerNextId = readHeaderNextId();
+        nextId = 1;
+        long scanFrom = loadHint(size);
+        long end = scan(channel, scanFrom, size, (offset, length, record) -> {
+            int id = record.getInt(5);
+            applyRecord(id, offset, length, record.get(4));
+            if (id >= nextId) {
+                nextId = id + 1;
+            }
+        });
+        if (end < size) {
+            System.err.printf("Berkas data buku %s: %d byte terakhir tidak utuh (kemungkinan crash), dibuang%n",
+                    path, size - end);
+            channel.truncate(end);
+            channel.force(true);
+        }
+        nextId = Math.max(nextId, headerNextId);
+        fileEnd = end;
+        indexedEnd = end;
+        Files.deleteIfExists(hintPath); // Hint dibuat ulang saat ditutup dengan benar
+    }
+
+    private static void writeHeader(FileChannel ch, long generation, int nextId) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(nextId).flip();
+        writeFully(ch, header, 0);
+    }
+
+    private int readHeaderNextId() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        readFully(channel, buffer, 16);
+        return buffer.getInt(0);
+    }
+
+    // Memuat indeks dari berkas hint jika cocok dengan log ini; mengembalikan posisi awal pemindaian
+    private long loadHint(long logSize) {
+        if (!Files.isRegularFile(hintPath)) {
+            return HEADER_SIZE;
+        }
+        try {
+            ByteBuffer hint = ByteBuffer.wrap(Files.readAllBytes(hintPath));
+            int crcAt = hint.limit() - 4;
+            if (crcAt < 0 || crc(hint, 0, crcAt) != hint.getInt(crcAt)) {
+                return HEADER_SIZE;
+            }
+            if (hint.getInt() != HINT_MAGIC || hint.getLong() != generation) {
+                return HEADER_SIZE;
+            }
+            long covered = hint.getLong();
+            if (covered > logSize) {
+                return HEADER_SIZE;
+            }
+            int hintNextId = hint.getInt();
+            long hintGarbage = hint.getLong();
+            int count = hint.getInt();
+            IntLongMap loaded = new IntLongMap();
+            for (int i = 0; i < count; i++) {
+                loaded.put(hint.getInt(), hint.getLong());
+            }
+            index = loaded;
+            nextId = hintNextId;
+            garbageBytes = hintGarbage;
+            return covered;
+        } catch (IOException | BufferUnderflowException e) {
+            System.err.println("Berkas indeks " + hintPath + " diabaikan: " + e.getMessage());
+            index = new IntLongMap();
+            nextId = 1;
+            garbageBytes = 0;
+            return HEADER_SIZE;
+        }
+    }
+
+    // Dipanggil dengan appendLock setelah log di-fsync
+    private void writeHint() throws IOException {
+        ByteBuffer hint = ByteBuffer.allocate(4 + 8 + 8 + 4 + 8 + 4 + index.size() * 12 + 4);
+        hint.putInt(HINT_MAGIC).putLong(generation).putLong(fileEnd).putInt(nextId).putLong(garbageBytes).putInt(index.size());
+        index.forEach((id, entry) -> hint.putInt(id).putLong(entry));
+        hint.putInt(crc(hint, 0, hint.position()));
+        hint.flip();
+        Path tmp = hintPath.resolveSibling(hintPath.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, hint, 0);
+            out.force(true);
+        }
+        Files.move(tmp, hintPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---------------------------------------------------------------- kompaksi
+
+    private void compactIfNeeded() {
+        long garbage;
+        long live;
+        stateLock.readLock().lock();
+        try {
+            garbage = garbageBytes;
+            live = indexedEnd - HEADER_SIZE - garbage;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        if (garbage >= compactMinBytes && garbage > live) {
+            try {
+                compact();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Kompaksi berkas data buku gagal: " + e.getMessage());
+            }
+        }
+    }
+
+    // Menulis ulang log hanya dengan versi terbaru setiap buku. Penulis menunggu selama
+    // kompaksi; pembaca tetap berjalan sampai berkas lama ditukar dengan yang baru.
+    public void compact() throws IOException {
+        synchronized (appendLock) {
+            ensureOpen();
+            long start = System.nanoTime();
+            long before = fileEnd;
+            long[] entries;
+            stateLock.readLock().lock();
+            try {
+                entries = new long[index.size()];
+                int[] n = {0};
+                index.forEach((id, entry) -> entries[n[0]++] = entry);
+            } finally {
+                stateLock.readLock().unlock();
+            }
+            Arrays.sort(entries); // Urut offset: log lama dibaca berurutan
+
+            Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+            long newGeneration = ThreadLocalRandom.current().nextLong();
+            FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            IntLongMap newIndex = new IntLongMap();
+            long end;
+            try {
+                writeHeader(out, newGeneration, nextId);
+                end = HEADER_SIZE;
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+                long bufferStart = end;
+                for (long entry : entries) {
+                    int length = lengthOf(entry);
+                    if (buffer.remaining() < length) {
+                        buffer.flip();
+                        writeFully(out, buffer, bufferStart);
+                        bufferStart += buffer.limit();
+                        buffer = buffer.capacity() >= length ? buffer.clear() : ByteBuffer.allocate(length);
+                    }
+                    int recordStart = buffer.position();
+                    buffer.limit(recordStart + length);
+                    readFully(channel, buffer, offsetOf(entry));
+                    buffer.limit(buffer.capacity());
+                    newIndex.put(buffer.getInt(recordStart + 5), entry(end, length));
+                    end += length;
+                }
+                buffer.flip();
+                writeFully(out, buffer, bufferStart);
+                out.force(true);
+            } catch (IOException | RuntimeException e) {
+                out.close();
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+
+            stateLock.writeLock().lock();
+            try {
+                // Berkas lama ditutup lebih dulu: beberapa sistem (Windows) tidak dapat menimpa berkas yang terbuka
+                channel.close();
+                try {
+                    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    out.close();
+                    Files.deleteIfExists(tmp);
+                    throw e;
+                }
+                channel = out;
+                index = newIndex;
+                generation = newGeneration;
+                garbageBytes = 0;
+                fileEnd = end;
+                indexedEnd = end;
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+            Files.deleteIfExists(hintPath);
+            synchronized (syncLock) {
+                durableSeq = appendedSeq; // Semua record sudah di-fsync bersama berkas baru
+            }
+            System.out.printf("Kompaksi berkas data buku: %d -> %d byte dalam %d ms%n",
+                    before, end, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // ---------------------------------------------------------------- I/O
+
+    private static void readFully(FileChannel ch, ByteBuffer buffer, long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            int read = ch.read(buffer, pos);
+            if (read < 0) {
+                break;
+            }
+            pos += read;
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buffer, long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += ch.write(buffer, pos);
+        }
+    }
+
+    // Menyimpan semua record ke disk, menulis berkas hint, dan menutup berkas
+    @Override
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                channel.force(true);
+                writeHint();
+            } catch (IOException e) {
+                System.err.println("Gagal menulis indeks berkas data buku: " + e.getMessage());
+            }
+            stateLock.writeLock().lock();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Gagal menutup berkas data buku: " + e.getMessage());
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+        }
+        System.out.println("Berkas data buku ditutup: " + this);
+    }
+
+    @Override
+    public String toString() {
+        stateLock.readLock().lock();
+        try {
+            return String.format("LogBookDAO[%s, buku=%d, ukuran=%d byte, sampah=%d byte]",
+                    path.getFileName(), index.size(), indexedEnd, garbageBytes);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * MappedBookDAO adalah adapter BookDAO di atas MappedBookStore (berkas record berukuran
+ * tetap yang dipetakan ke memori), sehingga controller dapat memakainya seperti
+ * penyimpanan lain lewat library.storage=mapped.
+ *
+ * getBookById dan pagination per id langsung menghitung posisi record dari id. Pagination
+ * dengan kunci lain memakai urutan id yang disimpan per versi isi berkas, sehingga hanya
+ * halaman pertama setelah perubahan yang memindai seluruh berkas. Leaderboard
+ * (topRated) membaca rating dan tahun dari buffer; objek Book hanya dibuat untuk kandidat
+ * yang masuk n teratas.
+ *
+ * Konfigurasi: library.mapped.forceOnWrite (default false). Tanpa force, perubahan ada di
+ * page cache sistem operasi dan ditulis ke disk oleh OS atau saat ditutup; jika aplikasi
+ * crash data tetap aman, tetapi listrik padam bisa menghilangkan perubahan terakhir.
+ */
+public class MappedBookDAO implements BookDAO, AutoCloseable {
+    private final MappedBookStore store;
+    private final boolean forceOnWrite;
+    private volatile SortedIds sortedByKey; // Cache id terurut untuk getBooksAfter kunci selain ID
+
+    // base: awalan nama berkas; data ada di base + ".rec" dan base + ".str"
+    public MappedBookDAO(Path base) {
+        this(base, AppConfig.getBoolean("library.mapped.forceOnWrite", false));
+    }
+
+    public MappedBookDAO(Path base, boolean forceOnWrite) {
+        this.forceOnWrite = forceOnWrite;
+        long start = System.nanoTime();
+        try {
+            this.store = new MappedBookStore(base);
+        } catch (IOException e) {
+            throw new DataAccessException("Gagal membuka berkas data buku " + base + ": " + e.getMessage(), e);
+        }
+        System.out.printf("Berkas data buku dibuka: %s (%d ms)%n", store, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Akses langsung ke mesin penyimpanan, untuk pemindaian tanpa membuat objek Book
+    public MappedBookStore getStore() {
+        return store;
+    }
+
+    // ---------------------------------------------------------------- pembacaan
+
+    @Override
+    public Book getBookById(int id) {
+        return store.read(id);
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        List<Book> books = new ArrayList<>(store.size());
+        store.scan(c -> books.add(c.toBook()));
+        return books;
+    }
+
+    @Override
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        List<Book> page = new ArrayList<>(Math.min(limit, 1024));
+        if (limit <= 0) {
+            return page;
+        }
+        if (sortKey == BookSortKey.ID) {
+            // Record tersusun menurut id: cukup lanjut memindai dari id berikutnya
+            int fromId = after == null ? 1 : after.getId() + 1;
+            store.scan(fromId, c -> {
+                page.add(c.toBook());
+                return page.size() < limit;
+            });
+            return page;
+        }
+        // Kunci lain: id terurut menurut kunci tersebut, dibangun sekali per versi isi berkas.
+        // Halaman dicari dengan binary search (satu pembacaan record per langkah).
+        for (int attempt = 0; attempt < 3; attempt++) {
+            List<Book> found = pageOf(sortedBy(sortKey), after, limit);
+            if (found != null) {
+                return found;
+            }
+        }
+        // Isi terus berubah selama halaman dicari: satu pemindaian dengan heap berukuran limit
+        PriorityQueue<Book> heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, sortKey.comparator().reversed());
+        store.scan(c -> {
+            Book book = c.toBook();
+            if (after != null && sortKey.comparator().compare(book, after) <= 0) {
+                return true;
+            }
+            if (heap.size() < limit) {
+                heap.add(book);
+            } else if (sortKey.comparator().compare(book, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(book);
+            }
+            return true;
+        });
+        page.addAll(heap);
+        page.sort(sortKey.comparator());
+        return page;
+    }
+
+    // Id terurut menurut sortKey untuk isi berkas saat ini; dibangun ulang jika sudah basi
+    private SortedIds sortedBy(BookSortKey sortKey) {
+        SortedIds sorted = sortedByKey;
+        if (sorted != null && sorted.sortKey == sortKey && sorted.version == store.modifications()) {
+            return sorted;
+        }
+        long version = store.modifications(); // Dibaca sebelum pemindaian: paling buruk dibangun ulang
+        List<Book> books = getAllBooks();
+        books.sort(sortKey.comparator());
+        int[] ids = new int[books.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = books.get(i).getId();
+        }
+        sorted = new SortedIds(sortKey, version, ids);
+        sortedByKey = sorted;
+        return sorted;
+    }
+
+    // Halaman setelah 'after' menurut urutan sorted, atau null jika isi berkas berubah sejak
+    // urutan itu dibangun atau selama halaman dibaca
+    private List<Book> pageOf(SortedIds sorted, Book after, int limit) {
+        long version = store.modifications();
+        if (sorted.version != version) {
+            return null;
+        }
+        int[] ids = sorted.ids;
+        int low = 0;
+        int high = ids.length;
+        if (after != null) {
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Book probe = store.read(ids[mid]);
+                if (probe == null) {
+                    return null;
+                }
+                if (sorted.sortKey.comparator().compare(probe, after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+        }
+        List<Book> page = new ArrayList<>(Math.min(limit, ids.length - low));
+        for (int i = low; i < ids.length && page.size() < limit; i++) {
+            Book book = store.read(ids[i]);
+            if (book == null) {
+                return null;
+            }
+            page.add(book);
+        }
+        return store.modifications() == version ? page : null;
+    }
+
+    // Id semua buku terurut menurut satu kunci selain ID, untuk satu versi isi berkas
+    private static final class SortedIds {
+        private final BookSortKey sortKey;
+        private final long version;
+        private final int[] ids;
+
+        private SortedIds(BookSortKey sortKey, long version, int[] ids) {
+            this.sortKey = sortKey;
+            this.version = version;
+            this.ids = ids;
+        }
+    }
+
+    @Override
+    public int countBooks() {
+        return store.size();
+    }
+
+    // Rating dan tahun dibaca dari buffer; penulis hanya didekode jika filter memakainya,
+    // dan Book hanya dibuat untuk buku yang masuk heap n teratas
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        List<Book> top = new ArrayList<>(Math.max(0, Math.min(n, 1024)));
+        if (n <= 0) {
+            return top;
+        }
+        BookFilter f = filter == null ? BookFilter.all() : filter;
+        PriorityQueue<Book> heap = new PriorityQueue<>(Math.min(n, 1024) + 1, Leaderboard.RANKING.reversed());
+        store.scan(c -> {
+            int year = c.publicationYear();
+            if (year < f.getFromYear() || year > f.getToYear()) {
+                return true;
+            }
+            if (heap.size() == n) {
+                Book lowest = heap.peek();
+                double rating = c.rating();
+                if (rating < lowest.getRating() || (rating == lowest.getRating() && c.id() > lowest.getId())) {
+                    return true;
+                }
+            }
+            if (f.hasAuthor() && !f.getAuthor().equalsIgnoreCase(c.author())) {
+                return true;
+            }
+            heap.add(c.toBook());
+            if (heap.size() > n) {
+                heap.poll();
+            }
+            return true;
+        });
+        top.addAll(heap);
+        top.sort(Leaderboard.RANKING);
+        return top;
+    }
+
+    // ---------------------------------------------------------------- penulisan
+
+    @Override
+    public Book addBook(Book book) {
+        try {
+            store.insert(book);
+        } catch (IOException | IllegalStateException e) {
+            throw new DataAccessException("Error saat menambahkan buku: " + e.getMessage(), e);
+        }
+        forceIfNeeded();
+        System.out.println("Buku berhasil ditambahkan: " + book.getTitle());
+        return book;
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        boolean updated;
+        try {
+            updated = store.update(book);
+        } catch (IOException | IllegalStateException e) {
+            throw new DataAccessException("Error saat memperbarui buku: " + e.getMessage(), e);
+        }
+        if (!updated) {
+            return null;
+        }
+        forceIfNeeded();
+        System.out.println("Buku berhasil diperbarui: " + book.getTitle());
+        return book;
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        boolean deleted;
+        try {
+            deleted = store.delete(id);
+        } catch (IllegalStateException e) {
+            throw new DataAccessException("Error saat menghapus buku: " + e.getMessage(), e);
+        }
+        if (deleted) {
+            forceIfNeeded();
+            System.out.println("Buku dengan ID " + id + " berhasil dihapus.");
+        }
+        return deleted;
+    }
+
+    // Operasi massal: semua record ditulis di bawah satu lock, dengan satu force di akhir
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        try {
+            store.insertAll(books);
+        } catch (IOException | IllegalStateException e) {
+            throw new DataAccessException("Error saat menambahkan buku secara massal: " + e.getMessage(), e);
+        }
+        forceIfNeeded();
+        return new ArrayList<>(books);
+    }
+
+    private void forceIfNeeded() {
+        if (forceOnWrite) {
+            store.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.err.println("Gagal menutup berkas data buku: " + e.getMessage());
+        }
+        System.out.println("Berkas data buku ditutup: " + store);
+    }
+}
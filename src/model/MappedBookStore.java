@@ -0,0 +1,586 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.CRC32C;
+
+/**
+ * MappedBookStore menyimpan buku sebagai record berukuran tetap (64 byte) di berkas .rec
+ * yang dipetakan ke memori (MappedByteBuffer), dengan judul dan penulis di berkas heap
+ * string (.str) yang juga dipetakan.
+ *
+ * Record buku dengan id N berada di offset N * 64, sehingga akses acak per id tidak
+ * memerlukan indeks, dan pemindaian berjalan berurutan di memori. Lewat Cursor, kolom
+ * angka (tahun, skor, rating) dibaca langsung dari buffer tanpa membuat objek Book;
+ * string baru didekode jika diminta.
+ *
+ * Layout record: id (0 = kosong/terhapus), tahun, skor alur, skor gaya bahasa,
+ * skor orisinalitas, rating (double), offset + panjang judul, checksum, panjang + offset
+ * penulis. Id ditulis terakhir, sehingga record baru yang terpotong oleh crash terbaca sebagai
+ * kosong. Record yang ditimpa di tempat (update) dan terpotong dikenali dari checksum CRC32C
+ * seluruh field lain; saat dibuka, record seperti itu dilaporkan dan dianggap terhapus.
+ * Judul/penulis yang berubah ditambahkan di akhir heap; byte lama tidak dipakai ulang.
+ *
+ * Versi 1 menyimpan offset string sebagai long yang separuh atasnya selalu nol (heap di bawah
+ * 2 GB); versi 2 memakai separuh itu untuk checksum. Berkas versi 1 diberi checksum saat
+ * dibuka, lalu nomor versinya dinaikkan (aman diulang jika terhenti di tengah jalan).
+ *
+ * Pembacaan satu buku memakai optimistic read (StampedLock) tanpa lock; penulis dan
+ * pemetaan ulang saat berkas membesar memakai write lock. Setiap berkas dibatasi 2 GB
+ * (batas MappedByteBuffer), cukup untuk sekitar 33 juta buku.
+ */
+public class MappedBookStore implements AutoCloseable {
+    static final int RECORD_SIZE = 64;
+
+    private static final int MAGIC = 0x424B4D52;      // "BKMR"
+    private static final int HEAP_MAGIC = 0x424B4D53; // "BKMS"
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_CHECKSUM = 1;
+    private static final int HEAP_HEADER_SIZE = 16;
+    private static final int INITIAL_MAP_SIZE = 1 << 20;
+    private static final long MAX_MAP_SIZE = Integer.MAX_VALUE;
+
+    // Offset field di dalam record
+    private static final int ID = 0;
+    private static final int YEAR = 4;
+    private static final int STORYLINE = 8;
+    private static final int LANGUAGE = 16;
+    private static final int ORIGINALITY = 24;
+    private static final int RATING = 32;
+    private static final int TITLE_OFFSET = 44;
+    private static final int TITLE_LENGTH = 48;
+    private static final int AUTHOR_LENGTH = 52;
+    private static final int CHECKSUM = 56;
+    private static final int AUTHOR_OFFSET = 60;
+
+    // Offset field di header berkas .rec (record ke-0)
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_NEXT_ID = 8;
+    private static final int HEADER_HEAP_END = 16;
+
+    private final Path recordPath;
+    private final Path heapPath;
+    private final FileChannel recordChannel;
+    private final FileChannel heapChannel;
+    private final StampedLock lock = new StampedLock();
+
+    // Diganti (dipetakan ulang) dengan write lock; dibaca tanpa lock oleh optimistic read
+    private volatile MappedByteBuffer records;
+    private volatile MappedByteBuffer heap;
+
+    // Dijaga oleh write lock
+    private int nextId;
+    private int count;
+    private long heapEnd;
+    private boolean closed;
+    // Naik setiap kali isi berubah; dibaca tanpa lock untuk memeriksa cache urutan (MappedBookDAO)
+    private volatile long modifications;
+
+    /** Membuka (atau membuat) penyimpanan di base + ".rec" dan base + ".str". */
+    public MappedBookStore(Path base) throws IOException {
+        Path absolute = base.toAbsolutePath();
+        this.recordPath = absolute.resolveSibling(absolute.getFileName() + ".rec");
+        this.heapPath = absolute.resolveSibling(absolute.getFileName() + ".str");
+        Path parent = absolute.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        recordChannel = FileChannel.open(recordPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        heapChannel = FileChannel.open(heapPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = recordChannel.size() == 0;
+            records = map(recordChannel, Math.max(INITIAL_MAP_SIZE, recordChannel.size()));
+            heap = map(heapChannel, Math.max(INITIAL_MAP_SIZE, heapChannel.size()));
+            if (created) {
+                records.putInt(HEADER_MAGIC, MAGIC);
+                records.putInt(HEADER_VERSION, VERSION);
+                records.putInt(HEADER_NEXT_ID, 1);
+                records.putLong(HEADER_HEAP_END, HEAP_HEADER_SIZE);
+                heap.putInt(0, HEAP_MAGIC);
+                heap.putInt(4, VERSION);
+            } else if (records.getInt(HEADER_MAGIC) != MAGIC || heap.getInt(0) != HEAP_MAGIC
+                    || (records.getInt(HEADER_VERSION) != VERSION && records.getInt(HEADER_VERSION) != VERSION_WITHOUT_CHECKSUM)) {
+                throw new IOException("Bukan berkas penyimpanan buku yang dikenal: " + recordPath);
+            }
+            recover(records.getInt(HEADER_VERSION) == VERSION_WITHOUT_CHECKSUM);
+        } catch (IOException | RuntimeException e) {
+            recordChannel.close();
+            heapChannel.close();
+            throw e;
+        }
+    }
+
+    // Menghitung ulang jumlah buku dan memastikan nextId / akhir heap tidak tertinggal setelah crash.
+    // Record dengan checksum salah (update yang terpotong) dibuang; berkas versi 1 diberi checksum.
+    private void recover(boolean addChecksums) {
+        nextId = records.getInt(HEADER_NEXT_ID);
+        heapEnd = records.getLong(HEADER_HEAP_END);
+        int slots = records.capacity() / RECORD_SIZE;
+        int torn = 0;
+        for (int id = 1; id < slots; id++) {
+            int base = id * RECORD_SIZE;
+            if (records.getInt(base + ID) != id) {
+                continue;
+            }
+            if (addChecksums) {
+                records.putInt(base + CHECKSUM, checksum(records, base));
+            } else if (records.getInt(base + CHECKSUM) != checksum(records, base)) {
+                System.err.println("Record buku id " + id + " di " + recordPath.getFileName()
+                        + " rusak (penulisan terpotong) dan dianggap terhapus.");
+                records.putInt(base + ID, 0);
+                torn++;
+                continue;
+            }
+            count++;
+            nextId = Math.max(nextId, id + 1);
+            heapEnd = Math.max(heapEnd, stringEnd(base + TITLE_OFFSET, base + TITLE_LENGTH));
+            heapEnd = Math.max(heapEnd, stringEnd(base + AUTHOR_OFFSET, base + AUTHOR_LENGTH));
+        }
+        records.putInt(HEADER_NEXT_ID, nextId);
+        records.putLong(HEADER_HEAP_END, heapEnd);
+        if (addChecksums) {
+            records.force(); // Checksum sudah di disk sebelum versi dinaikkan
+            records.putInt(HEADER_VERSION, VERSION);
+        }
+        if (torn > 0) {
+            records.force();
+        }
+    }
+
+    private long stringEnd(int offsetField, int lengthField) {
+        int length = records.getInt(lengthField);
+        return length < 0 ? 0 : records.getInt(offsetField) + (long) length;
+    }
+
+    // CRC32C atas seluruh record kecuali field checksum (id ikut dihitung)
+    private static int checksum(ByteBuffer rec, int base) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer view = rec.duplicate();
+        view.limit(base + CHECKSUM).position(base);
+        crc.update(view);
+        view.limit(base + RECORD_SIZE).position(base + AUTHOR_OFFSET);
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        if (size > MAX_MAP_SIZE) {
+            throw new IOException("Berkas penyimpanan buku melebihi 2 GB");
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    // ---------------------------------------------------------------- pembacaan
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Id terbesar yang pernah dipakai (id berikutnya dikurangi satu)
+    public int maxId() {
+        long stamp = lock.readLock();
+        try {
+            return nextId - 1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Membaca satu buku tanpa lock; jika ada penulis di saat yang sama, dibaca ulang dengan read lock
+    public Book read(int id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Book book = readUnlocked(id);
+                if (lock.validate(stamp)) {
+                    return book;
+                }
+            } catch (RuntimeException e) {
+                // Record sedang ditulis; dibaca ulang di bawah read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return readUnlocked(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Book readUnlocked(int id) {
+        ByteBuffer rec = records;
+        if (id <= 0 || (long) id * RECORD_SIZE + RECORD_SIZE > rec.capacity()
+                || rec.getInt(id * RECORD_SIZE + ID) != id) {
+            return null;
+        }
+        return toBook(rec, heap, id * RECORD_SIZE);
+    }
+
+    private static Book toBook(ByteBuffer rec, ByteBuffer heap, int base) {
+        return new Book(rec.getInt(base + ID),
+                string(rec, heap, base + TITLE_OFFSET, base + TITLE_LENGTH),
+                string(rec, heap, base + AUTHOR_OFFSET, base + AUTHOR_LENGTH),
+                rec.getInt(base + YEAR),
+                rec.getDouble(base + STORYLINE),
+                rec.getDouble(base + LANGUAGE),
+                rec.getDouble(base + ORIGINALITY),
+                rec.getDouble(base + RATING));
+    }
+
+    private static String string(ByteBuffer rec, ByteBuffer heap, int offsetField, int lengthField) {
+        int length = rec.getInt(lengthField);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        heap.get(rec.getInt(offsetField), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cursor adalah flyweight di atas satu record: getter membaca langsung dari buffer yang
+     * dipetakan. Hanya valid di dalam visitor yang sedang berjalan; jangan disimpan.
+     */
+    public static final class Cursor {
+        private ByteBuffer rec;
+        private ByteBuffer heap;
+        private int base;
+
+        private Cursor() {
+        }
+
+        public int id() {
+            return rec.getInt(base + ID);
+        }
+
+        public int publicationYear() {
+            return rec.getInt(base + YEAR);
+        }
+
+        public double storylineScore() {
+            return rec.getDouble(base + STORYLINE);
+        }
+
+        public double languageStyleScore() {
+            return rec.getDouble(base + LANGUAGE);
+        }
+
+        public double originalityScore() {
+            return rec.getDouble(base + ORIGINALITY);
+        }
+
+        public double rating() {
+            return rec.getDouble(base + RATING);
+        }
+
+        public String title() {
+            return string(rec, heap, base + TITLE_OFFSET, base + TITLE_LENGTH);
+        }
+
+        public String author() {
+            return string(rec, heap, base + AUTHOR_OFFSET, base + AUTHOR_LENGTH);
+        }
+
+        public Book toBook() {
+            return MappedBookStore.toBook(rec, heap, base);
+        }
+    }
+
+    public interface RecordVisitor {
+        // Mengembalikan false untuk menghentikan pemindaian
+        boolean visit(Cursor cursor);
+    }
+
+    // Memindai buku dengan id >= fromId berurutan id, di bawah read lock (penulis menunggu)
+    public void scan(int fromId, RecordVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            Cursor cursor = new Cursor();
+            cursor.rec = records;
+            cursor.heap = heap;
+            for (int id = Math.max(1, fromId); id < nextId; id++) {
+                int base = id * RECORD_SIZE;
+                if (cursor.rec.getInt(base + ID) != id) {
+                    continue;
+                }
+                cursor.base = base;
+                if (!visitor.visit(cursor)) {
+                    return;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void scan(RecordVisitor visitor) {
+        scan(1, visitor);
+    }
+
+    // Jumlah perubahan sejak dibuka; nilai yang sama berarti isi belum berubah
+    public long modifications() {
+        return modifications;
+    }
+
+    // Id buku dengan rating dalam [min, max], tanpa membuat objek Book
+    public int[] idsWithRatingBetween(double min, double max) {
+        IdCollector ids = new IdCollector();
+        scan(c -> {
+            double rating = c.rating();
+            if (rating >= min && rating <= max) {
+                ids.add(c.id());
+            }
+            return true;
+        });
+        return ids.toArray();
+    }
+
+    // Id buku yang terbit dalam [fromYear, toYear], tanpa membuat objek Book
+    public int[] idsPublishedBetween(int fromYear, int toYear) {
+        IdCollector ids = new IdCollector();
+        scan(c -> {
+            int year = c.publicationYear();
+            if (year >= fromYear && year <= toYear) {
+                ids.add(c.id());
+            }
+            return true;
+        });
+        return ids.toArray();
+    }
+
+    private static final class IdCollector {
+        private int[] ids = new int[256];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    // ---------------------------------------------------------------- penulisan
+
+    // Menyimpan buku baru dengan id berikutnya; id diisi ke objek buku dan dikembalikan
+    public int insert(Book book) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            ensureOpen();
+            int id = nextId;
+            ensureRecordCapacity(id);
+            write(id, book, null);
+            nextId = id + 1;
+            records.putInt(HEADER_NEXT_ID, nextId);
+            count++;
+            modifications++;
+            book.setId(id);
+            return id;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void insertAll(Collection<Book> books) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            ensureOpen();
+            ensureRecordCapacity(nextId + books.size());
+            for (Book book : books) {
+                int id = nextId;
+                write(id, book, null);
+                nextId = id + 1;
+                count++;
+                book.setId(id);
+            }
+            records.putInt(HEADER_NEXT_ID, nextId);
+            modifications++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Menimpa record buku di tempat; false jika id tidak ada
+    public boolean update(Book book) throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            ensureOpen();
+            int id = book.getId();
+            if (!existsUnlocked(id)) {
+                return false;
+            }
+            write(id, book, id * RECORD_SIZE);
+            modifications++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean delete(int id) {
+        long stamp = lock.writeLock();
+        try {
+            ensureOpen();
+            if (!existsUnlocked(id)) {
+                return false;
+            }
+            records.putInt(id * RECORD_SIZE + ID, 0);
+            count--;
+            modifications++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean existsUnlocked(int id) {
+        return id > 0 && id < nextId && records.getInt(id * RECORD_SIZE + ID) == id;
+    }
+
+    // existing: offset record lama jika judul/penulis yang sama boleh dipakai ulang, atau null
+    private void write(int id, Book book, Integer existing) throws IOException {
+        book.calculateRating(); // Rating disimpan agar pemindaian rating tidak menghitung ulang
+        int base = id * RECORD_SIZE;
+        int titleOffset;
+        int titleLength;
+        int authorOffset;
+        int authorLength;
+        if (existing != null && sameString(existing + TITLE_OFFSET, existing + TITLE_LENGTH, book.getTitle())) {
+            titleOffset = records.getInt(existing + TITLE_OFFSET);
+            titleLength = records.getInt(existing + TITLE_LENGTH);
+        } else {
+            titleLength = lengthOf(book.getTitle());
+            titleOffset = appendString(book.getTitle());
+        }
+        if (existing != null && sameString(existing + AUTHOR_OFFSET, existing + AUTHOR_LENGTH, book.getAuthor())) {
+            authorOffset = records.getInt(existing + AUTHOR_OFFSET);
+            authorLength = records.getInt(existing + AUTHOR_LENGTH);
+        } else {
+            authorLength = lengthOf(book.getAuthor());
+            authorOffset = appendString(book.getAuthor());
+        }
+        // Record disusun lengkap dengan checksum lebih dulu, lalu disalin; id ditulis terakhir,
+        // sehingga record baru dianggap ada setelah id tertulis. Update di tempat yang terpotong
+        // dikenali dari checksum yang tidak cocok.
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putInt(ID, id);
+        record.putInt(YEAR, book.getPublicationYear());
+        record.putDouble(STORYLINE, book.getStorylineScore());
+        record.putDouble(LANGUAGE, book.getLanguageStyleScore());
+        record.putDouble(ORIGINALITY, book.getOriginalityScore());
+        record.putDouble(RATING, book.getRating());
+        record.putInt(TITLE_OFFSET, titleOffset);
+        record.putInt(TITLE_LENGTH, titleLength);
+        record.putInt(AUTHOR_LENGTH, authorLength);
+        record.putInt(AUTHOR_OFFSET, authorOffset);
+        record.putInt(CHECKSUM, checksum(record, 0));
+        MappedByteBuffer rec = records;
+        rec.put(base + YEAR, record, YEAR, RECORD_SIZE - YEAR);
+        rec.putInt(base + ID, id);
+    }
+
+    private boolean sameString(int offsetField, int lengthField, String value) {
+        String current = string(records, heap, offsetField, lengthField);
+        return current == null ? value == null : current.equals(value);
+    }
+
+    private static int lengthOf(String value) {
+        return value == null ? -1 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // Menambahkan string di akhir heap; mengembalikan offset-nya (0 untuk null)
+    private int appendString(String value) throws IOException {
+        if (value == null) {
+            return 0;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int offset = Math.toIntExact(heapEnd);
+        long end = offset + bytes.length;
+        if (end > heap.capacity()) {
+            heap = map(heapChannel, grow(heap.capacity(), end));
+        }
+        heap.put(offset, bytes, 0, bytes.length);
+        heapEnd = end;
+        records.putLong(HEADER_HEAP_END, heapEnd);
+        return offset;
+    }
+
+    private void ensureRecordCapacity(int id) throws IOException {
+        long needed = ((long) id + 1) * RECORD_SIZE;
+        if (needed > records.capacity()) {
+            records = map(recordChannel, grow(records.capacity(), needed));
+        }
+    }
+
+    private static long grow(long current, long needed) {
+        long size = current;
+        while (size < needed) {
+            size *= 2;
+        }
+        return Math.min(size, Math.max(needed, MAX_MAP_SIZE));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Penyimpanan buku sudah ditutup: " + recordPath);
+        }
+    }
+
+    // Memaksa isi kedua berkas ditulis ke disk
+    public void force() {
+        long stamp = lock.readLock();
+        try {
+            heap.force();
+            records.force();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            heap.force();
+            records.force();
+            recordChannel.close();
+            heapChannel.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        long stamp = lock.readLock();
+        try {
+            return String.format("MappedBookStore[%s, buku=%d, id berikutnya=%d, heap=%d byte]",
+                    recordPath.getFileName(), count, nextId, heapEnd);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Antarmuka JMX untuk statistik satu operasi BookDAO yang dicatat oleh InstrumentedBookDAO.
+ * Terdaftar sebagai model:type=BookDAO,name=...,operation=... dan dapat dibaca dengan
+ * JConsole atau VisualVM. Semua durasi dalam milidetik.
+ */
+public interface OperationStatsMXBean {
+    String getOperation();
+
+    long getCount();
+
+    long getErrorCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    // Mengosongkan jumlah dan histogram, misalnya sebelum mengukur ulang
+    void reset();
+}
@@ -0,0 +1,190 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RatingEngine menghitung rating buku dari ketiga skornya. Rumus dipilih lewat konfigurasi:
+ *
+ * - library.rating.formula=mean (default): rata-rata biasa ketiga skor, sama dengan Book.ratingOf
+ * - weighted: rata-rata berbobot, bobot dari library.rating.weights ("alur,bahasa,orisinalitas")
+ * - bayesian: rata-rata berbobot yang ditarik ke rata-rata katalog sesuai jumlah buku penulisnya,
+ *   (n * skor + m * rata-rata katalog) / (n + m) dengan m = library.rating.priorWeight; penulis
+ *   dengan sedikit buku mendekati rata-rata katalog, penulis produktif memakai skornya sendiri
+ *
+ * Rating disimpan di penyimpanan saat buku ditulis (Book.calculateRating memakai current()).
+ * current() adalah rumus yang tercatat di penyimpanan (ReRatingJob.appliedEngine), bukan
+ * konfigurasi lokal, agar semua klien penyimpanan yang sama menulis dengan rumus yang sama;
+ * konfigurasi hanya dipakai saat rumus diterapkan ulang (MainApp --rerate).
+ *
+ * Jumlah buku per penulis untuk rumus bayesian dihitung oleh ReRatingJob saat aplikasi dimulai
+ * atau saat --rerate; penulis baru dihitung sebagai satu-satunya buku penulisnya. Rating yang
+ * sudah tersimpan tidak dihitung ulang saat buku lain penulis yang sama (atau rata-rata
+ * katalog) berubah, sehingga dengan rumus bayesian rating tersimpan bergeser dari nilai
+ * tepatnya sampai --rerate berikutnya. Objek ini immutable.
+ */
+public final class RatingEngine {
+    // Sampai ReRatingJob.useApplied memasang rumus tercatat: rumus bawaan
+    private static volatile RatingEngine current = mean();
+
+    private final double storylineWeight;
+    private final double languageStyleWeight;
+    private final double originalityWeight;
+    private final double priorWeight; // 0 = tanpa smoothing per penulis
+    private final Map<String, Integer> booksPerAuthor; // null = belum dihitung
+    private final double catalogueMean;
+
+    private RatingEngine(double storylineWeight, double languageStyleWeight, double originalityWeight,
+                         double priorWeight, Map<String, Integer> booksPerAuthor, double catalogueMean) {
+        if (storylineWeight < 0 || languageStyleWeight < 0 || originalityWeight < 0
+                || storylineWeight + languageStyleWeight + originalityWeight <= 0) {
+            throw new IllegalArgumentException("Bobot rating tidak valid: " + storylineWeight + ", "
+                    + languageStyleWeight + ", " + originalityWeight);
+        }
+        if (priorWeight < 0) {
+            throw new IllegalArgumentException("Bobot prior rating tidak boleh negatif: " + priorWeight);
+        }
+        this.storylineWeight = storylineWeight;
+        this.languageStyleWeight = languageStyleWeight;
+        this.originalityWeight = originalityWeight;
+        this.priorWeight = priorWeight;
+        this.booksPerAuthor = booksPerAuthor;
+        this.catalogueMean = catalogueMean;
+    }
+
+    public static RatingEngine mean() {
+        return weighted(1, 1, 1);
+    }
+
+    public static RatingEngine weighted(double storylineWeight, double languageStyleWeight, double originalityWeight) {
+        return new RatingEngine(storylineWeight, languageStyleWeight, originalityWeight, 0, null, Double.NaN);
+    }
+
+    // Rumus yang sama dengan smoothing per penulis; jumlah buku per penulis diisi lewat withAuthorStats
+    public RatingEngine withAuthorSmoothing(double priorWeight) {
+        return new RatingEngine(storylineWeight, languageStyleWeight, originalityWeight, priorWeight, null, Double.NaN);
+    }
+
+    // Jumlah buku per penulis dan rata-rata skor dasar (baseRating) seluruh katalog
+    public RatingEngine withAuthorStats(Map<String, Integer> booksPerAuthor, double catalogueMean) {
+        return new RatingEngine(storylineWeight, languageStyleWeight, originalityWeight, priorWeight,
+                Collections.unmodifiableMap(new HashMap<>(booksPerAuthor)), catalogueMean);
+    }
+
+    // Rumus dari konfigurasi library.rating.*; konfigurasi yang tidak valid dilaporkan dan diganti mean
+    public static RatingEngine fromConfig() {
+        String formula = AppConfig.get("library.rating.formula", "mean").toLowerCase(Locale.ROOT);
+        String weights = AppConfig.get("library.rating.weights", "1,1,1");
+        try {
+            if ("mean".equals(formula)) {
+                return mean();
+            }
+            String[] parts = weights.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("library.rating.weights harus berisi tiga bobot: " + weights);
+            }
+            RatingEngine engine = weighted(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim()));
+            if ("weighted".equals(formula)) {
+                return engine;
+            }
+            if ("bayesian".equals(formula)) {
+                return engine.withAuthorSmoothing(AppConfig.getDouble("library.rating.priorWeight", 5));
+            }
+            throw new IllegalArgumentException("Nilai library.rating.formula tidak dikenal: " + formula
+                    + " (gunakan mean, weighted atau bayesian)");
+        } catch (IllegalArgumentException e) { // Termasuk NumberFormatException dari bobot
+            System.err.println("Konfigurasi rating tidak valid, memakai rata-rata biasa: " + e.getMessage());
+            return mean();
+        }
+    }
+
+    // Kebalikan describe(): "mean", "weighted(a,b,c)" atau "bayesian(a,b,c;m=x)"
+    public static RatingEngine parse(String description) {
+        String text = description.trim();
+        if ("mean".equals(text)) {
+            return mean();
+        }
+        int open = text.indexOf('(');
+        if (open < 0 || !text.endsWith(")")) {
+            throw new IllegalArgumentException("Rumus rating tidak dikenal: " + description);
+        }
+        String name = text.substring(0, open);
+        String[] parts = text.substring(open + 1, text.length() - 1).split(";");
+        String[] weights = parts[0].split(",");
+        try {
+            if (weights.length != 3) {
+                throw new IllegalArgumentException("Rumus rating harus berisi tiga bobot: " + description);
+            }
+            RatingEngine engine = weighted(Double.parseDouble(weights[0]), Double.parseDouble(weights[1]),
+                    Double.parseDouble(weights[2]));
+            if ("weighted".equals(name) && parts.length == 1) {
+                return engine;
+            }
+            if ("bayesian".equals(name) && parts.length == 2 && parts[1].startsWith("m=")) {
+                return engine.withAuthorSmoothing(Double.parseDouble(parts[1].substring(2)));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bobot rumus rating tidak valid: " + description, e);
+        }
+        throw new IllegalArgumentException("Rumus rating tidak dikenal: " + description);
+    }
+
+    // Rumus yang dipakai saat buku ditulis
+    public static RatingEngine current() {
+        return current;
+    }
+
+    public static void setCurrent(RatingEngine engine) {
+        current = engine;
+    }
+
+    public boolean isAuthorSmoothed() {
+        return priorWeight > 0;
+    }
+
+    // Apakah rumus ini memerlukan jumlah buku per penulis yang belum dihitung
+    public boolean needsAuthorStats() {
+        return isAuthorSmoothed() && booksPerAuthor == null;
+    }
+
+    // Rata-rata berbobot ketiga skor, sebelum smoothing per penulis
+    public double baseRating(double storylineScore, double languageStyleScore, double originalityScore) {
+        if (storylineWeight == languageStyleWeight && languageStyleWeight == originalityWeight) {
+            return Book.ratingOf(storylineScore, languageStyleScore, originalityScore); // Hasil persis sama dengan rumus lama
+        }
+        return (storylineWeight * storylineScore + languageStyleWeight * languageStyleScore
+                + originalityWeight * originalityScore) / (storylineWeight + languageStyleWeight + originalityWeight);
+    }
+
+    public double rate(String author, double storylineScore, double languageStyleScore, double originalityScore) {
+        double base = baseRating(storylineScore, languageStyleScore, originalityScore);
+        if (!isAuthorSmoothed() || booksPerAuthor == null) {
+            return base;
+        }
+        int books = Math.max(1, booksPerAuthor.getOrDefault(author, 0));
+        return (books * base + priorWeight * catalogueMean) / (books + priorWeight);
+    }
+
+    public double rate(Book book) {
+        return rate(book.getAuthor(), book.getStorylineScore(), book.getLanguageStyleScore(), book.getOriginalityScore());
+    }
+
+    // Identitas rumus tanpa statistik penulis; berubah hanya jika konfigurasi rumus berubah
+    public String describe() {
+        String weights = storylineWeight + "," + languageStyleWeight + "," + originalityWeight;
+        if (isAuthorSmoothed()) {
+            return "bayesian(" + weights + ";m=" + priorWeight + ")";
+        }
+        return storylineWeight == languageStyleWeight && languageStyleWeight == originalityWeight
+                ? "mean" : "weighted(" + weights + ")";
+    }
+
+    @Override
+    public String toString() {
+        return "RatingEngine[" + describe() + (booksPerAuthor != null ? ", penulis=" + booksPerAuthor.size()
+                + ", rata-rata katalog=" + String.format("%.3f", catalogueMean) : "") + "]";
+    }
+}
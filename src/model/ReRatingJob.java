@@ -0,0 +1,253 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * ReRatingJob menghitung ulang rating seluruh buku dengan rumus RatingEngine tertentu, misalnya
+ * setelah library.rating.* diubah. Pipeline streaming baca-hitung-tulis:
+ *
+ * - Untuk rumus bayesian, satu pembacaan forEachBook lebih dulu untuk menghitung jumlah buku
+ *   per penulis dan rata-rata katalog.
+ * - Rumus dipasang sebagai RatingEngine.current(), agar buku yang ditulis selama job berjalan
+ *   memakai rumus yang sama.
+ * - Pembacaan forEachBook kedua dipotong menjadi chunk berukuran chunkSize, yang dihitung dan
+ *   ditulis (BookDAO.updateRatings, hanya buku yang ratingnya berubah) oleh beberapa thread
+ *   sekaligus. Jumlah chunk yang menunggu dibatasi, sehingga memori tetap datar.
+ *
+ * Kemajuan dilaporkan lewat BookTransferListener; BookTransferResult berisi jumlah buku yang
+ * dibaca (pembacaan kedua) dan yang ratingnya diperbarui. Jalankan pada rantai DAO lengkap
+ * agar cache dan leaderboard ikut diperbarui.
+ *
+ * Job ini hanya dijalankan dari satu tempat, MainApp --rerate, yang lalu mencatat rumusnya di
+ * penyimpanan (recordApplied). Aplikasi dan server yang dimulai setelahnya memakai rumus
+ * tercatat itu (useApplied), apa pun konfigurasi lokalnya, sehingga klien dengan konfigurasi
+ * berbeda tidak saling menulis ulang rating. Proses yang sudah berjalan tetap memakai rumus
+ * lama sampai dimulai ulang.
+ */
+public class ReRatingJob {
+    private final BookDAO bookDAO;
+    private final RatingEngine engine;
+    private int chunkSize = AppConfig.getInt("library.rating.chunkSize", 1000);
+    private int threads = AppConfig.getInt("library.rating.threads",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    private BookTransferListener listener;
+
+    public ReRatingJob(BookDAO bookDAO, RatingEngine engine) {
+        this.bookDAO = bookDAO;
+        this.engine = engine;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Ukuran chunk harus lebih dari 0: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Jumlah thread harus lebih dari 0: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public void setListener(BookTransferListener listener) {
+        this.listener = listener;
+    }
+
+    // Menghitung statistik penulis jika rumus memerlukannya, lalu memasang rumus sebagai
+    // RatingEngine.current() tanpa menulis apa pun (misalnya saat aplikasi dimulai)
+    public RatingEngine prepare() {
+        RatingEngine prepared = engine.needsAuthorStats() ? withAuthorStats(engine) : engine;
+        RatingEngine.setCurrent(prepared);
+        return prepared;
+    }
+
+    public BookTransferResult run() {
+        BookTransferResult result = new BookTransferResult();
+        long start = System.nanoTime();
+        Pipeline pipeline = new Pipeline(prepare(), Math.max(1, bookDAO.countBooks()), start);
+        try {
+            bookDAO.forEachBook(pipeline, chunkSize);
+            pipeline.submitChunk();
+        } finally {
+            pipeline.finish();
+        }
+        if (pipeline.failure.get() != null) {
+            throw pipeline.failure.get();
+        }
+        result.addRead(pipeline.read);
+        result.addWritten(pipeline.written.get());
+        result.setElapsedNanos(System.nanoTime() - start);
+        report(pipeline.read, pipeline.read, start);
+        return result;
+    }
+
+    // Pembacaan kedua: buku dikumpulkan per chunk lalu dihitung dan ditulis oleh thread pekerja
+    private final class Pipeline implements Consumer<Book> {
+        private final RatingEngine prepared;
+        private final long total;
+        private final long start;
+        // Antrean pool seukuran batas semaphore: izin dilepas sedikit sebelum thread pekerja bebas
+        private final ExecutorService workers = DaoExecutors.newBoundedPool("book-rerate", threads, threads * 2);
+        private final Semaphore inFlight = new Semaphore(threads * 2); // Chunk yang berjalan atau menunggu
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private List<Book> chunk = new ArrayList<>(chunkSize);
+        private long read;
+
+        Pipeline(RatingEngine prepared, long total, long start) {
+            this.prepared = prepared;
+            this.total = total;
+            this.start = start;
+        }
+
+        @Override
+        public void accept(Book book) {
+            chunk.add(new Book(book)); // Objek dari forEachBook dipakai ulang
+            read++;
+            if (chunk.size() == chunkSize) {
+                submitChunk();
+                report(read, total, start);
+            }
+        }
+
+        // Menyerahkan chunk ke pekerja; menunggu jika terlalu banyak chunk sedang berjalan
+        void submitChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Book> books = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            inFlight.acquireUninterruptibly();
+            if (failure.get() != null) {
+                inFlight.release();
+                throw failure.get(); // Menghentikan pembacaan
+            }
+            Runnable task = () -> {
+                try {
+                    List<Book> changed = new ArrayList<>();
+                    for (Book book : books) {
+                        double rating = prepared.rate(book);
+                        if (rating != book.getRating()) {
+                            book.assign(book.getId(), book.getTitle(), book.getAuthor(), book.getPublicationYear(),
+                                    book.getStorylineScore(), book.getLanguageStyleScore(), book.getOriginalityScore(), rating);
+                            changed.add(book);
+                        }
+                    }
+                    if (!changed.isEmpty()) {
+                        written.addAndGet(bookDAO.updateRatings(changed));
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            };
+            try {
+                workers.execute(task);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        // Menunggu semua chunk selesai ditulis, juga saat pembacaan gagal
+        void finish() {
+            inFlight.acquireUninterruptibly(threads * 2);
+            workers.shutdown();
+        }
+    }
+
+    // Pembacaan pertama untuk rumus bayesian: jumlah buku per penulis dan rata-rata skor dasar katalog
+    private RatingEngine withAuthorStats(RatingEngine formula) {
+        Map<String, Integer> booksPerAuthor = new HashMap<>();
+        double[] sum = new double[1];
+        long count = bookDAO.forEachBook(book -> {
+            booksPerAuthor.merge(book.getAuthor(), 1, Integer::sum);
+            sum[0] += formula.baseRating(book.getStorylineScore(), book.getLanguageStyleScore(), book.getOriginalityScore());
+        }, chunkSize);
+        return formula.withAuthorStats(booksPerAuthor, count == 0 ? 0 : sum[0] / count);
+    }
+
+    private void report(long rows, long total, long start) {
+        BookTransferListener current = listener;
+        if (current != null) {
+            current.onProgress(rows, Math.min(1.0, (double) rows / total),
+                    BookTransferResult.rate(rows, System.nanoTime() - start));
+        }
+    }
+
+    // Saat aplikasi atau server dimulai: memasang rumus tercatat sebagai RatingEngine.current()
+    // (dengan statistik penulis untuk rumus bayesian) tanpa menulis apa pun. Rumus konfigurasi
+    // yang berbeda hanya dilaporkan; terapkan dengan MainApp --rerate.
+    public static RatingEngine useApplied(BookDAO bookDAO) {
+        RatingEngine applied = appliedEngine(bookDAO);
+        RatingEngine.setCurrent(applied); // Sebelum statistik penulis selesai dihitung
+        String configured = RatingEngine.fromConfig().describe();
+        if (!configured.equals(applied.describe())) {
+            System.out.println("Rumus rating di konfigurasi (" + configured + ") belum diterapkan; rating memakai rumus "
+                    + "tersimpan (" + applied.describe() + "). Jalankan MainApp --rerate untuk menerapkannya.");
+        }
+        return new ReRatingJob(bookDAO, applied).prepare();
+    }
+
+    // Rumus yang dipakai rating tersimpan: dicatat oleh penyimpanan (BookDAO.getRatingFormula),
+    // atau oleh berkas penanda lokal (library.rating.stampPath) untuk penyimpanan yang tidak
+    // mencatatnya. Belum tercatat berarti rumus bawaan, rata-rata biasa.
+    public static RatingEngine appliedEngine(BookDAO bookDAO) {
+        String formula = bookDAO.getRatingFormula();
+        if (formula == null) {
+            formula = readStamp(stampPath());
+        }
+        try {
+            return RatingEngine.parse(formula);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Rumus rating tersimpan tidak valid, memakai rata-rata biasa: " + e.getMessage());
+            return RatingEngine.mean();
+        }
+    }
+
+    // Mencatat rumus yang dipakai rating tersimpan, setelah run() selesai
+    public static void recordApplied(BookDAO bookDAO, RatingEngine engine) throws IOException {
+        if (bookDAO.setRatingFormula(engine.describe())) {
+            return;
+        }
+        Path stamp = stampPath();
+        Path parent = stamp.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(stamp, (engine.describe() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Berkas penanda rumus rating untuk penyimpanan berkas lokal (library.rating.stampPath)
+    private static Path stampPath() {
+        return Paths.get(AppConfig.get("library.rating.stampPath", "data/rating-formula.txt"));
+    }
+
+    private static String readStamp(Path stamp) {
+        try {
+            return new String(Files.readAllBytes(stamp), StandardCharsets.UTF_8).trim();
+        } catch (NoSuchFileException e) {
+            return RatingEngine.mean().describe();
+        } catch (IOException e) {
+            System.err.println("Gagal membaca penanda rumus rating " + stamp + ": " + e.getMessage());
+            return RatingEngine.mean().describe();
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * RemoteBookDAO adalah implementasi BookDAO yang memanggil server buku (MainApp --server,
+ * controller.BookHttpServer) lewat HTTP, sehingga LibraryController dapat bekerja dengan
+ * server tersebut sama seperti dengan database langsung.
+ *
+ * - Respons GET disimpan bersama ETag-nya di cache LRU kecil (library.remote.etagCacheEntries)
+ *   dan divalidasi ulang dengan If-None-Match; jawaban 304 memakai isi yang tersimpan.
+ * - forEachBook/streamBooks membaca katalog per baris dari aliran respons, tanpa menampungnya;
+ *   aliran tanpa baris penutup dari server (terputus, atau penyimpanan server gagal) melempar
+ *   DataAccessException, bukan katalog yang terpotong.
+ * - Penulisan mengirim library.remote.token sebagai "Authorization: Bearer", sesuai
+ *   library.server.writeToken di server.
+ * - Seperti BookDAOImpl: kegagalan baca dicatat lalu mengembalikan null/daftar kosong,
+ *   kegagalan tulis melempar DataAccessException.
+ */
+public class RemoteBookDAO implements BookDAO {
+    // Respons yang lebih besar dari ini (misalnya seluruh katalog) tidak disimpan di cache ETag
+    private static final int MAX_CACHED_CHARS = 1 << 20;
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Duration timeout;
+    private final Map<String, Cached> etagCache;
+    private final String token = AppConfig.get("library.remote.token", "");
+
+    public RemoteBookDAO(String baseUrl) {
+        this(baseUrl, AppConfig.getInt("library.remote.etagCacheEntries", 256),
+                Duration.ofMillis(AppConfig.getLong("library.remote.timeoutMs", 10_000L)));
+    }
+
+    public RemoteBookDAO(String baseUrl, int cacheEntries, Duration timeout) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.etagCache = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > cacheEntries;
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- baca
+
+    @Override
+    public Book getBookById(int id) {
+        try {
+            Response response = get("books/" + id);
+            return response.status == 404 ? null : BookJson.fromJson(response.expect(200).body);
+        } catch (RuntimeException e) {
+            System.err.println("Error saat mengambil buku berdasarkan ID: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        try {
+            return parseCatalogue(get("books/all").expect(200).body);
+        } catch (RuntimeException e) {
+            forget("books/all"); // Isi yang terpotong tidak boleh divalidasi ulang dengan ETag-nya
+            System.err.println("Error saat mengambil semua buku: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        StringBuilder path = new StringBuilder("books?sort=").append(sortKey.name()).append("&limit=").append(limit);
+        if (after != null) {
+            path.append("&after_id=").append(after.getId());
+            String key = BookHttpProtocol.keyOf(sortKey, after);
+            if (key != null) {
+                path.append("&after_key=").append(encode(key));
+            }
+        }
+        try {
+            return parseBooks(get(path.toString()).expect(200).body);
+        } catch (RuntimeException e) {
+            System.err.println("Error saat mengambil halaman buku: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public int countBooks() {
+        try {
+            Object count = BookJson.parseObject(get("books/count").expect(200).body).get("count");
+            return ((Number) count).intValue();
+        } catch (RuntimeException e) {
+            System.err.println("Error saat menghitung jumlah buku: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public List<Book> getBooksByIds(int... ids) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        try {
+            return parseBooks(get("books/ids?ids=" + BookHttpProtocol.joinIds(ids)).expect(200).body);
+        } catch (RuntimeException e) {
+            System.err.println("Error saat mengambil buku berdasarkan daftar ID: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        if (query.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return parseBooks(get("books/search?q=" + encode(query) + "&limit=" + limit).expect(200).body);
+        } catch (RuntimeException e) {
+            System.err.println("Error saat mencari buku: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        StringBuilder path = new StringBuilder("books/top?n=").append(n);
+        if (filter != null && filter.hasAuthor()) {
+            path.append("&author=").append(encode(filter.getAuthor()));
+        }
+        if (filter != null && filter.hasYearRange()) {
+            path.append("&from=").append(filter.getFromYear()).append("&to=").append(filter.getToYear());
+        }
+        try {
+            return parseBooks(get(path.toString()).expect(200).body);
+        } catch (RuntimeException e) {
+            System.err.println("Error saat mengambil buku dengan rating tertinggi: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Katalog dibaca per baris langsung dari aliran respons; fetchSize tidak dipakai
+    // (server mengalirkan hasil cursor-nya sendiri). Objek Book tidak dipakai ulang.
+    @Override
+    public long forEachBook(Consumer<? super Book> action, int fetchSize) {
+        try (Stream<Book> books = streamBooks(fetchSize)) {
+            long[] count = new long[1];
+            books.forEach(book -> {
+                action.accept(book);
+                count[0]++;
+            });
+            return count[0];
+        }
+    }
+
+    @Override
+    public Stream<Book> streamBooks(int fetchSize) {
+        HttpResponse<Stream<String>> response = send(request("books/all").GET().build(), HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new DataAccessException("Error saat membuka aliran buku: HTTP " + response.statusCode());
+        }
+        Iterator<String> lines = response.body().iterator();
+        Spliterator<Book> books = new Spliterators.AbstractSpliterator<Book>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long read;
+            private boolean ended;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Book> action) {
+                try {
+                    while (!ended) {
+                        if (!lines.hasNext()) {
+                            throw new DataAccessException("Aliran buku dari " + baseUri + " terputus setelah " + read + " buku");
+                        }
+                        String line = lines.next();
+                        if (line.isEmpty()) {
+                            continue;
+                        }
+                        if (BookHttpProtocol.readStreamEnd(line, read) >= 0) {
+                            ended = true;
+                            return false;
+                        }
+                        read++;
+                        action.accept(BookJson.fromJson(line));
+                        return true;
+                    }
+                    return false;
+                } catch (UncheckedIOException | IllegalArgumentException e) {
+                    throw new DataAccessException("Error saat membaca aliran buku: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(books, false).onClose(response.body()::close);
+    }
+
+    @Override
+    public BookChanges changesSince(long token) {
+        Response response = fetch(request("books/changes?since=" + token).GET().build());
+        if (response.status == 501) {
+            return null;
+        }
+        try {
+            return BookHttpProtocol.readChanges(lines(response.expect(200).body));
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("Error saat membaca perubahan buku: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<BookGroupStats> groupStats(BookGrouping grouping) {
+        try {
+            Response response = get("books/stats?group=" + grouping.name());
+            if (response.status == 501) {
+                return null;
+            }
+            List<BookGroupStats> stats = new ArrayList<>();
+            for (String line : lines(response.expect(200).body)) {
+                stats.add(BookHttpProtocol.parseGroupStats(grouping, line));
+            }
+            return stats;
+        } catch (RuntimeException e) {
+            System.err.println("Error saat menghitung statistik buku: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- tulis
+
+    @Override
+    public Book addBook(Book book) {
+        Response response = write(writeRequest("books").POST(jsonBody(book)).build(), "menambahkan buku");
+        return BookJson.fromJson(response.expect(201).body);
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        Response response = write(writeRequest("books/" + book.getId()).PUT(jsonBody(book)).build(), "memperbarui buku");
+        return response.status == 404 ? null : BookJson.fromJson(response.expect(200).body);
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        Response response = write(writeRequest("books/" + id).DELETE().build(), "menghapus buku");
+        if (response.status == 404) {
+            return false;
+        }
+        response.expect(204);
+        return true;
+    }
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Response response = write(writeRequest("books/batch").POST(linesBody(books)).build(), "menambahkan buku secara massal");
+        return parseBooks(response.expect(200).body);
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return 0;
+        }
+        Response response = write(writeRequest("books/batch").PUT(linesBody(books)).build(), "memperbarui buku secara massal");
+        return ((Number) BookJson.parseObject(response.expect(200).body).get("updated")).intValue();
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        if (ids.length == 0) {
+            return 0;
+        }
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.ofString(BookHttpProtocol.joinIds(ids));
+        Response response = write(writeRequest("books/delete").POST(body).build(), "menghapus buku secara massal");
+        return ((Number) BookJson.parseObject(response.expect(200).body).get("deleted")).intValue();
+    }
+
+    // ---------------------------------------------------------------- HTTP
+
+    // GET bersyarat: ETag yang tersimpan dikirim lewat If-None-Match; 304 memakai isi tersimpan
+    private Response get(String path) {
+        Cached cached;
+        synchronized (etagCache) {
+            cached = etagCache.get(path);
+        }
+        HttpRequest.Builder builder = request(path).GET();
+        if (cached != null) {
+            builder.header("If-None-Match", cached.etag);
+        }
+        Response response = fetch(builder.build());
+        if (response.status == 304 && cached != null) {
+            return new Response(200, cached.body);
+        }
+        String etag = response.etag;
+        synchronized (etagCache) {
+            if (response.status == 200 && etag != null && response.body.length() <= MAX_CACHED_CHARS) {
+                etagCache.put(path, new Cached(etag, response.body));
+            } else {
+                etagCache.remove(path);
+            }
+        }
+        return response;
+    }
+
+    private void forget(String path) {
+        synchronized (etagCache) {
+            etagCache.remove(path);
+        }
+    }
+
+    // Kesalahan jaringan, isi atau token yang ditolak server (400/401/403/413) atau status 5xx menjadi DataAccessException
+    private Response write(HttpRequest request, String operation) {
+        Response response;
+        try {
+            response = fetch(request);
+        } catch (DataAccessException e) {
+            throw new DataAccessException("Error saat " + operation + ": " + e.getMessage(), e);
+        }
+        if (response.status == 400 || response.status == 401 || response.status == 403 || response.status == 413) {
+            throw new DataAccessException("Error saat " + operation + ": " + response.errorMessage());
+        }
+        return response;
+    }
+
+    private Response fetch(HttpRequest request) {
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        Response result = new Response(response.statusCode(), response.body());
+        result.etag = response.headers().firstValue("ETag").orElse(null);
+        if (result.status >= 500 && result.status != 501) {
+            throw new DataAccessException("Server " + baseUri + " menjawab HTTP " + result.status + ": " + result.errorMessage());
+        }
+        return result;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        try {
+            return client.send(request, handler);
+        } catch (IOException e) {
+            throw new DataAccessException("Server " + baseUri + " tidak dapat dihubungi: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Permintaan ke " + baseUri + " dibatalkan", e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout);
+    }
+
+    // Permintaan tulis, dengan token penulisan jika dikonfigurasi
+    private HttpRequest.Builder writeRequest(String path) {
+        HttpRequest.Builder builder = request(path);
+        if (!token.isEmpty()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher jsonBody(Book book) {
+        return HttpRequest.BodyPublishers.ofString(BookJson.toJson(book), StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest.BodyPublisher linesBody(Collection<Book> books) {
+        StringBuilder body = new StringBuilder(books.size() * 192);
+        for (Book book : books) {
+            BookJson.appendJson(body, book);
+            body.append('\n');
+        }
+        return HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8);
+    }
+
+    // Isi /books/all yang sudah ditampung: buku-buku lalu baris penutup yang wajib ada
+    private static List<Book> parseCatalogue(String body) {
+        List<String> lines = lines(body);
+        List<Book> books = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (BookHttpProtocol.readStreamEnd(line, books.size()) >= 0) {
+                return books;
+            }
+            books.add(BookJson.fromJson(line));
+        }
+        throw new DataAccessException("Aliran buku dari server terputus setelah " + books.size() + " buku");
+    }
+
+    private static List<Book> parseBooks(String body) {
+        List<String> lines = lines(body);
+        List<Book> books = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            books.add(BookJson.fromJson(line));
+        }
+        return books;
+    }
+
+    private static List<String> lines(String body) {
+        if (body.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start < body.length()) {
+            int end = body.indexOf('\n', start);
+            if (end < 0) {
+                end = body.length();
+            }
+            if (end > start) {
+                lines.add(body.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteBookDAO[" + baseUri + "]";
+    }
+
+    // Isi respons GET beserta ETag-nya
+    private static final class Cached {
+        private final String etag;
+        private final String body;
+
+        private Cached(String etag, String body) {
+            this.etag = etag;
+            this.body = body;
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+        private String etag;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        private Response expect(int expected) {
+            if (status != expected) {
+                throw new DataAccessException("HTTP " + status + ": " + errorMessage());
+            }
+            return this;
+        }
+
+        private String errorMessage() {
+            try {
+                Object error = BookJson.parseObject(body).get("error");
+                return error == null ? body : error.toString();
+            } catch (IllegalArgumentException e) {
+                return body;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ReplicaRouter membagi pembacaan ke beberapa replika database; penulisan selalu ke primary.
+ *
+ * - Health check: setiap checkIntervalMs, posisi replikasi setiap replika (book_change_seq.seq)
+ *   dibaca dan dibandingkan dengan primary. Replika yang gagal dijawab, atau tertinggal lebih
+ *   dari maxLag versi, tidak dipakai sampai pemeriksaan berikutnya berhasil.
+ * - Versi minimum: versi setiap transaksi tulis proses ini, dan setiap token change feed yang
+ *   dibaca dari primary, dicatat lewat requireVersion(); replika baru dipakai lagi setelah
+ *   posisinya mencapai versi tersebut. Pembacaan setelah penulisan sendiri tidak melihat data
+ *   lama, dan snapshot yang dimuat dari replika tidak pernah lebih tua dari token yang
+ *   dipakai untuk memperbaruinya (perubahan di antaranya tidak akan terlewat).
+ * - Load balancing: replika yang memenuhi syarat dengan koneksi aktif paling sedikit,
+ *   bergiliran (round robin) jika sama. Jika tidak ada, pembacaan jatuh ke primary.
+ *
+ * Setiap replika memakai ConnectionPool sendiri dengan pengaturan yang sama dengan primary.
+ */
+public class ReplicaRouter implements AutoCloseable {
+    private static final String POSITION_SQL = "SELECT seq FROM book_change_seq WHERE id = 1";
+
+    private final ConnectionPool primary;
+    private final List<Replica> replicas;
+    private final long maxLag;
+    private final AtomicLong requiredVersion = new AtomicLong();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder primaryReads = new LongAdder();
+    private final ScheduledExecutorService healthCheck;
+    private volatile long primaryPosition = -1;
+
+    public ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicaPools, long maxLag, long checkIntervalMillis) {
+        if (replicaPools.isEmpty()) {
+            throw new IllegalArgumentException("Minimal satu replika diperlukan");
+        }
+        this.primary = primary;
+        List<Replica> list = new ArrayList<>(replicaPools.size());
+        for (ConnectionPool pool : replicaPools) {
+            list.add(new Replica(pool));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.maxLag = maxLag;
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkHealth, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Koneksi untuk pembacaan: replika yang sehat dan sudah memuat penulisan proses ini, atau primary
+    public Connection getReadConnection() throws SQLException {
+        long required = requiredVersion.get();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        Replica best = null;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isEligible(required) && (best == null
+                    || replica.pool.getActiveCount() < best.pool.getActiveCount())) {
+                best = replica;
+            }
+        }
+        if (best != null) {
+            try {
+                Connection connection = best.pool.getConnection();
+                best.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                best.markDown(e); // Dicoba lagi oleh health check berikutnya
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    // Versi yang harus sudah dimuat replika sebelum melayani pembacaan (BookDAOImpl.nextVersion
+    // dan changesSince); posisi replika hanya naik, jadi posisi dari health check terakhir aman
+    public void requireVersion(long version) {
+        requiredVersion.accumulateAndGet(version, Math::max);
+    }
+
+    private void checkHealth() {
+        try (Connection conn = primary.getConnection()) {
+            primaryPosition = position(conn);
+        } catch (SQLException | RuntimeException e) {
+            primaryPosition = -1; // Lag tidak dapat dihitung; replika dinilai dari posisinya saja
+        }
+        for (Replica replica : replicas) {
+            try (Connection conn = replica.pool.getConnection()) {
+                replica.markUp(position(conn));
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    private static long position(Connection conn) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement(POSITION_SQL)) {
+            select.setQueryTimeout(5);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Baris book_change_seq tidak ditemukan");
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    public long getPrimaryReadCount() {
+        return primaryReads.sum();
+    }
+
+    // Jumlah pembacaan yang dilayani setiap replika, urut sesuai konfigurasi
+    public long[] getReplicaReadCounts() {
+        long[] counts = new long[replicas.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = replicas.get(i).reads.sum();
+        }
+        return counts;
+    }
+
+    public int getHealthyReplicaCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("ReplicaRouter{primaryReads=").append(getPrimaryReadCount());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            text.append(", replika").append(i + 1).append('=').append(replica.healthy ? "sehat" : "tidak sehat")
+                    .append("/posisi ").append(replica.position).append("/baca ").append(replica.reads.sum());
+        }
+        return text.append('}').toString();
+    }
+
+    private final class Replica {
+        private final ConnectionPool pool;
+        private final LongAdder reads = new LongAdder();
+        private volatile boolean healthy;
+        private volatile long position = -1;
+
+        private Replica(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        private boolean isEligible(long requiredVersion) {
+            long current = position;
+            long primaryCurrent = primaryPosition;
+            return healthy && current >= requiredVersion && (primaryCurrent < 0 || primaryCurrent - current <= maxLag);
+        }
+
+        private void markUp(long newPosition) {
+            position = newPosition;
+            if (!healthy) {
+                healthy = true;
+                System.out.println("Replika database " + pool.getJdbcUrl() + " dipakai untuk pembacaan (posisi " + newPosition + ").");
+            }
+        }
+
+        private void markDown(Exception error) {
+            if (healthy) {
+                healthy = false;
+                System.err.println("Replika database " + pool.getJdbcUrl() + " tidak dipakai: " + error.getMessage());
+            }
+        }
+    }
+}
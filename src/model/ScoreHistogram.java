@@ -0,0 +1,197 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * ScoreHistogram adalah sketsa distribusi nilai skor (0 sampai 5) yang dapat digabung
+ * (merge) dan dikurangi (remove), sehingga statistik per kelompok dapat dihitung paralel
+ * lalu digabung, dan diperbarui saat satu buku berubah tanpa membaca ulang katalog.
+ *
+ * Nilai dibulatkan ke kelipatan 1/30. Skor diisi dengan satu desimal, dan rating adalah
+ * rata-rata tiga skor tersebut, jadi semua nilai di katalog jatuh tepat di grid ini: median,
+ * kuantil, minimum, dan maksimum yang dilaporkan tepat. Nilai lain bergeser paling banyak 1/60.
+ * Rata-rata dihitung dari jumlah nilai asli.
+ *
+ * Kelompok kecil (paling banyak SPARSE_LIMIT nilai) menyimpan nomor bin tiap nilai saja;
+ * array 151 counter baru dibuat saat kelompok bertambah besar.
+ * Kelas ini tidak thread-safe.
+ */
+public final class ScoreHistogram {
+    public static final double MAX_SCORE = 5.0;
+    private static final int STEPS_PER_POINT = 30;
+    private static final int BINS = (int) (MAX_SCORE * STEPS_PER_POINT) + 1;
+    private static final int SPARSE_LIMIT = 16;
+
+    private short[] sparse = new short[4]; // Nomor bin setiap nilai, selama counts masih null
+    private int[] counts;
+    private long count;
+    private double sum;
+
+    public void add(double value) {
+        int bin = binOf(value);
+        if (counts == null) {
+            if (count < SPARSE_LIMIT) {
+                if (count == sparse.length) {
+                    sparse = Arrays.copyOf(sparse, sparse.length * 2);
+                }
+                sparse[(int) count] = (short) bin;
+                count++;
+                sum += value;
+                return;
+            }
+            densify();
+        }
+        counts[bin]++;
+        count++;
+        sum += value;
+    }
+
+    // Mengurangi satu nilai yang sebelumnya ditambahkan; false jika nilai tersebut tidak ada
+    public boolean remove(double value) {
+        int bin = binOf(value);
+        if (counts == null) {
+            for (int i = 0; i < count; i++) {
+                if (sparse[i] == bin) {
+                    sparse[i] = sparse[(int) count - 1];
+                    count--;
+                    sum = count == 0 ? 0 : sum - value;
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (counts[bin] == 0) {
+            return false;
+        }
+        counts[bin]--;
+        count--;
+        sum = count == 0 ? 0 : sum - value;
+        return true;
+    }
+
+    // Menambahkan seluruh isi sketsa lain (misalnya hasil thread lain) ke sketsa ini
+    public void merge(ScoreHistogram other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (counts == null && count + other.count <= SPARSE_LIMIT && other.counts == null) {
+            if (count + other.count > sparse.length) {
+                sparse = Arrays.copyOf(sparse, SPARSE_LIMIT);
+            }
+            System.arraycopy(other.sparse, 0, sparse, (int) count, (int) other.count);
+        } else {
+            if (counts == null) {
+                densify();
+            }
+            if (other.counts == null) {
+                for (int i = 0; i < other.count; i++) {
+                    counts[other.sparse[i]]++;
+                }
+            } else {
+                for (int bin = 0; bin < BINS; bin++) {
+                    counts[bin] += other.counts[bin];
+                }
+            }
+        }
+        count += other.count;
+        sum += other.sum;
+    }
+
+    public ScoreHistogram copy() {
+        ScoreHistogram copy = new ScoreHistogram();
+        copy.sparse = sparse.clone();
+        copy.counts = counts == null ? null : counts.clone();
+        copy.count = count;
+        copy.sum = sum;
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public double getMin() {
+        return quantile(0);
+    }
+
+    public double getMax() {
+        return quantile(1);
+    }
+
+    public double getMedian() {
+        return quantile(0.5);
+    }
+
+    // Kuantil ke-q (0 sampai 1) dengan metode nearest-rank; NaN jika kosong
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        if (counts == null) {
+            short[] sorted = Arrays.copyOf(sparse, (int) count);
+            Arrays.sort(sorted);
+            return valueOf(sorted[(int) rank - 1]);
+        }
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += counts[bin];
+            if (seen >= rank) {
+                return valueOf(bin);
+            }
+        }
+        return valueOf(BINS - 1);
+    }
+
+    // Jumlah nilai di setiap rentang selebar MAX_SCORE / buckets (nilai 5 masuk rentang terakhir)
+    public long[] distribution(int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Jumlah rentang harus lebih dari 0: " + buckets);
+        }
+        long[] result = new long[buckets];
+        if (counts == null) {
+            for (int i = 0; i < count; i++) {
+                result[bucketOf(sparse[i], buckets)]++;
+            }
+        } else {
+            for (int bin = 0; bin < BINS; bin++) {
+                result[bucketOf(bin, buckets)] += counts[bin];
+            }
+        }
+        return result;
+    }
+
+    private void densify() {
+        counts = new int[BINS];
+        for (int i = 0; i < count; i++) {
+            counts[sparse[i]]++;
+        }
+        sparse = new short[0];
+    }
+
+    private static int binOf(double value) {
+        long bin = Math.round(value * STEPS_PER_POINT);
+        return (int) Math.max(0, Math.min(BINS - 1, bin)); // NaN dibulatkan ke 0
+    }
+
+    private static double valueOf(int bin) {
+        return (double) bin / STEPS_PER_POINT;
+    }
+
+    private static int bucketOf(int bin, int buckets) {
+        return Math.min(buckets - 1, bin * buckets / (BINS - 1));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScoreHistogram[n=%d, rata-rata=%.2f, median=%.2f]", count, getMean(), getMedian());
+    }
+}
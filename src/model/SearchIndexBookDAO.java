@@ -0,0 +1,197 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SearchIndexBookDAO adalah decorator BookDAO yang menjawab searchBooks dari
+ * BookSearchIndex (indeks trigram di memori) alih-alih LIKE '%...%' di database.
+ *
+ * Indeks dibangun sekali saat pencarian pertama (atau lewat buildIndex()), dengan membaca
+ * tabel per halaman, lalu diperbarui secara bertahap setiap kali buku ditambah, diubah,
+ * atau dihapus lewat DAO ini, termasuk perubahan klien lain yang dibaca lewat changesSince. Hasil pencarian berupa id diambil dari database dengan satu
+ * query getBooksByIds, sehingga indeks tidak perlu menyimpan objek Book.
+ */
+public class SearchIndexBookDAO extends ForwardingBookDAO {
+    private static final int BUILD_PAGE_SIZE = 5_000;
+
+    private final BookSearchIndex index = new BookSearchIndex();
+    private final Object buildLock = new Object();
+    private volatile boolean built;
+    private volatile boolean building;
+
+    // Id yang ditulis selama indeks dibangun; halaman lama untuk id ini tidak dipasang. Hanya
+    // dicatat selama pembangunan berjalan, agar tidak tumbuh tanpa batas sebelum pencarian pertama.
+    private final Set<Integer> writtenDuringBuild = ConcurrentHashMap.newKeySet();
+
+    public SearchIndexBookDAO(BookDAO delegate) {
+        super(delegate);
+    }
+
+    public BookSearchIndex getIndex() {
+        return index;
+    }
+
+    public boolean isIndexBuilt() {
+        return built;
+    }
+
+    // Membangun indeks dari seluruh tabel; aman dipanggil berkali-kali (hanya dibangun sekali)
+    public void buildIndex() {
+        if (built) {
+            return;
+        }
+        synchronized (buildLock) {
+            if (built) {
+                return;
+            }
+            long start = System.nanoTime();
+            building = true;
+            try {
+                Book last = null;
+                while (true) {
+                    List<Book> page = delegate.getBooksAfter(BookSortKey.ID, last, BUILD_PAGE_SIZE);
+                    // Buku yang ditulis setelah halaman ini dibaca sudah diperbarui langsung di indeks
+                    index.upsertAll(page, writtenDuringBuild::contains);
+                    if (page.size() < BUILD_PAGE_SIZE) {
+                        break;
+                    }
+                    last = page.get(page.size() - 1);
+                }
+                built = true;
+            } finally {
+                building = false;
+                writtenDuringBuild.clear();
+            }
+            System.out.printf("Indeks pencarian dibangun: %d buku dalam %d ms%n",
+                    index.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Membuang indeks dan membangunnya ulang pada pencarian berikutnya (misalnya setelah perubahan dari luar)
+    public void invalidateIndex() {
+        synchronized (buildLock) {
+            built = false;
+            index.clear();
+            writtenDuringBuild.clear();
+        }
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        buildIndex();
+        int[] ids = index.search(query, limit);
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        // Kembalikan sesuai peringkat indeks; id yang sudah tidak ada di database dilewati
+        Map<Integer, Book> byId = new HashMap<>();
+        for (Book book : delegate.getBooksByIds(ids)) {
+            byId.put(book.getId(), book);
+        }
+        List<Book> ranked = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Book book = byId.get(id);
+            if (book != null) {
+                ranked.add(book);
+            }
+        }
+        return ranked;
+    }
+
+    // Dipanggil setelah penulisan ke delegate dan sebelum indeks diperbarui. Penulisan yang
+    // selesai sebelum pembangunan dimulai tidak perlu dicatat: halamannya dibaca sesudahnya.
+    private void markWritten(int id) {
+        if (building) {
+            writtenDuringBuild.add(id);
+        }
+    }
+
+    @Override
+    public Book addBook(Book book) {
+        Book saved = delegate.addBook(book);
+        markWritten(saved.getId());
+        index.upsert(saved);
+        return saved;
+    }
+
+    @Override
+    public Book updateBook(Book book) {
+        Book saved = delegate.updateBook(book);
+        markWritten(book.getId());
+        if (saved == null) {
+            index.remove(book.getId());
+        } else {
+            index.upsert(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        boolean deleted = delegate.deleteBook(id);
+        markWritten(id);
+        index.remove(id);
+        return deleted;
+    }
+
+    @Override
+    public BookChanges changesSince(long token) {
+        BookChanges changes = delegate.changesSince(token);
+        if (changes == null || changes.isEmpty()) {
+            return changes;
+        }
+        if (changes.isReloadRequired()) {
+            invalidateIndex();
+            return changes;
+        }
+        List<Book> changed = new ArrayList<>(changes.getInserted());
+        changed.addAll(changes.getUpdated());
+        for (Book book : changed) {
+            markWritten(book.getId());
+        }
+        index.upsertAll(changed);
+        for (int id : changes.getDeletedIds()) {
+            markWritten(id);
+            index.remove(id);
+        }
+        return changes;
+    }
+
+    @Override
+    public List<Book> addBooks(Collection<Book> books) {
+        List<Book> saved = delegate.addBooks(books);
+        for (Book book : saved) {
+            markWritten(book.getId());
+        }
+        index.upsertAll(saved);
+        return saved;
+    }
+
+    // updateBooks tidak memberi tahu buku mana yang berhasil; buku yang sudah tidak ada
+    // akan tetap di indeks tetapi terlewati saat hasil pencarian diambil dari database
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        int updated = delegate.updateBooks(books);
+        for (Book book : books) {
+            markWritten(book.getId());
+        }
+        index.upsertAll(books);
+        return updated;
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        int deleted = delegate.deleteBooks(ids);
+        for (int id : ids) {
+            markWritten(id);
+            index.remove(id);
+        }
+        return deleted;
+    }
+}
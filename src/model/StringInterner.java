@@ -0,0 +1,57 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringInterner adalah tabel intern konkuren: string yang isinya sama dipetakan ke satu
+ * objek kanonis, sehingga nama penulis yang berulang di ribuan buku hanya disimpan sekali.
+ *
+ * Berbeda dengan String.intern(), tabel ini berukuran terbatas (maxEntries); setelah penuh,
+ * string baru dikembalikan apa adanya, agar kolom yang ternyata hampir unik tidak membuat
+ * tabel tumbuh tanpa batas. Aman dipanggil dari banyak thread sekaligus.
+ */
+public final class StringInterner {
+    // Tabel bersama untuk nama penulis (CompactBook)
+    public static final StringInterner AUTHORS =
+            new StringInterner(AppConfig.getInt("library.intern.maxAuthors", 1 << 20));
+
+    private final ConcurrentHashMap<String, String> table = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public StringInterner(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Ukuran tabel intern harus lebih dari 0: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    // Objek kanonis untuk isi string ini (null tetap null)
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = table.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (table.size() >= maxEntries) {
+            return value;
+        }
+        canonical = table.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    // Mengosongkan tabel; objek yang sudah dibagikan tetap sah, hanya tidak lagi kanonis
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "StringInterner[entri=" + size() + ", maks=" + maxEntries + "]";
+    }
+}
@@ -0,0 +1,458 @@
+package model;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * WriteBehindBookDAO adalah decorator yang menunda updateBook: perubahan disimpan di memori
+ * per id buku, sehingga beberapa perubahan berturut-turut pada buku yang sama digabung
+ * menjadi satu, lalu ditulis sekaligus lewat updateBooks (batch JDBC) setiap flushIntervalMs
+ * atau segera setelah batchSize buku menunggu.
+ *
+ * - Batas antrean (backpressure): jika maxPending buku berbeda sudah menunggu, updateBook
+ *   berikutnya melakukan flush di thread pemanggil; jika flush itu gagal, updateBook
+ *   melempar DataAccessException.
+ * - getBookById melihat perubahan yang masih menunggu. Pembacaan lain (halaman, pencarian,
+ *   leaderboard, ekspor) melakukan flush lebih dulu agar hasilnya tidak tertinggal.
+ * - Jika batch gagal, setiap buku ditulis sendiri-sendiri, sehingga satu baris yang tidak dapat
+ *   ditulis tidak menahan yang lain. Buku yang ditolak database karena isinya (SQLState kelas
+ *   22/23/42, misalnya judul terlalu panjang) langsung dibuang; kegagalan lain dikembalikan ke
+ *   antrean (kecuali sudah ada perubahan yang lebih baru) dan dibuang setelah maxRetries
+ *   percobaan. Saat database tidak dapat dihubungi (SQLState 08, timeout), semua buku
+ *   dikembalikan tanpa dihitung sebagai percobaan. Kegagalan dan buku yang dibuang dilaporkan
+ *   ke WriteBehindListener.
+ * - close() menghentikan timer dan menulis sisa antrean; panggil sebelum pool koneksi ditutup.
+ *
+ * Karena penulisan tertunda, updateBook selalu mengembalikan buku yang diberikan; perubahan
+ * pada buku yang ternyata sudah dihapus klien lain hilang tanpa pesan. Tambah dan hapus
+ * diteruskan langsung (hapus juga membuang perubahan yang masih menunggu untuk id tersebut).
+ */
+public class WriteBehindBookDAO extends ForwardingBookDAO implements AutoCloseable {
+    private final long flushIntervalMs;
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxRetries = AppConfig.getInt("library.writeBehind.maxRetries", 5);
+
+    // Perubahan yang menunggu, per id, dalam urutan perubahan pertamanya; dijaga oleh this
+    private Map<Integer, Book> pending = new LinkedHashMap<>();
+    // Jumlah percobaan sendiri-sendiri yang gagal per id; direset oleh perubahan baru; dijaga oleh this
+    private final Map<Integer, Integer> failedAttempts = new HashMap<>();
+    private boolean flushScheduled;
+    private boolean failing;
+    private boolean closed;
+
+    // Flush dijalankan satu per satu agar perubahan lama tidak menimpa yang lebih baru
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService timer;
+    private volatile WriteBehindListener listener;
+
+    private final LongAdder updatesReceived = new LongAdder();
+    private final LongAdder booksWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder booksDropped = new LongAdder();
+
+    public WriteBehindBookDAO(BookDAO delegate) {
+        this(delegate, AppConfig.getLong("library.writeBehind.flushMs", 500L),
+                AppConfig.getInt("library.writeBehind.batchSize", 100),
+                AppConfig.getInt("library.writeBehind.maxPending", 1_000));
+    }
+
+    public WriteBehindBookDAO(BookDAO delegate, long flushIntervalMs, int batchSize, int maxPending) {
+        super(delegate);
+        if (flushIntervalMs <= 0 || batchSize <= 0 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Konfigurasi write-behind tidak valid: flushMs=" + flushIntervalMs
+                    + ", batchSize=" + batchSize + ", maxPending=" + maxPending);
+        }
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "book-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void setListener(WriteBehindListener listener) {
+        this.listener = listener;
+    }
+
+    // Batas dan ukuran antrean
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    // ---------------------------------------------------------------- penulisan
+
+    @Override
+    public Book updateBook(Book book) {
+        boolean full;
+        synchronized (this) {
+            if (closed) {
+                throw new DataAccessException("Write-behind sudah ditutup; perubahan tidak disimpan: " + book.getTitle());
+            }
+            full = pending.size() >= maxPending && !pending.containsKey(book.getId());
+        }
+        if (full) {
+            // Antrean penuh: pemanggil ikut menunggu flush, sehingga laju perubahan tertahan
+            RuntimeException error = flush();
+            if (error != null) {
+                throw new DataAccessException("Antrean write-behind penuh (" + maxPending
+                        + " buku) dan flush gagal: " + error.getMessage(), error);
+            }
+        }
+        Book copy = new Book(book);
+        copy.calculateRating();
+        boolean scheduleFlush = false;
+        synchronized (this) {
+            pending.remove(copy.getId()); // Dipindah ke belakang: urutan mengikuti perubahan terakhir
+            pending.put(copy.getId(), copy);
+            failedAttempts.remove(copy.getId()); // Isi baru, mungkin sudah diperbaiki
+            if (pending.size() >= batchSize && !flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        updatesReceived.increment();
+        if (scheduleFlush) {
+            timer.execute(this::flushQuietly);
+        }
+        book.calculateRating();
+        return book;
+    }
+
+    @Override
+    public int updateBooks(Collection<Book> books) {
+        // Di bawah flushLock: flush yang sudah mengambil salinan lama id yang sama selesai lebih
+        // dulu, sehingga tidak dapat menimpa perubahan ini setelah ditulis
+        synchronized (flushLock) {
+            discardPending(books.stream().mapToInt(Book::getId).toArray()); // Digantikan oleh perubahan ini
+            return delegate.updateBooks(books);
+        }
+    }
+
+    @Override
+    public boolean deleteBook(int id) {
+        discardPending(id);
+        return delegate.deleteBook(id);
+    }
+
+    @Override
+    public int deleteBooks(int... ids) {
+        discardPending(ids);
+        return delegate.deleteBooks(ids);
+    }
+
+    private synchronized void discardPending(int... ids) {
+        for (int id : ids) {
+            pending.remove(id);
+            failedAttempts.remove(id);
+        }
+    }
+
+    // ---------------------------------------------------------------- pembacaan
+
+    @Override
+    public Book getBookById(int id) {
+        synchronized (this) {
+            Book waiting = pending.get(id);
+            if (waiting != null) {
+                return new Book(waiting);
+            }
+        }
+        return delegate.getBookById(id);
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        flushForRead();
+        return delegate.getAllBooks();
+    }
+
+    @Override
+    public List<Book> getBooksAfter(BookSortKey sortKey, Book after, int limit) {
+        flushForRead();
+        return delegate.getBooksAfter(sortKey, after, limit);
+    }
+
+    @Override
+    public List<Book> getBooksByIds(int... ids) {
+        flushForRead();
+        return delegate.getBooksByIds(ids);
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        flushForRead();
+        return delegate.searchBooks(query, limit);
+    }
+
+    @Override
+    public List<Book> topRated(int n, BookFilter filter) {
+        flushForRead();
+        return delegate.topRated(n, filter);
+    }
+
+    @Override
+    public long forEachBook(Consumer<? super Book> action, int fetchSize) {
+        flushForRead();
+        return delegate.forEachBook(action, fetchSize);
+    }
+
+    @Override
+    public Stream<Book> streamBooks(int fetchSize) {
+        flushForRead();
+        return delegate.streamBooks(fetchSize);
+    }
+
+    @Override
+    public List<BookGroupStats> groupStats(BookGrouping grouping) {
+        flushForRead();
+        return delegate.groupStats(grouping);
+    }
+
+    // Jika flush gagal, pembacaan tetap dijalankan (kegagalan sudah dilaporkan ke listener)
+    private void flushForRead() {
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+        }
+        flush();
+    }
+
+    // ---------------------------------------------------------------- flush
+
+    // Menulis semua perubahan yang menunggu; mengembalikan kegagalannya, atau null jika berhasil
+    public RuntimeException flush() {
+        synchronized (flushLock) {
+            Map<Integer, Book> batch;
+            synchronized (this) {
+                flushScheduled = false;
+                if (pending.isEmpty()) {
+                    return null;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            List<Book> books = new ArrayList<>(batch.values());
+            int written = books.size();
+            try {
+                delegate.updateBooks(books);
+            } catch (RuntimeException e) {
+                Map<Integer, Book> retry = new LinkedHashMap<>();
+                List<Book> dropped = new ArrayList<>();
+                RuntimeException retryError = writeOneByOne(books, e, retry, dropped);
+                written = books.size() - retry.size() - dropped.size();
+                if (retryError != null) {
+                    booksWritten.add(written);
+                    return flushFailed(retry, retryError);
+                }
+            }
+            flushes.increment();
+            booksWritten.add(written);
+            boolean recovered;
+            synchronized (this) {
+                recovered = failing;
+                failing = false;
+                if (!failedAttempts.isEmpty()) {
+                    failedAttempts.keySet().removeAll(batch.keySet());
+                }
+            }
+            WriteBehindListener current = listener;
+            if (recovered && current != null) {
+                current.onFlushRecovered(written);
+            }
+            return null;
+        }
+    }
+
+    // Batch gagal: buku ditulis satu per satu. Yang berhasil selesai, yang ditolak karena isinya
+    // (atau sudah terlalu sering gagal) masuk 'dropped' dan dilaporkan, sisanya masuk 'retry'.
+    // Mengembalikan kegagalan yang membuat buku dikembalikan ke antrean, atau null jika tidak ada.
+    private RuntimeException writeOneByOne(List<Book> books, RuntimeException batchError,
+                                           Map<Integer, Book> retry, List<Book> dropped) {
+        RuntimeException dropError = null;
+        RuntimeException retryError = null;
+        boolean unavailable = isUnavailable(batchError);
+        for (Book book : books) {
+            if (unavailable) {
+                retry.put(book.getId(), book); // Database tidak dapat dihubungi: bukan salah buku ini
+                continue;
+            }
+            RuntimeException error = batchError;
+            if (books.size() > 1) {
+                try {
+                    delegate.updateBooks(Collections.singletonList(book));
+                    clearAttempts(book.getId());
+                    continue;
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+            }
+            if (isUnavailable(error)) {
+                unavailable = true;
+                retry.put(book.getId(), book);
+                retryError = error;
+            } else if (isRejected(error) || recordAttempt(book.getId()) >= maxRetries) {
+                clearAttempts(book.getId());
+                dropped.add(book);
+                dropError = error;
+            } else {
+                retry.put(book.getId(), book);
+                retryError = error;
+            }
+        }
+        if (!dropped.isEmpty()) {
+            booksDropped.add(dropped.size());
+            System.err.println(dropped.size() + " perubahan buku dibuang karena tidak dapat ditulis (mis. id "
+                    + dropped.get(0).getId() + "): " + dropError.getMessage());
+            WriteBehindListener current = listener;
+            if (current != null) {
+                current.onBooksDropped(dropped, dropError);
+            }
+        }
+        return retry.isEmpty() ? null : retryError != null ? retryError : batchError;
+    }
+
+    private synchronized int recordAttempt(int id) {
+        return failedAttempts.merge(id, 1, Integer::sum);
+    }
+
+    private synchronized void clearAttempts(int id) {
+        failedAttempts.remove(id);
+    }
+
+    // Database menolak isi baris (data terlalu panjang, constraint, SQL tidak valid); mencoba
+    // lagi tidak akan berhasil. Kesalahan selain DataAccessException juga dianggap begitu.
+    private static boolean isRejected(RuntimeException error) {
+        if (!(error instanceof DataAccessException)) {
+            return true;
+        }
+        SQLException cause = sqlCause(error);
+        if (cause == null) {
+            return false;
+        }
+        String state = cause.getSQLState();
+        return cause instanceof SQLDataException || cause instanceof SQLIntegrityConstraintViolationException
+                || cause instanceof SQLSyntaxErrorException
+                || (state != null && (state.startsWith("22") || state.startsWith("23") || state.startsWith("42")));
+    }
+
+    // Database tidak dapat dihubungi atau tidak menjawab tepat waktu; bukan kesalahan bukunya
+    private static boolean isUnavailable(RuntimeException error) {
+        SQLException cause = sqlCause(error);
+        if (cause == null) {
+            return false;
+        }
+        String state = cause.getSQLState();
+        return cause instanceof SQLTransientConnectionException || cause instanceof SQLNonTransientConnectionException
+                || cause instanceof SQLRecoverableException || cause instanceof SQLTimeoutException
+                || (state != null && state.startsWith("08"));
+    }
+
+    private static SQLException sqlCause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return (SQLException) cause;
+            }
+        }
+        return null;
+    }
+
+    private RuntimeException flushFailed(Map<Integer, Book> batch, RuntimeException error) {
+        failedFlushes.increment();
+        int waiting;
+        boolean firstFailure;
+        synchronized (this) {
+            // Perubahan yang datang selama flush lebih baru; yang gagal hanya mengisi celah
+            for (Map.Entry<Integer, Book> entry : batch.entrySet()) {
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            waiting = pending.size();
+            firstFailure = !failing;
+            failing = true;
+        }
+        if (firstFailure) {
+            System.err.println("Flush write-behind gagal (" + waiting + " buku menunggu): " + error.getMessage());
+            WriteBehindListener current = listener;
+            if (current != null) {
+                current.onFlushFailed(waiting, error);
+            }
+        }
+        return error;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Misalnya dari listener; timer harus tetap berjalan
+            System.err.println("Flush write-behind gagal: " + e.getMessage());
+        }
+    }
+
+    // Menghentikan timer lalu menulis sisa antrean; perubahan yang tetap gagal dicatat ke log
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        timer.shutdown();
+        try {
+            timer.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RuntimeException error = flush();
+        if (error != null) {
+            System.err.println("Write-behind ditutup dengan " + getPendingCount()
+                    + " perubahan yang tidak tersimpan: " + error.getMessage());
+        }
+        System.out.println("Write-behind ditutup: " + this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WriteBehindBookDAO[pending=%d/%d, updates=%d, written=%d, flushes=%d, failed=%d, dropped=%d]",
+                getPendingCount(), maxPending, updatesReceived.sum(), booksWritten.sum(),
+                flushes.sum(), failedFlushes.sum(), booksDropped.sum());
+    }
+}
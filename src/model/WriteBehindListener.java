@@ -0,0 +1,21 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Listener hasil flush WriteBehindBookDAO. Dipanggil dari thread flush (bukan EDT).
+ * onFlushFailed hanya dipanggil sekali per rangkaian kegagalan, bukan pada setiap percobaan
+ * ulang; onFlushRecovered dipanggil saat flush berhasil lagi setelahnya.
+ */
+public interface WriteBehindListener {
+    // pending: jumlah buku yang masih menunggu (yang gagal dikembalikan ke antrean)
+    void onFlushFailed(int pending, RuntimeException error);
+
+    default void onFlushRecovered(int written) {
+    }
+
+    // Perubahan yang dibuang karena tidak dapat ditulis (misalnya judul melebihi panjang kolom),
+    // atau tetap gagal setelah library.writeBehind.maxRetries percobaan sendiri-sendiri
+    default void onBooksDropped(List<Book> books, RuntimeException error) {
+    }
+}
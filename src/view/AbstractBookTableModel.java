@@ -0,0 +1,61 @@
+package view;
+
+import model.Book;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Kelas dasar untuk model tabel buku. Sel berisi nilai mentah (Integer, String, Double)
+ * dan pemformatan angka dilakukan oleh renderer, sehingga tidak ada String.format
+ * per sel saat data dimuat. Subkelas cukup menyediakan jumlah baris dan getBookAt().
+ */
+public abstract class AbstractBookTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    // Kolom untuk tabel
+    static final String[] COLUMN_NAMES = {"ID", "Judul Buku", "Penulis", "Tahun", "Alur", "Bahasa", "Orisinalitas", "Rating"};
+    private static final Class<?>[] COLUMN_CLASSES = {Integer.class, String.class, String.class, Integer.class,
+            Double.class, Double.class, Double.class, Double.class};
+
+    // Buku pada baris tertentu, atau null jika baris tersebut belum dimuat
+    public abstract Book getBookAt(int row);
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Membuat sel tabel tidak bisa diedit langsung
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Book book = getBookAt(row);
+        if (book == null) {
+            return column == 1 ? "Memuat..." : null; // Baris belum dimuat
+        }
+        switch (column) {
+            case 0: return book.getId();
+            case 1: return book.getTitle();
+            case 2: return book.getAuthor();
+            case 3: return book.getPublicationYear();
+            case 4: return book.getStorylineScore();
+            case 5: return book.getLanguageStyleScore();
+            case 6: return book.getOriginalityScore();
+            case 7: return book.getRating();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package view;
+
+import model.BookGroupStats;
+import model.BookGrouping;
+import model.BookMetric;
+import model.ScoreHistogram;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionListener;
+import java.util.List;
+
+/**
+ * Panel analitik katalog: ringkasan per penulis atau per tahun terbit untuk satu metrik
+ * (rating atau salah satu skor), beserta grafik distribusi kelompok yang dipilih
+ * (atau seluruh katalog jika tidak ada yang dipilih). Perhitungannya dilakukan controller.
+ */
+public class AnalyticsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    // Label pilihan, urutannya sama dengan BookGrouping.values() dan BookMetric.values()
+    private static final String[] GROUPING_LABELS = {"Per Penulis", "Per Tahun Terbit"};
+    private static final String[] METRIC_LABELS = {"Rating", "Alur Cerita", "Gaya Bahasa", "Orisinalitas"};
+    private static final int DISTRIBUTION_BUCKETS = 10;
+
+    private final JComboBox<String> groupingBox = new JComboBox<>(GROUPING_LABELS);
+    private final JComboBox<String> metricBox = new JComboBox<>(METRIC_LABELS);
+    private final JButton refreshButton = new JButton("Hitung Ulang");
+    private final JLabel statusLabel = new JLabel(" ");
+    private final GroupStatsTableModel tableModel = new GroupStatsTableModel();
+    private final JTable table = new JTable(tableModel);
+    private final DistributionChart chart = new DistributionChart();
+    private BookGroupStats overall;
+
+    public AnalyticsPanel() {
+        super(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JPanel optionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        optionPanel.add(new JLabel("Kelompok:"));
+        optionPanel.add(groupingBox);
+        optionPanel.add(new JLabel("Metrik:"));
+        optionPanel.add(metricBox);
+        optionPanel.add(refreshButton);
+        optionPanel.add(statusLabel);
+        add(optionPanel, BorderLayout.NORTH);
+
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setDefaultRenderer(Double.class, new ScoreCellRenderer("0.00"));
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                updateChart();
+            }
+        });
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        chart.setPreferredSize(new Dimension(0, 160));
+        add(chart, BorderLayout.SOUTH);
+    }
+
+    public BookGrouping getGrouping() {
+        return BookGrouping.values()[groupingBox.getSelectedIndex()];
+    }
+
+    public BookMetric getMetric() {
+        return BookMetric.values()[metricBox.getSelectedIndex()];
+    }
+
+    // Menampilkan ringkasan per kelompok; overall boleh null (misalnya agregat dari database)
+    public void showStats(BookGroupStats overall, List<BookGroupStats> groups) {
+        String selectedKey = null;
+        BookGroupStats selected = tableModel.getStatsAt(table.getSelectedRow());
+        if (selected != null && selected.getGrouping() == getGrouping()) {
+            selectedKey = selected.getKey();
+        }
+        this.overall = overall;
+        tableModel.setStats(getGrouping(), getMetric(), groups);
+        // Kelompok yang sedang dipilih tetap dipilih setelah data diperbarui
+        for (int row = 0; selectedKey != null && row < groups.size(); row++) {
+            if (selectedKey.equals(groups.get(row).getKey())) {
+                table.setRowSelectionInterval(row, row);
+                break;
+            }
+        }
+        updateChart();
+    }
+
+    public void setStatus(String message) {
+        statusLabel.setText(message);
+    }
+
+    public void addOptionListener(ActionListener listener) {
+        groupingBox.addActionListener(listener);
+        metricBox.addActionListener(listener);
+    }
+
+    public void addRefreshListener(ActionListener listener) {
+        refreshButton.addActionListener(listener);
+    }
+
+    private void updateChart() {
+        BookGroupStats selected = tableModel.getStatsAt(table.getSelectedRow());
+        BookGroupStats shown = selected != null ? selected : overall;
+        if (shown == null || !shown.hasDistribution()) {
+            chart.setDistribution(null, null);
+            return;
+        }
+        String title = "Distribusi " + METRIC_LABELS[getMetric().ordinal()] + ": " + shown.getKey()
+                + String.format(" (n=%d, median %.2f)", shown.getCount(), shown.getMedian(getMetric()));
+        chart.setDistribution(title, shown.getDistribution(getMetric(), DISTRIBUTION_BUCKETS));
+    }
+
+    // Grafik batang sederhana: satu batang per rentang skor selebar 0,5
+    private static final class DistributionChart extends JComponent {
+        private static final long serialVersionUID = 1L;
+
+        private String title;
+        private long[] counts;
+
+        void setDistribution(String title, long[] counts) {
+            this.title = title;
+            this.counts = counts;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            FontMetrics fm = g.getFontMetrics();
+            int top = fm.getHeight() + 4;
+            int bottom = getHeight() - fm.getHeight() - 4;
+            if (counts == null || counts.length == 0) {
+                g.setColor(Color.GRAY);
+                g.drawString("Distribusi belum tersedia", 10, top);
+                return;
+            }
+            g.setColor(getForeground());
+            g.drawString(title, 10, fm.getAscent());
+            long max = 1;
+            for (long count : counts) {
+                max = Math.max(max, count);
+            }
+            double slot = (getWidth() - 20) / (double) counts.length;
+            double bucketWidth = ScoreHistogram.MAX_SCORE / counts.length;
+            for (int i = 0; i < counts.length; i++) {
+                int x = 10 + (int) (i * slot);
+                int width = Math.max(1, (int) slot - 4);
+                int height = (int) ((bottom - top) * (double) counts[i] / max);
+                g.setColor(new Color(70, 130, 180));
+                g.fillRect(x, bottom - height, width, height);
+                g.setColor(getForeground());
+                String label = String.format("%.1f", i * bucketWidth);
+                g.drawString(label, x, bottom + fm.getAscent() + 2);
+                if (counts[i] > 0) {
+                    String count = Long.toString(counts[i]);
+                    g.drawString(count, x + (width - fm.stringWidth(count)) / 2, Math.max(top, bottom - height - 2));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package view;
+
+import model.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Model tabel buku yang seluruh barisnya disimpan di memori.
+ * Dipakai untuk daftar kecil yang sudah lengkap, misalnya hasil displayBooks(List).
+ */
+public class BookListTableModel extends AbstractBookTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private List<Book> books = new ArrayList<>();
+
+    // Mengganti seluruh isi tabel dengan satu event perubahan
+    public void setBooks(List<Book> books) {
+        this.books = new ArrayList<>(books);
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return books.size();
+    }
+
+    @Override
+    public Book getBookAt(int row) {
+        return row >= 0 && row < books.size() ? books.get(row) : null;
+    }
+}
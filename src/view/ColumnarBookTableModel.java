@@ -0,0 +1,80 @@
+package view;
+
+import model.Book;
+import model.ColumnarBookStore;
+
+/**
+ * Model tabel di atas ColumnarBookStore. Urutan dan isi tabel ditentukan oleh array id buku
+ * (hasil sortedRows/filter store); sel dibaca langsung dari kolom primitif, dan objek Book
+ * hanya dibuat saat getBookAt() dipanggil (misalnya untuk baris yang dipilih).
+ *
+ * Id, bukan nomor baris store, yang disimpan: store boleh diubah (upsert/remove memindahkan
+ * baris) tanpa membuat tabel menunjuk ke buku yang salah. Buku yang sudah dihapus dari store
+ * tampil sebagai baris kosong sampai daftar id berikutnya dipasang.
+ */
+public class ColumnarBookTableModel extends AbstractBookTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private transient ColumnarBookStore store = new ColumnarBookStore();
+    private int[] bookIds = new int[0];
+
+    // Mengganti store dan baris yang ditampilkan (nomor baris store) dengan satu event perubahan
+    public void setRows(ColumnarBookStore store, int[] rows) {
+        int[] ids = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            ids[i] = store.getId(rows[i]);
+        }
+        setBookIds(store, ids);
+    }
+
+    // Mengganti store dan id buku yang ditampilkan, berurutan, dengan satu event perubahan
+    public void setBookIds(ColumnarBookStore store, int[] bookIds) {
+        this.store = store;
+        this.bookIds = bookIds;
+        fireTableDataChanged();
+    }
+
+    public ColumnarBookStore getStore() {
+        return store;
+    }
+
+    // Baris tabel untuk id buku tertentu, atau -1 jika tidak ditampilkan
+    public int getRowOf(int bookId) {
+        for (int i = 0; i < bookIds.length; i++) {
+            if (bookIds[i] == bookId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return bookIds.length;
+    }
+
+    @Override
+    public Book getBookAt(int row) {
+        int storeRow = row >= 0 && row < bookIds.length ? store.rowOf(bookIds[row]) : -1;
+        return storeRow >= 0 ? store.toBook(storeRow) : null;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int storeRow = store.rowOf(bookIds[row]);
+        if (storeRow < 0) {
+            return null; // Sudah dihapus; daftar id yang baru sedang dihitung
+        }
+        switch (column) {
+            case 0: return store.getId(storeRow);
+            case 1: return store.getTitle(storeRow);
+            case 2: return store.getAuthor(storeRow);
+            case 3: return store.getPublicationYear(storeRow);
+            case 4: return store.getStorylineScore(storeRow);
+            case 5: return store.getLanguageStyleScore(storeRow);
+            case 6: return store.getOriginalityScore(storeRow);
+            case 7: return store.getRating(storeRow);
+            default: return null;
+        }
+    }
+}
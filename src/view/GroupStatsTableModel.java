@@ -0,0 +1,88 @@
+package view;
+
+import model.BookGroupStats;
+import model.BookGrouping;
+import model.BookMetric;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Model tabel ringkasan analitik: satu baris per kelompok (penulis atau tahun terbit) untuk
+ * satu BookMetric. Median dan kuantil kosong jika ringkasan tidak membawa distribusi
+ * (misalnya agregat yang dihitung database).
+ */
+class GroupStatsTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMN_NAMES = {"", "Jumlah", "Rata-rata", "Median", "P10", "P90", "Min", "Maks"};
+
+    private List<BookGroupStats> stats = new ArrayList<>();
+    private BookGrouping grouping = BookGrouping.AUTHOR;
+    private BookMetric metric = BookMetric.RATING;
+
+    void setStats(BookGrouping grouping, BookMetric metric, List<BookGroupStats> stats) {
+        boolean headerChanged = grouping != this.grouping;
+        this.grouping = grouping;
+        this.metric = metric;
+        this.stats = new ArrayList<>(stats);
+        if (headerChanged) {
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    BookGroupStats getStatsAt(int row) {
+        return row >= 0 && row < stats.size() ? stats.get(row) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return stats.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (column == 0) {
+            return grouping == BookGrouping.AUTHOR ? "Penulis" : "Tahun";
+        }
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0: return String.class;
+            case 1: return Long.class;
+            default: return Double.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        BookGroupStats group = stats.get(row);
+        switch (column) {
+            case 0: return group.getKey();
+            case 1: return group.getCount();
+            case 2: return valueOrNull(group.getMean(metric));
+            case 3: return valueOrNull(group.getMedian(metric));
+            case 4: return valueOrNull(group.getQuantile(metric, 0.1));
+            case 5: return valueOrNull(group.getQuantile(metric, 0.9));
+            case 6: return valueOrNull(group.getMin(metric));
+            case 7: return valueOrNull(group.getMax(metric));
+            default: return null;
+        }
+    }
+
+    // NaN (nilai tidak tersedia) ditampilkan sebagai sel kosong
+    private static Double valueOrNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -1,10 +1,18 @@
 package view;
 
+import model.Book;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.event.ActionListener; // Untuk controller
 import java.awt.event.MouseAdapter; // Untuk klik tabel
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.nio.file.Path;
 
 /**
  * Kelas LibraryView bertanggung jawab untuk menampilkan antarmuka pengguna (GUI)
@@ -12,16 +20,24 @@ import java.awt.event.MouseAdapter; // Untuk klik tabel
  * View ini berinteraksi dengan LibraryController untuk menangani aksi pengguna.
  */
 public class LibraryView extends JFrame {
+    private static final long serialVersionUID = 1L;
 
     // Komponen GUI
     private JTable bookTable;
-    private DefaultTableModel tableModel;
+    private AbstractBookTableModel tableModel;
+    private final BookListTableModel listModel = new BookListTableModel();
     private JTextField titleField, authorField, yearField, storylineField, languageField, originalityField;
+    private JTextField searchField;
+    private JTextField filterFromYearField, filterToYearField, filterMinRatingField, filterAuthorField;
+    private JButton filterResetButton;
     private JButton addButton, updateButton, deleteButton, clearButton;
+    private JButton importButton, exportButton;
+    private JFileChooser fileChooser;
     private JLabel statusLabel; // Untuk menampilkan pesan status sementara
-
-    // Kolom untuk tabel
-    private final String[] columnNames = {"ID", "Judul Buku", "Penulis", "Tahun", "Alur", "Bahasa", "Orisinalitas", "Rating"};
+    private boolean statusShowsReadout; // true jika statusLabel sedang berisi ringkasan metrik
+    private JTabbedPane tabs; // Tab "Katalog" dan "Analitik"
+    private final AnalyticsPanel analyticsPanel = new AnalyticsPanel();
+    private transient Runnable firstPaintAction; // Dijalankan sekali setelah jendela pertama kali digambar
 
     public LibraryView() {
         setTitle("Perpustakaan Digital");
@@ -35,16 +51,20 @@ public class LibraryView extends JFrame {
 
     private void initComponents() {
         // Tabel
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Membuat sel tabel tidak bisa diedit langsung
-            }
-        };
+        tableModel = listModel;
         bookTable = new JTable(tableModel);
+        bookTable.setAutoCreateColumnsFromModel(false); // Semua model buku memakai kolom yang sama
         bookTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION); // Hanya satu baris bisa dipilih
         bookTable.getTableHeader().setReorderingAllowed(false); // Mencegah reorder kolom
 
+        // Skor diformat saat digambar, bukan saat data dimuat
+        TableColumnModel columns = bookTable.getColumnModel();
+        ScoreCellRenderer scoreRenderer = new ScoreCellRenderer("0.0");
+        for (int column = 4; column <= 6; column++) {
+            columns.getColumn(column).setCellRenderer(scoreRenderer);
+        }
+        columns.getColumn(7).setCellRenderer(new ScoreCellRenderer("0.00"));
+
         // Input Fields
         titleField = new JTextField(20);
         authorField = new JTextField(20);
@@ -58,6 +78,27 @@ public class LibraryView extends JFrame {
         updateButton = new JButton("Update");
         deleteButton = new JButton("Delete");
         clearButton = new JButton("Clear");
+        importButton = new JButton("Impor...");
+        exportButton = new JButton("Ekspor...");
+
+        // Pemilih berkas katalog untuk impor/ekspor
+        fileChooser = new JFileChooser();
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON Lines (*.jsonl)", "jsonl", "ndjson", "json"));
+
+        // Kotak pencarian judul/penulis (hasil diperbarui saat mengetik)
+        searchField = new JTextField(30);
+        searchField.setToolTipText("Cari judul atau penulis");
+
+        // Bilah filter tabel: rentang tahun, rating minimum, dan penulis (diterapkan saat mengetik)
+        filterFromYearField = new JTextField(4);
+        filterToYearField = new JTextField(4);
+        filterMinRatingField = new JTextField(3);
+        filterAuthorField = new JTextField(12);
+        filterAuthorField.setToolTipText("Penulis memuat teks ini");
+        filterResetButton = new JButton("Reset");
+        bookTable.getTableHeader().setToolTipText("Klik judul kolom untuk mengurutkan");
 
         // Status Label (opsional, untuk feedback singkat)
         statusLabel = new JLabel(" ");
@@ -69,9 +110,29 @@ public class LibraryView extends JFrame {
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10)); // Border layout dengan gap
         mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10)); // Padding
 
-        // Panel Tabel (Kiri)
+        // Panel Tabel (Kiri), dengan kotak pencarian di atasnya
+        JPanel tablePanel = new JPanel(new BorderLayout(5, 5));
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.add(new JLabel("Cari:"), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        filterPanel.add(new JLabel("Tahun:"));
+        filterPanel.add(filterFromYearField);
+        filterPanel.add(new JLabel("s.d."));
+        filterPanel.add(filterToYearField);
+        filterPanel.add(new JLabel("Rating min:"));
+        filterPanel.add(filterMinRatingField);
+        filterPanel.add(new JLabel("Penulis:"));
+        filterPanel.add(filterAuthorField);
+        filterPanel.add(filterResetButton);
+        JPanel topPanel = new JPanel(new GridLayout(2, 1, 0, 5));
+        topPanel.add(searchPanel);
+        topPanel.add(filterPanel);
+        tablePanel.add(topPanel, BorderLayout.NORTH);
+
         JScrollPane tableScrollPane = new JScrollPane(bookTable);
-        mainPanel.add(tableScrollPane, BorderLayout.CENTER);
+        tablePanel.add(tableScrollPane, BorderLayout.CENTER);
+        mainPanel.add(tablePanel, BorderLayout.CENTER);
 
         // Panel Form (Kanan)
         JPanel formPanel = new JPanel(new GridBagLayout());
@@ -120,15 +181,27 @@ public class LibraryView extends JFrame {
         gbc.gridx = 0; gbc.gridy = 6; gbc.gridwidth = 2; gbc.anchor = GridBagConstraints.CENTER;
         formPanel.add(buttonPanel, gbc);
 
+        // Panel Impor/Ekspor (di bawah tombol CRUD)
+        JPanel transferPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        transferPanel.add(importButton);
+        transferPanel.add(exportButton);
+
+        gbc.gridy = 7;
+        formPanel.add(transferPanel, gbc);
+
         // Status Label (di bawah tombol)
-        gbc.gridy = 7; gbc.anchor = GridBagConstraints.CENTER;
+        gbc.gridy = 8; gbc.anchor = GridBagConstraints.CENTER;
         formPanel.add(statusLabel, gbc);
 
         // Menambahkan panel form ke panel utama di sisi kanan
         formPanel.setPreferredSize(new Dimension(400, 0)); // Increase width if needed
         mainPanel.add(formPanel, BorderLayout.EAST);
 
-        add(mainPanel);
+        // Katalog dan analitik sebagai dua tab
+        tabs = new JTabbedPane();
+        tabs.addTab("Katalog", mainPanel);
+        tabs.addTab("Analitik", analyticsPanel);
+        add(tabs);
     }
 
     // Metode untuk mendapatkan nilai dari input fields
@@ -139,6 +212,48 @@ public class LibraryView extends JFrame {
     public String getLanguageField() { return languageField.getText(); }
     public String getOriginalityField() { return originalityField.getText(); }
 
+    public String getSearchText() { return searchField.getText(); }
+
+    // Isi bilah filter tabel (teks mentah; diurai oleh controller)
+    public String getFilterFromYear() { return filterFromYearField.getText(); }
+    public String getFilterToYear() { return filterToYearField.getText(); }
+    public String getFilterMinRating() { return filterMinRatingField.getText(); }
+    public String getFilterAuthor() { return filterAuthorField.getText(); }
+
+    public void clearFilterFields() {
+        filterFromYearField.setText("");
+        filterToYearField.setText("");
+        filterMinRatingField.setText("");
+        filterAuthorField.setText("");
+    }
+
+    // Kolom model dari klik pada judul kolom tabel, atau -1 jika di luar kolom
+    public int getHeaderColumnAt(MouseEvent e) {
+        int viewColumn = bookTable.getTableHeader().columnAtPoint(e.getPoint());
+        return viewColumn < 0 ? -1 : bookTable.convertColumnIndexToModel(viewColumn);
+    }
+
+    // Menandai kolom urutan tabel dengan panah naik/turun di judul kolomnya
+    public void setSortIndicator(int sortColumn, boolean ascending) {
+        TableColumnModel columns = bookTable.getColumnModel();
+        for (int i = 0; i < columns.getColumnCount(); i++) {
+            int column = columns.getColumn(i).getModelIndex();
+            String name = AbstractBookTableModel.COLUMN_NAMES[column];
+            columns.getColumn(i).setHeaderValue(column == sortColumn ? name + (ascending ? " \u25B2" : " \u25BC") : name);
+        }
+        bookTable.getTableHeader().repaint();
+    }
+
+    // Memilih baris tabel tertentu (-1 = hapus seleksi), misalnya setelah isi tabel diganti
+    public void selectRow(int row) {
+        if (row >= 0 && row < bookTable.getRowCount()) {
+            bookTable.setRowSelectionInterval(row, row);
+            bookTable.scrollRectToVisible(bookTable.getCellRect(row, 0, true));
+        } else {
+            bookTable.clearSelection();
+        }
+    }
+
     // Metode untuk mengatur nilai ke input fields
     public void setTitleField(String text) { titleField.setText(text); }
     public void setAuthorField(String text) { authorField.setText(text); }
@@ -155,35 +270,125 @@ public class LibraryView extends JFrame {
         storylineField.setText("");
         languageField.setText("");
         originalityField.setText("");
-        statusLabel.setText(" "); // Bersihkan status
+        setStatus(" "); // Bersihkan status
         bookTable.clearSelection(); // Hapus seleksi di tabel
     }
 
-    // Metode untuk menampilkan data buku di tabel
-    public void displayBooks(java.util.List<model.Book> books) {
-        tableModel.setRowCount(0); // Hapus semua baris yang ada
-        for (model.Book book : books) {
-            Object[] row = {
-                    book.getId(),
-                    book.getTitle(),
-                    book.getAuthor(),
-                    book.getPublicationYear(),
-                    String.format("%.1f", book.getStorylineScore()), // Format skor
-                    String.format("%.1f", book.getLanguageStyleScore()),
-                    String.format("%.1f", book.getOriginalityScore()),
-                    String.format("%.2f", book.getRating()) // Format rating
-            };
-            tableModel.addRow(row);
+    // Metode untuk menampilkan daftar buku yang sudah lengkap di tabel
+    public void displayBooks(java.util.List<Book> books) {
+        setBookTableModel(listModel);
+        listModel.setBooks(books);
+    }
+
+    // Metode untuk mengganti model tabel, misalnya dengan model yang memuat per halaman
+    public void setBookTableModel(AbstractBookTableModel model) {
+        if (tableModel != model) {
+            tableModel = model;
+            bookTable.setModel(model);
         }
     }
 
-    // Metode untuk mendapatkan ID buku yang dipilih di tabel
-    public int getSelectedBookId() {
+    public AnalyticsPanel getAnalyticsPanel() {
+        return analyticsPanel;
+    }
+
+    // Apakah tab analitik sedang ditampilkan
+    public boolean isAnalyticsVisible() {
+        return tabs.getSelectedComponent() == analyticsPanel;
+    }
+
+    public AbstractBookTableModel getBookTableModel() {
+        return tableModel;
+    }
+
+    // Metode untuk mendapatkan buku yang dipilih di tabel (null jika belum dimuat/tidak ada)
+    public Book getSelectedBook() {
         int selectedRow = bookTable.getSelectedRow();
         if (selectedRow >= 0) {
-            return (int) tableModel.getValueAt(selectedRow, 0); // Kolom ID adalah kolom pertama (indeks 0)
+            return tableModel.getBookAt(selectedRow);
+        }
+        return null;
+    }
+
+    // Metode untuk mendapatkan ID buku yang dipilih di tabel
+    public int getSelectedBookId() {
+        Book selected = getSelectedBook();
+        return selected != null ? selected.getId() : -1; // -1 jika tidak ada yang dipilih
+    }
+
+    // Metode untuk menandai ada permintaan data yang sedang berjalan
+    public void setBusy(boolean busy) {
+        addButton.setEnabled(!busy);
+        updateButton.setEnabled(!busy);
+        deleteButton.setEnabled(!busy);
+        importButton.setEnabled(!busy);
+        exportButton.setEnabled(!busy);
+        setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        setStatus(busy ? "Memproses..." : " ");
+    }
+
+    // Menjalankan aksi sekali, tepat setelah jendela pertama kali digambar (mengukur cold start)
+    public void onFirstPaint(Runnable action) {
+        this.firstPaintAction = action;
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        Runnable action = firstPaintAction;
+        if (action != null) {
+            firstPaintAction = null;
+            action.run();
+        }
+    }
+
+    // Metode untuk menampilkan status singkat, misalnya kemajuan impor/ekspor
+    public void setStatus(String message) {
+        statusLabel.setText(message);
+        statusShowsReadout = false;
+    }
+
+    // Ringkasan metrik yang diperbarui berkala; tidak menimpa pesan status yang sedang tampil
+    public void setStatusReadout(String readout) {
+        String current = statusLabel.getText();
+        if (statusShowsReadout || current == null || current.trim().isEmpty()) {
+            statusLabel.setText(readout);
+            statusLabel.setToolTipText(readout);
+            statusShowsReadout = true;
+        }
+    }
+
+    // Metode untuk memilih berkas yang akan diimpor (null jika dibatalkan)
+    public Path chooseImportFile() {
+        fileChooser.setDialogTitle("Impor Katalog Buku");
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            return fileChooser.getSelectedFile().toPath();
         }
-        return -1; // Tidak ada yang dipilih
+        return null;
+    }
+
+    // Metode untuk memilih berkas tujuan ekspor; ekstensi ditambahkan sesuai filter jika belum ada
+    public Path chooseExportFile() {
+        fileChooser.setDialogTitle("Ekspor Katalog Buku");
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().contains(".") && fileChooser.getFileFilter() instanceof FileNameExtensionFilter) {
+            String extension = ((FileNameExtensionFilter) fileChooser.getFileFilter()).getExtensions()[0];
+            file = new File(file.getParentFile(), file.getName() + "." + extension);
+        }
+        if (file.exists()) {
+            int confirm = JOptionPane.showConfirmDialog(this,
+                    "Berkas " + file.getName() + " sudah ada. Timpa?",
+                    "Konfirmasi Ekspor",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE);
+            if (confirm != JOptionPane.YES_OPTION) {
+                return null;
+            }
+        }
+        return file.toPath();
     }
 
     // Metode untuk menampilkan pesan dialog
@@ -230,5 +435,17 @@ public class LibraryView extends JFrame {
     public void addUpdateButtonListener(ActionListener listener) { updateButton.addActionListener(listener); }
     public void addDeleteButtonListener(ActionListener listener) { deleteButton.addActionListener(listener); }
     public void addClearButtonListener(ActionListener listener) { clearButton.addActionListener(listener); }
+    public void addImportButtonListener(ActionListener listener) { importButton.addActionListener(listener); }
+    public void addExportButtonListener(ActionListener listener) { exportButton.addActionListener(listener); }
     public void addTableMouseListener(MouseAdapter listener) { bookTable.addMouseListener(listener); }
+    public void addSearchListener(DocumentListener listener) { searchField.getDocument().addDocumentListener(listener); }
+    public void addFilterListener(DocumentListener listener) {
+        filterFromYearField.getDocument().addDocumentListener(listener);
+        filterToYearField.getDocument().addDocumentListener(listener);
+        filterMinRatingField.getDocument().addDocumentListener(listener);
+        filterAuthorField.getDocument().addDocumentListener(listener);
+    }
+    public void addFilterResetListener(ActionListener listener) { filterResetButton.addActionListener(listener); }
+    public void addHeaderClickListener(MouseAdapter listener) { bookTable.getTableHeader().addMouseListener(listener); }
+    public void addTabChangeListener(ChangeListener listener) { tabs.addChangeListener(listener); }
 }
\ No newline at end of file
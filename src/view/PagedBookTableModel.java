@@ -0,0 +1,602 @@
+package view;
+
+import model.AsyncBookDAO;
+import model.Book;
+import model.BookSortKey;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Model tabel buku yang memuat data per halaman secara malas (lazy).
+ *
+ * JTable hanya memanggil getValueAt() untuk baris yang terlihat, sehingga halaman
+ * diambil dari DAO hanya ketika viewport menggulir ke halaman tersebut. Halaman dicari
+ * dengan pagination keyset memakai buku terakhir dari halaman sebelumnya sebagai kursor.
+ * Lompatan jauh ke halaman yang kursornya belum diketahui menampilkan baris "Memuat..."
+ * sementara kursor di antaranya dikumpulkan bertahap (WALK_BATCH_PAGES halaman per query,
+ * isi halaman yang dilewati tidak disimpan); tidak ada query OFFSET. Hanya sejumlah
+ * halaman terakhir yang dipakai yang disimpan di memori; kursor batas halaman tetap
+ * disimpan agar halaman yang dibuang dapat diambil ulang dengan satu query.
+ *
+ * Perubahan satu buku (tambah, ubah, hapus) diterapkan langsung lewat indeks id-ke-baris
+ * tanpa memuat ulang tabel. Hanya halaman yang dimuat di sekitar baris tersebut yang
+ * disesuaikan, sehingga biayanya tidak bergantung pada jumlah buku di database.
+ *
+ * Saat reload, jumlah baris dan halaman pertama diambil bersamaan. Sebelum keduanya tiba,
+ * tabel dapat menampilkan pratinjau halaman pertama (misalnya dari BookPageSnapshot di disk).
+ *
+ * Semua state diubah di Event Dispatch Thread; query berjalan lewat AsyncBookDAO.
+ * Query yang hasilnya sudah tidak berlaku (karena reload atau pergeseran baris) dibatalkan.
+ */
+public class PagedBookTableModel extends AbstractBookTableModel {
+    private static final long serialVersionUID = 1L;
+    // Jumlah halaman tanpa kursor yang masih diambil (dan disimpan) satu per satu
+    private static final int MAX_WALK_PAGES = 2;
+    // Lompatan lebih jauh: jumlah halaman yang kursornya dikumpulkan per query getBooksAfter
+    private static final int WALK_BATCH_PAGES = 50;
+
+    private final transient AsyncBookDAO asyncDAO;
+    private final BookSortKey sortKey;
+    private final int pageSize;
+
+    private int rowCount;
+    // Nomor generasi; naik setiap reload agar hasil hitung lama diabaikan
+    private int generation;
+    // Naik setiap kali halaman dibuang karena pergeseran baris, agar hasil query lama diabaikan
+    private int pageEpoch;
+    // Halaman yang dimuat, urutan akses (LRU) dan dibatasi maxPages
+    private final Map<Integer, List<Book>> pages;
+    // Buku terakhir tiap halaman lengkap, dipakai sebagai kursor keyset halaman berikutnya.
+    // Selalu berupa awalan berurutan: halaman 0..k.
+    private final Map<Integer, Book> boundaries = new HashMap<>();
+    // Query halaman yang sedang berjalan, per nomor halaman
+    private final transient Map<Integer, CompletableFuture<PageLoad>> pendingPages = new HashMap<>();
+    private transient CompletableFuture<Integer> pendingCount;
+    // Langkah pengumpulan kursor yang sedang berjalan, dan halaman jauh yang sedang dituju
+    private transient CompletableFuture<PageLoad> pendingWalk;
+    private int walkTarget;
+    // Indeks id buku ke nomor baris untuk semua buku yang sedang dimuat
+    private final Map<Integer, Integer> idToRow = new HashMap<>();
+    // Pratinjau halaman pertama, ditampilkan sampai halaman pertama yang sebenarnya dimuat
+    private List<Book> preview;
+    // Apakah jumlah baris reload terakhir sudah diterima, dan apakah listener sudah diberi tahu
+    private boolean countLoaded;
+    private boolean loadReported;
+    private transient LoadListener loadListener;
+
+    // Diberi tahu (di EDT) sekali per reload, saat jumlah baris dan halaman pertama sudah dimuat
+    public interface LoadListener {
+        void firstPageLoaded(int rowCount, List<Book> firstPage);
+    }
+
+    public PagedBookTableModel(AsyncBookDAO asyncDAO, BookSortKey sortKey, int pageSize, final int maxPages) {
+        this.asyncDAO = asyncDAO;
+        this.sortKey = sortKey;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, List<Book>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Book>> eldest) {
+                if (size() > maxPages) {
+                    unindex(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public BookSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    // Jumlah halaman yang sedang disimpan di memori
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    // Nomor baris buku dengan id tertentu, atau -1 jika buku tersebut belum dimuat
+    public int getRowOf(int bookId) {
+        Integer row = idToRow.get(bookId);
+        return row != null ? row : -1;
+    }
+
+    public void setLoadListener(LoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    // Menampilkan halaman pertama yang mungkin sudah usang (dan perkiraan jumlah baris) sampai
+    // data sebenarnya dimuat; pratinjau tidak dipakai sebagai kursor dan tidak dapat diubah
+    public void showPreview(int totalCount, List<Book> firstPage) {
+        if (countLoaded || pages.containsKey(0)) {
+            return; // Data sebenarnya sudah ada
+        }
+        preview = new ArrayList<>(firstPage.subList(0, Math.min(firstPage.size(), pageSize)));
+        rowCount = Math.max(totalCount, preview.size());
+        fireTableDataChanged();
+    }
+
+    // Membuang semua halaman lalu menghitung ulang jumlah baris di latar belakang, bersamaan
+    // dengan pengambilan halaman pertama (tidak menunggu tabel digambar lebih dulu).
+    // Reload sebelumnya yang belum selesai dibatalkan karena sudah digantikan
+    public CompletableFuture<Integer> reload() {
+        final int expected = ++generation;
+        discardPendingLoads();
+        pages.clear();
+        boundaries.clear();
+        idToRow.clear();
+        countLoaded = false;
+        loadReported = false;
+        if (pendingCount != null) {
+            pendingCount.cancel(true);
+        }
+        final CompletableFuture<Integer> count = asyncDAO.countBooks();
+        pendingCount = count;
+        count.whenCompleteAsync((total, error) -> {
+            if (expected != generation || count.isCancelled()) {
+                return;
+            }
+            pendingCount = null;
+            if (error != null) {
+                System.err.println("Gagal menghitung jumlah buku: " + unwrap(error).getMessage());
+                return;
+            }
+            rowCount = total;
+            countLoaded = true;
+            fireTableDataChanged();
+            reportIfLoaded();
+        }, SwingUtilities::invokeLater);
+        requestPage(0);
+        return count;
+    }
+
+    // Apakah masih ada query jumlah baris atau halaman yang berjalan
+    public boolean isLoading() {
+        return pendingCount != null || !pendingPages.isEmpty() || pendingWalk != null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Book getBookAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        int page = row / pageSize;
+        List<Book> books = pages.get(page);
+        int offset = row % pageSize;
+        if (books == null) {
+            requestPage(page);
+            return page == 0 && preview != null && offset < preview.size() ? preview.get(offset) : null;
+        }
+        if (offset >= books.size()) {
+            // Halaman kehilangan baris terakhirnya setelah penghapusan; ambil ulang
+            unindex(pages.remove(page));
+            requestPage(page);
+            return null;
+        }
+        return books.get(offset);
+    }
+
+    // Menyisipkan buku yang baru ditambahkan pada posisinya menurut urutan (sortKey, id)
+    public void insertBook(Book book) {
+        discardPendingLoads();
+        rowCount++;
+        int page = findPage(book);
+        if (page < 0) {
+            int known = knownBoundaryCount();
+            if (known * pageSize < rowCount - 1) {
+                // Posisinya berada di bagian tabel yang belum pernah dimuat
+                dropPagesFrom(known);
+                fireTableRowsInserted(rowCount - 1, rowCount - 1);
+                return;
+            }
+            // Buku berada di akhir tabel, tepat setelah baris terakhir yang diketahui
+            page = (rowCount - 1) / pageSize;
+            List<Book> last = pages.get(page);
+            if (last == null) {
+                fireTableRowsInserted(rowCount - 1, rowCount - 1);
+                return;
+            }
+            last.add(book);
+            boundaries.put(page, book);
+            idToRow.put(book.getId(), rowCount - 1);
+            fireTableRowsInserted(rowCount - 1, rowCount - 1);
+            return;
+        }
+
+        List<Book> books = pages.get(page);
+        if (books == null) {
+            // Halaman tujuan tidak dimuat: semua halaman mulai dari sini bergeser
+            dropPagesFrom(page);
+            fireTableRowsInserted(page * pageSize, page * pageSize);
+            return;
+        }
+        int offset = Collections.binarySearch(books, book, sortKey.comparator());
+        offset = offset < 0 ? -offset - 1 : offset;
+        int row = page * pageSize + offset;
+        insertAndShift(page, offset, book);
+        fireTableRowsInserted(row, row);
+    }
+
+    // Mengganti data buku yang diperbarui; jika kunci urutannya berubah, bukunya dipindahkan
+    public void updateBook(Book book) {
+        discardPendingLoads();
+        Integer row = idToRow.get(book.getId());
+        if (row == null) {
+            if (sortKey != BookSortKey.ID) {
+                // Posisi lama tidak diketahui, jadi posisi semua halaman tidak dapat dipercaya
+                dropPagesFrom(0);
+                fireTableRowsUpdated(0, Math.max(0, rowCount - 1));
+            }
+            return;
+        }
+        int page = row / pageSize;
+        List<Book> books = pages.get(page);
+        int offset = row % pageSize;
+        Book current = books.get(offset);
+        if (sortKey.comparator().compare(current, book) == 0) {
+            books.set(offset, book);
+            if (boundaries.get(page) == current) {
+                boundaries.put(page, book);
+            }
+            fireTableRowsUpdated(row, row);
+        } else {
+            removeBook(book.getId());
+            insertBook(book);
+        }
+    }
+
+    // Menghapus baris buku yang sudah dihapus dari database
+    public void removeBook(int bookId) {
+        discardPendingLoads();
+        Integer row = idToRow.remove(bookId);
+        if (row == null) {
+            removeUnloaded(bookId);
+            return;
+        }
+        int page = row / pageSize;
+        List<Book> books = pages.get(page);
+        books.remove(row % pageSize);
+        rowCount--;
+
+        // Tarik baris pertama halaman berikutnya yang dimuat agar ukuran halaman tetap
+        int p = page;
+        List<Book> next;
+        while ((next = pages.get(p + 1)) != null && !next.isEmpty()) {
+            books.add(next.remove(0));
+            boundaries.put(p, books.get(books.size() - 1));
+            reindex(p, books);
+            p++;
+            books = next;
+        }
+        reindex(p, books);
+        if (p * pageSize + books.size() >= rowCount) {
+            // Halaman terakhir tabel: tetap lengkap
+            if (books.isEmpty()) {
+                boundaries.remove(p);
+            } else {
+                boundaries.put(p, books.get(books.size() - 1));
+            }
+            dropPagesFrom(p + 1);
+        } else {
+            // Halaman ini kehilangan baris terakhirnya; kursor setelahnya tidak berlaku lagi
+            boundaries.remove(p);
+            dropPagesFrom(p + 1);
+        }
+        fireTableRowsDeleted(row, row);
+    }
+
+    // Penghapusan buku yang barisnya tidak sedang dimuat
+    private void removeUnloaded(int bookId) {
+        if (rowCount == 0) {
+            return;
+        }
+        rowCount--;
+        int page = -1;
+        if (sortKey == BookSortKey.ID) {
+            Book probe = new Book();
+            probe.setId(bookId);
+            page = findPage(probe);
+        }
+        int from = page >= 0 ? page : (sortKey == BookSortKey.ID ? knownBoundaryCount() : 0);
+        dropPagesFrom(from);
+        int row = Math.min(from * pageSize, rowCount);
+        fireTableRowsDeleted(row, row);
+    }
+
+    // Menyisipkan buku pada halaman yang dimuat lalu menggeser kelebihan baris ke halaman berikutnya
+    private void insertAndShift(int page, int offset, Book book) {
+        Book carry = book;
+        int p = page;
+        int index = offset;
+        while (true) {
+            List<Book> books = pages.get(p);
+            books.add(index, carry);
+            if (books.size() <= pageSize) {
+                if (books.size() == pageSize || p * pageSize + books.size() >= rowCount) {
+                    boundaries.put(p, books.get(books.size() - 1));
+                }
+                reindex(p, books);
+                return;
+            }
+            carry = books.remove(books.size() - 1);
+            boundaries.put(p, books.get(books.size() - 1));
+            reindex(p, books);
+            p++;
+            index = 0;
+            if (!pages.containsKey(p)) {
+                idToRow.remove(carry.getId());
+                dropPagesFrom(p);
+                return;
+            }
+        }
+    }
+
+    // Halaman pertama yang batas akhirnya tidak lebih kecil dari buku ini, atau -1
+    private int findPage(Book book) {
+        Comparator<Book> order = sortKey.comparator();
+        int low = 0;
+        int high = knownBoundaryCount() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(book, boundaries.get(mid)) <= 0) {
+                found = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+
+    private int knownBoundaryCount() {
+        int count = 0;
+        while (boundaries.containsKey(count)) {
+            count++;
+        }
+        return count;
+    }
+
+    // Membuang halaman dan kursor mulai dari halaman tertentu karena barisnya bergeser
+    private void dropPagesFrom(int firstPage) {
+        Iterator<Map.Entry<Integer, List<Book>>> it = pages.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, List<Book>> entry = it.next();
+            if (entry.getKey() >= firstPage) {
+                unindex(entry.getValue());
+                it.remove();
+            }
+        }
+        boundaries.keySet().removeIf(page -> page >= firstPage);
+        discardPendingLoads();
+    }
+
+    // Hasil query yang sedang berjalan dibuat sebelum perubahan ini, jadi diabaikan;
+    // halaman tersebut diminta ulang saat baris yang terlihat digambar kembali
+    private void discardPendingLoads() {
+        for (CompletableFuture<PageLoad> load : pendingPages.values()) {
+            load.cancel(true);
+        }
+        pendingPages.clear();
+        if (pendingWalk != null) {
+            pendingWalk.cancel(true);
+            pendingWalk = null;
+        }
+        pageEpoch++;
+    }
+
+    private void reindex(int page, List<Book> books) {
+        int firstRow = page * pageSize;
+        for (int i = 0; i < books.size(); i++) {
+            idToRow.put(books.get(i).getId(), firstRow + i);
+        }
+    }
+
+    private void unindex(List<Book> books) {
+        if (books != null) {
+            for (Book book : books) {
+                idToRow.remove(book.getId());
+            }
+        }
+    }
+
+    // Menjadwalkan pengambilan halaman. Kursornya adalah batas halaman sebelumnya, atau buku
+    // terakhir halaman sebelumnya jika halaman itu sedang dimuat lengkap. Tanpa kursor, halaman
+    // diambil berurutan dari batas terdekat yang sudah diketahui (halaman yang dilewati ikut
+    // dimuat dan ditandai sedang dimuat); jika lebih jauh dari MAX_WALK_PAGES, kursornya
+    // dikumpulkan lebih dulu oleh walkTowards.
+    private void requestPage(final int page) {
+        if (pendingPages.containsKey(page)) {
+            return;
+        }
+        int start = page;
+        while (start > 0 && !boundaries.containsKey(start - 1)) {
+            start--;
+        }
+        final Book loadedCursor = start < page ? lastOfCompletePage(page - 1) : null;
+        if (loadedCursor != null) {
+            start = page;
+        }
+        final int firstPage = start;
+        if (page - firstPage > MAX_WALK_PAGES) {
+            walkTowards(page, firstPage);
+            return;
+        }
+        final Book cursor = loadedCursor != null ? loadedCursor : firstPage == 0 ? null : boundaries.get(firstPage - 1);
+        final int expected = pageEpoch;
+
+        final CompletableFuture<PageLoad> load = asyncDAO.supply(() -> {
+            PageLoad result = new PageLoad();
+            Book after = cursor;
+            for (int p = firstPage; p <= page; p++) {
+                List<Book> books = asyncDAO.getDelegate().getBooksAfter(sortKey, after, pageSize);
+                result.pages.put(p, books);
+                if (books.isEmpty()) {
+                    break;
+                }
+                after = books.get(books.size() - 1);
+                if (loadedCursor == null) {
+                    result.boundaries.put(p, after);
+                }
+            }
+            return result;
+        });
+        pendingPages.put(page, load);
+        for (int p = firstPage; p < page; p++) {
+            pendingPages.putIfAbsent(p, load); // Tidak diminta ulang selama query ini berjalan
+        }
+        load.whenCompleteAsync((result, error) -> {
+            if (expected != pageEpoch || load.isCancelled()) {
+                return; // Hasil dari sebelum reload atau pergeseran baris, abaikan
+            }
+            if (error != null) {
+                // Halaman tetap ditandai sedang dimuat agar tidak diulang terus; reload akan mencoba lagi
+                System.err.println("Gagal memuat halaman " + page + ": " + unwrap(error).getMessage());
+                return;
+            }
+            pendingPages.values().removeIf(pending -> pending == load);
+            applyPages(page, result);
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Mengumpulkan kursor halaman firstPage.. menuju halaman target dengan keyset, paling banyak
+    // WALK_BATCH_PAGES halaman per langkah; hanya buku terakhir tiap halaman yang disimpan.
+    // Satu langkah berjalan sekaligus: lompatan baru hanya mengganti tujuannya. Setelah setiap
+    // langkah, baris halaman tujuan digambar ulang sehingga requestPage melanjutkan dari kursor
+    // terjauh, sampai halaman tujuan cukup dekat untuk diambil langsung.
+    private void walkTowards(int page, final int firstPage) {
+        walkTarget = page;
+        if (pendingWalk != null) {
+            return;
+        }
+        final Book cursor = firstPage == 0 ? null : boundaries.get(firstPage - 1);
+        final int pageCount = Math.min(page - firstPage, WALK_BATCH_PAGES);
+        final int expected = pageEpoch;
+
+        final CompletableFuture<PageLoad> walk = asyncDAO.supply(() -> {
+            PageLoad result = new PageLoad();
+            List<Book> books = asyncDAO.getDelegate().getBooksAfter(sortKey, cursor, pageCount * pageSize);
+            for (int i = 0; i * pageSize < books.size(); i++) {
+                List<Book> chunk = books.subList(i * pageSize, Math.min(books.size(), (i + 1) * pageSize));
+                result.boundaries.put(firstPage + i, chunk.get(chunk.size() - 1));
+                if (chunk.size() < pageSize) {
+                    result.pages.put(firstPage + i, new ArrayList<>(chunk)); // Halaman terakhir tabel
+                }
+            }
+            if (books.isEmpty()) {
+                result.pages.put(firstPage, new ArrayList<>()); // Tabel berakhir sebelum halaman ini
+            }
+            return result;
+        });
+        pendingWalk = walk;
+        walk.whenCompleteAsync((result, error) -> {
+            if (expected != pageEpoch || walk.isCancelled()) {
+                return; // Hasil dari sebelum reload atau pergeseran baris, abaikan
+            }
+            if (error != null) {
+                // pendingWalk tetap terisi agar tidak diulang terus; reload akan mencoba lagi
+                System.err.println("Gagal memuat halaman " + walkTarget + ": " + unwrap(error).getMessage());
+                return;
+            }
+            pendingWalk = null;
+            applyPages(-1, result);
+            int firstRow = walkTarget * pageSize;
+            if (firstRow < rowCount) {
+                fireTableRowsUpdated(firstRow, Math.min(rowCount, firstRow + pageSize) - 1);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Buku terakhir halaman yang sedang dimuat dan lengkap, atau null
+    private Book lastOfCompletePage(int page) {
+        List<Book> books = pages.get(page);
+        return books != null && books.size() == pageSize ? books.get(pageSize - 1) : null;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // Hasil satu query halaman: isi halaman yang diminta dan halaman yang dilewati, serta kursornya
+    private static final class PageLoad {
+        private final Map<Integer, List<Book>> pages = new TreeMap<>();
+        private final Map<Integer, Book> boundaries = new HashMap<>();
+    }
+
+    private void applyPages(int requested, PageLoad result) {
+        for (Map.Entry<Integer, Book> boundary : result.boundaries.entrySet()) {
+            // Halaman yang dilewati dan masih dimuat tetapi tidak lengkap (setelah penghapusan) dibuang
+            List<Book> loaded = pages.get(boundary.getKey());
+            if (loaded != null && !result.pages.containsKey(boundary.getKey())
+                    && (loaded.isEmpty() || loaded.get(loaded.size() - 1).getId() != boundary.getValue().getId())) {
+                unindex(pages.remove(boundary.getKey()));
+            }
+        }
+        boundaries.putAll(result.boundaries);
+        // Halaman yang diminta dimasukkan terakhir agar menjadi yang paling baru dipakai (LRU)
+        for (Map.Entry<Integer, List<Book>> page : result.pages.entrySet()) {
+            if (page.getKey() != requested) {
+                applyPage(page.getKey(), page.getValue());
+            }
+        }
+        List<Book> books = result.pages.get(requested);
+        if (books != null) {
+            applyPage(requested, books);
+        }
+    }
+
+    private void applyPage(int page, List<Book> books) {
+        unindex(pages.put(page, books));
+        reindex(page, books);
+
+        int firstRow = page * pageSize;
+        int loadedEnd = firstRow + books.size();
+        if (books.size() < pageSize && loadedEnd < rowCount) {
+            // Tabel ternyata lebih pendek dari hitungan awal (ada baris yang dihapus)
+            int oldCount = rowCount;
+            rowCount = loadedEnd;
+            fireTableRowsDeleted(rowCount, oldCount - 1);
+        }
+        if (page == 0) {
+            preview = null; // Digantikan halaman yang sebenarnya
+        }
+        if (loadedEnd > firstRow && rowCount > firstRow) {
+            fireTableRowsUpdated(firstRow, Math.min(loadedEnd, rowCount) - 1);
+        }
+        if (page == 0) {
+            reportIfLoaded();
+        }
+    }
+
+    private void reportIfLoaded() {
+        List<Book> firstPage = pages.get(0);
+        if (loadReported || !countLoaded || firstPage == null) {
+            return;
+        }
+        loadReported = true;
+        if (loadListener != null) {
+            loadListener.firstPageLoaded(rowCount, Collections.unmodifiableList(firstPage));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package view;
+
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.text.DecimalFormat;
+
+/**
+ * Renderer untuk kolom skor dan rating. Angka diformat hanya saat sel digambar,
+ * jadi hanya baris yang terlihat di layar yang diformat.
+ */
+class ScoreCellRenderer extends DefaultTableCellRenderer {
+    private static final long serialVersionUID = 1L;
+
+    private final DecimalFormat format;
+
+    ScoreCellRenderer(String pattern) {
+        this.format = new DecimalFormat(pattern);
+        setHorizontalAlignment(SwingConstants.RIGHT);
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        setText(value instanceof Number ? format.format(((Number) value).doubleValue()) : "");
+    }
+}